@@ -0,0 +1,40 @@
+package dev.akuniutka.bank.api.benchmark;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.util.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AccountBenchmark {
+    private final Money amount = Money.of(new BigDecimal("125.50"));
+    private Account account;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        account = new Account(1L, new BigDecimal("1000000.00"));
+    }
+
+    @Benchmark
+    public Account increaseAndDecreaseBalance() {
+        account.increaseBalance(amount);
+        account.decreaseBalance(amount);
+        return account;
+    }
+
+    @Benchmark
+    public Money getBalance() {
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public Account newAccount() {
+        return new Account(1L, amount);
+    }
+}
@@ -0,0 +1,34 @@
+package dev.akuniutka.bank.api.benchmark;
+
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.util.AmountValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AmountValidatorBenchmark {
+    @Param({"10", "125.50", "0.010", "0.001"})
+    private String value;
+    private BigDecimal amount;
+
+    @Setup
+    public void setUp() {
+        amount = new BigDecimal(value);
+    }
+
+    @Benchmark
+    public boolean assertAmount() {
+        try {
+            AmountValidator.assertAmount(amount);
+            return true;
+        } catch (WrongAmountException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package dev.akuniutka.bank.api.benchmark;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.util.ErrorMessage;
+import dev.akuniutka.bank.api.util.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+// Compares the balance arithmetic of Account with the BigDecimal implementation it replaced
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MoneyBenchmark {
+    private static final BigDecimal[] AMOUNTS = {
+            new BigDecimal("10"), new BigDecimal("0.01"), new BigDecimal("125.50"), new BigDecimal("3.1"),
+            new BigDecimal("99999.99"), new BigDecimal("0.010"), new BigDecimal("42"), new BigDecimal("7.25")
+    };
+    // Request amounts arrive already parsed into Money by the JSON deserializer
+    private static final Money[] MONEY_AMOUNTS = new Money[AMOUNTS.length];
+    static {
+        for (int i = 0; i < AMOUNTS.length; i++) {
+            MONEY_AMOUNTS[i] = Money.of(AMOUNTS[i]);
+        }
+    }
+    private BigDecimal bigDecimalBalance;
+    private Account account;
+    private int index;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        bigDecimalBalance = new BigDecimal("1000000.00");
+        account = new Account(1L, bigDecimalBalance);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalDepositAndWithdrawal() {
+        BigDecimal amount = nextAmount();
+        bigDecimalBalance = increase(bigDecimalBalance, amount);
+        bigDecimalBalance = decrease(bigDecimalBalance, amount);
+        return bigDecimalBalance;
+    }
+
+    @Benchmark
+    public Money moneyDepositAndWithdrawal() {
+        Money amount = nextMoneyAmount();
+        account.increaseBalance(amount);
+        account.decreaseBalance(amount);
+        return account.getBalance();
+    }
+
+    private BigDecimal nextAmount() {
+        index = (index + 1) & (AMOUNTS.length - 1);
+        return AMOUNTS[index];
+    }
+
+    private Money nextMoneyAmount() {
+        index = (index + 1) & (MONEY_AMOUNTS.length - 1);
+        return MONEY_AMOUNTS[index];
+    }
+
+    private static BigDecimal increase(BigDecimal balance, BigDecimal amount) {
+        assertAmount(amount);
+        return balance.add(amount.setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private static BigDecimal decrease(BigDecimal balance, BigDecimal amount) {
+        assertAmount(amount);
+        if (balance.compareTo(amount) < 0) {
+            throw new WrongAmountException(ErrorMessage.INSUFFICIENT_BALANCE);
+        }
+        return balance.subtract(amount.setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private static void assertAmount(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0
+                || amount.setScale(2, RoundingMode.HALF_UP).compareTo(amount) != 0) {
+            throw new WrongAmountException(ErrorMessage.WRONG_MINOR_UNITS);
+        }
+    }
+}
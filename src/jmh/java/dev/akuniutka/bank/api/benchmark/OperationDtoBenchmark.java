@@ -0,0 +1,66 @@
+package dev.akuniutka.bank.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import dev.akuniutka.bank.api.dto.OperationDto;
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialization uses an ObjectMapper with the defaults Spring Boot applies to the API's one
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OperationDtoBenchmark {
+    @Param({"1", "100", "1000"})
+    private int size;
+    private ObjectWriter operationListWriter;
+    private List<Operation> operations;
+    private List<OperationDto> dtoList;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        operationListWriter = objectMapper.writerFor(
+                objectMapper.getTypeFactory().constructCollectionType(List.class, OperationDto.class)
+        );
+        Account account = new Account(1L, new BigDecimal("1000.00"));
+        OperationType[] types = OperationType.values();
+        OffsetDateTime date = OffsetDateTime.now();
+        operations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            operations.add(new Operation((long) i, account, types[i % types.length],
+                    BigDecimal.valueOf(i + 1L, 2), date.plusSeconds(i)
+            ));
+        }
+        dtoList = toDtoList();
+    }
+
+    @Benchmark
+    public List<OperationDto> newOperationDtoList() {
+        return toDtoList();
+    }
+
+    @Benchmark
+    public byte[] writeOperationDtoList() throws Exception {
+        return operationListWriter.writeValueAsBytes(dtoList);
+    }
+
+    private List<OperationDto> toDtoList() {
+        List<OperationDto> result = new ArrayList<>(operations.size());
+        for (Operation operation : operations) {
+            result.add(new OperationDto(operation));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+package dev.akuniutka.bank.api.benchmark;
+
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.repository.OperationTypeConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Compares the lookup table of OperationType with the stream over OperationType.values() it replaced
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OperationTypeConverterBenchmark {
+    private final OperationTypeConverter converter = new OperationTypeConverter();
+    private String[] codes;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        OperationType[] types = OperationType.values();
+        codes = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            codes[i] = converter.convertToDatabaseColumn(types[i]);
+        }
+    }
+
+    @Benchmark
+    public OperationType convertToEntityAttribute() {
+        return converter.convertToEntityAttribute(nextCode());
+    }
+
+    @Benchmark
+    public OperationType streamLookup() {
+        String code = nextCode();
+        return Stream.of(OperationType.values())
+                .filter(t -> t.getCode().equals(code))
+                .findFirst()
+                .orElseThrow(IllegalArgumentException::new);
+    }
+
+    @Benchmark
+    public String convertToDatabaseColumn() {
+        return converter.convertToDatabaseColumn(OperationType.DEPOSIT);
+    }
+
+    private String nextCode() {
+        index = index + 1 == codes.length ? 0 : index + 1;
+        return codes[index];
+    }
+}
@@ -0,0 +1,30 @@
+package dev.akuniutka.bank.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import dev.akuniutka.bank.api.dto.ResponseDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ResponseDtoBenchmark {
+    private final ObjectWriter writer = Jackson2ObjectMapperBuilder.json().build().writerFor(ResponseDto.class);
+    private final ResponseDto balance = new ResponseDto(new BigDecimal("1000.00"));
+    private final ResponseDto error = new ResponseDto(BigDecimal.ZERO, "insufficient balance");
+
+    @Benchmark
+    public byte[] writeBalance() throws Exception {
+        return writer.writeValueAsBytes(balance);
+    }
+
+    @Benchmark
+    public byte[] writeError() throws Exception {
+        return writer.writeValueAsBytes(error);
+    }
+}
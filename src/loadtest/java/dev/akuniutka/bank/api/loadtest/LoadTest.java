@@ -0,0 +1,182 @@
+package dev.akuniutka.bank.api.loadtest;
+
+import dev.akuniutka.bank.api.BankApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Starts the application against a Testcontainers database, seeds accounts and sends requests at an open-model
+// arrival rate: request start times follow a Poisson process and do not wait for earlier responses
+public class LoadTest {
+    private final LoadTestSettings settings;
+    private final long[] accounts;
+    private final LoadTestOperation[] operations;
+    private final int[] cumulativeWeights;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadTest(LoadTestSettings settings, long[] accounts) {
+        if (accounts.length < 2) {
+            throw new IllegalArgumentException("at least two accounts are required");
+        }
+        if (settings.getRate() <= 0.0) {
+            throw new IllegalArgumentException("arrival rate must be positive");
+        }
+        this.settings = settings;
+        this.accounts = accounts;
+        operations = LoadTestOperation.values();
+        cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            Integer weight = settings.getMix().get(operations[i]);
+            sum += weight == null ? 0 : Math.max(0, weight);
+            cumulativeWeights[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("operation mix is empty");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestReport report = run(args, null);
+        System.exit(report.passed(System.out) ? 0 : 1);
+    }
+
+    // Starts a new application with the given arguments and tests it; reports are written to the given
+    // subdirectory of the report directory, if any
+    static LoadTestReport run(String[] args, String reportSubdir) throws IOException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BankApiApplication.class)
+                .profiles("loadtest")
+                .run(args);
+        try {
+            LoadTestSettings settings = Binder.get(context.getEnvironment())
+                    .bind("loadtest", LoadTestSettings.class)
+                    .orElseGet(LoadTestSettings::new);
+            if (reportSubdir != null) {
+                settings.setReportDir(Paths.get(settings.getReportDir(), reportSubdir).toString());
+            }
+            long[] accounts = seed(context.getBean(JdbcTemplate.class), settings);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            LoadTestReport report = new LoadTest(settings, accounts).run(baseUrl);
+            report.write(System.out);
+            return report;
+        } finally {
+            context.close();
+        }
+    }
+
+    public LoadTestReport run(String baseUrl) {
+        ConnectionProvider provider = ConnectionProvider.builder("loadtest")
+                .maxConnections(settings.getConnections())
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(settings.getDrainTimeout())
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+                .build();
+        LoadTestReport report = new LoadTestReport(settings);
+        try {
+            send(client, report);
+            drain();
+        } finally {
+            provider.disposeLater().block();
+        }
+        report.complete();
+        return report;
+    }
+
+    private void send(WebClient client, LoadTestReport report) {
+        Random random = new Random();
+        double meanInterval = 1_000_000_000.0 / settings.getRate();
+        long start = System.nanoTime();
+        long measureFrom = start + settings.getWarmup().toNanos();
+        long end = measureFrom + settings.getDuration().toNanos();
+        for (long next = start; next < end; next += (long) (-Math.log(1.0 - random.nextDouble()) * meanInterval)) {
+            long delay = next - System.nanoTime();
+            if (delay > 0L) {
+                LockSupport.parkNanos(delay);
+            }
+            LoadTestOperation operation = nextOperation(random);
+            boolean measured = next >= measureFrom;
+            if (inFlight.get() >= settings.getMaxInFlight()) {
+                if (measured) {
+                    report.drop(operation);
+                }
+                continue;
+            }
+            long scheduled = next;
+            int requests = inFlight.incrementAndGet();
+            if (measured) {
+                report.inFlight(requests);
+            }
+            operation.prepare(client, accounts, random)
+                    .exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()))
+                    .doFinally(signal -> inFlight.decrementAndGet())
+                    .subscribe(
+                            status -> {
+                                if (measured) {
+                                    report.record(operation, System.nanoTime() - scheduled, status < 300);
+                                }
+                            },
+                            e -> {
+                                if (measured) {
+                                    report.record(operation, System.nanoTime() - scheduled, false);
+                                }
+                            }
+                    );
+        }
+    }
+
+    private void drain() {
+        long deadline = System.nanoTime() + settings.getDrainTimeout().toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(Duration.ofMillis(10L).toNanos());
+        }
+    }
+
+    private LoadTestOperation nextOperation(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (cumulativeWeights[i] <= value) {
+            i++;
+        }
+        return operations[i];
+    }
+
+    // Accounts get IDs above the ones the sequences may have handed out, and each account gets a deposit operation,
+    // so that its operation list is not empty. The deposit is at position 0, as the initial balance already has it.
+    static long[] seed(JdbcTemplate jdbcTemplate, LoadTestSettings settings) {
+        Long base = jdbcTemplate.queryForObject("SELECT GREATEST("
+                + "(SELECT last_value FROM ACCOUNT_SEQUENCE), (SELECT COALESCE(MAX(ID), 0) FROM ACCOUNT), "
+                + "(SELECT last_value FROM OPERATION_SEQUENCE), (SELECT COALESCE(MAX(ID), 0) FROM OPERATION))",
+                Long.class
+        );
+        int count = settings.getAccounts();
+        jdbcTemplate.update("INSERT INTO ACCOUNT (ID, BALANCE) SELECT ? + I, ? FROM generate_series(1, ?) AS I",
+                base, settings.getInitialBalance(), count);
+        jdbcTemplate.update("INSERT INTO OPERATION (ID, ACCOUNT_ID, TYPE, AMOUNT, DATE, POSITION) "
+                        + "SELECT ? + I, ? + I, 'D', ?, LOCALTIMESTAMP, 0 FROM generate_series(1, ?) AS I",
+                base, base, settings.getInitialBalance(), count);
+        jdbcTemplate.queryForList("SELECT setval('ACCOUNT_SEQUENCE', ?), setval('OPERATION_SEQUENCE', ?)",
+                base + count, base + count);
+        List<Long> ids = jdbcTemplate.queryForList("SELECT ID FROM ACCOUNT WHERE ID > ? ORDER BY ID", Long.class, base);
+        long[] accounts = new long[ids.size()];
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i] = ids.get(i);
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,83 @@
+package dev.akuniutka.bank.api.loadtest;
+
+import dev.akuniutka.bank.api.dto.CashOrderDto;
+import dev.akuniutka.bank.api.dto.PaymentOrderDto;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+public enum LoadTestOperation {
+    GET_BALANCE("getBalance") {
+        @Override
+        WebClient.RequestHeadersSpec<?> request(WebClient client, long[] accounts, Random random) {
+            return client.get().uri("/getBalance/{userId}", anyOf(accounts, random));
+        }
+    },
+    PUT_MONEY("putMoney") {
+        @Override
+        WebClient.RequestHeadersSpec<?> request(WebClient client, long[] accounts, Random random) {
+            return client.put().uri("/putMoney").bodyValue(cashOrder(anyOf(accounts, random), random));
+        }
+    },
+    TAKE_MONEY("takeMoney") {
+        @Override
+        WebClient.RequestHeadersSpec<?> request(WebClient client, long[] accounts, Random random) {
+            return client.put().uri("/takeMoney").bodyValue(cashOrder(anyOf(accounts, random), random));
+        }
+    },
+    TRANSFER_MONEY("transferMoney") {
+        @Override
+        WebClient.RequestHeadersSpec<?> request(WebClient client, long[] accounts, Random random) {
+            int sender = random.nextInt(accounts.length);
+            int receiver = random.nextInt(accounts.length - 1);
+            if (receiver >= sender) {
+                receiver++;
+            }
+            PaymentOrderDto order = new PaymentOrderDto();
+            order.setUserId(accounts[sender]);
+            order.setReceiverId(accounts[receiver]);
+            order.setAmount(amount(random));
+            return client.put().uri("/transferMoney").bodyValue(order);
+        }
+    },
+    GET_OPERATION_LIST("getOperationList") {
+        @Override
+        WebClient.RequestHeadersSpec<?> request(WebClient client, long[] accounts, Random random) {
+            return client.get().uri("/getOperationList/{userId}", anyOf(accounts, random));
+        }
+    };
+
+    private final String endpoint;
+
+    LoadTestOperation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    WebClient.RequestHeadersSpec<?> prepare(WebClient client, long[] accounts, Random random) {
+        return request(client, accounts, random).accept(MediaType.APPLICATION_JSON);
+    }
+
+    abstract WebClient.RequestHeadersSpec<?> request(WebClient client, long[] accounts, Random random);
+
+    private static long anyOf(long[] accounts, Random random) {
+        return accounts[random.nextInt(accounts.length)];
+    }
+
+    private static CashOrderDto cashOrder(long userId, Random random) {
+        CashOrderDto order = new CashOrderDto();
+        order.setUserId(userId);
+        order.setAmount(amount(random));
+        return order;
+    }
+
+    // From 0.01 to 100.00
+    private static BigDecimal amount(Random random) {
+        return BigDecimal.valueOf(1L + random.nextInt(10000), 2);
+    }
+}
@@ -0,0 +1,148 @@
+package dev.akuniutka.bank.api.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LoadTestReport {
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final String TOTAL = "total";
+    private final LoadTestSettings settings;
+    private final Map<LoadTestOperation, Recorder> latencies = new EnumMap<>(LoadTestOperation.class);
+    private final Map<LoadTestOperation, LongAdder> errors = new EnumMap<>(LoadTestOperation.class);
+    private final Map<LoadTestOperation, LongAdder> dropped = new EnumMap<>(LoadTestOperation.class);
+    private final Map<LoadTestOperation, Histogram> histograms = new EnumMap<>(LoadTestOperation.class);
+    private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+    private final LongAccumulator peakInFlight = new LongAccumulator(Math::max, 0L);
+
+    public LoadTestReport(LoadTestSettings settings) {
+        this.settings = settings;
+        for (LoadTestOperation operation : LoadTestOperation.values()) {
+            latencies.put(operation, new Recorder(SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+            dropped.put(operation, new LongAdder());
+        }
+    }
+
+    // Latency is counted from the moment the request was scheduled to be sent, not from the moment it was sent,
+    // so queueing in the client under overload is reported instead of hidden
+    public void record(LoadTestOperation operation, long latencyNanos, boolean success) {
+        latencies.get(operation).recordValue(latencyNanos);
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    public void drop(LoadTestOperation operation) {
+        dropped.get(operation).increment();
+    }
+
+    // Requests sent and not yet answered, which is the concurrency the application has to take
+    public void inFlight(int requests) {
+        peakInFlight.accumulate(requests);
+    }
+
+    public void complete() {
+        for (LoadTestOperation operation : LoadTestOperation.values()) {
+            Histogram histogram = latencies.get(operation).getIntervalHistogram();
+            histograms.put(operation, histogram);
+            total.add(histogram);
+        }
+    }
+
+    public void write(PrintStream out) throws IOException {
+        Path directory = Paths.get(settings.getReportDir());
+        Files.createDirectories(directory);
+        try (PrintStream report = new PrintStream(Files.newOutputStream(directory.resolve("report.txt")))) {
+            print(report);
+        }
+        for (LoadTestOperation operation : LoadTestOperation.values()) {
+            writeDistribution(directory.resolve(operation.getEndpoint() + ".hgrm"), histograms.get(operation));
+        }
+        writeDistribution(directory.resolve(TOTAL + ".hgrm"), total);
+        print(out);
+        out.println("Reports written to " + directory.toAbsolutePath());
+    }
+
+    public boolean passed(PrintStream out) {
+        boolean passed = true;
+        if (settings.getMaxP99() != null && total.getValueAtPercentile(99.0) > settings.getMaxP99().toNanos()) {
+            out.printf("FAILED: p99 latency %.3f ms exceeds %s%n", millis(total.getValueAtPercentile(99.0)),
+                    settings.getMaxP99());
+            passed = false;
+        }
+        long requests = total.getTotalCount() + sum(dropped);
+        double errorRate = requests == 0L ? 0.0 : (double) (sum(errors) + sum(dropped)) / requests;
+        if (settings.getMaxErrorRate() != null && errorRate > settings.getMaxErrorRate()) {
+            out.printf("FAILED: error rate %.4f exceeds %.4f%n", errorRate, settings.getMaxErrorRate());
+            passed = false;
+        }
+        return passed;
+    }
+
+    private void print(PrintStream out) {
+        double seconds = settings.getDuration().toNanos() / 1_000_000_000.0;
+        out.printf("Offered load %.1f req/s for %s after %s warmup, %d accounts, %d connections%n",
+                settings.getRate(), settings.getDuration(), settings.getWarmup(), settings.getAccounts(),
+                settings.getConnections());
+        printHeader(out, "operation");
+        for (LoadTestOperation operation : LoadTestOperation.values()) {
+            printLine(out, operation.getEndpoint(), histograms.get(operation), errors.get(operation).sum(),
+                    dropped.get(operation).sum(), seconds);
+        }
+        printLine(out, TOTAL, total, sum(errors), sum(dropped), seconds);
+        out.printf("Peak requests in flight %d%n", peakInFlight.get());
+    }
+
+    // One line of a comparison of runs: totals of the run under the given name
+    public void printSummary(PrintStream out, String name) {
+        double seconds = settings.getDuration().toNanos() / 1_000_000_000.0;
+        printLine(out, name, total, sum(errors), sum(dropped), seconds);
+    }
+
+    public long getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    static void printHeader(PrintStream out, String name) {
+        out.printf("%-18s %10s %8s %8s %10s %9s %9s %9s %9s %9s%n", name, "requests", "errors", "dropped",
+                "req/s", "p50, ms", "p90, ms", "p99, ms", "p99.9, ms", "max, ms");
+    }
+
+    private static void printLine(PrintStream out, String name, Histogram histogram, long errors, long dropped,
+                                  double seconds) {
+        out.printf("%-18s %10d %8d %8d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f%n", name, histogram.getTotalCount(),
+                errors, dropped, (histogram.getTotalCount() - errors) / seconds,
+                millis(histogram.getValueAtPercentile(50.0)), millis(histogram.getValueAtPercentile(90.0)),
+                millis(histogram.getValueAtPercentile(99.0)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+
+    private static long sum(Map<LoadTestOperation, LongAdder> counters) {
+        long sum = 0L;
+        for (LongAdder counter : counters.values()) {
+            sum += counter.sum();
+        }
+        return sum;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,121 @@
+package dev.akuniutka.bank.api.loadtest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class LoadTestSettings {
+    private int accounts = 1000;
+    private BigDecimal initialBalance = new BigDecimal("1000000.00");
+    private double rate = 200.0;
+    private Duration warmup = Duration.ofSeconds(10L);
+    private Duration duration = Duration.ofSeconds(60L);
+    private Duration drainTimeout = Duration.ofSeconds(30L);
+    private int connections = 200;
+    private int maxInFlight = 10000;
+    private final Map<LoadTestOperation, Integer> mix = new EnumMap<>(LoadTestOperation.class);
+    private String reportDir = "target/loadtest";
+    private Duration maxP99;
+    private Double maxErrorRate;
+
+    public LoadTestSettings() {
+        mix.put(LoadTestOperation.GET_BALANCE, 40);
+        mix.put(LoadTestOperation.PUT_MONEY, 15);
+        mix.put(LoadTestOperation.TAKE_MONEY, 15);
+        mix.put(LoadTestOperation.TRANSFER_MONEY, 20);
+        mix.put(LoadTestOperation.GET_OPERATION_LIST, 10);
+    }
+
+    public int getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(int accounts) {
+        this.accounts = accounts;
+    }
+
+    public BigDecimal getInitialBalance() {
+        return initialBalance;
+    }
+
+    public void setInitialBalance(BigDecimal initialBalance) {
+        this.initialBalance = initialBalance;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(Duration warmup) {
+        this.warmup = warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Duration duration) {
+        this.duration = duration;
+    }
+
+    public Duration getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    public void setDrainTimeout(Duration drainTimeout) {
+        this.drainTimeout = drainTimeout;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public void setConnections(int connections) {
+        this.connections = connections;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Map<LoadTestOperation, Integer> getMix() {
+        return mix;
+    }
+
+    public String getReportDir() {
+        return reportDir;
+    }
+
+    public void setReportDir(String reportDir) {
+        this.reportDir = reportDir;
+    }
+
+    public Duration getMaxP99() {
+        return maxP99;
+    }
+
+    public void setMaxP99(Duration maxP99) {
+        this.maxP99 = maxP99;
+    }
+
+    public Double getMaxErrorRate() {
+        return maxErrorRate;
+    }
+
+    public void setMaxErrorRate(Double maxErrorRate) {
+        this.maxErrorRate = maxErrorRate;
+    }
+}
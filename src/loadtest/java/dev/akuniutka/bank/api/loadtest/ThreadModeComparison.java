@@ -0,0 +1,33 @@
+package dev.akuniutka.bank.api.loadtest;
+
+import java.util.Arrays;
+
+// Runs the load test twice with the same settings and connection pool, first with requests on Tomcat's thread pool
+// and then on virtual threads, and prints the totals of both runs. Tomcat's pool limits the number of requests
+// in progress, so to see the difference the load should keep more requests in flight than server.tomcat.threads.max,
+// e.g. with few accounts, so that requests wait for each other's locks.
+public class ThreadModeComparison {
+    private static final String VIRTUAL_THREADS = "--bank.server.virtual-threads.enabled=";
+    private static final String[] MODES = {"platform", "virtual"};
+
+    public static void main(String[] args) throws Exception {
+        LoadTestReport[] reports = new LoadTestReport[MODES.length];
+        for (int i = 0; i < MODES.length; i++) {
+            String[] modeArgs = Arrays.copyOf(args, args.length + 1);
+            modeArgs[args.length] = VIRTUAL_THREADS + (i > 0);
+            reports[i] = LoadTest.run(modeArgs, MODES[i]);
+        }
+        LoadTestReport.printHeader(System.out, "threads");
+        for (int i = 0; i < MODES.length; i++) {
+            reports[i].printSummary(System.out, MODES[i]);
+        }
+        for (int i = 0; i < MODES.length; i++) {
+            System.out.printf("Peak requests in flight with %s threads %d%n", MODES[i], reports[i].getPeakInFlight());
+        }
+        boolean passed = true;
+        for (LoadTestReport report : reports) {
+            passed &= report.passed(System.out);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+}
@@ -0,0 +1,86 @@
+package dev.akuniutka.bank.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Balances are written through only by this instance, so the cache is off by default: with several instances
+// a balance changed by another one is served stale until its entry expires
+@Component
+public class BalanceCache {
+    static final String CACHE_NAME = "balances";
+    private final boolean enabled;
+    private final AtomicLong generations = new AtomicLong();
+    private final Cache<Long, CachedBalance> cache;
+
+    public BalanceCache(MeterRegistry registry,
+                        @Value("${bank.account.balance-cache.enabled:false}") boolean enabled,
+                        @Value("${bank.account.balance-cache.max-size:100000}") long maxSize,
+                        @Value("${bank.account.balance-cache.expire-after-write:10s}") Duration expireAfterWrite) {
+        this.enabled = enabled;
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    // A loaded balance may be read before a concurrent update commits, so it is always replaced
+    // by the update's write-through; the load holds the entry lock, so the write-through never runs before it
+    public BigDecimal get(Long userId, Function<Long, BigDecimal> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+        return cache.get(userId, id -> new CachedBalance(loader.apply(id), Long.MIN_VALUE)).balance;
+    }
+
+    // Must be called while the account row is still locked, so that generations of one account
+    // follow the commit order of its updates and a delayed write-through never overwrites a newer one
+    public void putAfterCommit(Long userId, BigDecimal balance) {
+        if (!enabled) {
+            return;
+        }
+        long generation = generations.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(userId, balance, generation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(userId, balance, generation);
+            }
+        });
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    private void put(Long userId, BigDecimal balance, long generation) {
+        cache.asMap().compute(userId, (id, cached) ->
+                cached == null || cached.generation < generation ? new CachedBalance(balance, generation) : cached
+        );
+    }
+
+    private static class CachedBalance {
+        private final BigDecimal balance;
+        private final long generation;
+
+        CachedBalance(BigDecimal balance, long generation) {
+            this.balance = balance;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package dev.akuniutka.bank.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class IdempotencyCache {
+    static final String CACHE_NAME = "idempotency-keys";
+    private final Cache<String, StoredResponse> cache;
+
+    public IdempotencyCache(MeterRegistry registry,
+                            @Value("${bank.idempotency.cache.max-size:100000}") long maxSize,
+                            @Value("${bank.idempotency.ttl:24h}") Duration ttl) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    public StoredResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, StoredResponse response) {
+        cache.put(key, response);
+    }
+}
@@ -0,0 +1,206 @@
+package dev.akuniutka.bank.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import dev.akuniutka.bank.api.entity.Operation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+public class OperationHistoryCache {
+    static final String CACHE_NAME = "operations";
+    private static final Comparator<Operation> ORDER = Comparator.comparing(Operation::getDate)
+            .thenComparing(Operation::getId);
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxOperationsPerAccount;
+    private final Cache<Long, History> cache;
+
+    public OperationHistoryCache(MeterRegistry registry,
+                                 @Value("${bank.operation.history-cache.enabled:false}") boolean enabled,
+                                 @Value("${bank.operation.history-cache.window:7d}") Duration window,
+                                 @Value("${bank.operation.history-cache.max-operations-per-account:10000}")
+                                 int maxOperationsPerAccount,
+                                 @Value("${bank.operation.history-cache.max-operations:1000000}") long maxOperations,
+                                 @Value("${bank.operation.history-cache.expire-after-load:30s}") Duration expireAfterLoad) {
+        this.enabled = enabled;
+        this.window = window;
+        this.maxOperationsPerAccount = maxOperationsPerAccount;
+        long ttl = expireAfterLoad.toNanos();
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxOperations)
+                .<Long, History>weigher((userId, history) -> Math.max(1, history.size))
+                .expireAfter(new Expiry<Long, History>() {
+                    @Override
+                    public long expireAfterCreate(Long userId, History history, long currentTime) {
+                        return ttl;
+                    }
+
+                    // Appends keep the load time, so changes made by other instances are picked up on reload
+                    @Override
+                    public long expireAfterUpdate(Long userId, History history, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long userId, History history, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Only the recent window of a history is cached: the loader gets the window start and must return the live
+    // operations made at or after it ordered by date and id. Returns null when the cache is disabled or the range
+    // starts before the cached window, so the caller has to query the database.
+    public List<Operation> get(Long userId, OffsetDateTime dateFrom, OffsetDateTime dateTo,
+                               Function<OffsetDateTime, List<Operation>> loader) {
+        if (!enabled || dateFrom == null || dateFrom.isBefore(OffsetDateTime.now().minus(window))) {
+            return null;
+        }
+        History history = cache.get(userId, id -> load(loader));
+        if (dateFrom.isBefore(history.windowStart)) {
+            return null;
+        }
+        int start = indexOf(history, dateFrom);
+        int finish = dateTo == null ? history.size : indexOf(history, dateTo);
+        if (start >= finish) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(history.operations).subList(start, finish));
+    }
+
+    public void appendAfterCommit(Operation operation) {
+        if (!enabled) {
+            return;
+        }
+        Long userId = operation.getAccount().getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(userId, operation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(userId, operation);
+            }
+        });
+    }
+
+    public void invalidateAfterCommit(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(userId);
+            }
+        });
+    }
+
+    // A window with more operations than an account may keep is cut to its newest operations,
+    // moving the window start to the earliest date that is still complete
+    private History load(Function<OffsetDateTime, List<Operation>> loader) {
+        OffsetDateTime windowStart = OffsetDateTime.now().minus(window);
+        Operation[] operations = loader.apply(windowStart).toArray(new Operation[0]);
+        int from = Math.max(0, operations.length - maxOperationsPerAccount);
+        if (from > 0) {
+            windowStart = operations[from].getDate();
+            while (from > 0 && !operations[from - 1].getDate().isBefore(windowStart)) {
+                from--;
+            }
+            operations = Arrays.copyOfRange(operations, from, operations.length);
+        }
+        return new History(windowStart, operations, operations.length);
+    }
+
+    // A history that is not cached is left alone: the next load reads the operation from the database.
+    // A load that has already seen the committed operation makes the append a no-op.
+    private void append(Long userId, Operation operation) {
+        cache.asMap().computeIfPresent(userId, (id, history) -> {
+            if (operation.getDate().isBefore(history.windowStart)) {
+                return history;
+            }
+            int index = Arrays.binarySearch(history.operations, 0, history.size, operation, ORDER);
+            if (index >= 0) {
+                return history;
+            }
+            index = -index - 1;
+            // A loaded copy may differ from the saved operation in sub-microsecond precision of its date only,
+            // which keeps it next to the insertion point
+            if (index > 0 && history.operations[index - 1].getId().equals(operation.getId())
+                    || index < history.size && history.operations[index].getId().equals(operation.getId())) {
+                return history;
+            }
+            return history.insert(index, operation);
+        });
+    }
+
+    // Index of the first operation made at or after the date
+    private static int indexOf(History history, OffsetDateTime date) {
+        int low = 0;
+        int high = history.size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (history.operations[middle].getDate().isBefore(date)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Readers only see the first size elements of the array, so an operation made after the newest one is
+    // written into the spare capacity and published as a new history sharing the array. The array is copied
+    // only when it is full or an operation arrives out of order.
+    private static class History {
+        private final OffsetDateTime windowStart;
+        private final Operation[] operations;
+        private final int size;
+
+        private History(OffsetDateTime windowStart, Operation[] operations, int size) {
+            this.windowStart = windowStart;
+            this.operations = operations;
+            this.size = size;
+        }
+
+        private History insert(int index, Operation operation) {
+            if (index == size && size < operations.length) {
+                operations[size] = operation;
+                return new History(windowStart, operations, size + 1);
+            }
+            Operation[] inserted = new Operation[Math.max(size + 1, size + (size >> 1))];
+            System.arraycopy(operations, 0, inserted, 0, index);
+            inserted[index] = operation;
+            System.arraycopy(operations, index, inserted, index + 1, size - index);
+            return new History(windowStart, inserted, size + 1);
+        }
+    }
+}
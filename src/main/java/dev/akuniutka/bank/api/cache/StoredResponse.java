@@ -0,0 +1,22 @@
+package dev.akuniutka.bank.api.cache;
+
+import dev.akuniutka.bank.api.dto.ResponseDto;
+
+// Response to a request made with an idempotency key, together with the request it was made for
+public class StoredResponse {
+    private final String request;
+    private final ResponseDto response;
+
+    public StoredResponse(String request, ResponseDto response) {
+        this.request = request;
+        this.response = response;
+    }
+
+    public String getRequest() {
+        return request;
+    }
+
+    public ResponseDto getResponse() {
+        return response;
+    }
+}
@@ -0,0 +1,19 @@
+package dev.akuniutka.bank.api.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveDataConfig {
+    @Bean
+    public TransactionalOperator transactionalOperator(ConnectionFactory connectionFactory) {
+        // The R2DBC transaction manager is kept out of the context, so that it does not replace
+        // the JPA transaction manager, which Flyway and the JPA services still rely on
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
@@ -0,0 +1,49 @@
+package dev.akuniutka.bank.api.config;
+
+import dev.akuniutka.bank.api.util.ErrorMessage;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Tomcat runs every request, together with the transactions it makes, on a new virtual thread instead of a thread
+// from its pool. The concurrency is limited by server.tomcat.max-connections and the connection pool then.
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "bank.server.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    static final String PARALLELISM = "jdk.virtualThreadScheduler.parallelism";
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadExecutorCustomizer(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        setDefaultParallelism(poolSize);
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    // The JDBC driver blocks on the socket inside synchronized methods, which pins a virtual thread to its carrier.
+    // At most one thread per pooled connection is in the driver, so carriers are added for them to keep
+    // the other virtual threads running. Takes effect only before the first virtual thread is started.
+    static void setDefaultParallelism(int poolSize) {
+        if (System.getProperty(PARALLELISM) == null) {
+            System.setProperty(PARALLELISM,
+                    String.valueOf(poolSize + Runtime.getRuntime().availableProcessors()));
+        }
+    }
+
+    // Looked up by reflection as the application is built for Java 8; fails on start-up before Java 21
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            throw new IllegalStateException(ErrorMessage.VIRTUAL_THREADS_NOT_SUPPORTED, e);
+        }
+    }
+}
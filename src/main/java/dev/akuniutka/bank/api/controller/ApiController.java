@@ -2,16 +2,21 @@ package dev.akuniutka.bank.api.controller;
 
 import dev.akuniutka.bank.api.dto.CashOrderDto;
 import dev.akuniutka.bank.api.dto.OperationDto;
+import dev.akuniutka.bank.api.dto.OperationPageDto;
 import dev.akuniutka.bank.api.dto.PaymentOrderDto;
 import dev.akuniutka.bank.api.dto.ResponseDto;
+import dev.akuniutka.bank.api.exception.BadRequestException;
 import dev.akuniutka.bank.api.exception.OperationsNotFoundException;
 import dev.akuniutka.bank.api.exception.UserNotFoundException;
 import dev.akuniutka.bank.api.exception.UserNotFoundToGetBalanceException;
 import dev.akuniutka.bank.api.service.AccountService;
+import dev.akuniutka.bank.api.service.IdempotencyService;
 import dev.akuniutka.bank.api.service.OperationService;
 import dev.akuniutka.bank.api.service.TransferService;
 import dev.akuniutka.bank.api.util.ErrorMessage;
+import dev.akuniutka.bank.api.util.OperationCursor;
 import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.context.annotation.Profile;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,22 +24,32 @@ import java.math.BigDecimal;
 import java.time.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
+@Profile("!reactive")
 public class ApiController {
     private static final ZoneOffset OFFSET = ZoneId.systemDefault().getRules().getOffset(LocalDateTime.now());
     private static final ResponseDto OK = new ResponseDto(BigDecimal.ONE);
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 100000;
+    private static final int TRANSFER_CHUNK_SIZE = 500;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
     private final AccountService accountService;
     private final OperationService operationService;
     private final TransferService transferService;
+    private final IdempotencyService idempotencyService;
 
     public ApiController(AccountService accountService,
                          OperationService operationService,
-                         TransferService transferService
+                         TransferService transferService,
+                         IdempotencyService idempotencyService
     ) {
         this.accountService = accountService;
         this.operationService = operationService;
         this.transferService = transferService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping("/getBalance/{userId}")
@@ -49,23 +64,48 @@ public class ApiController {
 
     @PutMapping("/putMoney")
     @Operation(summary = "Put money to user's account")
-    public ResponseDto putMoney(@RequestBody CashOrderDto order) {
-        operationService.createDeposit(order.getUserId(), order.getAmount());
-        return OK;
+    public ResponseDto putMoney(@RequestBody CashOrderDto order,
+                                @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotent(idempotencyKey, () -> {
+            operationService.createDeposit(order.getUserId(), order.getAmount());
+            return OK;
+        }, "putMoney", order.getUserId(), order.getAmount());
     }
 
     @PutMapping("/takeMoney")
     @Operation(summary = "Take money from user's account")
-    public ResponseDto takeMoney(@RequestBody CashOrderDto order) {
-        operationService.createWithdrawal(order.getUserId(), order.getAmount());
-        return OK;
+    public ResponseDto takeMoney(@RequestBody CashOrderDto order,
+                                 @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotent(idempotencyKey, () -> {
+            operationService.createWithdrawal(order.getUserId(), order.getAmount());
+            return OK;
+        }, "takeMoney", order.getUserId(), order.getAmount());
     }
 
     @PutMapping("/transferMoney")
     @Operation(summary = "Transfer money from user's account to receiver's account")
-    public ResponseDto transferMoney(@RequestBody PaymentOrderDto order) {
-        transferService.createTransfer(order.getUserId(), order.getReceiverId(), order.getAmount());
-        return OK;
+    public ResponseDto transferMoney(@RequestBody PaymentOrderDto order,
+                                     @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotent(idempotencyKey, () -> {
+            transferService.createTransfer(order.getUserId(), order.getReceiverId(), order.getAmount());
+            return OK;
+        }, "transferMoney", order.getUserId(), order.getReceiverId(), order.getAmount());
+    }
+
+    @PutMapping("/transferMoneyBatch")
+    @Operation(summary = "Transfer money for a list of payment orders")
+    public List<ResponseDto> transferMoneyBatch(@RequestBody List<PaymentOrderDto> orders) {
+        if (orders.isEmpty() || orders.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException(ErrorMessage.WRONG_BATCH_SIZE);
+        }
+        List<ResponseDto> results = new ArrayList<>(orders.size());
+        for (int from = 0; from < orders.size(); from += TRANSFER_CHUNK_SIZE) {
+            int to = Math.min(from + TRANSFER_CHUNK_SIZE, orders.size());
+            for (String error : transferService.createTransfers(orders.subList(from, to))) {
+                results.add(error == null ? OK : new ResponseDto(BigDecimal.ZERO, error));
+            }
+        }
+        return results;
     }
 
     @GetMapping("/getOperationList/{userId}")
@@ -76,14 +116,59 @@ public class ApiController {
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dateTo
     ) {
         List<dev.akuniutka.bank.api.entity.Operation> operations = operationService.getUserOperations(
-                userId,
-                dateFrom == null ? null : OffsetDateTime.of(dateFrom, LocalTime.MIDNIGHT, OFFSET),
-                dateTo == null ? null : OffsetDateTime.of(dateTo, LocalTime.MIDNIGHT, OFFSET)
+                userId, toDateTime(dateFrom), toDateTime(dateTo)
         );
         if (operations.isEmpty()) {
             throw new OperationsNotFoundException(ErrorMessage.OPERATIONS_NOT_FOUND);
         }
-        List<OperationDto> dtoList = new ArrayList<>();
+        return toDtoList(operations);
+    }
+
+    @GetMapping("/getOperationPage/{userId}")
+    @Operation(summary = "Get a page of operations for a selected user (all or for specified period)")
+    public OperationPageDto getOperationPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dateTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException(ErrorMessage.WRONG_PAGE_SIZE);
+        }
+        List<dev.akuniutka.bank.api.entity.Operation> operations = operationService.getUserOperations(
+                userId,
+                toDateTime(dateFrom),
+                toDateTime(dateTo),
+                cursor == null ? null : OperationCursor.decode(cursor),
+                pageSize + 1
+        );
+        if (operations.isEmpty() && cursor == null) {
+            throw new OperationsNotFoundException(ErrorMessage.OPERATIONS_NOT_FOUND);
+        }
+        String nextCursor = null;
+        if (operations.size() > pageSize) {
+            operations = operations.subList(0, pageSize);
+            nextCursor = OperationCursor.of(operations.get(pageSize - 1)).encode();
+        }
+        return new OperationPageDto(toDtoList(operations), nextCursor);
+    }
+
+    // Requests without a key are made as they are, with no lookup
+    private ResponseDto idempotent(String idempotencyKey, Supplier<ResponseDto> action, Object... request) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        return idempotencyService.execute(idempotencyKey, IdempotencyService.fingerprint(request), action);
+    }
+
+    private OffsetDateTime toDateTime(LocalDate date) {
+        return date == null ? null : OffsetDateTime.of(date, LocalTime.MIDNIGHT, OFFSET);
+    }
+
+    private List<OperationDto> toDtoList(List<dev.akuniutka.bank.api.entity.Operation> operations) {
+        List<OperationDto> dtoList = new ArrayList<>(operations.size());
         for (dev.akuniutka.bank.api.entity.Operation operation : operations) {
             dtoList.add(new OperationDto(operation));
         }
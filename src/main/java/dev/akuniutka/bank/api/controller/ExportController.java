@@ -0,0 +1,65 @@
+package dev.akuniutka.bank.api.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.akuniutka.bank.api.dto.OperationDto;
+import dev.akuniutka.bank.api.service.OperationExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@RestController
+@Profile("!reactive")
+public class ExportController {
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final int FLUSH_INTERVAL = 500;
+    private final OperationExportService exportService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+
+    public ExportController(OperationExportService exportService, ObjectMapper objectMapper) {
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writerFor(OperationDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @GetMapping("/exportOperationList/{userId}")
+    @Operation(summary = "Export the whole list of operations for a selected user as newline-delimited JSON")
+    public void exportOperationList(@PathVariable Long userId, HttpServletResponse response) throws IOException {
+        // nothing is written before the first operation, so errors are still handled as usual JSON responses
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.setRootValueSeparator(null);
+        long[] count = {0L};
+        try {
+            exportService.exportUserOperations(userId, operation -> {
+                try {
+                    if (count[0] == 0L) {
+                        response.setContentType(APPLICATION_NDJSON_VALUE);
+                    }
+                    writer.writeValue(generator, new OperationDto(operation));
+                    generator.writeRaw('\n');
+                    if (count[0]++ % FLUSH_INTERVAL == 0L) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (count[0] == 0L) {
+            response.setContentType(APPLICATION_NDJSON_VALUE);
+        }
+        generator.close();
+    }
+}
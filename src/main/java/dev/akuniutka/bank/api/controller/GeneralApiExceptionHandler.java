@@ -5,7 +5,10 @@ import dev.akuniutka.bank.api.exception.BadRequestException;
 import dev.akuniutka.bank.api.exception.OperationsNotFoundException;
 import dev.akuniutka.bank.api.exception.UserNotFoundException;
 import dev.akuniutka.bank.api.exception.UserNotFoundToGetBalanceException;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -13,6 +16,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.math.BigDecimal;
 
 @RestControllerAdvice
+@Profile("!reactive")
 public class GeneralApiExceptionHandler {
     @ExceptionHandler(UserNotFoundToGetBalanceException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
@@ -37,4 +41,15 @@ public class GeneralApiExceptionHandler {
     public ResponseDto catchBadRequestException(BadRequestException e) {
         return new ResponseDto(BigDecimal.ZERO, e.getMessage());
     }
+
+    // Amounts are parsed into Money while the body is read, so their errors arrive wrapped in a parse error
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseDto catchHttpMessageNotReadableException(HttpMessageNotReadableException e) {
+        Throwable cause = e.getMostSpecificCause();
+        if (cause instanceof WrongAmountException) {
+            return new ResponseDto(BigDecimal.ZERO, cause.getMessage());
+        }
+        throw e;
+    }
 }
@@ -0,0 +1,135 @@
+package dev.akuniutka.bank.api.controller;
+
+import dev.akuniutka.bank.api.dto.CashOrderDto;
+import dev.akuniutka.bank.api.dto.OperationDto;
+import dev.akuniutka.bank.api.dto.PaymentOrderDto;
+import dev.akuniutka.bank.api.dto.ResponseDto;
+import dev.akuniutka.bank.api.exception.BadRequestException;
+import dev.akuniutka.bank.api.exception.OperationsNotFoundException;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.service.ReactiveAccountService;
+import dev.akuniutka.bank.api.service.ReactiveOperationService;
+import dev.akuniutka.bank.api.service.ReactiveTransferService;
+import dev.akuniutka.bank.api.util.ErrorMessage;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+@Component
+@Profile("reactive")
+public class ReactiveApiHandler {
+    private static final ZoneOffset OFFSET = ZoneId.systemDefault().getRules().getOffset(LocalDateTime.now());
+    private static final ResponseDto OK = new ResponseDto(BigDecimal.ONE);
+    private final ReactiveAccountService accountService;
+    private final ReactiveOperationService operationService;
+    private final ReactiveTransferService transferService;
+
+    public ReactiveApiHandler(ReactiveAccountService accountService,
+                              ReactiveOperationService operationService,
+                              ReactiveTransferService transferService
+    ) {
+        this.accountService = accountService;
+        this.operationService = operationService;
+        this.transferService = transferService;
+    }
+
+    public Mono<ServerResponse> getBalance(ServerRequest request) {
+        return Mono.fromCallable(() -> getUserId(request))
+                .flatMap(accountService::getUserBalance)
+                .flatMap(balance -> respond(HttpStatus.OK, new ResponseDto(balance)))
+                .onErrorResume(UserNotFoundException.class,
+                        e -> respond(HttpStatus.NOT_FOUND, new ResponseDto(BigDecimal.ONE.negate(), e.getMessage()))
+                )
+                .onErrorResume(this::handleError);
+    }
+
+    public Mono<ServerResponse> putMoney(ServerRequest request) {
+        return getBody(request, CashOrderDto.class)
+                .flatMap(order -> operationService.createDeposit(order.getUserId(), order.getAmount()))
+                .then(respond(HttpStatus.OK, OK))
+                .onErrorResume(this::handleError);
+    }
+
+    public Mono<ServerResponse> takeMoney(ServerRequest request) {
+        return getBody(request, CashOrderDto.class)
+                .flatMap(order -> operationService.createWithdrawal(order.getUserId(), order.getAmount()))
+                .then(respond(HttpStatus.OK, OK))
+                .onErrorResume(this::handleError);
+    }
+
+    public Mono<ServerResponse> transferMoney(ServerRequest request) {
+        return getBody(request, PaymentOrderDto.class)
+                .flatMap(order -> transferService.createTransfer(
+                        order.getUserId(), order.getReceiverId(), order.getAmount()
+                ))
+                .then(respond(HttpStatus.OK, OK))
+                .onErrorResume(this::handleError);
+    }
+
+    public Mono<ServerResponse> getOperationList(ServerRequest request) {
+        return Mono.fromCallable(() -> getUserId(request))
+                .flatMapMany(userId -> operationService.getUserOperations(
+                        userId, getDate(request, "dateFrom"), getDate(request, "dateTo")
+                ))
+                .map(OperationDto::new)
+                .collectList()
+                .flatMap(operations -> operations.isEmpty()
+                        ? Mono.error(new OperationsNotFoundException(ErrorMessage.OPERATIONS_NOT_FOUND))
+                        : ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(operations)
+                )
+                .onErrorResume(this::handleError);
+    }
+
+    private Long getUserId(ServerRequest request) {
+        try {
+            return Long.valueOf(request.pathVariable("userId"));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(ErrorMessage.WRONG_USER_ID);
+        }
+    }
+
+    private OffsetDateTime getDate(ServerRequest request, String name) {
+        Optional<String> value = request.queryParam(name).filter(s -> !s.isEmpty());
+        if (!value.isPresent()) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.of(LocalDate.parse(value.get()), LocalTime.MIDNIGHT, OFFSET);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(ErrorMessage.WRONG_DATE);
+        }
+    }
+
+    private <T> Mono<T> getBody(ServerRequest request, Class<T> type) {
+        return request.bodyToMono(type)
+                .onErrorMap(ServerWebInputException.class, e -> e.getMostSpecificCause() instanceof WrongAmountException
+                        ? e.getMostSpecificCause()
+                        : new BadRequestException(ErrorMessage.WRONG_REQUEST_BODY)
+                )
+                .switchIfEmpty(Mono.error(() -> new BadRequestException(ErrorMessage.WRONG_REQUEST_BODY)));
+    }
+
+    private Mono<ServerResponse> handleError(Throwable e) {
+        if (e instanceof UserNotFoundException || e instanceof OperationsNotFoundException) {
+            return respond(HttpStatus.NOT_FOUND, new ResponseDto(BigDecimal.ZERO, e.getMessage()));
+        } else if (e instanceof BadRequestException) {
+            return respond(HttpStatus.BAD_REQUEST, new ResponseDto(BigDecimal.ZERO, e.getMessage()));
+        }
+        return Mono.error(e);
+    }
+
+    private Mono<ServerResponse> respond(HttpStatus status, ResponseDto response) {
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(response);
+    }
+}
@@ -0,0 +1,23 @@
+package dev.akuniutka.bank.api.controller;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveApiRoutes {
+    @Bean
+    public RouterFunction<ServerResponse> apiRoutes(ReactiveApiHandler handler) {
+        return RouterFunctions.route()
+                .GET("/getBalance/{userId}", handler::getBalance)
+                .PUT("/putMoney", handler::putMoney)
+                .PUT("/takeMoney", handler::takeMoney)
+                .PUT("/transferMoney", handler::transferMoney)
+                .GET("/getOperationList/{userId}", handler::getOperationList)
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package dev.akuniutka.bank.api.dto;
+
+public class AccountLockStatsDto {
+    private final Long userId;
+    private final long contentions;
+    private final long totalWaitMillis;
+    private final long maxWaitMillis;
+
+    public AccountLockStatsDto(Long userId, long contentions, long totalWaitMillis, long maxWaitMillis) {
+        this.userId = userId;
+        this.contentions = contentions;
+        this.totalWaitMillis = totalWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getContentions() {
+        return contentions;
+    }
+
+    public long getTotalWaitMillis() {
+        return totalWaitMillis;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+}
@@ -1,10 +1,10 @@
 package dev.akuniutka.bank.api.dto;
 
-import java.math.BigDecimal;
+import dev.akuniutka.bank.api.util.Money;
 
 public class CashOrderDto {
     private Long userId;
-    private BigDecimal amount;
+    private Money amount;
 
     public void setUserId(Long userId) {
         this.userId = userId;
@@ -14,11 +14,11 @@ public class CashOrderDto {
         return userId;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 }
@@ -2,14 +2,14 @@ package dev.akuniutka.bank.api.dto;
 
 import dev.akuniutka.bank.api.entity.Operation;
 import dev.akuniutka.bank.api.util.ErrorMessage;
+import dev.akuniutka.bank.api.util.Money;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 public class OperationDto {
     private final OffsetDateTime date;
     private final String type;
-    private final BigDecimal amount;
+    private final Money amount;
 
     public OperationDto(Operation operation) {
         if (operation == null) {
@@ -28,7 +28,7 @@ public class OperationDto {
         return type;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 }
@@ -0,0 +1,26 @@
+package dev.akuniutka.bank.api.dto;
+
+import dev.akuniutka.bank.api.util.ErrorMessage;
+
+import java.util.List;
+
+public class OperationPageDto {
+    private final List<OperationDto> operations;
+    private final String nextCursor;
+
+    public OperationPageDto(List<OperationDto> operations, String nextCursor) {
+        if (operations == null) {
+            throw new IllegalArgumentException(ErrorMessage.OPERATION_LIST_IS_NULL);
+        }
+        this.operations = operations;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OperationDto> getOperations() {
+        return operations;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -1,11 +1,11 @@
 package dev.akuniutka.bank.api.dto;
 
-import java.math.BigDecimal;
+import dev.akuniutka.bank.api.util.Money;
 
 public class PaymentOrderDto {
     private Long userId;
     private Long receiverId;
-    private BigDecimal amount;
+    private Money amount;
 
     public Long getUserId() {
         return userId;
@@ -23,11 +23,11 @@ public class PaymentOrderDto {
         this.receiverId = receiverId;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 }
@@ -3,19 +3,32 @@ package dev.akuniutka.bank.api.entity;
 import dev.akuniutka.bank.api.exception.WrongAmountException;
 import dev.akuniutka.bank.api.util.AmountValidator;
 import dev.akuniutka.bank.api.util.ErrorMessage;
+import dev.akuniutka.bank.api.util.Money;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 @Entity
 public class Account {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ACCOUNT_SEQUENCE")
+    @SequenceGenerator(name = "ACCOUNT_SEQUENCE", sequenceName = "ACCOUNT_SEQUENCE", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
-    @Access(AccessType.PROPERTY)
-    private BigDecimal balance = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+    private Money balance = Money.ZERO;
+
+    public Account() {}
+
+    public Account(Long id, BigDecimal balance) {
+        this.id = id;
+        setBalance(balance);
+    }
+
+    public Account(Long id, Money balance) {
+        AmountValidator.assertBalance(balance);
+        this.id = id;
+        this.balance = balance;
+    }
 
     public Long getId() {
         return id;
@@ -23,23 +36,28 @@ public class Account {
 
     protected void setBalance(BigDecimal balance) {
         AmountValidator.assertBalance(balance);
-        this.balance = balance.setScale(2, RoundingMode.HALF_UP);
+        this.balance = Money.of(balance);
     }
 
-    public BigDecimal getBalance() {
+    public Money getBalance() {
         return balance;
     }
 
-    public void increaseBalance(BigDecimal amount) {
+    public long getBalanceInCents() {
+        return balance.getCents();
+    }
+
+    public void increaseBalance(Money amount) {
         AmountValidator.assertAmount(amount);
-        balance = balance.add(amount.setScale(2, RoundingMode.HALF_UP));
+        balance = balance.add(amount);
     }
 
-    public void decreaseBalance(BigDecimal amount) {
+    public void decreaseBalance(Money amount) {
         AmountValidator.assertAmount(amount);
-        if (balance.compareTo(amount) < 0) {
+        Money result = balance.subtract(amount);
+        if (result.signum() < 0) {
             throw new WrongAmountException(ErrorMessage.INSUFFICIENT_BALANCE);
         }
-        balance = balance.subtract(amount.setScale(2, RoundingMode.HALF_UP));
+        balance = result;
     }
 }
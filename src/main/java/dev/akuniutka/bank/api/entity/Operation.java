@@ -1,17 +1,20 @@
 package dev.akuniutka.bank.api.entity;
 
+import dev.akuniutka.bank.api.metrics.OperationMetricsListener;
 import dev.akuniutka.bank.api.util.AmountValidator;
 import dev.akuniutka.bank.api.util.ErrorMessage;
+import dev.akuniutka.bank.api.util.Money;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.OffsetDateTime;
 
 @Entity
+@EntityListeners(OperationMetricsListener.class)
 public class Operation {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "OPERATION_SEQUENCE")
+    @SequenceGenerator(name = "OPERATION_SEQUENCE", sequenceName = "OPERATION_SEQUENCE", allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "ACCOUNT_ID", nullable = false)
@@ -21,8 +24,7 @@ public class Operation {
     @Access(AccessType.PROPERTY)
     private OperationType type;
     @Column(nullable = false)
-    @Access(AccessType.PROPERTY)
-    private BigDecimal amount;
+    private Money amount;
     @Column(nullable = false)
     @Access(AccessType.PROPERTY)
     private OffsetDateTime date;
@@ -37,6 +39,20 @@ public class Operation {
         setDate(date);
     }
 
+    public Operation(Account account, OperationType type, Money amount, OffsetDateTime date) {
+        id = null;
+        setAccount(account);
+        setType(type);
+        AmountValidator.assertAmount(amount);
+        this.amount = amount;
+        setDate(date);
+    }
+
+    public Operation(Long id, Account account, OperationType type, BigDecimal amount, OffsetDateTime date) {
+        this(account, type, amount, date);
+        this.id = id;
+    }
+
     public Long getId() {
         return id;
     }
@@ -65,13 +81,17 @@ public class Operation {
 
     protected void setAmount(BigDecimal amount) {
         AmountValidator.assertAmount(amount);
-        this.amount = amount.setScale(2, RoundingMode.HALF_UP);
+        this.amount = Money.of(amount);
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
+    public long getAmountInCents() {
+        return amount.getCents();
+    }
+
     protected void setDate(OffsetDateTime date) {
         if (date == null) {
             throw new IllegalArgumentException(ErrorMessage.DATE_IS_NULL);
@@ -1,11 +1,15 @@
 package dev.akuniutka.bank.api.entity;
 
+import dev.akuniutka.bank.api.util.ErrorMessage;
+
 public enum OperationType {
     DEPOSIT("D", "deposit"),
     WITHDRAWAL("W", "withdrawal"),
     OUTGOING_TRANSFER("P", "outgoing transfer"),
     INCOMING_TRANSFER("R", "incoming transfer");
 
+    // Types indexed by the only character of their codes
+    private static final OperationType[] BY_CODE = new OperationType[128];
     private final String code;
     private final String description;
 
@@ -21,4 +25,24 @@ public enum OperationType {
     public String getDescription() {
         return description;
     }
+
+    public static OperationType fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        OperationType type = null;
+        if (code.length() == 1 && code.charAt(0) < BY_CODE.length) {
+            type = BY_CODE[code.charAt(0)];
+        }
+        if (type == null) {
+            throw new IllegalArgumentException(ErrorMessage.UNKNOWN_OPERATION_TYPE_CODE);
+        }
+        return type;
+    }
+
+    static {
+        for (OperationType type : values()) {
+            BY_CODE[type.code.charAt(0)] = type;
+        }
+    }
 }
@@ -4,11 +4,13 @@ import dev.akuniutka.bank.api.exception.BadRequestException;
 import dev.akuniutka.bank.api.util.ErrorMessage;
 
 import javax.persistence.*;
+import java.time.OffsetDateTime;
 
 @Entity
 public class Transfer {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "TRANSFER_SEQUENCE")
+    @SequenceGenerator(name = "TRANSFER_SEQUENCE", sequenceName = "TRANSFER_SEQUENCE", allocationSize = 50)
     private Long id;
     @OneToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "OUTGOING_TRANSFER_ID", referencedColumnName = "id", nullable = false)
@@ -18,6 +20,8 @@ public class Transfer {
     @JoinColumn(name = "INCOMING_TRANSFER_ID", referencedColumnName = "id", nullable = false)
 //    @Access(AccessType.PROPERTY)
     private Operation incomingTransfer;
+    @Column(nullable = false)
+    private OffsetDateTime date;
 
     protected Transfer() {}
 
@@ -25,6 +29,7 @@ public class Transfer {
         id = null;
         setOutgoingTransfer(outgoingTransfer);
         setIncomingTransfer(incomingTransfer);
+        date = outgoingTransfer.getDate();
     }
 
     public Long getId() {
@@ -61,6 +66,10 @@ public class Transfer {
         return incomingTransfer;
     }
 
+    public OffsetDateTime getDate() {
+        return date;
+    }
+
     private void checkForConsistency(Operation outgoingTransfer, Operation incomingTransfer) {
         Long payerId = outgoingTransfer.getAccount().getId();
         Long payeeId = incomingTransfer.getAccount().getId();
@@ -0,0 +1,150 @@
+package dev.akuniutka.bank.api.ledger;
+
+import dev.akuniutka.bank.api.repository.BalanceSnapshotRepository;
+import dev.akuniutka.bank.api.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In event-sourced mode operations are the only record of balance changes: they are appended to OPERATION and
+// ACCOUNT.BALANCE is not updated. The balance of an account is its latest snapshot plus the operations with
+// greater positions, which the database assigns from a sequence when an operation is inserted.
+//
+// Operations that take money hold an exclusive advisory lock on their account until commit, operations that add
+// money hold a shared one, so deposits to one account do not wait for each other. A snapshot is taken under
+// the exclusive lock, when no operation of the account is in progress, so every later operation gets
+// a greater position than the snapshot.
+@Component
+public class EventSourcedLedger {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventSourcedLedger.class);
+    private final BalanceSnapshotRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int snapshotEvery;
+    private final long snapshotIntervalNanos;
+    // Accounts with operations appended by this instance since their last snapshot
+    private final ConcurrentMap<Long, Appended> appended = new ConcurrentHashMap<>();
+
+    public EventSourcedLedger(BalanceSnapshotRepository repository, PlatformTransactionManager transactionManager,
+                              @Value("${bank.ledger.event-sourced.enabled:false}") boolean enabled,
+                              @Value("${bank.ledger.event-sourced.snapshot-every:100}") int snapshotEvery,
+                              @Value("${bank.ledger.event-sourced.snapshot-interval:60s}") Duration snapshotInterval) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.snapshotEvery = snapshotEvery;
+        this.snapshotIntervalNanos = snapshotInterval.toNanos();
+    }
+
+    // Snapshots are taken of all accounts when the mode is switched on, and balances are written back to accounts
+    // when it is switched off
+    @PostConstruct
+    public void start() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (repository.isEventSourced() == enabled) {
+                return;
+            }
+            if (enabled) {
+                repository.saveAllSnapshots();
+            } else {
+                repository.restoreAccountBalances();
+            }
+            repository.setEventSourced(enabled);
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<Money> getBalance(Long userId) {
+        List<LedgerBalance> balances = repository.findBalances(Collections.singleton(userId));
+        return balances.isEmpty() ? Optional.empty() : Optional.of(balances.get(0).getBalance());
+    }
+
+    // Must be called in a transaction before an operation that adds money is appended
+    public void lockShared(Long userId) {
+        repository.lockShared(userId);
+    }
+
+    // Must be called in a transaction before operations that take money are appended. Accounts are locked
+    // in the order of their ids. Returns balances of existing accounts and takes snapshots of those
+    // with snapshot-every operations after the last one.
+    public List<LedgerBalance> lock(Collection<Long> userIds) {
+        return lock(userIds, snapshotEvery);
+    }
+
+    // Must be called in a transaction
+    public void snapshot(Long userId) {
+        if (enabled) {
+            lock(Collections.singleton(userId), 1);
+        }
+    }
+
+    // Must be called in a transaction, while the account is locked
+    public void recordAppended(Long userId) {
+        if (enabled) {
+            appended.computeIfAbsent(userId, id -> new Appended(System.nanoTime())).count.incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelay = 1000L)
+    public void takeDueSnapshots() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Map.Entry<Long, Appended> entry : appended.entrySet()) {
+            Appended operations = entry.getValue();
+            if (operations.count.get() >= snapshotEvery || now - operations.since >= snapshotIntervalNanos) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> snapshot(entry.getKey()));
+                } catch (RuntimeException e) {
+                    LOGGER.error("Failed to take balance snapshot of account {}", entry.getKey(), e);
+                }
+            }
+        }
+    }
+
+    int getAppendedCount(Long userId) {
+        Appended operations = appended.get(userId);
+        return operations == null ? 0 : operations.count.get();
+    }
+
+    private List<LedgerBalance> lock(Collection<Long> userIds, int threshold) {
+        SortedSet<Long> ids = new TreeSet<>(userIds);
+        for (Long id : ids) {
+            repository.lock(id);
+        }
+        List<LedgerBalance> balances = repository.findBalances(ids);
+        for (LedgerBalance balance : balances) {
+            if (balance.getPendingOperations() >= threshold) {
+                repository.saveSnapshot(balance);
+                appended.remove(balance.getUserId());
+            } else if (balance.getPendingOperations() == 0L) {
+                appended.remove(balance.getUserId());
+            }
+        }
+        return balances;
+    }
+
+    private static class Appended {
+        private final long since;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Appended(long since) {
+            this.since = since;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package dev.akuniutka.bank.api.ledger;
+
+import dev.akuniutka.bank.api.util.Money;
+
+// Balance of an account derived from its snapshot and the operations after it
+public class LedgerBalance {
+    private final Long userId;
+    private final Money balance;
+    private final long position;
+    private final long pendingOperations;
+
+    public LedgerBalance(Long userId, Money balance, long position, long pendingOperations) {
+        this.userId = userId;
+        this.balance = balance;
+        this.position = position;
+        this.pendingOperations = pendingOperations;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+
+    // Position of the last operation counted in the balance
+    public long getPosition() {
+        return position;
+    }
+
+    // Number of operations after the snapshot
+    public long getPendingOperations() {
+        return pendingOperations;
+    }
+}
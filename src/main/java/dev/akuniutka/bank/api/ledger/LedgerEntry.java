@@ -0,0 +1,51 @@
+package dev.akuniutka.bank.api.ledger;
+
+import dev.akuniutka.bank.api.entity.OperationType;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+public class LedgerEntry {
+    private final long sequence;
+    private final Long userId;
+    private final OperationType type;
+    private final long cents;
+    private final OffsetDateTime date;
+
+    public LedgerEntry(long sequence, Long userId, OperationType type, long cents, OffsetDateTime date) {
+        this.sequence = sequence;
+        this.userId = userId;
+        this.type = type;
+        this.cents = cents;
+        this.date = date;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public OperationType getType() {
+        return type;
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public BigDecimal getAmount() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    // Change of the account balance in cents
+    public long getDelta() {
+        return type == OperationType.DEPOSIT ? cents : -cents;
+    }
+
+    public OffsetDateTime getDate() {
+        return date;
+    }
+}
@@ -0,0 +1,196 @@
+package dev.akuniutka.bank.api.ledger;
+
+import dev.akuniutka.bank.api.entity.OperationType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Append-only file of fixed-size records: sequence, user id, type code, amount in cents, date and CRC32 of them
+public class LedgerJournal implements Closeable {
+    static final int RECORD_SIZE = 41;
+    private static final int CHECKED_SIZE = RECORD_SIZE - Integer.BYTES;
+    private final Path path;
+    private final Object syncLock = new Object();
+    private FileChannel channel;
+    // Positions are counted from the creation of the journal, so they keep growing after compaction
+    private long start;
+    private volatile long written;
+    private volatile long synced;
+    private long lastSequence;
+
+    public LedgerJournal(Path path) throws IOException {
+        this.path = path;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    // Returns the entries after the checkpoint. A record that was not written completely can only be the last one,
+    // it was never acknowledged and is cut off.
+    public synchronized List<LedgerEntry> recover(long checkpoint) throws IOException {
+        List<LedgerEntry> entries = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        long position = 0L;
+        LedgerEntry entry;
+        while (read(buffer, position) && (entry = decode(buffer)) != null) {
+            if (entry.getSequence() > checkpoint) {
+                entries.add(entry);
+            }
+            lastSequence = Math.max(lastSequence, entry.getSequence());
+            position += RECORD_SIZE;
+        }
+        if (position < channel.size()) {
+            channel.truncate(position);
+            channel.force(true);
+        }
+        lastSequence = Math.max(lastSequence, checkpoint);
+        start = 0L;
+        written = position;
+        synced = position;
+        return entries;
+    }
+
+    public synchronized LedgerEntry append(Long userId, OperationType type, long cents, OffsetDateTime date)
+            throws IOException {
+        LedgerEntry entry = new LedgerEntry(lastSequence + 1L, userId, type, cents, date);
+        ByteBuffer buffer = encode(entry);
+        long position = written - start;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        lastSequence = entry.getSequence();
+        written = start + position;
+        return entry;
+    }
+
+    // Forces all the records appended so far to disk. Concurrent callers share one fsync.
+    public void sync() throws IOException {
+        long position = written;
+        if (synced >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long end = written;
+            channel.force(false);
+            synced = end;
+        }
+    }
+
+    // Cuts off the records after the given sequence
+    public synchronized void discardAfter(long sequence) throws IOException {
+        if (sequence >= lastSequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            long end = written - (lastSequence - sequence) * RECORD_SIZE;
+            channel.truncate(end - start);
+            channel.force(true);
+            lastSequence = sequence;
+            written = end;
+            synced = Math.min(synced, end);
+        }
+    }
+
+    // Drops the records up to the given sequence. Records are in the order of their sequences, so the rest of
+    // them is the tail of the file; it is copied into a new file that then replaces the journal, and a crash
+    // leaves either the old or the new journal.
+    public synchronized void compact(long appliedSequence) throws IOException {
+        synchronized (syncLock) {
+            long end = written - start;
+            long remaining = Math.min(Math.max(lastSequence - appliedSequence, 0L) * RECORD_SIZE, end);
+            Path copy = path.resolveSibling(path.getFileName() + ".compacted");
+            try (FileChannel target = FileChannel.open(copy, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                long copied = 0L;
+                while (copied < remaining) {
+                    copied += channel.transferTo(end - remaining + copied, remaining - copied, target);
+                }
+                target.force(true);
+            }
+            Files.move(copy, path, StandardCopyOption.ATOMIC_MOVE);
+            try (FileChannel parent = FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+                parent.force(true);
+            }
+            FileChannel compacted = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.close();
+            channel = compacted;
+            start = written - remaining;
+            synced = written;
+        }
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long size() {
+        return written - start;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean read(ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    static ByteBuffer encode(LedgerEntry entry) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        Instant instant = entry.getDate().toInstant();
+        buffer.putLong(entry.getSequence())
+                .putLong(entry.getUserId())
+                .put((byte) entry.getType().getCode().charAt(0))
+                .putLong(entry.getCents())
+                .putLong(instant.getEpochSecond())
+                .putInt(instant.getNano());
+        buffer.putInt(checksum(buffer.array()));
+        buffer.flip();
+        return buffer;
+    }
+
+    static LedgerEntry decode(ByteBuffer buffer) {
+        if (buffer.getInt(CHECKED_SIZE) != checksum(buffer.array())) {
+            return null;
+        }
+        long sequence = buffer.getLong();
+        long userId = buffer.getLong();
+        OperationType type;
+        try {
+            type = OperationType.fromCode(String.valueOf((char) buffer.get()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        long cents = buffer.getLong();
+        Instant instant = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        return new LedgerEntry(sequence, userId, type, cents, OffsetDateTime.ofInstant(instant, ZoneId.systemDefault()));
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, CHECKED_SIZE);
+        return (int) crc.getValue();
+    }
+}
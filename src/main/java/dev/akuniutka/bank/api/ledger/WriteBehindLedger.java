@@ -0,0 +1,528 @@
+package dev.akuniutka.bank.api.ledger;
+
+import dev.akuniutka.bank.api.cache.OperationHistoryCache;
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.exception.NullUserIdException;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.repository.AccountRepository;
+import dev.akuniutka.bank.api.repository.LedgerCheckpointRepository;
+import dev.akuniutka.bank.api.repository.OperationRepository;
+import dev.akuniutka.bank.api.util.AmountValidator;
+import dev.akuniutka.bank.api.util.ErrorMessage;
+import dev.akuniutka.bank.api.util.Money;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// In write-behind mode deposits and withdrawals change balances kept in memory and are acknowledged once they are
+// in the local journal. A writer thread applies journal entries to the database in batches together with
+// the sequence of the last applied entry, so on restart exactly the entries after that sequence are replayed.
+//
+// The balances in memory are authoritative for the accounts they hold. Transfers, which still go to the database
+// directly, wait until the journal entries of their accounts are applied, reserve debits in memory before they
+// commit and add credits after they commit, so a journal entry never takes a balance below zero.
+// A balance is dropped from memory once all the entries of its account are applied and no transaction uses it,
+// as the database then has the same balance.
+@Component
+public class WriteBehindLedger {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindLedger.class);
+    private static final long RETRY_DELAY_MILLIS = 1000L;
+    private final AccountRepository accountRepository;
+    private final OperationRepository operationRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final OperationHistoryCache historyCache;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final boolean enabled;
+    private final String journalPath;
+    private final int batchSize;
+    private final Duration flushTimeout;
+    private final long maxJournalSize;
+    private final ConcurrentMap<Long, Balance> balances = new ConcurrentHashMap<>();
+    // Entries not applied yet in the order of their sequences, also guards appliedSequence and durableSequence
+    private final Deque<LedgerEntry> pending = new ArrayDeque<>();
+    private long appliedSequence;
+    // The writer takes only entries up to this one, which are known to be on disk
+    private long durableSequence;
+    private LedgerJournal journal;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile boolean failed;
+
+    public WriteBehindLedger(AccountRepository accountRepository, OperationRepository operationRepository,
+                             LedgerCheckpointRepository checkpointRepository, OperationHistoryCache historyCache,
+                             PlatformTransactionManager transactionManager, EntityManager entityManager,
+                             MeterRegistry registry,
+                             @Value("${bank.ledger.write-behind.enabled:false}") boolean enabled,
+                             @Value("${bank.ledger.write-behind.journal:ledger.journal}") String journalPath,
+                             @Value("${bank.ledger.write-behind.batch-size:1000}") int batchSize,
+                             @Value("${bank.ledger.write-behind.flush-timeout:5s}") Duration flushTimeout,
+                             @Value("${bank.ledger.write-behind.max-journal-size:64MB}") DataSize maxJournalSize) {
+        this.accountRepository = accountRepository;
+        this.operationRepository = operationRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.historyCache = historyCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.enabled = enabled;
+        this.journalPath = journalPath;
+        this.batchSize = batchSize;
+        this.flushTimeout = flushTimeout;
+        this.maxJournalSize = maxJournalSize.toBytes();
+        if (enabled) {
+            Gauge.builder("bank.ledger.pending", this, WriteBehindLedger::getPendingCount)
+                    .description("Journal entries not applied to the database yet")
+                    .register(registry);
+        }
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = openJournal();
+        List<LedgerEntry> entries = journal.recover(checkpointRepository.getSequence());
+        for (int i = 0; i < entries.size(); i += batchSize) {
+            apply(entries.subList(i, Math.min(i + batchSize, entries.size())));
+        }
+        appliedSequence = journal.getLastSequence();
+        durableSequence = appliedSequence;
+        journal.compact(appliedSequence);
+        running = true;
+        writer = new Thread(this::writeBehind, "ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        synchronized (pending) {
+            running = false;
+            pending.notifyAll();
+        }
+        writer.join();
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // A journal that cannot be written no longer guarantees that acknowledged operations survive a crash
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public void deposit(Long userId, Money amount) {
+        append(userId, OperationType.DEPOSIT, amount);
+    }
+
+    public void withdraw(Long userId, Money amount) {
+        append(userId, OperationType.WITHDRAWAL, amount);
+    }
+
+    // Returns null when the balance of the account is not kept in memory
+    public BigDecimal getBalance(Long userId) {
+        if (!enabled || userId == null) {
+            return null;
+        }
+        Balance balance = balances.get(userId);
+        if (balance == null) {
+            return null;
+        }
+        synchronized (balance) {
+            return balance.value.toBigDecimal();
+        }
+    }
+
+    // Must be called before the balance of the account is changed in the database
+    public void track(Long userId) {
+        if (enabled && userId != null) {
+            pin(userId);
+        }
+    }
+
+    // Must be called before the accounts are locked in the database, as the writer may be waiting for the locks
+    public void flush(Collection<Long> userIds) {
+        if (!enabled) {
+            return;
+        }
+        long sequence = 0L;
+        for (Long userId : userIds) {
+            Balance balance = userId == null ? null : pin(userId);
+            if (balance != null) {
+                synchronized (balance) {
+                    sequence = Math.max(sequence, balance.lastSequence);
+                }
+            }
+        }
+        awaitApplied(sequence);
+    }
+
+    public void flush(Long userId) {
+        flush(Collections.singleton(userId));
+    }
+
+    // Takes money in memory at once and gives it back if the transaction does not commit
+    public void debit(Long userId, Money money) {
+        Balance balance = enabled && userId != null ? balances.get(userId) : null;
+        if (balance == null) {
+            return;
+        }
+        synchronized (balance) {
+            Money result = balance.value.subtract(money);
+            if (result.signum() < 0) {
+                throw new WrongAmountException(ErrorMessage.INSUFFICIENT_BALANCE);
+            }
+            balance.value = result;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        balance.add(money);
+                    }
+                }
+            });
+        }
+    }
+
+    // Gives money in memory only after it is committed, so that it cannot be spent before
+    public void creditAfterCommit(Long userId, Money amount) {
+        Balance balance = enabled && userId != null ? balances.get(userId) : null;
+        if (balance == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            balance.add(amount);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                balance.add(amount);
+            }
+        });
+    }
+
+    LedgerJournal openJournal() throws IOException {
+        return new LedgerJournal(Paths.get(journalPath));
+    }
+
+    int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    private void append(Long userId, OperationType type, Money money) {
+        if (userId == null) {
+            throw new NullUserIdException(ErrorMessage.USER_ID_IS_NULL);
+        }
+        Balance balance;
+        do {
+            balance = load(userId);
+            if (balance == null) {
+                throw new UserNotFoundException(ErrorMessage.USER_NOT_FOUND);
+            }
+            AmountValidator.assertAmount(money);
+        } while (!append(balance, userId, type, money));
+    }
+
+    // Returns false if the balance has been dropped from memory meanwhile
+    private boolean append(Balance balance, Long userId, OperationType type, Money money) {
+        // The journal is forced to disk before the new balance is visible to other requests on the account
+        synchronized (balance) {
+            if (balance.evicted) {
+                return false;
+            }
+            if (failed) {
+                throw new IllegalStateException(ErrorMessage.LEDGER_FAILED);
+            }
+            Money result = type == OperationType.DEPOSIT ? balance.value.add(money) : balance.value.subtract(money);
+            if (result.signum() < 0) {
+                throw new WrongAmountException(ErrorMessage.INSUFFICIENT_BALANCE);
+            }
+            LedgerEntry entry;
+            synchronized (pending) {
+                if (failed) {
+                    throw new IllegalStateException(ErrorMessage.LEDGER_FAILED);
+                }
+                try {
+                    entry = journal.append(userId, type, money.getCents(), OffsetDateTime.now());
+                } catch (IOException e) {
+                    throw fail(e);
+                }
+                pending.addLast(entry);
+            }
+            IOException syncFailure = null;
+            try {
+                journal.sync();
+            } catch (IOException e) {
+                syncFailure = e;
+            }
+            synchronized (pending) {
+                if (entry.getSequence() > durableSequence) {
+                    if (syncFailure != null || failed) {
+                        // Entries that are not known to be on disk are never applied, so the operation fails
+                        // without changing the balance
+                        discardNotDurable();
+                        throw syncFailure != null ? fail(syncFailure)
+                                : new IllegalStateException(ErrorMessage.LEDGER_FAILED);
+                    }
+                    durableSequence = entry.getSequence();
+                    pending.notifyAll();
+                }
+            }
+            if (syncFailure != null) {
+                // A sync of another request has already put the entry on disk, so it is applied
+                fail(syncFailure);
+            }
+            balance.value = result;
+            balance.lastSequence = entry.getSequence();
+            return true;
+        }
+    }
+
+    // Must be called holding the lock on pending
+    private void discardNotDurable() {
+        failed = true;
+        while (!pending.isEmpty() && pending.peekLast().getSequence() > durableSequence) {
+            pending.removeLast();
+        }
+        try {
+            journal.discardAfter(durableSequence);
+        } catch (IOException e) {
+            LOGGER.error("Failed to cut off ledger journal entries that are not on disk", e);
+        }
+    }
+
+    private IllegalStateException fail(IOException e) {
+        failed = true;
+        LOGGER.error("Failed to write ledger journal, ledger stops accepting operations", e);
+        return new IllegalStateException(ErrorMessage.LEDGER_FAILED, e);
+    }
+
+    private Balance load(Long userId) {
+        return balances.computeIfAbsent(userId, id -> accountRepository.findBalanceById(id)
+                .map(Balance::new)
+                .orElse(null));
+    }
+
+    // Keeps the balance in memory until the current transaction completes
+    private Balance pin(Long userId) {
+        Balance balance = load(userId);
+        if (balance == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return balance;
+        }
+        if (!balance.pin()) {
+            return pin(userId);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                balance.unpin();
+                evict(userId, getAppliedSequence());
+            }
+        });
+        return balance;
+    }
+
+    private void evict(Long userId, long sequence) {
+        balances.computeIfPresent(userId, (id, balance) -> balance.evict(sequence) ? null : balance);
+    }
+
+    private long getAppliedSequence() {
+        synchronized (pending) {
+            return appliedSequence;
+        }
+    }
+
+    private void awaitApplied(long sequence) {
+        long deadline = System.nanoTime() + flushTimeout.toNanos();
+        synchronized (pending) {
+            while (appliedSequence < sequence) {
+                long timeout = deadline - System.nanoTime();
+                if (timeout <= 0L) {
+                    throw new IllegalStateException(ErrorMessage.LEDGER_FLUSH_TIMED_OUT);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(pending, timeout);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(ErrorMessage.LEDGER_FLUSH_TIMED_OUT, e);
+                }
+            }
+        }
+    }
+
+    private void writeBehind() {
+        while (true) {
+            List<LedgerEntry> batch = new ArrayList<>();
+            synchronized (pending) {
+                while (running && !hasDurableEntries()) {
+                    try {
+                        pending.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (!hasDurableEntries()) {
+                    return;
+                }
+                for (LedgerEntry entry : pending) {
+                    if (entry.getSequence() > durableSequence) {
+                        break;
+                    }
+                    batch.add(entry);
+                    if (batch.size() == batchSize) {
+                        break;
+                    }
+                }
+            }
+            try {
+                apply(batch);
+            } catch (RuntimeException e) {
+                // The entries stay in the journal and are replayed on restart if they cannot be applied before
+                LOGGER.error("Failed to apply {} ledger entries", batch.size(), e);
+                if (!running) {
+                    return;
+                }
+                sleep();
+                continue;
+            }
+            long sequence = batch.get(batch.size() - 1).getSequence();
+            compact(sequence, batch.size());
+            for (LedgerEntry entry : batch) {
+                evict(entry.getUserId(), sequence);
+            }
+            synchronized (pending) {
+                for (int i = 0; i < batch.size(); i++) {
+                    pending.removeFirst();
+                }
+                appliedSequence = sequence;
+                pending.notifyAll();
+            }
+        }
+    }
+
+    // Must be called holding the lock on pending
+    private boolean hasDurableEntries() {
+        return !pending.isEmpty() && pending.peekFirst().getSequence() <= durableSequence;
+    }
+
+    // Entries not applied yet are copied, so the journal is compacted only when most of it is applied
+    private void compact(long appliedSequence, int applied) {
+        long remaining;
+        synchronized (pending) {
+            remaining = pending.size() - applied;
+        }
+        long size = journal.size();
+        if (size > maxJournalSize && size > 2L * remaining * LedgerJournal.RECORD_SIZE) {
+            try {
+                journal.compact(appliedSequence);
+            } catch (IOException e) {
+                LOGGER.error("Failed to compact ledger journal", e);
+            }
+        }
+    }
+
+    // Balances are updated in the order of account ids, the same order in which transfers lock accounts
+    private void apply(List<LedgerEntry> entries) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Long> deltas = new TreeMap<>();
+            List<Operation> operations = new ArrayList<>(entries.size());
+            for (LedgerEntry entry : entries) {
+                deltas.merge(entry.getUserId(), entry.getDelta(), Long::sum);
+                Account account = entityManager.getReference(Account.class, entry.getUserId());
+                operations.add(new Operation(account, entry.getType(), entry.getAmount(), entry.getDate()));
+            }
+            for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+                if (!accountRepository.addToBalance(delta.getKey(), BigDecimal.valueOf(delta.getValue(), 2))
+                        .isPresent()) {
+                    LOGGER.error("Ledger entries make balance of account {} negative", delta.getKey());
+                    throw new IllegalStateException(ErrorMessage.NEGATIVE_LEDGER_BALANCE);
+                }
+            }
+            operationRepository.saveAll(operations);
+            checkpointRepository.updateSequence(entries.get(entries.size() - 1).getSequence());
+            for (Operation operation : operations) {
+                historyCache.appendAfterCommit(operation);
+            }
+        });
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Balance {
+        private Money value;
+        private long lastSequence;
+        // Transactions using the balance
+        private int pins;
+        private boolean evicted;
+
+        private Balance(Money value) {
+            this.value = value;
+        }
+
+        private synchronized void add(Money money) {
+            value = value.add(money);
+        }
+
+        private synchronized boolean pin() {
+            if (evicted) {
+                return false;
+            }
+            pins++;
+            return true;
+        }
+
+        private synchronized void unpin() {
+            pins--;
+        }
+
+        private synchronized boolean evict(long appliedSequence) {
+            if (pins > 0 || lastSequence > appliedSequence) {
+                return false;
+            }
+            evicted = true;
+            return true;
+        }
+    }
+}
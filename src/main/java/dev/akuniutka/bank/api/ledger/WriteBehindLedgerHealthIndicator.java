@@ -0,0 +1,22 @@
+package dev.akuniutka.bank.api.ledger;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WriteBehindLedgerHealthIndicator implements HealthIndicator {
+    private final WriteBehindLedger ledger;
+
+    public WriteBehindLedgerHealthIndicator(WriteBehindLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    @Override
+    public Health health() {
+        if (ledger.isFailed()) {
+            return Health.down().withDetail("journal", "failed").build();
+        }
+        return Health.up().withDetail("enabled", ledger.isEnabled()).build();
+    }
+}
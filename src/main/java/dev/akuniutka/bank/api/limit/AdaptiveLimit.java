@@ -0,0 +1,79 @@
+package dev.akuniutka.bank.api.limit;
+
+import dev.akuniutka.bank.api.util.ErrorMessage;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Limits requests in progress with additive increase and multiplicative decrease. The limit grows by one after
+// a request that is fast enough while at least half of the limit is in use, and is cut by the backoff ratio after
+// a request that is too slow or fails. Requests started before the last cut do not cut it again, so a burst of slow
+// responses to requests admitted under the old limit counts once. A zero latency threshold leaves only failures to
+// cut the limit, for requests whose duration depends on their size rather than on load.
+public class AdaptiveLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private long decreasedAt;
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+                         double backoffRatio) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit || backoffRatio <= 0.0
+                || backoffRatio >= 1.0 || latencyThreshold.isNegative()) {
+            throw new IllegalArgumentException(ErrorMessage.WRONG_CONCURRENCY_LIMIT);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+        this.decreasedAt = System.nanoTime();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int requests = inFlight.get();
+            if (requests >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(requests, requests + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Must be called once for every successful tryAcquire
+    public void release(long startNanos, long endNanos, boolean failed) {
+        int requests = inFlight.getAndDecrement();
+        if (failed || latencyThresholdNanos > 0L && endNanos - startNanos > latencyThresholdNanos) {
+            decrease(startNanos, endNanos);
+        } else if (requests * 2 >= limit) {
+            increase();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void decrease(long startNanos, long endNanos) {
+        if (startNanos - decreasedAt < 0L) {
+            return;
+        }
+        limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        decreasedAt = endNanos;
+    }
+
+    private synchronized void increase() {
+        if (limit < maxLimit) {
+            limit++;
+        }
+    }
+}
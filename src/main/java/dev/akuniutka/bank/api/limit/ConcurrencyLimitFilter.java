@@ -0,0 +1,134 @@
+package dev.akuniutka.bank.api.limit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.akuniutka.bank.api.dto.ResponseDto;
+import dev.akuniutka.bank.api.util.ErrorMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Sheds requests to the API endpoints over adaptive limits, separate for reads, writes and transfer batches, with 503
+// before they wait for a database connection or a lock. A batch takes as long as its size requires, so batches have
+// their own limit and are not counted as slow writes. Other requests, e.g. to actuator endpoints, are not limited.
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "bank.limiter.enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    static final String LIMIT = "bank.limiter.limit";
+    static final String IN_FLIGHT = "bank.limiter.in.flight";
+    static final String REJECTIONS = "bank.limiter.rejections";
+    static final String READ = "read";
+    static final String WRITE = "write";
+    static final String BATCH = "batch";
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private final Map<String, Group> groups = new HashMap<>();
+    private final byte[] rejection;
+
+    public ConcurrencyLimitFilter(MeterRegistry registry, ObjectMapper objectMapper,
+                                  @Value("${bank.limiter.min-limit:2}") int minLimit,
+                                  @Value("${bank.limiter.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${bank.limiter.read.initial-limit:50}") int readInitialLimit,
+                                  @Value("${bank.limiter.read.max-limit:400}") int readMaxLimit,
+                                  @Value("${bank.limiter.read.latency-threshold:100ms}") Duration readThreshold,
+                                  @Value("${bank.limiter.write.initial-limit:20}") int writeInitialLimit,
+                                  @Value("${bank.limiter.write.max-limit:200}") int writeMaxLimit,
+                                  @Value("${bank.limiter.write.latency-threshold:250ms}") Duration writeThreshold,
+                                  @Value("${bank.limiter.batch.initial-limit:2}") int batchInitialLimit,
+                                  @Value("${bank.limiter.batch.max-limit:8}") int batchMaxLimit,
+                                  @Value("${bank.limiter.batch.latency-threshold:0s}") Duration batchThreshold)
+            throws JsonProcessingException {
+        Group read = new Group(registry, READ,
+                new AdaptiveLimit(readInitialLimit, minLimit, readMaxLimit, readThreshold, backoffRatio));
+        Group write = new Group(registry, WRITE,
+                new AdaptiveLimit(writeInitialLimit, minLimit, writeMaxLimit, writeThreshold, backoffRatio));
+        Group batch = new Group(registry, BATCH,
+                new AdaptiveLimit(batchInitialLimit, minLimit, batchMaxLimit, batchThreshold, backoffRatio));
+        groups.put("getBalance", read);
+        groups.put("getOperationList", read);
+        groups.put("getOperationPage", read);
+        groups.put("putMoney", write);
+        groups.put("takeMoney", write);
+        groups.put("transferMoney", write);
+        groups.put("transferMoneyBatch", batch);
+        rejection = objectMapper.writeValueAsBytes(new ResponseDto(BigDecimal.ZERO, ErrorMessage.SERVICE_OVERLOADED));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Group group = groups.get(endpointOf(request));
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!group.limit.tryAcquire()) {
+            group.rejections.increment();
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            group.limit.release(start, System.nanoTime(), failed);
+        }
+    }
+
+    // The first segment of the path, e.g. getBalance for /getBalance/1001
+    static String endpointOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        int from = path.startsWith("/") ? 1 : 0;
+        int to = path.indexOf('/', from);
+        return to < 0 ? path.substring(from) : path.substring(from, to);
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(rejection.length);
+        response.getOutputStream().write(rejection);
+    }
+
+    private static class Group {
+        private final AdaptiveLimit limit;
+        private final Counter rejections;
+
+        private Group(MeterRegistry registry, String name, AdaptiveLimit limit) {
+            this.limit = limit;
+            Gauge.builder(LIMIT, limit, AdaptiveLimit::getLimit)
+                    .description("Current limit of API requests in progress")
+                    .tag("group", name)
+                    .register(registry);
+            Gauge.builder(IN_FLIGHT, limit, AdaptiveLimit::getInFlight)
+                    .description("API requests in progress")
+                    .tag("group", name)
+                    .register(registry);
+            rejections = Counter.builder(REJECTIONS)
+                    .description("API requests shed over the limit")
+                    .tag("group", name)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package dev.akuniutka.bank.api.metrics;
+
+import dev.akuniutka.bank.api.dto.AccountLockStatsDto;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Endpoint(id = "accountlocks")
+public class AccountLockEndpoint {
+    static final int DEFAULT_LIMIT = 20;
+    private final AccountLockMetrics metrics;
+
+    public AccountLockEndpoint(AccountLockMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @ReadOperation
+    public List<AccountLockStatsDto> mostContended(@Nullable Integer limit) {
+        return metrics.getMostContended(limit == null || limit <= 0 ? DEFAULT_LIMIT : limit);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        metrics.reset();
+    }
+}
@@ -0,0 +1,113 @@
+package dev.akuniutka.bank.api.metrics;
+
+import dev.akuniutka.bank.api.dto.AccountLockStatsDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class AccountLockMetrics {
+    static final String LOCK_WAIT = "bank.account.lock.wait";
+    static final String LOCK_CONTENDED = "bank.account.lock.contended";
+    static final String LOCK_TRACKED = "bank.account.lock.tracked";
+    static final long CONTENTION_THRESHOLD = TimeUnit.MILLISECONDS.toNanos(10);
+    static final int MAX_TRACKED_ACCOUNTS = 1000;
+    private final Map<Long, Contention> contentions = new ConcurrentHashMap<>();
+    private final Timer lockWait;
+    private final Counter lockContended;
+
+    public AccountLockMetrics(MeterRegistry registry) {
+        lockWait = Timer.builder(LOCK_WAIT)
+                .description("Time spent acquiring pessimistic account locks")
+                .register(registry);
+        lockContended = Counter.builder(LOCK_CONTENDED)
+                .description("Account lock acquisitions slower than the contention threshold")
+                .register(registry);
+        registry.gaugeMapSize(LOCK_TRACKED, Tags.empty(), contentions);
+    }
+
+    public void recordLockWait(Collection<Long> userIds, long nanos) {
+        lockWait.record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos < CONTENTION_THRESHOLD) {
+            return;
+        }
+        lockContended.increment();
+        for (Long userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            Contention contention = contentions.get(userId);
+            if (contention == null) {
+                if (contentions.size() >= MAX_TRACKED_ACCOUNTS) {
+                    evictLeastContended();
+                }
+                contention = contentions.computeIfAbsent(userId, id -> new Contention());
+            }
+            contention.record(nanos);
+        }
+    }
+
+    public List<AccountLockStatsDto> getMostContended(int limit) {
+        List<AccountLockStatsDto> stats = new ArrayList<>();
+        for (Map.Entry<Long, Contention> entry : contentions.entrySet()) {
+            stats.add(entry.getValue().toDto(entry.getKey()));
+        }
+        stats.sort(Comparator.comparingLong(AccountLockStatsDto::getTotalWaitMillis)
+                .thenComparingLong(AccountLockStatsDto::getContentions)
+                .reversed()
+        );
+        return stats.size() > limit ? new ArrayList<>(stats.subList(0, limit)) : stats;
+    }
+
+    public void reset() {
+        contentions.clear();
+    }
+
+    private void evictLeastContended() {
+        Long leastContended = null;
+        long leastWait = Long.MAX_VALUE;
+        for (Map.Entry<Long, Contention> entry : contentions.entrySet()) {
+            long wait = entry.getValue().totalNanos.sum();
+            if (wait < leastWait) {
+                leastWait = wait;
+                leastContended = entry.getKey();
+            }
+        }
+        if (leastContended != null) {
+            contentions.remove(leastContended);
+        }
+    }
+
+    private static class Contention {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        AccountLockStatsDto toDto(Long userId) {
+            return new AccountLockStatsDto(
+                    userId,
+                    count.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()),
+                    TimeUnit.NANOSECONDS.toMillis(maxNanos.get())
+            );
+        }
+    }
+}
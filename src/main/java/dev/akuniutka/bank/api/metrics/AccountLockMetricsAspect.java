@@ -0,0 +1,50 @@
+package dev.akuniutka.bank.api.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+@Aspect
+@Component
+public class AccountLockMetricsAspect {
+    private final AccountLockMetrics metrics;
+
+    public AccountLockMetricsAspect(AccountLockMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Around("execution(* dev.akuniutka.bank.api.repository.AccountRepository.*(..))"
+            + " && @annotation(org.springframework.data.jpa.repository.Lock)")
+    public Object timeLockAcquisition(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            metrics.recordLockWait(userIdsOf(joinPoint.getArgs()), System.nanoTime() - start);
+        }
+    }
+
+    static Collection<Long> userIdsOf(Object[] args) {
+        if (args.length == 0) {
+            return Collections.emptyList();
+        }
+        if (args[0] instanceof Long) {
+            return Collections.singletonList((Long) args[0]);
+        }
+        List<Long> userIds = new ArrayList<>();
+        if (args[0] instanceof Collection) {
+            for (Object arg : (Collection<?>) args[0]) {
+                if (arg instanceof Long) {
+                    userIds.add((Long) arg);
+                }
+            }
+        }
+        return userIds;
+    }
+}
@@ -0,0 +1,39 @@
+package dev.akuniutka.bank.api.metrics;
+
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.util.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class OperationMetrics {
+    static final String OPERATIONS = "bank.operations";
+    static final String OPERATIONS_AMOUNT = "bank.operations.amount";
+    static final String TYPE = "type";
+    private final Map<OperationType, Counter> counters = new EnumMap<>(OperationType.class);
+    private final Map<OperationType, Counter> amounts = new EnumMap<>(OperationType.class);
+
+    public OperationMetrics(MeterRegistry registry) {
+        for (OperationType type : OperationType.values()) {
+            counters.put(type, Counter.builder(OPERATIONS)
+                    .description("Number of committed operations")
+                    .tag(TYPE, type.getDescription())
+                    .register(registry)
+            );
+            amounts.put(type, Counter.builder(OPERATIONS_AMOUNT)
+                    .description("Money moved by committed operations")
+                    .tag(TYPE, type.getDescription())
+                    .register(registry)
+            );
+        }
+    }
+
+    public void recordOperation(OperationType type, Money amount) {
+        counters.get(type).increment();
+        amounts.get(type).increment(amount.getCents() / 100.0);
+    }
+}
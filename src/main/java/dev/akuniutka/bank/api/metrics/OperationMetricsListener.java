@@ -0,0 +1,31 @@
+package dev.akuniutka.bank.api.metrics;
+
+import dev.akuniutka.bank.api.entity.Operation;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+
+@Component
+public class OperationMetricsListener {
+    private final OperationMetrics metrics;
+
+    public OperationMetricsListener(OperationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @PostPersist
+    public void afterPersist(Operation operation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            metrics.recordOperation(operation.getType(), operation.getAmount());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                metrics.recordOperation(operation.getType(), operation.getAmount());
+            }
+        });
+    }
+}
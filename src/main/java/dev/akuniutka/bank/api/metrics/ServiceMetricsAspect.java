@@ -0,0 +1,85 @@
+package dev.akuniutka.bank.api.metrics;
+
+import dev.akuniutka.bank.api.exception.BadRequestException;
+import dev.akuniutka.bank.api.exception.OperationsNotFoundException;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.util.ErrorMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+    static final String SERVICE_CALLS = "bank.service.calls";
+    static final String SUCCESS = "success";
+    static final String NOT_FOUND = "not_found";
+    static final String INSUFFICIENT_BALANCE = "insufficient_balance";
+    static final String BAD_REQUEST = "bad_request";
+    static final String ERROR = "error";
+    private final MeterRegistry registry;
+
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * dev.akuniutka.bank.api.service.*Service.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            stop(sample, joinPoint, e);
+            throw e;
+        }
+        if (result instanceof Mono) {
+            Mono<?> mono = (Mono<?>) result;
+            return Mono.defer(() -> {
+                Timer.Sample subscription = Timer.start(registry);
+                return mono
+                        .doOnSuccess(value -> stop(subscription, joinPoint, null))
+                        .doOnError(e -> stop(subscription, joinPoint, e));
+            });
+        } else if (result instanceof Flux) {
+            Flux<?> flux = (Flux<?>) result;
+            return Flux.defer(() -> {
+                Timer.Sample subscription = Timer.start(registry);
+                return flux
+                        .doOnComplete(() -> stop(subscription, joinPoint, null))
+                        .doOnError(e -> stop(subscription, joinPoint, e));
+            });
+        }
+        stop(sample, joinPoint, null);
+        return result;
+    }
+
+    static String outcomeOf(Throwable e) {
+        if (e == null) {
+            return SUCCESS;
+        } else if (e instanceof UserNotFoundException || e instanceof OperationsNotFoundException) {
+            return NOT_FOUND;
+        } else if (e instanceof WrongAmountException && ErrorMessage.INSUFFICIENT_BALANCE.equals(e.getMessage())) {
+            return INSUFFICIENT_BALANCE;
+        } else if (e instanceof BadRequestException) {
+            return BAD_REQUEST;
+        }
+        return ERROR;
+    }
+
+    private void stop(Timer.Sample sample, ProceedingJoinPoint joinPoint, Throwable e) {
+        sample.stop(Timer.builder(SERVICE_CALLS)
+                .description("Latency of service method calls")
+                .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("outcome", outcomeOf(e))
+                .register(registry)
+        );
+    }
+}
@@ -1,12 +1,19 @@
 package dev.akuniutka.bank.api.repository;
 
 import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.util.Money;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +21,22 @@ public interface AccountRepository extends CrudRepository<Account, Long> {
     @NonNull
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Account> findById(@NonNull Long userId);
+
+    Optional<Account> readById(Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForShare(@Param("id") Long userId);
+
+    @Query("SELECT a.balance FROM Account a WHERE a.id = :id")
+    Optional<Money> findBalanceById(@Param("id") Long userId);
+
+    @Transactional
+    @Query(value = "UPDATE ACCOUNT SET BALANCE = BALANCE + :delta WHERE ID = :id AND BALANCE + :delta >= 0"
+            + " RETURNING BALANCE", nativeQuery = true)
+    Optional<BigDecimal> addToBalance(@Param("id") Long userId, @Param("delta") BigDecimal delta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> userIds);
 }
@@ -0,0 +1,54 @@
+package dev.akuniutka.bank.api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class AccountSlotRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountSlotRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean credit(Long userId, int slot, BigDecimal amount) {
+        return jdbcTemplate.update("UPDATE ACCOUNT_SLOT SET BALANCE = BALANCE + ? WHERE ACCOUNT_ID = ? AND SLOT = ?",
+                amount, userId, slot) > 0;
+    }
+
+    // Balance of the account together with its slots, read by one statement
+    public Optional<BigDecimal> findTotalBalance(Long userId) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList("SELECT A.BALANCE"
+                + " + COALESCE((SELECT SUM(S.BALANCE) FROM ACCOUNT_SLOT S WHERE S.ACCOUNT_ID = A.ID), 0)"
+                + " FROM ACCOUNT A WHERE A.ID = ?", BigDecimal.class, userId);
+        return balances.isEmpty() ? Optional.empty() : Optional.of(balances.get(0));
+    }
+
+    // Empties all slots of the account and returns the money taken from them
+    public BigDecimal drain(Long userId) {
+        return jdbcTemplate.queryForObject("WITH DRAINED AS (UPDATE ACCOUNT_SLOT S SET BALANCE = 0"
+                + " FROM (SELECT SLOT, BALANCE FROM ACCOUNT_SLOT WHERE ACCOUNT_ID = ? AND BALANCE > 0 FOR UPDATE) O"
+                + " WHERE S.ACCOUNT_ID = ? AND S.SLOT = O.SLOT RETURNING O.BALANCE)"
+                + " SELECT COALESCE(SUM(BALANCE), 0) FROM DRAINED", BigDecimal.class, userId, userId);
+    }
+
+    public void createSlots(Long userId, int slots) {
+        jdbcTemplate.update("INSERT INTO ACCOUNT_SLOT (ACCOUNT_ID, SLOT) SELECT ID, SLOT FROM ACCOUNT"
+                + " CROSS JOIN generate_series(0, ? - 1) AS SLOT WHERE ID = ? ON CONFLICT DO NOTHING", slots, userId);
+    }
+
+    // Deletes the slots with the given and greater numbers and returns the money taken from them
+    public BigDecimal removeSlots(Long userId, int fromSlot) {
+        return jdbcTemplate.queryForObject("WITH REMOVED AS (DELETE FROM ACCOUNT_SLOT"
+                + " WHERE ACCOUNT_ID = ? AND SLOT >= ? RETURNING BALANCE)"
+                + " SELECT COALESCE(SUM(BALANCE), 0) FROM REMOVED", BigDecimal.class, userId, fromSlot);
+    }
+
+    public List<Long> findStripedAccounts() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT ACCOUNT_ID FROM ACCOUNT_SLOT ORDER BY ACCOUNT_ID", Long.class);
+    }
+}
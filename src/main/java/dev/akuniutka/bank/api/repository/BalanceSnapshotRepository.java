@@ -0,0 +1,85 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.ledger.LedgerBalance;
+import dev.akuniutka.bank.api.util.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public class BalanceSnapshotRepository {
+    // Snapshot of every account plus its operations after the snapshot. An account without a snapshot
+    // has the balance it was created with, all its operations come after it.
+    private static final String BALANCES = "SELECT A.ID,"
+            + " COALESCE(S.BALANCE, A.BALANCE) + COALESCE(D.DELTA, 0) AS BALANCE,"
+            + " COALESCE(D.POSITION, S.POSITION, 0) AS POSITION, D.COUNT"
+            + " FROM ACCOUNT A LEFT JOIN BALANCE_SNAPSHOT S ON S.ACCOUNT_ID = A.ID"
+            + " CROSS JOIN LATERAL (SELECT SUM(CASE WHEN O.TYPE IN ('" + OperationType.DEPOSIT.getCode() + "', '"
+            + OperationType.INCOMING_TRANSFER.getCode() + "') THEN O.AMOUNT ELSE -O.AMOUNT END) AS DELTA,"
+            + " MAX(O.POSITION) AS POSITION, COUNT(*) AS COUNT FROM OPERATION O"
+            + " WHERE O.ACCOUNT_ID = A.ID AND O.POSITION > COALESCE(S.POSITION, 0)) D";
+    private static final RowMapper<LedgerBalance> BALANCE_MAPPER = (rs, rowNum) -> new LedgerBalance(
+            rs.getLong("ID"), Money.of(rs.getBigDecimal("BALANCE")), rs.getLong("POSITION"), rs.getLong("COUNT")
+    );
+    private final JdbcTemplate jdbcTemplate;
+
+    public BalanceSnapshotRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Locks are held until the end of the transaction
+    public void lock(Long userId) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", userId);
+    }
+
+    public void lockShared(Long userId) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock_shared(?)", userId);
+    }
+
+    public List<LedgerBalance> findBalances(Collection<Long> userIds) {
+        return jdbcTemplate.query(BALANCES + " WHERE A.ID = ANY (?) ORDER BY A.ID", ps -> {
+            Array ids = ps.getConnection().createArrayOf("BIGINT", userIds.toArray());
+            ps.setArray(1, ids);
+        }, BALANCE_MAPPER);
+    }
+
+    public void saveSnapshot(LedgerBalance balance) {
+        jdbcTemplate.update("INSERT INTO BALANCE_SNAPSHOT (ACCOUNT_ID, BALANCE, POSITION, DATE)"
+                        + " VALUES (?, ?, ?, LOCALTIMESTAMP) ON CONFLICT (ACCOUNT_ID) DO UPDATE"
+                        + " SET BALANCE = EXCLUDED.BALANCE, POSITION = EXCLUDED.POSITION, DATE = EXCLUDED.DATE",
+                balance.getUserId(), balance.getBalance().toBigDecimal(), balance.getPosition()
+        );
+    }
+
+    // Locks the mode row, so that only one instance switches the mode
+    public boolean isEventSourced() {
+        Boolean eventSourced = jdbcTemplate.queryForObject(
+                "SELECT EVENT_SOURCED FROM LEDGER_MODE WHERE ID = 1 FOR UPDATE", Boolean.class
+        );
+        return Boolean.TRUE.equals(eventSourced);
+    }
+
+    public void setEventSourced(boolean eventSourced) {
+        jdbcTemplate.update("UPDATE LEDGER_MODE SET EVENT_SOURCED = ? WHERE ID = 1", eventSourced);
+    }
+
+    // Takes snapshots of all accounts from their current balances
+    public void saveAllSnapshots() {
+        jdbcTemplate.update("INSERT INTO BALANCE_SNAPSHOT (ACCOUNT_ID, BALANCE, POSITION, DATE)"
+                + " SELECT ID, BALANCE, (SELECT COALESCE(MAX(POSITION), 0) FROM OPERATION), LOCALTIMESTAMP"
+                + " FROM ACCOUNT"
+                + " ON CONFLICT (ACCOUNT_ID) DO UPDATE"
+                + " SET BALANCE = EXCLUDED.BALANCE, POSITION = EXCLUDED.POSITION, DATE = EXCLUDED.DATE");
+    }
+
+    // Writes balances derived from snapshots and operations back to the accounts
+    public void restoreAccountBalances() {
+        jdbcTemplate.update("UPDATE ACCOUNT SET BALANCE = B.BALANCE FROM (" + BALANCES + ") B"
+                + " WHERE ACCOUNT.ID = B.ID AND ACCOUNT.BALANCE <> B.BALANCE");
+    }
+}
@@ -0,0 +1,43 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.cache.StoredResponse;
+import dev.akuniutka.bank.api.dto.ResponseDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class IdempotencyKeyRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Waits for a transaction that has inserted the same key until it ends. Returns false if the key
+    // is already committed.
+    public boolean insert(String key, String request) {
+        return jdbcTemplate.update("INSERT INTO IDEMPOTENCY_KEY (ID, REQUEST) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                key, request) > 0;
+    }
+
+    public void saveResponse(String key, ResponseDto response) {
+        jdbcTemplate.update("UPDATE IDEMPOTENCY_KEY SET RESULT = ?, MESSAGE = ? WHERE ID = ?", response.getResult(),
+                response.getMessage(), key);
+    }
+
+    public Optional<StoredResponse> find(String key) {
+        List<StoredResponse> responses = jdbcTemplate.query("SELECT REQUEST, RESULT, MESSAGE FROM IDEMPOTENCY_KEY"
+                + " WHERE ID = ? AND RESULT IS NOT NULL", (rs, rowNum) -> new StoredResponse(rs.getString("REQUEST"),
+                new ResponseDto(rs.getBigDecimal("RESULT"), rs.getString("MESSAGE"))), key);
+        return responses.isEmpty() ? Optional.empty() : Optional.of(responses.get(0));
+    }
+
+    public int deleteOlderThan(Duration age) {
+        return jdbcTemplate.update("DELETE FROM IDEMPOTENCY_KEY WHERE DATE < LOCALTIMESTAMP - ? * INTERVAL '1 second'",
+                age.getSeconds());
+    }
+}
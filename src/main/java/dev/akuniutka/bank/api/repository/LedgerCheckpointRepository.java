@@ -0,0 +1,22 @@
+package dev.akuniutka.bank.api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class LedgerCheckpointRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public LedgerCheckpointRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long getSequence() {
+        Long sequence = jdbcTemplate.queryForObject("SELECT SEQUENCE FROM LEDGER_CHECKPOINT WHERE ID = 1", Long.class);
+        return sequence == null ? 0L : sequence;
+    }
+
+    public void updateSequence(long sequence) {
+        jdbcTemplate.update("UPDATE LEDGER_CHECKPOINT SET SEQUENCE = ? WHERE ID = 1", sequence);
+    }
+}
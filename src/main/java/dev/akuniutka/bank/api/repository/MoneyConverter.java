@@ -0,0 +1,26 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.util.Money;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.math.BigDecimal;
+
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        if (money == null) {
+            return null;
+        }
+        return money.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        return Money.of(amount);
+    }
+}
@@ -0,0 +1,142 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+@Repository
+public class OperationArchiveRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public OperationArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean hasSegments() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM OPERATION_ARCHIVE)", Boolean.class
+        ));
+    }
+
+    public List<Long> findAccountsWithOperationsBefore(OffsetDateTime finish) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT ACCOUNT_ID FROM OPERATION WHERE DATE < ? ORDER BY ACCOUNT_ID",
+                Long.class, toTimestamp(finish)
+        );
+    }
+
+    public int archiveTransfersBefore(OffsetDateTime finish) {
+        return jdbcTemplate.update("WITH MOVED AS (DELETE FROM TRANSFER WHERE DATE < ?"
+                + " RETURNING ID, OUTGOING_TRANSFER_ID, INCOMING_TRANSFER_ID, DATE)"
+                + " INSERT INTO TRANSFER_ARCHIVE (ID, OUTGOING_TRANSFER_ID, INCOMING_TRANSFER_ID, DATE)"
+                + " SELECT ID, OUTGOING_TRANSFER_ID, INCOMING_TRANSFER_ID, DATE FROM MOVED", toTimestamp(finish)
+        );
+    }
+
+    public void saveSegment(Account account, List<Operation> operations) {
+        jdbcTemplate.update("INSERT INTO OPERATION_ARCHIVE (ACCOUNT_ID, FIRST_DATE, LAST_DATE, OPERATION_COUNT, DATA)"
+                        + " VALUES (?, ?, ?, ?, ?)",
+                account.getId(),
+                toTimestamp(operations.get(0).getDate()),
+                toTimestamp(operations.get(operations.size() - 1).getDate()),
+                operations.size(),
+                OperationSegmentCodec.encode(operations)
+        );
+    }
+
+    public int deleteOperations(List<Operation> operations) {
+        List<Object[]> ids = new ArrayList<>(operations.size());
+        for (Operation operation : operations) {
+            ids.add(new Object[]{operation.getId(), toTimestamp(operation.getDate())});
+        }
+        int count = 0;
+        for (int deleted : jdbcTemplate.batchUpdate("DELETE FROM OPERATION WHERE ID = ? AND DATE = ?", ids)) {
+            count += deleted;
+        }
+        return count;
+    }
+
+    public List<Operation> findByAccount(Account account, OffsetDateTime start, OffsetDateTime finish) {
+        List<Operation> operations = new ArrayList<>();
+        forEachSegment(account, start, finish, segment -> {
+            for (Operation operation : segment) {
+                if (isBetween(operation, start, finish)) {
+                    operations.add(operation);
+                }
+            }
+            return true;
+        });
+        return operations;
+    }
+
+    // Operations after the one with the start date and the id, segments past the page are not read
+    public List<Operation> findPageByAccount(Account account, OffsetDateTime start, Long id, OffsetDateTime finish,
+                                             int limit
+    ) {
+        List<Operation> operations = new ArrayList<>();
+        forEachSegment(account, start, finish, segment -> {
+            for (Operation operation : segment) {
+                if (operations.size() == limit) {
+                    return false;
+                }
+                if (isBetween(operation, start, finish)
+                        && (start == null || operation.getDate().isAfter(start) || operation.getId() > id)) {
+                    operations.add(operation);
+                }
+            }
+            return operations.size() < limit;
+        });
+        return operations;
+    }
+
+    public void forEachByAccount(Account account, Consumer<Operation> consumer) {
+        forEachSegment(account, null, null, segment -> {
+            segment.forEach(consumer);
+            return true;
+        });
+    }
+
+    // Decodes one segment at a time in the order of dates until the handler returns false
+    private void forEachSegment(Account account, OffsetDateTime start, OffsetDateTime finish,
+                                Predicate<List<Operation>> handler
+    ) {
+        StringBuilder sql = new StringBuilder("SELECT DATA FROM OPERATION_ARCHIVE WHERE ACCOUNT_ID = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(account.getId());
+        if (start != null) {
+            sql.append(" AND LAST_DATE >= ?");
+            args.add(toTimestamp(start));
+        }
+        if (finish != null) {
+            sql.append(" AND FIRST_DATE < ?");
+            args.add(toTimestamp(finish));
+        }
+        sql.append(" ORDER BY FIRST_DATE, ID");
+        jdbcTemplate.query(sql.toString(), (ResultSetExtractor<Void>) resultSet -> {
+            while (resultSet.next()) {
+                if (!handler.test(OperationSegmentCodec.decode(resultSet.getBytes(1), account))) {
+                    break;
+                }
+            }
+            return null;
+        }, args.toArray());
+    }
+
+    private boolean isBetween(Operation operation, OffsetDateTime start, OffsetDateTime finish) {
+        OffsetDateTime date = operation.getDate();
+        return (start == null || !date.isBefore(start)) && (finish == null || date.isBefore(finish));
+    }
+
+    private Timestamp toTimestamp(OffsetDateTime date) {
+        return Timestamp.valueOf(date.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime());
+    }
+}
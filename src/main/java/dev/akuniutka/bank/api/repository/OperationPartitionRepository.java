@@ -0,0 +1,20 @@
+package dev.akuniutka.bank.api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+@Repository
+public class OperationPartitionRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public OperationPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public String createPartition(LocalDate month) {
+        return jdbcTemplate.queryForObject("SELECT CREATE_OPERATION_PARTITION(?)", String.class, Date.valueOf(month));
+    }
+}
@@ -2,6 +2,7 @@ package dev.akuniutka.bank.api.repository;
 
 import dev.akuniutka.bank.api.entity.Account;
 import dev.akuniutka.bank.api.entity.Operation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -10,20 +11,44 @@ import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface OperationRepository extends CrudRepository<Operation, Long> {
-    List<Operation> findByAccount(Account account);
+    @Query("SELECT o FROM Operation o WHERE o.account = :account ORDER BY o.date, o.id")
+    List<Operation> findByAccount(@Param("account") Account account);
 
-    @Query("SELECT o FROM Operation o WHERE o.account = :account AND o.date < :finish")
+    @Query("SELECT o FROM Operation o WHERE o.account = :account AND o.date < :finish ORDER BY o.date, o.id")
     List<Operation> findByAccountAndDateBefore(
             @Param("account") Account account, @Param("finish") OffsetDateTime finish
     );
 
-    @Query("SELECT o FROM Operation o WHERE o.account = :account AND o.date >= :start")
+    @Query("SELECT o FROM Operation o WHERE o.account = :account AND o.date >= :start ORDER BY o.date, o.id")
     List<Operation> findByAccountAndDateAfter(
             @Param("account") Account account, @Param("start") OffsetDateTime start
     );
 
-    @Query("SELECT o FROM Operation o WHERE o.account = :account AND o.date >= :start AND o.date < :finish")
+    @Query("SELECT o FROM Operation o WHERE o.account = :account AND o.date >= :start AND o.date < :finish"
+            + " ORDER BY o.date, o.id")
     List<Operation> findByAccountAndDateBetween(
             @Param("account") Account account, @Param("start") OffsetDateTime start, @Param("finish") OffsetDateTime finish
     );
+
+    @Query("SELECT o FROM Operation o WHERE o.account = :account ORDER BY o.date, o.id")
+    List<Operation> findPageByAccount(@Param("account") Account account, Pageable pageable);
+
+    @Query("SELECT o FROM Operation o WHERE o.account = :account AND o.date < :finish ORDER BY o.date, o.id")
+    List<Operation> findPageByAccountAndDateBefore(
+            @Param("account") Account account, @Param("finish") OffsetDateTime finish, Pageable pageable
+    );
+
+    @Query("SELECT o FROM Operation o WHERE o.account = :account AND o.date >= :date AND (o.date > :date OR o.id > :id)"
+            + " ORDER BY o.date, o.id")
+    List<Operation> findPageByAccountAfter(
+            @Param("account") Account account, @Param("date") OffsetDateTime date, @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("SELECT o FROM Operation o WHERE o.account = :account AND o.date >= :date AND (o.date > :date OR o.id > :id)"
+            + " AND o.date < :finish ORDER BY o.date, o.id")
+    List<Operation> findPageByAccountAfterAndDateBefore(
+            @Param("account") Account account, @Param("date") OffsetDateTime date, @Param("id") Long id,
+            @Param("finish") OffsetDateTime finish, Pageable pageable
+    );
 }
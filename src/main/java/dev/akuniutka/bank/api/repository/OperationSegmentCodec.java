@@ -0,0 +1,61 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.util.ErrorMessage;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+class OperationSegmentCodec {
+    private static final int VERSION = 1;
+    private static final OperationTypeConverter TYPE_CONVERTER = new OperationTypeConverter();
+
+    static byte[] encode(List<Operation> operations) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(VERSION);
+            out.writeInt(operations.size());
+            for (Operation operation : operations) {
+                Instant date = operation.getDate().toInstant();
+                out.writeLong(operation.getId());
+                out.writeUTF(TYPE_CONVERTER.convertToDatabaseColumn(operation.getType()));
+                out.writeLong(operation.getAmountInCents());
+                out.writeLong(date.getEpochSecond());
+                out.writeInt(date.getNano());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<Operation> decode(byte[] data, Account account) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(data)))) {
+            if (in.readInt() != VERSION) {
+                throw new IllegalStateException(ErrorMessage.UNSUPPORTED_SEGMENT_VERSION);
+            }
+            int count = in.readInt();
+            List<Operation> operations = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Long id = in.readLong();
+                String type = in.readUTF();
+                BigDecimal amount = BigDecimal.valueOf(in.readLong(), 2);
+                Instant date = Instant.ofEpochSecond(in.readLong(), in.readInt());
+                operations.add(new Operation(id, account, TYPE_CONVERTER.convertToEntityAttribute(type), amount,
+                        OffsetDateTime.ofInstant(date, ZoneId.systemDefault())
+                ));
+            }
+            return operations;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -4,7 +4,6 @@ import dev.akuniutka.bank.api.entity.OperationType;
 
 import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
-import java.util.stream.Stream;
 
 @Converter(autoApply = true)
 public class OperationTypeConverter implements AttributeConverter<OperationType, String> {
@@ -18,12 +17,6 @@ public class OperationTypeConverter implements AttributeConverter<OperationType,
 
     @Override
     public OperationType convertToEntityAttribute(String code) {
-        if (code == null) {
-            return null;
-        }
-        return Stream.of(OperationType.values())
-                .filter(t -> t.getCode().equals(code))
-                .findFirst()
-                .orElseThrow(IllegalArgumentException::new);
+        return OperationType.fromCode(code);
     }
 }
@@ -0,0 +1,49 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.entity.Account;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+@Repository
+@Profile("reactive")
+public class ReactiveAccountRepository {
+    private final DatabaseClient client;
+
+    public ReactiveAccountRepository(DatabaseClient client) {
+        this.client = client;
+    }
+
+    public Mono<BigDecimal> findBalanceById(Long userId) {
+        return client.sql("SELECT BALANCE FROM ACCOUNT WHERE ID = :id")
+                .bind("id", userId)
+                .map(row -> row.get(0, BigDecimal.class))
+                .one();
+    }
+
+    public Mono<Account> findById(Long userId) {
+        return client.sql("SELECT ID, BALANCE FROM ACCOUNT WHERE ID = :id")
+                .bind("id", userId)
+                .map(row -> new Account(row.get(0, Long.class), row.get(1, BigDecimal.class)))
+                .one();
+    }
+
+    public Flux<Account> findAllByIdForUpdate(Collection<Long> userIds) {
+        return client.sql("SELECT ID, BALANCE FROM ACCOUNT WHERE ID IN (:ids) ORDER BY ID FOR UPDATE")
+                .bind("ids", userIds)
+                .map(row -> new Account(row.get(0, Long.class), row.get(1, BigDecimal.class)))
+                .all();
+    }
+
+    public Mono<Void> updateBalance(Account account) {
+        return client.sql("UPDATE ACCOUNT SET BALANCE = :balance WHERE ID = :id")
+                .bind("balance", account.getBalance().toBigDecimal())
+                .bind("id", account.getId())
+                .then();
+    }
+}
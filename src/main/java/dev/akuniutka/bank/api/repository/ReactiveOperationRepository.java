@@ -0,0 +1,73 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+@Repository
+@Profile("reactive")
+public class ReactiveOperationRepository {
+    private static final OperationTypeConverter TYPE_CONVERTER = new OperationTypeConverter();
+    private final DatabaseClient client;
+
+    public ReactiveOperationRepository(DatabaseClient client) {
+        this.client = client;
+    }
+
+    // A value taken with a plain nextval() is never the upper bound of a block reserved
+    // by Hibernate's pooled optimizer, so the ids do not clash with the JPA stack
+    public Mono<Long> save(Operation operation) {
+        return client.sql("INSERT INTO OPERATION (ID, ACCOUNT_ID, TYPE, AMOUNT, DATE) "
+                        + "VALUES (nextval('OPERATION_SEQUENCE'), :accountId, :type, :amount, :date) RETURNING ID")
+                .bind("accountId", operation.getAccount().getId())
+                .bind("type", TYPE_CONVERTER.convertToDatabaseColumn(operation.getType()))
+                .bind("amount", operation.getAmount().toBigDecimal())
+                .bind("date", toLocalDateTime(operation.getDate()))
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Flux<Operation> findByAccount(Account account, OffsetDateTime start, OffsetDateTime finish) {
+        StringBuilder sql = new StringBuilder("SELECT TYPE, AMOUNT, DATE FROM OPERATION WHERE ACCOUNT_ID = :accountId");
+        // The same half-open range as in OperationRepository
+        if (start != null) {
+            sql.append(" AND DATE >= :start");
+        }
+        if (finish != null) {
+            sql.append(" AND DATE < :finish");
+        }
+        sql.append(" ORDER BY DATE, ID");
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.toString()).bind("accountId", account.getId());
+        if (start != null) {
+            spec = spec.bind("start", toLocalDateTime(start));
+        }
+        if (finish != null) {
+            spec = spec.bind("finish", toLocalDateTime(finish));
+        }
+        return spec
+                .map(row -> new Operation(
+                        account,
+                        TYPE_CONVERTER.convertToEntityAttribute(row.get(0, String.class)),
+                        row.get(1, BigDecimal.class),
+                        toOffsetDateTime(row.get(2, LocalDateTime.class))
+                ))
+                .all();
+    }
+
+    static LocalDateTime toLocalDateTime(OffsetDateTime date) {
+        return date.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    private OffsetDateTime toOffsetDateTime(LocalDateTime date) {
+        return date.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+}
@@ -0,0 +1,29 @@
+package dev.akuniutka.bank.api.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+
+@Repository
+@Profile("reactive")
+public class ReactiveTransferRepository {
+    private final DatabaseClient client;
+
+    public ReactiveTransferRepository(DatabaseClient client) {
+        this.client = client;
+    }
+
+    public Mono<Long> save(Long outgoingTransferId, Long incomingTransferId, OffsetDateTime date) {
+        return client.sql("INSERT INTO TRANSFER (ID, OUTGOING_TRANSFER_ID, INCOMING_TRANSFER_ID, DATE) "
+                        + "VALUES (nextval('TRANSFER_SEQUENCE'), :outgoingTransferId, :incomingTransferId, :date)"
+                        + " RETURNING ID")
+                .bind("outgoingTransferId", outgoingTransferId)
+                .bind("incomingTransferId", incomingTransferId)
+                .bind("date", ReactiveOperationRepository.toLocalDateTime(date))
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+}
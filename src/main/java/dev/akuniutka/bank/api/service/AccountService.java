@@ -1,21 +1,48 @@
 package dev.akuniutka.bank.api.service;
 
+import dev.akuniutka.bank.api.cache.BalanceCache;
 import dev.akuniutka.bank.api.entity.Account;
 import dev.akuniutka.bank.api.exception.NullUserIdException;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.ledger.EventSourcedLedger;
+import dev.akuniutka.bank.api.ledger.LedgerBalance;
+import dev.akuniutka.bank.api.ledger.WriteBehindLedger;
+import dev.akuniutka.bank.api.util.AmountValidator;
 import dev.akuniutka.bank.api.util.ErrorMessage;
+import dev.akuniutka.bank.api.util.Money;
 import dev.akuniutka.bank.api.exception.UserNotFoundException;
 import dev.akuniutka.bank.api.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
 import java.math.BigDecimal;
+import java.util.*;
 
 @Service
 public class AccountService {
     private final AccountRepository repository;
+    private final BalanceCache balanceCache;
+    private final WriteBehindLedger ledger;
+    private final EventSourcedLedger eventLedger;
+    private final AccountSlotService slotService;
+    private final boolean atomicBalanceUpdate;
 
-    public AccountService(AccountRepository repository) {
+    public AccountService(AccountRepository repository, BalanceCache balanceCache, WriteBehindLedger ledger,
+                          EventSourcedLedger eventLedger, AccountSlotService slotService,
+                          @Value("${bank.account.atomic-balance-update:false}") boolean atomicBalanceUpdate) {
+        if (ledger.isEnabled() && eventLedger.isEnabled()) {
+            throw new IllegalStateException(ErrorMessage.LEDGER_MODES_CONFLICT);
+        }
+        if (slotService.isEnabled() && (ledger.isEnabled() || eventLedger.isEnabled())) {
+            throw new IllegalStateException(ErrorMessage.STRIPING_WITH_LEDGER);
+        }
         this.repository = repository;
+        this.balanceCache = balanceCache;
+        this.ledger = ledger;
+        this.eventLedger = eventLedger;
+        this.slotService = slotService;
+        this.atomicBalanceUpdate = atomicBalanceUpdate;
     }
 
     public Account getAccount(Long userId) {
@@ -25,20 +52,220 @@ public class AccountService {
         return repository.findById(userId).orElseThrow(() -> new UserNotFoundException(ErrorMessage.USER_NOT_FOUND));
     }
 
-    @Transactional
+    public Account readAccount(Long userId) {
+        if (userId == null) {
+            throw new NullUserIdException(ErrorMessage.USER_ID_IS_NULL);
+        }
+        return repository.readById(userId).orElseThrow(() -> new UserNotFoundException(ErrorMessage.USER_NOT_FOUND));
+    }
+
+    // Locks accounts of a transfer in the order of their ids. A striped payee is locked for share only, so that
+    // transfers to it do not wait for each other.
+    public void lockAccounts(Long payerId, Long payeeId) {
+        if (payerId == null || payerId.equals(payeeId) || !slotService.isStriped(payeeId)) {
+            lockAccounts(Arrays.asList(payerId, payeeId));
+            return;
+        }
+        if (payerId < payeeId) {
+            lockAccounts(Collections.singleton(payerId));
+            repository.findByIdForShare(payeeId);
+        } else {
+            repository.findByIdForShare(payeeId);
+            lockAccounts(Collections.singleton(payerId));
+        }
+    }
+
+    public List<Account> lockAccounts(Collection<Long> userIds) {
+        SortedSet<Long> ids = new TreeSet<>();
+        for (Long userId : userIds) {
+            if (userId != null) {
+                ids.add(userId);
+            }
+        }
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (eventLedger.isEnabled()) {
+            List<Account> accounts = new ArrayList<>(ids.size());
+            for (LedgerBalance balance : eventLedger.lock(ids)) {
+                accounts.add(new Account(balance.getUserId(), balance.getBalance()));
+            }
+            return accounts;
+        }
+        ledger.flush(ids);
+        return repository.findAllByIdForUpdate(ids);
+    }
+
+    // The account must be locked before. Slots of a striped account are emptied into it only when its own balance
+    // is not enough.
+    public void decreaseLockedBalance(Account account, Money amount) {
+        if (slotService.isStriped(account.getId())) {
+            AmountValidator.assertAmount(amount);
+            if (account.getBalance().compareTo(amount) < 0) {
+                drainSlots(account);
+            }
+        }
+        account.decreaseBalance(amount);
+    }
+
+    @Transactional(readOnly = true)
     public BigDecimal getUserBalance(Long userId) {
-        return getAccount(userId).getBalance();
+        if (userId == null) {
+            throw new NullUserIdException(ErrorMessage.USER_ID_IS_NULL);
+        }
+        if (eventLedger.isEnabled()) {
+            return eventLedger.getBalance(userId)
+                    .map(Money::toBigDecimal)
+                    .orElseThrow(() -> new UserNotFoundException(ErrorMessage.USER_NOT_FOUND));
+        }
+        if (slotService.isStriped(userId)) {
+            return slotService.getTotalBalance(userId)
+                    .orElseThrow(() -> new UserNotFoundException(ErrorMessage.USER_NOT_FOUND));
+        }
+        BigDecimal balance = ledger.getBalance(userId);
+        if (balance != null) {
+            return balance;
+        }
+        if (ledger.isEnabled()) {
+            // The ledger does not update the balance cache, and the database is up to date for the accounts whose
+            // balances it does not hold
+            return repository.findBalanceById(userId)
+                    .map(Money::toBigDecimal)
+                    .orElseThrow(() -> new UserNotFoundException(ErrorMessage.USER_NOT_FOUND));
+        }
+        return balanceCache.get(userId, id -> repository.findBalanceById(id)
+                .map(Money::toBigDecimal)
+                .orElseThrow(() -> new UserNotFoundException(ErrorMessage.USER_NOT_FOUND)));
     }
 
-    public Account increaseUserBalance(Long userId, BigDecimal amount) {
-        Account account = getAccount(userId);
-        account.increaseBalance(amount);
-        return repository.save(account);
+    public void cacheBalances(Collection<Account> accounts) {
+        for (Account account : accounts) {
+            balanceCache.putAfterCommit(account.getId(), account.getBalance().toBigDecimal());
+        }
     }
 
-    public Account decreaseUserBalance(Long userId, BigDecimal amount) {
+    // Accounts of the transfer must be locked before
+    public void recordTransfer(Long payerId, Long payeeId, Money amount) {
+        ledger.debit(payerId, amount);
+        ledger.creditAfterCommit(payeeId, amount);
+        eventLedger.recordAppended(payerId);
+        eventLedger.recordAppended(payeeId);
+    }
+
+    public Account increaseUserBalance(Long userId, Money amount) {
+        if (eventLedger.isEnabled()) {
+            return appendCredit(userId, amount);
+        }
+        if (slotService.isStriped(userId)) {
+            return creditSlot(userId, amount);
+        }
+        ledger.track(userId);
+        Account account;
+        if (atomicBalanceUpdate) {
+            account = addToBalance(userId, amount, false);
+        } else {
+            account = getAccount(userId);
+            account.increaseBalance(amount);
+            account = repository.save(account);
+        }
+        ledger.creditAfterCommit(account.getId(), amount);
+        balanceCache.putAfterCommit(account.getId(), account.getBalance().toBigDecimal());
+        return account;
+    }
+
+    public Account decreaseUserBalance(Long userId, Money amount) {
+        if (eventLedger.isEnabled()) {
+            return appendDebit(userId, amount);
+        }
+        if (slotService.isStriped(userId)) {
+            return debitStriped(userId, amount);
+        }
+        ledger.track(userId);
+        Account account;
+        if (atomicBalanceUpdate) {
+            account = addToBalance(userId, amount, true);
+        } else {
+            account = getAccount(userId);
+            account.decreaseBalance(amount);
+            account = repository.save(account);
+        }
+        ledger.debit(account.getId(), amount);
+        balanceCache.putAfterCommit(account.getId(), account.getBalance().toBigDecimal());
+        return account;
+    }
+
+    // In event-sourced mode the account is not changed, only the operation is saved
+    private Account appendCredit(Long userId, Money amount) {
+        Account account = readAccount(userId);
+        AmountValidator.assertAmount(amount);
+        eventLedger.lockShared(userId);
+        eventLedger.recordAppended(userId);
+        return account;
+    }
+
+    private Account appendDebit(Long userId, Money amount) {
+        if (userId == null) {
+            throw new NullUserIdException(ErrorMessage.USER_ID_IS_NULL);
+        }
+        List<LedgerBalance> balances = eventLedger.lock(Collections.singleton(userId));
+        if (balances.isEmpty()) {
+            throw new UserNotFoundException(ErrorMessage.USER_NOT_FOUND);
+        }
+        Account account = new Account(userId, balances.get(0).getBalance());
+        account.decreaseBalance(amount);
+        eventLedger.recordAppended(userId);
+        return account;
+    }
+
+    // The balance of a striped account is not cached, as most of it is kept in slots
+    private Account creditSlot(Long userId, Money amount) {
+        Account account = repository.findByIdForShare(userId)
+                .orElseThrow(() -> new UserNotFoundException(ErrorMessage.USER_NOT_FOUND));
+        AmountValidator.assertAmount(amount);
+        slotService.credit(userId, amount.toBigDecimal());
+        return account;
+    }
+
+    // Slots are emptied into the account only when its own balance is not enough
+    private Account debitStriped(Long userId, Money amount) {
         Account account = getAccount(userId);
+        AmountValidator.assertAmount(amount);
+        if (account.getBalance().compareTo(amount) < 0) {
+            drainSlots(account);
+        }
         account.decreaseBalance(amount);
         return repository.save(account);
     }
+
+    private void drainSlots(Account account) {
+        BigDecimal drained = slotService.drain(account.getId());
+        if (drained.signum() > 0) {
+            account.increaseBalance(Money.of(drained));
+        }
+    }
+
+    private Account addToBalance(Long userId, Money amount, boolean isDecrease) {
+        if (userId == null) {
+            throw new NullUserIdException(ErrorMessage.USER_ID_IS_NULL);
+        }
+        try {
+            AmountValidator.assertAmount(amount);
+        } catch (WrongAmountException e) {
+            assertAccountExists(userId);
+            throw e;
+        }
+        Money delta = isDecrease ? Money.ZERO.subtract(amount) : amount;
+        Optional<BigDecimal> balance = repository.addToBalance(userId, delta.toBigDecimal());
+        if (!balance.isPresent()) {
+            assertAccountExists(userId);
+            throw new WrongAmountException(ErrorMessage.INSUFFICIENT_BALANCE);
+        }
+        return new Account(userId, balance.get());
+    }
+
+    private void assertAccountExists(Long userId) {
+        if (!repository.existsById(userId)) {
+            throw new UserNotFoundException(ErrorMessage.USER_NOT_FOUND);
+        }
+    }
 }
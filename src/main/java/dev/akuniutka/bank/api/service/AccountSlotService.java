@@ -0,0 +1,105 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.repository.AccountRepository;
+import dev.akuniutka.bank.api.repository.AccountSlotRepository;
+import dev.akuniutka.bank.api.util.ErrorMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Money paid to a striped account is added to one of its slots chosen at random, so that credits to the account
+// lock different rows. Slots are emptied into the account when money is taken from it.
+//
+// A credit to a slot holds a share lock on the account row, a debit holds an exclusive one. So a debit waits
+// for the credits in progress before it takes money from the slots, and slots are always locked after accounts.
+@Service
+public class AccountSlotService {
+    private final AccountRepository accountRepository;
+    private final AccountSlotRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Integer> slots;
+
+    public AccountSlotService(AccountRepository accountRepository, AccountSlotRepository repository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${bank.account.striping.slots:}") String slots) {
+        this.accountRepository = accountRepository;
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.slots = parseSlots(slots);
+    }
+
+    // Creates missing slots and empties the ones that are not configured any more into their accounts
+    @PostConstruct
+    public void start() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Map.Entry<Long, Integer> entry : slots.entrySet()) {
+                repository.createSlots(entry.getKey(), entry.getValue());
+            }
+            for (Long userId : repository.findStripedAccounts()) {
+                accountRepository.findById(userId);
+                BigDecimal removed = repository.removeSlots(userId, slots.getOrDefault(userId, 0));
+                if (removed.signum() > 0) {
+                    accountRepository.addToBalance(userId, removed);
+                }
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return !slots.isEmpty();
+    }
+
+    public boolean isStriped(Long userId) {
+        return userId != null && slots.containsKey(userId);
+    }
+
+    // The account row must be locked for share before
+    public void credit(Long userId, BigDecimal amount) {
+        int slot = ThreadLocalRandom.current().nextInt(slots.get(userId));
+        if (!repository.credit(userId, slot, amount)) {
+            throw new IllegalStateException(ErrorMessage.ACCOUNT_SLOT_NOT_FOUND);
+        }
+    }
+
+    // The account row must be locked before
+    public BigDecimal drain(Long userId) {
+        return repository.drain(userId);
+    }
+
+    public Optional<BigDecimal> getTotalBalance(Long userId) {
+        return repository.findTotalBalance(userId);
+    }
+
+    // Slot counts are given as a comma-separated list of account id and count pairs, e.g. 1001:16,1002:4
+    static Map<Long, Integer> parseSlots(String value) {
+        Map<Long, Integer> slots = new HashMap<>();
+        if (value == null || value.trim().isEmpty()) {
+            return slots;
+        }
+        for (String pair : value.split(",")) {
+            String[] parts = pair.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(ErrorMessage.WRONG_ACCOUNT_SLOTS);
+            }
+            long userId;
+            int count;
+            try {
+                userId = Long.parseLong(parts[0].trim());
+                count = Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(ErrorMessage.WRONG_ACCOUNT_SLOTS, e);
+            }
+            if (count < 1) {
+                throw new IllegalArgumentException(ErrorMessage.WRONG_ACCOUNT_SLOTS);
+            }
+            slots.put(userId, count);
+        }
+        return slots;
+    }
+}
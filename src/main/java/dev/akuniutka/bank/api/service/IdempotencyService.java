@@ -0,0 +1,103 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.cache.IdempotencyCache;
+import dev.akuniutka.bank.api.cache.StoredResponse;
+import dev.akuniutka.bank.api.dto.ResponseDto;
+import dev.akuniutka.bank.api.exception.BadRequestException;
+import dev.akuniutka.bank.api.ledger.WriteBehindLedger;
+import dev.akuniutka.bank.api.repository.IdempotencyKeyRepository;
+import dev.akuniutka.bank.api.util.ErrorMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// A request with an idempotency key is made in the transaction that inserts the key, so the key is committed
+// if and only if the request is. A repeated request waits for the first one on the key's index entry and
+// returns its response instead of being made again; a failed request leaves no key and may be repeated.
+// The write-behind ledger acknowledges deposits and withdrawals outside any database transaction, so requests
+// with a key are rejected while it is enabled.
+@Service
+public class IdempotencyService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyService.class);
+    static final int MAX_KEY_LENGTH = 255;
+    private final IdempotencyKeyRepository repository;
+    private final IdempotencyCache cache;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final boolean writeBehind;
+    private final Duration ttl;
+
+    public IdempotencyService(IdempotencyKeyRepository repository, IdempotencyCache cache,
+                              PlatformTransactionManager transactionManager, WriteBehindLedger ledger,
+                              @Value("${bank.idempotency.enabled:true}") boolean enabled,
+                              @Value("${bank.idempotency.ttl:24h}") Duration ttl) {
+        this.repository = repository;
+        this.cache = cache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.writeBehind = ledger.isEnabled();
+        this.ttl = ttl;
+    }
+
+    public ResponseDto execute(String key, String request, Supplier<ResponseDto> action) {
+        if (!enabled) {
+            throw new BadRequestException(ErrorMessage.IDEMPOTENCY_KEYS_NOT_SUPPORTED);
+        }
+        if (writeBehind) {
+            throw new BadRequestException(ErrorMessage.IDEMPOTENCY_WITH_WRITE_BEHIND);
+        }
+        if (key == null || key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(ErrorMessage.WRONG_IDEMPOTENCY_KEY);
+        }
+        StoredResponse stored = cache.get(key);
+        if (stored == null) {
+            stored = transactionTemplate.execute(status -> {
+                if (!repository.insert(key, request)) {
+                    return repository.find(key).orElse(null);
+                }
+                ResponseDto response = action.get();
+                repository.saveResponse(key, response);
+                return new StoredResponse(request, response);
+            });
+            if (stored == null) {
+                // The key has expired and been purged after the insert
+                return execute(key, request, action);
+            }
+            cache.put(key, stored);
+        }
+        if (!stored.getRequest().equals(request)) {
+            throw new BadRequestException(ErrorMessage.IDEMPOTENCY_KEY_REUSED);
+        }
+        return stored.getResponse();
+    }
+
+    @Scheduled(cron = "${bank.idempotency.purge-cron:0 0 * * * *}")
+    public void purgeExpiredKeys() {
+        if (!enabled) {
+            return;
+        }
+        int deleted = repository.deleteOlderThan(ttl);
+        if (deleted > 0) {
+            LOGGER.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    // Requests with the same values have the same fingerprint
+    public static String fingerprint(Object... values) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (Object value : values) {
+            if (fingerprint.length() > 0) {
+                fingerprint.append(':');
+            }
+            fingerprint.append(value);
+        }
+        return fingerprint.toString();
+    }
+}
@@ -0,0 +1,141 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.cache.OperationHistoryCache;
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.ledger.EventSourcedLedger;
+import dev.akuniutka.bank.api.repository.OperationArchiveRepository;
+import dev.akuniutka.bank.api.repository.OperationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+public class OperationArchiveService {
+    static final int SEGMENT_SIZE = 10000;
+    private final OperationArchiveRepository repository;
+    private final OperationRepository operationRepository;
+    private final AccountService accountService;
+    private final OperationHistoryCache historyCache;
+    private final EventSourcedLedger eventLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final boolean enabled;
+    private final int ageDays;
+    // Whether the archive has any segments, null until it is checked
+    private volatile Boolean written;
+
+    public OperationArchiveService(OperationArchiveRepository repository, OperationRepository operationRepository,
+                                   AccountService accountService, OperationHistoryCache historyCache,
+                                   EventSourcedLedger eventLedger, PlatformTransactionManager transactionManager,
+                                   EntityManager entityManager,
+                                   @Value("${bank.operation.archive.enabled:false}") boolean enabled,
+                                   @Value("${bank.operation.archive.age-days:90}") int ageDays) {
+        this.repository = repository;
+        this.operationRepository = operationRepository;
+        this.accountService = accountService;
+        this.historyCache = historyCache;
+        this.eventLedger = eventLedger;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.enabled = enabled;
+        this.ageDays = ageDays;
+    }
+
+    @Scheduled(cron = "${bank.operation.archive.cron:0 30 1 * * *}")
+    public void archiveOldOperations() {
+        if (enabled) {
+            archiveOperationsBefore(getArchiveHorizon());
+        }
+    }
+
+    public int archiveOperationsBefore(OffsetDateTime finish) {
+        transactionTemplate.executeWithoutResult(status -> repository.archiveTransfersBefore(finish));
+        int count = 0;
+        for (Long userId : repository.findAccountsWithOperationsBefore(finish)) {
+            Integer archived = transactionTemplate.execute(status -> archiveAccountOperations(userId, finish));
+            count += archived == null ? 0 : archived;
+        }
+        return count;
+    }
+
+    public List<Operation> getArchivedOperations(Account account, OffsetDateTime dateFrom, OffsetDateTime dateTo) {
+        if (!isWritten() || dateFrom != null && !dateFrom.isBefore(getArchiveHorizon())) {
+            return Collections.emptyList();
+        }
+        return repository.findByAccount(account, dateFrom, dateTo);
+    }
+
+    // Archived operations are older than live ones, so a page starts with them
+    public List<Operation> getArchivedOperationPage(Account account, OffsetDateTime dateFrom, Long id,
+                                                    OffsetDateTime dateTo, int limit
+    ) {
+        if (!isWritten() || dateFrom != null && !dateFrom.isBefore(getArchiveHorizon())) {
+            return Collections.emptyList();
+        }
+        return repository.findPageByAccount(account, dateFrom, id, dateTo, limit);
+    }
+
+    public void exportArchivedOperations(Account account, Consumer<Operation> consumer) {
+        if (isWritten()) {
+            repository.forEachByAccount(account, consumer);
+        }
+    }
+
+    // Operations are read one segment at a time after the last one archived, so that only one segment is in memory
+    private int archiveAccountOperations(Long userId, OffsetDateTime finish) {
+        Account account = accountService.readAccount(userId);
+        // In event-sourced mode the operations have to be in the snapshot before they are moved
+        eventLedger.snapshot(userId);
+        Pageable page = PageRequest.of(0, SEGMENT_SIZE);
+        List<Operation> operations = operationRepository.findPageByAccountAndDateBefore(account, finish, page);
+        int count = 0;
+        while (!operations.isEmpty()) {
+            repository.saveSegment(account, operations);
+            repository.deleteOperations(operations);
+            count += operations.size();
+            for (Operation operation : operations) {
+                entityManager.detach(operation);
+            }
+            if (operations.size() < SEGMENT_SIZE) {
+                break;
+            }
+            Operation last = operations.get(operations.size() - 1);
+            operations = operationRepository.findPageByAccountAfterAndDateBefore(account, last.getDate(), last.getId(),
+                    finish, page
+            );
+        }
+        if (count > 0) {
+            historyCache.invalidateAfterCommit(userId);
+            written = true;
+        }
+        return count;
+    }
+
+    // With archiving turned off the archive is read only if it was written before
+    private boolean isWritten() {
+        if (enabled) {
+            return true;
+        }
+        Boolean result = written;
+        if (result == null) {
+            result = repository.hasSegments();
+            written = result;
+        }
+        return result;
+    }
+
+    private OffsetDateTime getArchiveHorizon() {
+        return OffsetDateTime.now().minusDays(ageDays);
+    }
+}
@@ -0,0 +1,56 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.ledger.WriteBehindLedger;
+import dev.akuniutka.bank.api.repository.OperationRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+public class OperationExportService {
+    static final int PAGE_SIZE = 500;
+    private final AccountService accountService;
+    private final OperationRepository repository;
+    private final OperationArchiveService archiveService;
+    private final WriteBehindLedger ledger;
+    private final EntityManager entityManager;
+
+    public OperationExportService(OperationRepository repository, AccountService accountService,
+                                  OperationArchiveService archiveService, WriteBehindLedger ledger,
+                                  EntityManager entityManager
+    ) {
+        this.repository = repository;
+        this.accountService = accountService;
+        this.archiveService = archiveService;
+        this.ledger = ledger;
+        this.entityManager = entityManager;
+    }
+
+    // Not transactional: live operations are read page by page after the last one sent, each page in its own
+    // transaction, so a slow client does not keep a database transaction open
+    public void exportUserOperations(Long userId, Consumer<Operation> consumer) {
+        ledger.flush(userId);
+        Account account = accountService.readAccount(userId);
+        archiveService.exportArchivedOperations(account, consumer);
+        Pageable page = PageRequest.of(0, PAGE_SIZE);
+        List<Operation> operations = repository.findPageByAccount(account, page);
+        while (!operations.isEmpty()) {
+            for (Operation operation : operations) {
+                consumer.accept(operation);
+                // keep the persistence context from growing with the history being exported
+                entityManager.detach(operation);
+            }
+            if (operations.size() < PAGE_SIZE) {
+                break;
+            }
+            Operation last = operations.get(operations.size() - 1);
+            operations = repository.findPageByAccountAfter(account, last.getDate(), last.getId(), page);
+        }
+    }
+}
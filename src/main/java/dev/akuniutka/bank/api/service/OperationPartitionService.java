@@ -0,0 +1,50 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.repository.OperationPartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class OperationPartitionService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperationPartitionService.class);
+    private final OperationPartitionRepository repository;
+    private final int monthsAhead;
+
+    public OperationPartitionService(OperationPartitionRepository repository,
+                                     @Value("${bank.operation.partitions.months-ahead:3}") int monthsAhead) {
+        this.repository = repository;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${bank.operation.partitions.cron:0 0 1 * * *}")
+    public void createFuturePartitions() {
+        createPartitions(LocalDate.now());
+    }
+
+    // A month that fails is logged and skipped, so that the later months are still created; it is retried on the
+    // next run. Returns the partitions that exist after the run.
+    public List<String> createPartitions(LocalDate today) {
+        LocalDate month = today.withDayOfMonth(1);
+        List<String> partitions = new ArrayList<>(monthsAhead + 1);
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate partitionMonth = month.plusMonths(i);
+            try {
+                partitions.add(repository.createPartition(partitionMonth));
+            } catch (DataAccessException e) {
+                LOGGER.error("Failed to create operation partition for {}", partitionMonth, e);
+            }
+        }
+        return partitions;
+    }
+}
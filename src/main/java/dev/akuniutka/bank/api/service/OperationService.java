@@ -1,49 +1,80 @@
 package dev.akuniutka.bank.api.service;
 
+import dev.akuniutka.bank.api.cache.OperationHistoryCache;
 import dev.akuniutka.bank.api.entity.Account;
 import dev.akuniutka.bank.api.entity.Operation;
 import dev.akuniutka.bank.api.entity.OperationType;
 import dev.akuniutka.bank.api.exception.NullUserIdException;
 import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.ledger.WriteBehindLedger;
 import dev.akuniutka.bank.api.repository.OperationRepository;
 import dev.akuniutka.bank.api.util.ErrorMessage;
+import dev.akuniutka.bank.api.util.Money;
+import dev.akuniutka.bank.api.util.OperationCursor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.transaction.Transactional;
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class OperationService {
     private final AccountService accountService;
     private final OperationRepository repository;
+    private final OperationArchiveService archiveService;
+    private final OperationHistoryCache historyCache;
+    private final WriteBehindLedger ledger;
+    private final TransactionTemplate transactionTemplate;
 
-    public OperationService(OperationRepository repository, AccountService accountService) {
+    public OperationService(OperationRepository repository, AccountService accountService,
+                            OperationArchiveService archiveService, OperationHistoryCache historyCache,
+                            WriteBehindLedger ledger, PlatformTransactionManager transactionManager) {
         this.repository = repository;
         this.accountService = accountService;
+        this.archiveService = archiveService;
+        this.historyCache = historyCache;
+        this.ledger = ledger;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
-    public void createDeposit(Long userId, BigDecimal amount) {
-        Account account = accountService.increaseUserBalance(userId, amount);
-        Operation operation = new Operation(account, OperationType.DEPOSIT, amount, OffsetDateTime.now());
-        repository.save(operation);
+    // In write-behind mode no database transaction is needed
+    public void createDeposit(Long userId, Money amount) {
+        if (ledger.isEnabled()) {
+            ledger.deposit(userId, amount);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Account account = accountService.increaseUserBalance(userId, amount);
+            Operation operation = new Operation(account, OperationType.DEPOSIT, amount, OffsetDateTime.now());
+            historyCache.appendAfterCommit(repository.save(operation));
+        });
     }
 
-    @Transactional
-    public void createWithdrawal(Long userId, BigDecimal amount) {
-        Account account = accountService.decreaseUserBalance(userId, amount);
-        Operation operation = new Operation(account, OperationType.WITHDRAWAL, amount, OffsetDateTime.now());
-        repository.save(operation);
+    public void createWithdrawal(Long userId, Money amount) {
+        if (ledger.isEnabled()) {
+            ledger.withdraw(userId, amount);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Account account = accountService.decreaseUserBalance(userId, amount);
+            Operation operation = new Operation(account, OperationType.WITHDRAWAL, amount, OffsetDateTime.now());
+            historyCache.appendAfterCommit(repository.save(operation));
+        });
     }
 
-    public Operation createIncomingTransfer(Long userId, BigDecimal amount, OffsetDateTime date) {
+    public Operation createIncomingTransfer(Long userId, Money amount, OffsetDateTime date) {
         try {
             Account account = accountService.increaseUserBalance(userId, amount);
-            Operation operation = new Operation(account, OperationType.INCOMING_TRANSFER, amount, date);
-            return repository.save(operation);
+            Operation operation = repository.save(
+                    new Operation(account, OperationType.INCOMING_TRANSFER, amount, date)
+            );
+            historyCache.appendAfterCommit(operation);
+            return operation;
         } catch (NullUserIdException e) {
             throw new NullUserIdException(ErrorMessage.RECEIVER_ID_IS_NULL);
         } catch (UserNotFoundException e) {
@@ -51,26 +82,87 @@ public class OperationService {
         }
     }
 
-    public Operation createOutgoingTransfer(Long userId, BigDecimal amount, OffsetDateTime date) {
+    public Operation createOutgoingTransfer(Long userId, Money amount, OffsetDateTime date) {
         Account account = accountService.decreaseUserBalance(userId, amount);
-        Operation operation = new Operation(account, OperationType.OUTGOING_TRANSFER, amount, date);
-        return repository.save(operation);
+        Operation operation = repository.save(new Operation(account, OperationType.OUTGOING_TRANSFER, amount, date));
+        historyCache.appendAfterCommit(operation);
+        return operation;
+    }
+
+    public void saveOperations(List<Operation> operations) {
+        repository.saveAll(operations);
+        for (Operation operation : operations) {
+            historyCache.appendAfterCommit(operation);
+        }
     }
 
     @Transactional
     public List<Operation> getUserOperations(Long userId, OffsetDateTime dateFrom, OffsetDateTime dateTo) {
-        Account account = accountService.getAccount(userId);
+        ledger.flush(userId);
+        Account account = accountService.readAccount(userId);
+        List<Operation> operations = historyCache.get(account.getId(), dateFrom, dateTo,
+                windowStart -> repository.findByAccountAndDateAfter(account, windowStart)
+        );
+        if (operations == null) {
+            operations = findOperations(account, dateFrom, dateTo);
+        }
+        List<Operation> archivedOperations = archiveService.getArchivedOperations(account, dateFrom, dateTo);
+        if (archivedOperations.isEmpty()) {
+            return operations;
+        }
+        List<Operation> allOperations = new ArrayList<>(archivedOperations.size() + operations.size());
+        allOperations.addAll(archivedOperations);
+        allOperations.addAll(operations);
+        return allOperations;
+    }
+
+    @Transactional
+    public List<Operation> getUserOperations(Long userId, OffsetDateTime dateFrom, OffsetDateTime dateTo,
+                                             OperationCursor cursor, int limit
+    ) {
+        ledger.flush(userId);
+        Account account = accountService.readAccount(userId);
+        OffsetDateTime date = dateFrom;
+        Long id = Long.MIN_VALUE;
+        if (cursor != null && (dateFrom == null || !cursor.getDate().isBefore(dateFrom))) {
+            date = cursor.getDate();
+            id = cursor.getId();
+        }
+        List<Operation> archivedOperations = archiveService.getArchivedOperationPage(account, date, id, dateTo,
+                limit
+        );
+        if (archivedOperations.size() == limit) {
+            return archivedOperations;
+        }
+        Pageable page = PageRequest.of(0, limit - archivedOperations.size());
         List<Operation> operations;
+        if (date == null && dateTo == null) {
+            operations = repository.findPageByAccount(account, page);
+        } else if (date == null) {
+            operations = repository.findPageByAccountAndDateBefore(account, dateTo, page);
+        } else if (dateTo == null) {
+            operations = repository.findPageByAccountAfter(account, date, id, page);
+        } else {
+            operations = repository.findPageByAccountAfterAndDateBefore(account, date, id, dateTo, page);
+        }
+        if (archivedOperations.isEmpty()) {
+            return operations;
+        }
+        List<Operation> allOperations = new ArrayList<>(archivedOperations.size() + operations.size());
+        allOperations.addAll(archivedOperations);
+        allOperations.addAll(operations);
+        return allOperations;
+    }
+
+    private List<Operation> findOperations(Account account, OffsetDateTime dateFrom, OffsetDateTime dateTo) {
         if (dateFrom == null && dateTo == null) {
-            operations = repository.findByAccount(account);
+            return repository.findByAccount(account);
         } else if (dateFrom == null) {
-            operations = repository.findByAccountAndDateBefore(account, dateTo);
+            return repository.findByAccountAndDateBefore(account, dateTo);
         } else if (dateTo == null) {
-            operations = repository.findByAccountAndDateAfter(account, dateFrom);
+            return repository.findByAccountAndDateAfter(account, dateFrom);
         } else {
-            operations = repository.findByAccountAndDateBetween(account, dateFrom, dateTo);
+            return repository.findByAccountAndDateBetween(account, dateFrom, dateTo);
         }
-        operations.sort(Comparator.comparing(Operation::getDate));
-        return operations;
     }
 }
@@ -0,0 +1,80 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.exception.NullUserIdException;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.repository.ReactiveAccountRepository;
+import dev.akuniutka.bank.api.util.ErrorMessage;
+import dev.akuniutka.bank.api.util.Money;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+@Service
+@Profile("reactive")
+public class ReactiveAccountService {
+    private final ReactiveAccountRepository repository;
+
+    public ReactiveAccountService(ReactiveAccountRepository repository) {
+        this.repository = repository;
+    }
+
+    public Mono<Account> getAccount(Long userId) {
+        if (userId == null) {
+            return Mono.error(new NullUserIdException(ErrorMessage.USER_ID_IS_NULL));
+        }
+        return repository.findAllByIdForUpdate(Collections.singleton(userId))
+                .next()
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(ErrorMessage.USER_NOT_FOUND)));
+    }
+
+    public Mono<Account> readAccount(Long userId) {
+        if (userId == null) {
+            return Mono.error(new NullUserIdException(ErrorMessage.USER_ID_IS_NULL));
+        }
+        return repository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(ErrorMessage.USER_NOT_FOUND)));
+    }
+
+    public Mono<Map<Long, Account>> lockAccounts(Long... userIds) {
+        SortedSet<Long> ids = new TreeSet<>();
+        for (Long userId : userIds) {
+            if (userId != null) {
+                ids.add(userId);
+            }
+        }
+        if (ids.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return repository.findAllByIdForUpdate(ids).collectMap(Account::getId);
+    }
+
+    public Mono<BigDecimal> getUserBalance(Long userId) {
+        if (userId == null) {
+            return Mono.error(new NullUserIdException(ErrorMessage.USER_ID_IS_NULL));
+        }
+        return repository.findBalanceById(userId)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(ErrorMessage.USER_NOT_FOUND)));
+    }
+
+    public Mono<Account> increaseUserBalance(Long userId, Money amount) {
+        return getAccount(userId).flatMap(account -> {
+            account.increaseBalance(amount);
+            return repository.updateBalance(account).thenReturn(account);
+        });
+    }
+
+    public Mono<Account> decreaseUserBalance(Long userId, Money amount) {
+        return getAccount(userId).flatMap(account -> {
+            account.decreaseBalance(amount);
+            return repository.updateBalance(account).thenReturn(account);
+        });
+    }
+
+    public Mono<Void> updateBalance(Account account) {
+        return repository.updateBalance(account);
+    }
+}
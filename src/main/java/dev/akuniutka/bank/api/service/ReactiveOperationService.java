@@ -0,0 +1,60 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.metrics.OperationMetrics;
+import dev.akuniutka.bank.api.repository.ReactiveOperationRepository;
+import dev.akuniutka.bank.api.util.Money;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+
+@Service
+@Profile("reactive")
+public class ReactiveOperationService {
+    private final ReactiveOperationRepository repository;
+    private final ReactiveAccountService accountService;
+    private final TransactionalOperator transactionalOperator;
+    private final OperationMetrics metrics;
+
+    public ReactiveOperationService(ReactiveOperationRepository repository, ReactiveAccountService accountService,
+                                    TransactionalOperator transactionalOperator, OperationMetrics metrics) {
+        this.repository = repository;
+        this.accountService = accountService;
+        this.transactionalOperator = transactionalOperator;
+        this.metrics = metrics;
+    }
+
+    public Mono<Void> createDeposit(Long userId, Money amount) {
+        return accountService.increaseUserBalance(userId, amount)
+                .flatMap(account -> repository.save(
+                        new Operation(account, OperationType.DEPOSIT, amount, OffsetDateTime.now())
+                ))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(id -> metrics.recordOperation(OperationType.DEPOSIT, amount))
+                .then();
+    }
+
+    public Mono<Void> createWithdrawal(Long userId, Money amount) {
+        return accountService.decreaseUserBalance(userId, amount)
+                .flatMap(account -> repository.save(
+                        new Operation(account, OperationType.WITHDRAWAL, amount, OffsetDateTime.now())
+                ))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(id -> metrics.recordOperation(OperationType.WITHDRAWAL, amount))
+                .then();
+    }
+
+    public Mono<Long> saveOperation(Operation operation) {
+        return repository.save(operation);
+    }
+
+    public Flux<Operation> getUserOperations(Long userId, OffsetDateTime dateFrom, OffsetDateTime dateTo) {
+        return accountService.readAccount(userId)
+                .flatMapMany(account -> repository.findByAccount(account, dateFrom, dateTo));
+    }
+}
@@ -0,0 +1,80 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.entity.Transfer;
+import dev.akuniutka.bank.api.exception.NullUserIdException;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.metrics.OperationMetrics;
+import dev.akuniutka.bank.api.repository.ReactiveTransferRepository;
+import dev.akuniutka.bank.api.util.ErrorMessage;
+import dev.akuniutka.bank.api.util.Money;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveTransferService {
+    private final ReactiveTransferRepository repository;
+    private final ReactiveAccountService accountService;
+    private final ReactiveOperationService operationService;
+    private final TransactionalOperator transactionalOperator;
+    private final OperationMetrics metrics;
+
+    public ReactiveTransferService(ReactiveTransferRepository repository, ReactiveAccountService accountService,
+                                   ReactiveOperationService operationService,
+                                   TransactionalOperator transactionalOperator, OperationMetrics metrics) {
+        this.repository = repository;
+        this.accountService = accountService;
+        this.operationService = operationService;
+        this.transactionalOperator = transactionalOperator;
+        this.metrics = metrics;
+    }
+
+    public Mono<Void> createTransfer(Long payerId, Long payeeId, Money amount) {
+        return accountService.lockAccounts(payerId, payeeId)
+                .flatMap(accounts -> {
+                    OffsetDateTime date = OffsetDateTime.now();
+                    Account payer = getLockedAccount(accounts, payerId, ErrorMessage.USER_ID_IS_NULL,
+                            ErrorMessage.USER_NOT_FOUND);
+                    payer.decreaseBalance(amount);
+                    Account payee = getLockedAccount(accounts, payeeId, ErrorMessage.RECEIVER_ID_IS_NULL,
+                            ErrorMessage.RECEIVER_NOT_FOUND);
+                    payee.increaseBalance(amount);
+                    Transfer transfer = new Transfer(
+                            new Operation(payer, OperationType.OUTGOING_TRANSFER, amount, date),
+                            new Operation(payee, OperationType.INCOMING_TRANSFER, amount, date)
+                    );
+                    return accountService.updateBalance(payer)
+                            .then(accountService.updateBalance(payee))
+                            .then(operationService.saveOperation(transfer.getOutgoingTransfer()))
+                            .flatMap(outgoingId -> operationService.saveOperation(transfer.getIncomingTransfer())
+                                    .flatMap(incomingId -> repository.save(outgoingId, incomingId, transfer.getDate()))
+                            );
+                })
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(id -> {
+                    metrics.recordOperation(OperationType.OUTGOING_TRANSFER, amount);
+                    metrics.recordOperation(OperationType.INCOMING_TRANSFER, amount);
+                })
+                .then();
+    }
+
+    private Account getLockedAccount(Map<Long, Account> accounts, Long userId, String nullIdMessage,
+                                     String notFoundMessage) {
+        if (userId == null) {
+            throw new NullUserIdException(nullIdMessage);
+        }
+        Account account = accounts.get(userId);
+        if (account == null) {
+            throw new UserNotFoundException(notFoundMessage);
+        }
+        return account;
+    }
+}
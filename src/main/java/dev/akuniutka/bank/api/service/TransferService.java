@@ -1,30 +1,121 @@
 package dev.akuniutka.bank.api.service;
 
+import dev.akuniutka.bank.api.dto.PaymentOrderDto;
+import dev.akuniutka.bank.api.entity.Account;
 import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
 import dev.akuniutka.bank.api.entity.Transfer;
+import dev.akuniutka.bank.api.exception.BadRequestException;
+import dev.akuniutka.bank.api.exception.NullUserIdException;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
 import dev.akuniutka.bank.api.repository.TransferRepository;
+import dev.akuniutka.bank.api.util.ErrorMessage;
+import dev.akuniutka.bank.api.util.Money;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.*;
 
 @Service
 public class TransferService {
     private final TransferRepository repository;
+    private final AccountService accountService;
     private final OperationService operationService;
 
-    public TransferService(TransferRepository repository, OperationService operationService) {
+    public TransferService(TransferRepository repository, AccountService accountService,
+                           OperationService operationService) {
         this.repository = repository;
+        this.accountService = accountService;
         this.operationService = operationService;
     }
 
     @Transactional
-    public void createTransfer(Long payerId, Long payeeId, BigDecimal amount) {
+    public void createTransfer(Long payerId, Long payeeId, Money amount) {
+        accountService.lockAccounts(payerId, payeeId);
         OffsetDateTime date = OffsetDateTime.now();
         Operation outgoingTransfer = operationService.createOutgoingTransfer(payerId, amount, date);
         Operation incomingTransfer = operationService.createIncomingTransfer(payeeId, amount, date);
         Transfer transfer = new Transfer(outgoingTransfer, incomingTransfer);
         repository.save(transfer);
     }
+
+    @Transactional
+    public List<String> createTransfers(List<PaymentOrderDto> orders) {
+        Set<Long> ids = new HashSet<>();
+        for (PaymentOrderDto order : orders) {
+            if (order != null) {
+                ids.add(order.getUserId());
+                ids.add(order.getReceiverId());
+            }
+        }
+        Map<Long, Account> accounts = new HashMap<>();
+        for (Account account : accountService.lockAccounts(ids)) {
+            accounts.put(account.getId(), account);
+        }
+        List<String> errors = new ArrayList<>(orders.size());
+        List<Transfer> transfers = new ArrayList<>(orders.size());
+        for (PaymentOrderDto order : orders) {
+            try {
+                transfers.add(createTransfer(order, accounts));
+                errors.add(null);
+            } catch (BadRequestException | UserNotFoundException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        List<Operation> operations = new ArrayList<>(transfers.size() * 2);
+        for (Transfer transfer : transfers) {
+            operations.add(transfer.getOutgoingTransfer());
+            operations.add(transfer.getIncomingTransfer());
+        }
+        operationService.saveOperations(operations);
+        repository.saveAll(transfers);
+        accountService.cacheBalances(accounts.values());
+        return errors;
+    }
+
+    private Transfer createTransfer(PaymentOrderDto order, Map<Long, Account> accounts) {
+        if (order == null) {
+            throw new BadRequestException(ErrorMessage.PAYMENT_ORDER_IS_NULL);
+        }
+        Money amount = order.getAmount();
+        Account payer = getLockedAccount(accounts, order.getUserId(), ErrorMessage.USER_ID_IS_NULL,
+                ErrorMessage.USER_NOT_FOUND);
+        accountService.decreaseLockedBalance(payer, amount);
+        Account payee = null;
+        try {
+            Account receiver = getLockedAccount(accounts, order.getReceiverId(), ErrorMessage.RECEIVER_ID_IS_NULL,
+                    ErrorMessage.RECEIVER_NOT_FOUND);
+            if (payer == receiver) {
+                throw new BadRequestException(ErrorMessage.WRONG_OPERATION_ACCOUNT);
+            }
+            receiver.increaseBalance(amount);
+            payee = receiver;
+            // the ledger is written only when both balances have changed, so a failed order leaves nothing in it
+            accountService.recordTransfer(payer.getId(), payee.getId(), amount);
+            OffsetDateTime date = OffsetDateTime.now();
+            return new Transfer(
+                    new Operation(payer, OperationType.OUTGOING_TRANSFER, amount, date),
+                    new Operation(payee, OperationType.INCOMING_TRANSFER, amount, date)
+            );
+        } catch (RuntimeException e) {
+            payer.increaseBalance(amount);
+            if (payee != null) {
+                payee.decreaseBalance(amount);
+            }
+            throw e;
+        }
+    }
+
+    private Account getLockedAccount(Map<Long, Account> accounts, Long userId, String nullIdMessage,
+                                     String notFoundMessage) {
+        if (userId == null) {
+            throw new NullUserIdException(nullIdMessage);
+        }
+        Account account = accounts.get(userId);
+        if (account == null) {
+            throw new UserNotFoundException(notFoundMessage);
+        }
+        return account;
+    }
 }
@@ -3,7 +3,6 @@ package dev.akuniutka.bank.api.util;
 import dev.akuniutka.bank.api.exception.WrongAmountException;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 public class AmountValidator {
     static final boolean ZERO_IS_ALLOWED = true;
@@ -17,6 +16,29 @@ public class AmountValidator {
         assertAmount(amount, ZERO_IS_NOT_ALLOWED);
     }
 
+    public static void assertBalance(Money amount) {
+        assertAmount(amount, ZERO_IS_ALLOWED);
+    }
+
+    // Money always has valid minor units, so only its sign is checked
+    public static void assertAmount(Money amount) {
+        assertAmount(amount, ZERO_IS_NOT_ALLOWED);
+    }
+
+    private static void assertAmount(Money amount, boolean isZeroAllowed) {
+        String message;
+        if (amount == null) {
+            message = ErrorMessage.AMOUNT_IS_NULL;
+        } else if (!isZeroAllowed && amount.signum() == 0) {
+            message = ErrorMessage.AMOUNT_IS_ZERO;
+        } else if (amount.signum() < 0) {
+            message = ErrorMessage.AMOUNT_IS_NEGATIVE;
+        } else {
+            return;
+        }
+        throw new WrongAmountException(message);
+    }
+
     private static void assertAmount(BigDecimal amount, boolean isZeroAllowed) {
         String message;
         if (amount == null) {
@@ -25,7 +47,7 @@ public class AmountValidator {
             message = ErrorMessage.AMOUNT_IS_ZERO;
         } else if (amount.signum() < 0) {
             message = ErrorMessage.AMOUNT_IS_NEGATIVE;
-        } else if (amount.setScale(2, RoundingMode.HALF_UP).compareTo(amount) != 0) {
+        } else if (amount.scale() > 2 && amount.stripTrailingZeros().scale() > 2) {
             message = ErrorMessage.WRONG_MINOR_UNITS;
         } else {
             return;
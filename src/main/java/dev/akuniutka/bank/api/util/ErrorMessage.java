@@ -7,6 +7,7 @@ public class ErrorMessage {
     public static final String AMOUNT_IS_ZERO = "amount is zero";
     public static final String AMOUNT_IS_NEGATIVE = "amount is negative";
     public static final String WRONG_MINOR_UNITS = "wrong minor units";
+    public static final String AMOUNT_IS_TOO_LARGE = "amount is too large";
     public static final String INSUFFICIENT_BALANCE = "insufficient balance";
     public static final String ACCOUNT_IS_NULL = "account for operation is null";
     public static final String OPERATION_TYPE_IS_NULL = "type of operation is null";
@@ -19,7 +20,35 @@ public class ErrorMessage {
     public static final String RECEIVER_ID_IS_NULL = "receiver id is null";
     public static final String RECEIVER_NOT_FOUND = "receiver not found";
     public static final String WRONG_OPERATION_TYPE = "wrong operation type";
+    public static final String UNKNOWN_OPERATION_TYPE_CODE = "unknown operation type code";
     public static final String WRONG_OPERATION_ACCOUNT = "payer and payee are the same";
     public static final String WRONG_OPERATION_AMOUNT = "transfer legs amounts differ";
     public static final String WRONG_OPERATION_DATE = "transfer legs dates differ";
+    public static final String OPERATION_LIST_IS_NULL = "operation list is null";
+    public static final String CURSOR_DATE_IS_NULL = "cursor date is null";
+    public static final String CURSOR_ID_IS_NULL = "cursor id is null";
+    public static final String WRONG_CURSOR = "wrong cursor";
+    public static final String WRONG_PAGE_SIZE = "wrong page size";
+    public static final String PAYMENT_ORDER_IS_NULL = "payment order is null";
+    public static final String WRONG_BATCH_SIZE = "wrong batch size";
+    public static final String WRONG_USER_ID = "wrong user id";
+    public static final String WRONG_DATE = "wrong date";
+    public static final String WRONG_REQUEST_BODY = "wrong request body";
+    public static final String UNSUPPORTED_SEGMENT_VERSION = "unsupported segment version";
+    public static final String LEDGER_FLUSH_TIMED_OUT = "ledger flush timed out";
+    public static final String LEDGER_FAILED = "ledger journal cannot be written, ledger does not accept operations";
+    public static final String NEGATIVE_LEDGER_BALANCE = "ledger entries make account balance negative";
+    public static final String LEDGER_MODES_CONFLICT =
+            "write-behind and event-sourced ledgers cannot be enabled together";
+    public static final String STRIPING_WITH_LEDGER = "account striping cannot be used with a ledger";
+    public static final String WRONG_ACCOUNT_SLOTS = "wrong account slots";
+    public static final String ACCOUNT_SLOT_NOT_FOUND = "account slot not found";
+    public static final String WRONG_IDEMPOTENCY_KEY = "wrong idempotency key";
+    public static final String IDEMPOTENCY_KEY_REUSED = "idempotency key is used for another request";
+    public static final String IDEMPOTENCY_WITH_WRITE_BEHIND =
+            "idempotency keys cannot be used with the write-behind ledger";
+    public static final String IDEMPOTENCY_KEYS_NOT_SUPPORTED = "idempotency keys are not supported";
+    public static final String VIRTUAL_THREADS_NOT_SUPPORTED = "virtual threads require Java 21 or newer";
+    public static final String WRONG_CONCURRENCY_LIMIT = "wrong concurrency limit";
+    public static final String SERVICE_OVERLOADED = "service is overloaded";
 }
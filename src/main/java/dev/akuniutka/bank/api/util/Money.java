@@ -0,0 +1,101 @@
+package dev.akuniutka.bank.api.util;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+
+import java.math.BigDecimal;
+
+@JsonSerialize(using = MoneyJson.Serializer.class)
+@JsonDeserialize(using = MoneyJson.Deserializer.class)
+public final class Money implements Comparable<Money> {
+    // The largest value of NUMERIC(15, 2)
+    static final long MAX_CENTS = 999_999_999_999_999L;
+    private static final int SCALE = 2;
+    public static final Money ZERO = new Money(0L);
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        if (cents > MAX_CENTS || cents < -MAX_CENTS) {
+            throw new WrongAmountException(ErrorMessage.AMOUNT_IS_TOO_LARGE);
+        }
+        return cents == 0L ? ZERO : new Money(cents);
+    }
+
+    public static Money of(BigDecimal amount) {
+        return ofCents(centsOf(amount));
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public Money add(Money other) {
+        return ofCents(cents + other.cents);
+    }
+
+    public Money subtract(Money other) {
+        return ofCents(cents - other.cents);
+    }
+
+    public Money add(BigDecimal amount) {
+        return ofCents(cents + centsOf(amount));
+    }
+
+    public Money subtract(BigDecimal amount) {
+        return ofCents(cents - centsOf(amount));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    private static long centsOf(BigDecimal amount) {
+        if (amount == null) {
+            throw new WrongAmountException(ErrorMessage.AMOUNT_IS_NULL);
+        }
+        if (amount.scale() > SCALE && amount.stripTrailingZeros().scale() > SCALE) {
+            throw new WrongAmountException(ErrorMessage.WRONG_MINOR_UNITS);
+        }
+        if (amount.precision() - amount.scale() > 16) {
+            throw new WrongAmountException(ErrorMessage.AMOUNT_IS_TOO_LARGE);
+        }
+        return amount.movePointRight(SCALE).longValue();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        return cents == ((Money) o).cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        long units = Math.abs(cents / 100L);
+        long minorUnits = Math.abs(cents % 100L);
+        return (cents < 0L ? "-" : "") + units + (minorUnits < 10L ? ".0" : ".") + minorUnits;
+    }
+}
@@ -0,0 +1,67 @@
+package dev.akuniutka.bank.api.util;
+
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+public class OperationCursor {
+    private static final String SEPARATOR = ":";
+    private final OffsetDateTime date;
+    private final Long id;
+
+    public OperationCursor(OffsetDateTime date, Long id) {
+        if (date == null) {
+            throw new IllegalArgumentException(ErrorMessage.CURSOR_DATE_IS_NULL);
+        }
+        if (id == null) {
+            throw new IllegalArgumentException(ErrorMessage.CURSOR_ID_IS_NULL);
+        }
+        this.date = date;
+        this.id = id;
+    }
+
+    public static OperationCursor of(Operation operation) {
+        if (operation == null) {
+            throw new IllegalArgumentException(ErrorMessage.OPERATION_IS_NULL);
+        }
+        return new OperationCursor(operation.getDate(), operation.getId());
+    }
+
+    public static OperationCursor decode(String token) {
+        if (token == null) {
+            throw new BadRequestException(ErrorMessage.WRONG_CURSOR);
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(SEPARATOR);
+            if (parts.length != 3) {
+                throw new BadRequestException(ErrorMessage.WRONG_CURSOR);
+            }
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+            OffsetDateTime date = OffsetDateTime.ofInstant(instant, ZoneId.systemDefault());
+            return new OperationCursor(date, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestException(ErrorMessage.WRONG_CURSOR);
+        }
+    }
+
+    public String encode() {
+        Instant instant = date.toInstant();
+        String token = instant.getEpochSecond() + SEPARATOR + instant.getNano() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public OffsetDateTime getDate() {
+        return date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
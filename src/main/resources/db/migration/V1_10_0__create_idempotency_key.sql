@@ -0,0 +1,11 @@
+CREATE TABLE IDEMPOTENCY_KEY
+(
+    ID      VARCHAR(255),
+    REQUEST VARCHAR(255) NOT NULL,
+    RESULT  NUMERIC,
+    MESSAGE VARCHAR(255),
+    DATE    TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP,
+    CONSTRAINT IDEMPOTENCY_KEY_PKEY PRIMARY KEY (ID)
+);
+
+CREATE INDEX IDEMPOTENCY_KEY_DATE_IDX ON IDEMPOTENCY_KEY(DATE);
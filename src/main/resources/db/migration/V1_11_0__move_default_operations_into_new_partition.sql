@@ -0,0 +1,45 @@
+CREATE OR REPLACE FUNCTION CREATE_OPERATION_PARTITION(MONTH DATE) RETURNS TEXT AS $$
+DECLARE
+    PARTITION_START DATE := date_trunc('month', MONTH)::DATE;
+    PARTITION_FINISH DATE := (PARTITION_START + INTERVAL '1 month')::DATE;
+    PARTITION_NAME TEXT := 'operation_' || to_char(PARTITION_START, 'YYYY_MM');
+BEGIN
+    IF to_regclass(PARTITION_NAME) IS NOT NULL THEN
+        RETURN PARTITION_NAME;
+    END IF;
+    BEGIN
+        EXECUTE format('CREATE TABLE %I PARTITION OF OPERATION FOR VALUES FROM (%L) TO (%L)',
+                PARTITION_NAME, PARTITION_START, PARTITION_FINISH);
+        RETURN PARTITION_NAME;
+    EXCEPTION WHEN duplicate_table THEN
+        RETURN PARTITION_NAME;
+    WHEN check_violation THEN
+        -- the default partition has operations of the month, so they have to be moved
+        NULL;
+    END;
+
+    -- The month was not partitioned in time and its operations went to the default partition, which makes the
+    -- partition creation fail; they are moved into a new table that is then attached as the partition.
+    -- Transfers reference the moved rows, so their foreign keys are dropped for the move and added back after it.
+    -- Nothing is locked before this point (the failed creation releases its locks), and both tables are locked in
+    -- one statement, so that concurrent calls wait for each other instead of deadlocking on a lock upgrade.
+    LOCK TABLE OPERATION, TRANSFER IN ACCESS EXCLUSIVE MODE;
+    IF to_regclass(PARTITION_NAME) IS NOT NULL THEN
+        RETURN PARTITION_NAME;
+    END IF;
+    ALTER TABLE TRANSFER
+        DROP CONSTRAINT TRANSFER_OUTGOING_TRANSFER_ID_FKEY,
+        DROP CONSTRAINT TRANSFER_INCOMING_TRANSFER_ID_FKEY;
+    EXECUTE format('CREATE TABLE %I (LIKE OPERATION INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', PARTITION_NAME);
+    EXECUTE format('WITH MOVED AS (DELETE FROM OPERATION_DEFAULT WHERE DATE >= %L AND DATE < %L RETURNING *)'
+                || ' INSERT INTO %I SELECT * FROM MOVED', PARTITION_START, PARTITION_FINISH, PARTITION_NAME);
+    EXECUTE format('ALTER TABLE OPERATION ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+            PARTITION_NAME, PARTITION_START, PARTITION_FINISH);
+    ALTER TABLE TRANSFER
+        ADD CONSTRAINT TRANSFER_OUTGOING_TRANSFER_ID_FKEY
+            FOREIGN KEY (OUTGOING_TRANSFER_ID, DATE) REFERENCES OPERATION(ID, DATE),
+        ADD CONSTRAINT TRANSFER_INCOMING_TRANSFER_ID_FKEY
+            FOREIGN KEY (INCOMING_TRANSFER_ID, DATE) REFERENCES OPERATION(ID, DATE);
+    RETURN PARTITION_NAME;
+END;
+$$ LANGUAGE plpgsql;
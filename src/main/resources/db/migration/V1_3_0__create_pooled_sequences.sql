@@ -0,0 +1,16 @@
+CREATE SEQUENCE ACCOUNT_SEQUENCE INCREMENT BY 50;
+CREATE SEQUENCE OPERATION_SEQUENCE INCREMENT BY 50;
+CREATE SEQUENCE TRANSFER_SEQUENCE INCREMENT BY 50;
+
+SELECT setval('ACCOUNT_SEQUENCE', GREATEST(
+        (SELECT last_value FROM HIBERNATE_SEQUENCE),
+        (SELECT COALESCE(MAX(ID), 0) FROM ACCOUNT)
+    ));
+SELECT setval('OPERATION_SEQUENCE', GREATEST(
+        (SELECT last_value FROM HIBERNATE_SEQUENCE),
+        (SELECT COALESCE(MAX(ID), 0) FROM OPERATION)
+    ));
+SELECT setval('TRANSFER_SEQUENCE', GREATEST(
+        (SELECT last_value FROM HIBERNATE_SEQUENCE),
+        (SELECT COALESCE(MAX(ID), 0) FROM TRANSFER)
+    ));
@@ -0,0 +1,3 @@
+CREATE INDEX OPERATION_ACCOUNT_ID_DATE_ID_IDX ON OPERATION(ACCOUNT_ID, DATE, ID);
+
+DROP INDEX OPERATION_ACCOUNT_ID_IDX;
@@ -0,0 +1,63 @@
+ALTER TABLE TRANSFER ADD COLUMN DATE TIMESTAMP;
+
+UPDATE TRANSFER SET DATE = OPERATION.DATE FROM OPERATION WHERE OPERATION.ID = TRANSFER.OUTGOING_TRANSFER_ID;
+
+ALTER TABLE TRANSFER
+    ALTER COLUMN DATE SET NOT NULL,
+    DROP CONSTRAINT TRANSFER_OUTGOING_TRANSFER_ID_FKEY,
+    DROP CONSTRAINT TRANSFER_INCOMING_TRANSFER_ID_FKEY;
+
+ALTER TABLE OPERATION RENAME TO OPERATION_UNPARTITIONED;
+ALTER TABLE OPERATION_UNPARTITIONED RENAME CONSTRAINT OPERATION_PKEY TO OPERATION_UNPARTITIONED_PKEY;
+ALTER INDEX OPERATION_ACCOUNT_ID_DATE_ID_IDX RENAME TO OPERATION_UNPARTITIONED_ACCOUNT_ID_DATE_ID_IDX;
+
+CREATE TABLE OPERATION
+(
+    ID          BIGINT,
+    ACCOUNT_ID  BIGINT NOT NULL,
+    TYPE        VARCHAR(1) NOT NULL,
+    AMOUNT      NUMERIC(15, 2) NOT NULL,
+    DATE        TIMESTAMP NOT NULL,
+    CONSTRAINT OPERATION_PKEY PRIMARY KEY (ID, DATE),
+    CONSTRAINT OPERATION_ACCOUNT_ID_FKEY FOREIGN KEY (ACCOUNT_ID) REFERENCES ACCOUNT(ID),
+    CONSTRAINT OPERATION_AMOUNT_CHECK CHECK (AMOUNT > 0)
+) PARTITION BY RANGE (DATE);
+
+CREATE INDEX OPERATION_ACCOUNT_ID_DATE_ID_IDX ON OPERATION(ACCOUNT_ID, DATE, ID);
+
+CREATE TABLE OPERATION_DEFAULT PARTITION OF OPERATION DEFAULT;
+
+CREATE FUNCTION CREATE_OPERATION_PARTITION(MONTH DATE) RETURNS TEXT AS $$
+DECLARE
+    PARTITION_START DATE := date_trunc('month', MONTH)::DATE;
+    PARTITION_NAME TEXT := 'operation_' || to_char(PARTITION_START, 'YYYY_MM');
+BEGIN
+    IF to_regclass(PARTITION_NAME) IS NULL THEN
+        BEGIN
+            EXECUTE format('CREATE TABLE %I PARTITION OF OPERATION FOR VALUES FROM (%L) TO (%L)',
+                    PARTITION_NAME, PARTITION_START, (PARTITION_START + INTERVAL '1 month')::DATE);
+        EXCEPTION WHEN duplicate_table THEN
+            NULL;
+        END;
+    END IF;
+    RETURN PARTITION_NAME;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT CREATE_OPERATION_PARTITION(MONTH::DATE)
+FROM generate_series(
+        date_trunc('month', LEAST((SELECT MIN(DATE) FROM OPERATION_UNPARTITIONED), now())),
+        date_trunc('month', now()) + INTERVAL '3 months',
+        INTERVAL '1 month'
+    ) AS MONTH;
+
+INSERT INTO OPERATION (ID, ACCOUNT_ID, TYPE, AMOUNT, DATE)
+SELECT ID, ACCOUNT_ID, TYPE, AMOUNT, DATE FROM OPERATION_UNPARTITIONED;
+
+DROP TABLE OPERATION_UNPARTITIONED;
+
+ALTER TABLE TRANSFER
+    ADD CONSTRAINT TRANSFER_OUTGOING_TRANSFER_ID_FKEY
+        FOREIGN KEY (OUTGOING_TRANSFER_ID, DATE) REFERENCES OPERATION(ID, DATE),
+    ADD CONSTRAINT TRANSFER_INCOMING_TRANSFER_ID_FKEY
+        FOREIGN KEY (INCOMING_TRANSFER_ID, DATE) REFERENCES OPERATION(ID, DATE);
@@ -0,0 +1,38 @@
+CREATE TABLE OPERATION_ARCHIVE
+(
+    ID              BIGINT GENERATED ALWAYS AS IDENTITY,
+    ACCOUNT_ID      BIGINT NOT NULL,
+    FIRST_DATE      TIMESTAMP NOT NULL,
+    LAST_DATE       TIMESTAMP NOT NULL,
+    OPERATION_COUNT INTEGER NOT NULL,
+    DATA            BYTEA NOT NULL,
+    CONSTRAINT OPERATION_ARCHIVE_PKEY PRIMARY KEY (ID),
+    CONSTRAINT OPERATION_ARCHIVE_ACCOUNT_ID_FKEY FOREIGN KEY (ACCOUNT_ID) REFERENCES ACCOUNT(ID)
+);
+
+CREATE INDEX OPERATION_ARCHIVE_ACCOUNT_ID_LAST_DATE_IDX ON OPERATION_ARCHIVE(ACCOUNT_ID, LAST_DATE);
+
+ALTER TABLE OPERATION_ARCHIVE ALTER COLUMN DATA SET STORAGE EXTERNAL;
+
+CREATE TABLE TRANSFER_ARCHIVE
+(
+    ID                      BIGINT,
+    OUTGOING_TRANSFER_ID    BIGINT NOT NULL,
+    INCOMING_TRANSFER_ID    BIGINT NOT NULL,
+    DATE                    TIMESTAMP NOT NULL,
+    CONSTRAINT TRANSFER_ARCHIVE_PKEY PRIMARY KEY (ID)
+);
+
+CREATE FUNCTION REJECT_ARCHIVE_CHANGE() RETURNS TRIGGER AS $$
+BEGIN
+    RAISE EXCEPTION 'table % is append-only', TG_TABLE_NAME;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER OPERATION_ARCHIVE_APPEND_ONLY
+    BEFORE UPDATE OR DELETE ON OPERATION_ARCHIVE
+    FOR EACH STATEMENT EXECUTE FUNCTION REJECT_ARCHIVE_CHANGE();
+
+CREATE TRIGGER TRANSFER_ARCHIVE_APPEND_ONLY
+    BEFORE UPDATE OR DELETE ON TRANSFER_ARCHIVE
+    FOR EACH STATEMENT EXECUTE FUNCTION REJECT_ARCHIVE_CHANGE();
@@ -0,0 +1,8 @@
+CREATE TABLE LEDGER_CHECKPOINT
+(
+    ID       INTEGER,
+    SEQUENCE BIGINT NOT NULL,
+    CONSTRAINT LEDGER_CHECKPOINT_PKEY PRIMARY KEY (ID)
+);
+
+INSERT INTO LEDGER_CHECKPOINT (ID, SEQUENCE) VALUES (1, 0);
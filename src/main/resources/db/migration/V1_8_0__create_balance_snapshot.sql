@@ -0,0 +1,26 @@
+CREATE SEQUENCE OPERATION_POSITION_SEQUENCE;
+
+-- Operations made before are already counted in balances of their accounts
+ALTER TABLE OPERATION ADD COLUMN POSITION BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE OPERATION ALTER COLUMN POSITION SET DEFAULT nextval('OPERATION_POSITION_SEQUENCE');
+
+CREATE INDEX OPERATION_ACCOUNT_ID_POSITION_IDX ON OPERATION(ACCOUNT_ID, POSITION);
+
+CREATE TABLE BALANCE_SNAPSHOT
+(
+    ACCOUNT_ID BIGINT,
+    BALANCE    NUMERIC(15, 2) NOT NULL,
+    POSITION   BIGINT NOT NULL,
+    DATE       TIMESTAMP NOT NULL,
+    CONSTRAINT BALANCE_SNAPSHOT_PKEY PRIMARY KEY (ACCOUNT_ID),
+    CONSTRAINT BALANCE_SNAPSHOT_ACCOUNT_ID_FKEY FOREIGN KEY (ACCOUNT_ID) REFERENCES ACCOUNT(ID)
+);
+
+CREATE TABLE LEDGER_MODE
+(
+    ID            INTEGER,
+    EVENT_SOURCED BOOLEAN NOT NULL,
+    CONSTRAINT LEDGER_MODE_PKEY PRIMARY KEY (ID)
+);
+
+INSERT INTO LEDGER_MODE (ID, EVENT_SOURCED) VALUES (1, FALSE);
@@ -0,0 +1,10 @@
+-- Free space in pages lets slot updates stay heap-only
+CREATE TABLE ACCOUNT_SLOT
+(
+    ACCOUNT_ID BIGINT,
+    SLOT       INTEGER,
+    BALANCE    NUMERIC(15, 2) NOT NULL DEFAULT 0,
+    CONSTRAINT ACCOUNT_SLOT_PKEY PRIMARY KEY (ACCOUNT_ID, SLOT),
+    CONSTRAINT ACCOUNT_SLOT_ACCOUNT_ID_FKEY FOREIGN KEY (ACCOUNT_ID) REFERENCES ACCOUNT(ID),
+    CONSTRAINT ACCOUNT_SLOT_BALANCE_CHECK CHECK (BALANCE >= 0)
+) WITH (FILLFACTOR = 50);
@@ -0,0 +1,146 @@
+package dev.akuniutka.bank.api.cache;
+
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.cache.BalanceCache.CACHE_NAME;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class BalanceCacheTest {
+    private static final Long USER_ID = 1L;
+    private MeterRegistry registry;
+    private BalanceCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new BalanceCache(registry, true, 100L, Duration.ofMinutes(1L));
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGetWhenBalanceIsNotCached() {
+        assertEquals(FORMATTED_TEN, cache.get(USER_ID, loader(FORMATTED_TEN)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGetWhenBalanceIsCached() {
+        cache.get(USER_ID, loader(FORMATTED_TEN));
+        assertEquals(FORMATTED_TEN, cache.get(USER_ID, loader(FORMATTED_ONE)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGetWhenLoaderFails() {
+        Function<Long, BigDecimal> failingLoader = id -> {
+            throw new UserNotFoundException(USER_NOT_FOUND);
+        };
+        Exception e = assertThrows(UserNotFoundException.class, () -> cache.get(USER_ID, failingLoader));
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        assertEquals(FORMATTED_TEN, cache.get(USER_ID, loader(FORMATTED_TEN)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testPutAfterCommitWhenNoTransaction() {
+        cache.get(USER_ID, loader(FORMATTED_TEN));
+        cache.putAfterCommit(USER_ID, FORMATTED_ONE);
+        assertEquals(FORMATTED_ONE, cache.get(USER_ID, loader(FORMATTED_ZERO)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testPutAfterCommitWhenTransactionCommits() {
+        cache.get(USER_ID, loader(FORMATTED_TEN));
+        TransactionSynchronizationManager.initSynchronization();
+        cache.putAfterCommit(USER_ID, FORMATTED_ONE);
+        assertEquals(FORMATTED_TEN, cache.get(USER_ID, loader(FORMATTED_ZERO)));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.get(0).afterCommit();
+        assertEquals(FORMATTED_ONE, cache.get(USER_ID, loader(FORMATTED_ZERO)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testPutAfterCommitWhenTransactionRollsBack() {
+        cache.get(USER_ID, loader(FORMATTED_TEN));
+        TransactionSynchronizationManager.initSynchronization();
+        cache.putAfterCommit(USER_ID, FORMATTED_ONE);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertEquals(FORMATTED_TEN, cache.get(USER_ID, loader(FORMATTED_ZERO)));
+    }
+
+    @Test
+    void testPutAfterCommitWhenCommitsComeOutOfOrder() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.putAfterCommit(USER_ID, FORMATTED_TEN);
+        cache.putAfterCommit(USER_ID, FORMATTED_ONE);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.get(1).afterCommit();
+        synchronizations.get(0).afterCommit();
+        assertEquals(FORMATTED_ONE, cache.get(USER_ID, loader(FORMATTED_ZERO)));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void testInvalidate() {
+        cache.get(USER_ID, loader(FORMATTED_TEN));
+        cache.invalidate(USER_ID);
+        assertEquals(FORMATTED_ONE, cache.get(USER_ID, loader(FORMATTED_ONE)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGetWhenCacheIsDisabled() {
+        BalanceCache disabled = new BalanceCache(new SimpleMeterRegistry(), false, 100L, Duration.ofMinutes(1L));
+        disabled.putAfterCommit(USER_ID, FORMATTED_ONE);
+        assertEquals(FORMATTED_TEN, disabled.get(USER_ID, loader(FORMATTED_TEN)));
+        assertEquals(FORMATTED_TEN, disabled.get(USER_ID, loader(FORMATTED_TEN)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testMetrics() {
+        cache.get(USER_ID, loader(FORMATTED_TEN));
+        cache.get(USER_ID, loader(FORMATTED_TEN));
+        cache.get(USER_ID, loader(FORMATTED_TEN));
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+                .functionCounter().count());
+        assertEquals(0.0, registry.get("cache.evictions").tag("cache", CACHE_NAME).functionCounter().count());
+    }
+
+    private Function<Long, BigDecimal> loader(BigDecimal balance) {
+        return id -> {
+            loads.incrementAndGet();
+            return balance;
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package dev.akuniutka.bank.api.cache;
+
+import dev.akuniutka.bank.api.dto.ResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.cache.IdempotencyCache.CACHE_NAME;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class IdempotencyCacheTest {
+    private static final String KEY = "key";
+    private MeterRegistry registry;
+    private IdempotencyCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new IdempotencyCache(registry, 100L, Duration.ofMinutes(1L));
+    }
+
+    @Test
+    void testGetWhenKeyIsNotCached() {
+        assertNull(cache.get(KEY));
+    }
+
+    @Test
+    void testGetWhenKeyIsCached() {
+        StoredResponse response = new StoredResponse("putMoney:1:10", new ResponseDto(ONE));
+        cache.put(KEY, response);
+        assertSame(response, cache.get(KEY));
+        assertNull(cache.get("other"));
+    }
+
+    @Test
+    void testMetricsAreRegistered() {
+        cache.get(KEY);
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+                .functionCounter().count());
+    }
+}
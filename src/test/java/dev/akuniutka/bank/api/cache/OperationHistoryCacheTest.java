@@ -0,0 +1,281 @@
+package dev.akuniutka.bank.api.cache;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.cache.OperationHistoryCache.CACHE_NAME;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class OperationHistoryCacheTest {
+    private static final Long USER_ID = 1L;
+    private static final OffsetDateTime START = OffsetDateTime.now().minusDays(10L);
+    private static final OffsetDateTime FROM = START.minusDays(1L);
+    private static final Duration WINDOW = Duration.ofDays(30L);
+    private Account account;
+    private List<Operation> operations;
+    private MeterRegistry registry;
+    private OperationHistoryCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        account = new Account(USER_ID, FORMATTED_TEN);
+        operations = new ArrayList<>();
+        for (long i = 0; i < 5L; i++) {
+            operations.add(operation(i + 1L, START.plusDays(i)));
+        }
+        registry = new SimpleMeterRegistry();
+        cache = new OperationHistoryCache(registry, true, WINDOW, 10, 100L, Duration.ofMinutes(1L));
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGetWhenHistoryIsNotCached() {
+        assertEquals(operations, cache.get(USER_ID, FROM, null, loader(operations)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGetWhenHistoryIsCached() {
+        cache.get(USER_ID, FROM, null, loader(operations));
+        assertEquals(operations, cache.get(USER_ID, FROM, null, loader(Collections.emptyList())));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGetWhenDateFromIsNotNull() {
+        assertEquals(operations.subList(2, 5), cache.get(USER_ID, START.plusDays(2L), null, loader(operations)));
+        assertEquals(operations.subList(3, 5), cache.get(USER_ID, START.plusHours(60L), null, loader(operations)));
+    }
+
+    @Test
+    void testGetWhenDateToIsNotNull() {
+        assertEquals(operations.subList(0, 2), cache.get(USER_ID, FROM, START.plusDays(2L), loader(operations)));
+        assertEquals(operations.subList(0, 3), cache.get(USER_ID, FROM, START.plusHours(60L), loader(operations)));
+    }
+
+    @Test
+    void testGetWhenDateFromAndDateToAreNotNull() {
+        assertEquals(operations.subList(1, 4),
+                cache.get(USER_ID, START.plusDays(1L), START.plusDays(4L), loader(operations))
+        );
+        assertTrue(cache.get(USER_ID, START.plusDays(4L), START.plusDays(1L), loader(operations)).isEmpty());
+        assertTrue(cache.get(USER_ID, START.plusDays(5L), null, loader(operations)).isEmpty());
+    }
+
+    @Test
+    void testGetWhenCacheIsDisabled() {
+        cache = new OperationHistoryCache(registry, false, WINDOW, 10, 100L, Duration.ofMinutes(1L));
+        assertNull(cache.get(USER_ID, FROM, null, loader(operations)));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void testGetWhenDateFromIsNull() {
+        assertNull(cache.get(USER_ID, null, null, loader(operations)));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void testGetWhenDateFromIsBeforeWindow() {
+        assertNull(cache.get(USER_ID, OffsetDateTime.now().minus(WINDOW).minusDays(1L), null, loader(operations)));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void testGetLoadsWindowOnly() {
+        List<OffsetDateTime> windowStarts = new ArrayList<>();
+        OffsetDateTime before = OffsetDateTime.now().minus(WINDOW);
+        cache.get(USER_ID, FROM, null, windowStart -> {
+            windowStarts.add(windowStart);
+            return operations;
+        });
+        assertEquals(1, windowStarts.size());
+        assertFalse(windowStarts.get(0).isBefore(before));
+        assertFalse(windowStarts.get(0).isAfter(OffsetDateTime.now().minus(WINDOW)));
+    }
+
+    @Test
+    void testGetWhenWindowHasMoreOperationsThanAccountMayKeep() {
+        cache = new OperationHistoryCache(registry, true, WINDOW, 3, 100L, Duration.ofMinutes(1L));
+        assertNull(cache.get(USER_ID, START.plusDays(1L), null, loader(operations)));
+        assertEquals(operations.subList(2, 5), cache.get(USER_ID, START.plusDays(2L), null, loader(operations)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGetWhenWindowIsCutBetweenOperationsMadeAtTheSameTime() {
+        cache = new OperationHistoryCache(registry, true, WINDOW, 3, 100L, Duration.ofMinutes(1L));
+        operations.set(2, operation(3L, START.plusDays(1L)));
+        assertEquals(operations.subList(1, 5), cache.get(USER_ID, START.plusDays(1L), null, loader(operations)));
+    }
+
+    @Test
+    void testGetResultIsUnmodifiable() {
+        List<Operation> result = cache.get(USER_ID, FROM, null, loader(operations));
+        assertThrows(UnsupportedOperationException.class, () -> result.remove(0));
+    }
+
+    @Test
+    void testAppendAfterCommitWhenNoTransaction() {
+        cache.get(USER_ID, FROM, null, loader(operations));
+        Operation operation = operation(6L, START.plusDays(5L));
+        cache.appendAfterCommit(operation);
+        List<Operation> expected = new ArrayList<>(operations);
+        expected.add(operation);
+        assertEquals(expected, cache.get(USER_ID, FROM, null, loader(Collections.emptyList())));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testAppendAfterCommitWhenOperationIsOutOfOrder() {
+        cache.get(USER_ID, FROM, null, loader(operations));
+        Operation operation = operation(6L, START.plusHours(36L));
+        cache.appendAfterCommit(operation);
+        List<Operation> expected = new ArrayList<>(operations);
+        expected.add(2, operation);
+        assertEquals(expected, cache.get(USER_ID, FROM, null, loader(Collections.emptyList())));
+    }
+
+    @Test
+    void testAppendAfterCommitWhenOperationIsAlreadyLoaded() {
+        cache.get(USER_ID, FROM, null, loader(operations));
+        cache.appendAfterCommit(operations.get(4));
+        assertEquals(operations, cache.get(USER_ID, FROM, null, loader(Collections.emptyList())));
+    }
+
+    @Test
+    void testAppendAfterCommitWhenLoadedDateIsTruncated() {
+        cache.get(USER_ID, FROM, null, loader(operations));
+        Operation saved = operations.get(4);
+        cache.appendAfterCommit(operation(saved.getId(), saved.getDate().plusNanos(1L)));
+        assertEquals(operations, cache.get(USER_ID, FROM, null, loader(Collections.emptyList())));
+    }
+
+    @Test
+    void testAppendAfterCommitWhenOperationsAreAppendedInOrder() {
+        cache.get(USER_ID, FROM, null, loader(operations));
+        List<Operation> expected = new ArrayList<>(operations);
+        List<List<Operation>> results = new ArrayList<>();
+        for (long i = 5; i < 20L; i++) {
+            Operation operation = operation(i + 1L, START.plusDays(i));
+            cache.appendAfterCommit(operation);
+            expected.add(operation);
+            results.add(cache.get(USER_ID, FROM, null, loader(Collections.emptyList())));
+        }
+        assertEquals(expected, results.get(results.size() - 1));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(expected.subList(0, operations.size() + i + 1), results.get(i));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testAppendAfterCommitWhenOperationIsBeforeWindow() {
+        cache = new OperationHistoryCache(registry, true, WINDOW, 3, 100L, Duration.ofMinutes(1L));
+        cache.get(USER_ID, START.plusDays(2L), null, loader(operations));
+        cache.appendAfterCommit(operation(6L, START.plusHours(12L)));
+        assertEquals(operations.subList(2, 5), cache.get(USER_ID, START.plusDays(2L), null, loader(operations)));
+    }
+
+    @Test
+    void testAppendAfterCommitWhenCacheIsDisabled() {
+        cache = new OperationHistoryCache(registry, false, WINDOW, 10, 100L, Duration.ofMinutes(1L));
+        TransactionSynchronizationManager.initSynchronization();
+        cache.appendAfterCommit(operation(6L, START.plusDays(5L)));
+        cache.invalidateAfterCommit(USER_ID);
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    @Test
+    void testAppendAfterCommitWhenHistoryIsNotCached() {
+        cache.appendAfterCommit(operation(6L, START.plusDays(5L)));
+        assertEquals(operations, cache.get(USER_ID, FROM, null, loader(operations)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testAppendAfterCommitWhenTransactionCommits() {
+        cache.get(USER_ID, FROM, null, loader(operations));
+        TransactionSynchronizationManager.initSynchronization();
+        Operation operation = operation(6L, START.plusDays(5L));
+        cache.appendAfterCommit(operation);
+        assertEquals(operations, cache.get(USER_ID, FROM, null, loader(Collections.emptyList())));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        List<Operation> expected = new ArrayList<>(operations);
+        expected.add(operation);
+        assertEquals(expected, cache.get(USER_ID, FROM, null, loader(Collections.emptyList())));
+    }
+
+    @Test
+    void testAppendAfterCommitWhenTransactionRollsBack() {
+        cache.get(USER_ID, FROM, null, loader(operations));
+        TransactionSynchronizationManager.initSynchronization();
+        cache.appendAfterCommit(operation(6L, START.plusDays(5L)));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertEquals(operations, cache.get(USER_ID, FROM, null, loader(Collections.emptyList())));
+    }
+
+    @Test
+    void testInvalidateAfterCommit() {
+        cache.get(USER_ID, FROM, null, loader(operations));
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidateAfterCommit(USER_ID);
+        assertEquals(operations, cache.get(USER_ID, FROM, null, loader(Collections.emptyList())));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        List<Operation> reloaded = operations.subList(3, 5);
+        assertEquals(reloaded, cache.get(USER_ID, FROM, null, loader(reloaded)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testMetrics() {
+        cache.get(USER_ID, FROM, null, loader(operations));
+        cache.get(USER_ID, START, null, loader(operations));
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    private Operation operation(Long id, OffsetDateTime date) {
+        return new Operation(id, account, OperationType.DEPOSIT, TEN, date);
+    }
+
+    private Function<OffsetDateTime, List<Operation>> loader(List<Operation> history) {
+        return windowStart -> {
+            loads.incrementAndGet();
+            return history;
+        };
+    }
+}
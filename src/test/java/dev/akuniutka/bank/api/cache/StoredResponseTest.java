@@ -0,0 +1,17 @@
+package dev.akuniutka.bank.api.cache;
+
+import dev.akuniutka.bank.api.dto.ResponseDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class StoredResponseTest {
+    @Test
+    void testStoredResponse() {
+        ResponseDto response = new ResponseDto(ONE);
+        StoredResponse stored = new StoredResponse("putMoney:1:10", response);
+        assertEquals("putMoney:1:10", stored.getRequest());
+        assertSame(response, stored.getResponse());
+    }
+}
@@ -0,0 +1,87 @@
+package dev.akuniutka.bank.api.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.config.VirtualThreadConfig.PARALLELISM;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+
+class VirtualThreadConfigTest {
+    private String parallelism;
+
+    @BeforeEach
+    public void setUp() {
+        parallelism = System.getProperty(PARALLELISM);
+        System.clearProperty(PARALLELISM);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (parallelism == null) {
+            System.clearProperty(PARALLELISM);
+        } else {
+            System.setProperty(PARALLELISM, parallelism);
+        }
+    }
+
+    @Test
+    void testSetDefaultParallelism() {
+        VirtualThreadConfig.setDefaultParallelism(20);
+        assertEquals(String.valueOf(20 + Runtime.getRuntime().availableProcessors()), System.getProperty(PARALLELISM));
+    }
+
+    @Test
+    void testSetDefaultParallelismWhenParallelismIsSet() {
+        System.setProperty(PARALLELISM, "4");
+        VirtualThreadConfig.setDefaultParallelism(20);
+        assertEquals("4", System.getProperty(PARALLELISM));
+    }
+
+    @Test
+    void testNewVirtualThreadPerTaskExecutorWhenNotSupported() {
+        assumeFalse(isSupported());
+        Exception e = assertThrows(IllegalStateException.class, VirtualThreadConfig::newVirtualThreadPerTaskExecutor);
+        assertEquals(VIRTUAL_THREADS_NOT_SUPPORTED, e.getMessage());
+    }
+
+    @Test
+    void testNewVirtualThreadPerTaskExecutorWhenSupported() throws Exception {
+        assumeTrue(isSupported());
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<Object> isVirtual = executor.submit(() ->
+                    Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())
+            );
+            assertEquals(Boolean.TRUE, isVirtual.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testVirtualThreadExecutorCustomizer() {
+        assumeTrue(isSupported());
+        ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+        new VirtualThreadConfig().virtualThreadExecutorCustomizer(20).customize(protocolHandler);
+        verify(protocolHandler).setExecutor(any(ExecutorService.class));
+        verifyNoMoreInteractions(protocolHandler);
+    }
+
+    private static boolean isSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
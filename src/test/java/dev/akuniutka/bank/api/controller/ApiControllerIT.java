@@ -9,6 +9,7 @@ import dev.akuniutka.bank.api.dto.ResponseDto;
 import dev.akuniutka.bank.api.entity.Account;
 import dev.akuniutka.bank.api.entity.Operation;
 import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.util.Money;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +21,9 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static dev.akuniutka.bank.api.util.ErrorMessage.*;
 import static dev.akuniutka.bank.api.util.Amount.*;
@@ -35,6 +38,7 @@ class ApiControllerIT {
     private static final String PUT_MONEY = "/putMoney";
     private static final String TAKE_MONEY = "/takeMoney";
     private static final String TRANSFER_MONEY = "/transferMoney";
+    private static final String TRANSFER_MONEY_BATCH = "/transferMoneyBatch";
     private static final String GET_OPERATIONS = "/getOperationList/{userId}?dateFrom={dateFrom}&dateTo={dateTo}";
     private static final List<OperationDto> DTO_LIST = new ArrayList<>();
     @Autowired
@@ -137,7 +141,7 @@ class ApiControllerIT {
     @Test
     void testPutMoneyWhenUserExistsAndScaleIsGreaterThanTwoAndWithNonZeros() throws Exception {
         Long userId = 1056L;
-        CashOrderDto order = cashOrderFrom(userId, ONE_THOUSANDTH);
+        Map<String, Object> order = rawCashOrderFrom(userId, ONE_THOUSANDTH);
         String expected = jsonResponseFrom(ZERO, WRONG_MINOR_UNITS);
         put(webTestClient, PUT_MONEY, order)
                 .expectStatus().isBadRequest()
@@ -283,7 +287,7 @@ class ApiControllerIT {
     @Test
     void testTakeMoneyWhenUserExistsAndScaleIsGreaterThanTwoAndWithNonZeros() throws Exception {
         Long userId = 1063L;
-        CashOrderDto order = cashOrderFrom(userId, ONE_THOUSANDTH);
+        Map<String, Object> order = rawCashOrderFrom(userId, ONE_THOUSANDTH);
         String expected = jsonResponseFrom(ZERO, WRONG_MINOR_UNITS);
         put(webTestClient, TAKE_MONEY, order)
                 .expectStatus().isBadRequest()
@@ -442,7 +446,7 @@ class ApiControllerIT {
     void testTransferMoneyWhenScaleIsGreaterThanTwoAndWithNonZeros() throws Exception {
         Long userId = 1083L;
         Long receiverId = 1084L;
-        PaymentOrderDto order = paymentOrderFrom(userId, receiverId, ONE_THOUSANDTH);
+        Map<String, Object> order = rawPaymentOrderFrom(userId, receiverId, ONE_THOUSANDTH);
         String expected = jsonResponseFrom(ZERO, WRONG_MINOR_UNITS);
         put(webTestClient, TRANSFER_MONEY, order)
                 .expectStatus().isBadRequest()
@@ -659,10 +663,49 @@ class ApiControllerIT {
                 .expectBody().json(expected, true);
     }
 
+    @Test
+    void testTransferMoneyBatch() throws Exception {
+        Long userId = 1096L;
+        Long receiverId = 1097L;
+        List<PaymentOrderDto> orders = new ArrayList<>();
+        orders.add(paymentOrderFrom(userId, receiverId, TEN));
+        orders.add(paymentOrderFrom(userId, receiverId, ONE));
+        orders.add(paymentOrderFrom(receiverId, 0L, ONE));
+        orders.add(paymentOrderFrom(receiverId, userId, ONE));
+        List<ResponseDto> response = new ArrayList<>();
+        response.add(new ResponseDto(ONE));
+        response.add(new ResponseDto(ZERO, INSUFFICIENT_BALANCE));
+        response.add(new ResponseDto(ZERO, RECEIVER_NOT_FOUND));
+        response.add(new ResponseDto(ONE));
+        String expected = OBJECT_MAPPER.writeValueAsString(response);
+        put(webTestClient, TRANSFER_MONEY_BATCH, orders)
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+        expected = jsonResponseFrom(FORMATTED_ONE);
+        get(webTestClient, GET_BALANCE, userId)
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+        expected = jsonResponseFrom(FORMATTED_NINE);
+        get(webTestClient, GET_BALANCE, receiverId)
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+    }
+
     private CashOrderDto cashOrderFrom(Long userId, BigDecimal amount) {
         CashOrderDto order = new CashOrderDto();
         order.setUserId(userId);
-        order.setAmount(amount);
+        order.setAmount(amount == null ? null : Money.of(amount));
+        return order;
+    }
+
+    // Money cannot hold sub-cent amounts, so such orders are sent as plain JSON objects
+    private Map<String, Object> rawCashOrderFrom(Long userId, BigDecimal amount) {
+        Map<String, Object> order = new HashMap<>();
+        order.put("userId", userId);
+        order.put("amount", amount);
         return order;
     }
 
@@ -670,7 +713,13 @@ class ApiControllerIT {
         PaymentOrderDto order = new PaymentOrderDto();
         order.setUserId(userId);
         order.setReceiverId(receiverId);
-        order.setAmount(amount);
+        order.setAmount(amount == null ? null : Money.of(amount));
+        return order;
+    }
+
+    private Map<String, Object> rawPaymentOrderFrom(Long userId, Long receiverId, BigDecimal amount) {
+        Map<String, Object> order = rawCashOrderFrom(userId, amount);
+        order.put("receiverId", receiverId);
         return order;
     }
 
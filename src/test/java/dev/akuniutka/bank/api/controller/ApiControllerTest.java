@@ -4,17 +4,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import dev.akuniutka.bank.api.dto.CashOrderDto;
 import dev.akuniutka.bank.api.dto.OperationDto;
+import dev.akuniutka.bank.api.dto.OperationPageDto;
 import dev.akuniutka.bank.api.dto.PaymentOrderDto;
 import dev.akuniutka.bank.api.dto.ResponseDto;
 import dev.akuniutka.bank.api.entity.Account;
 import dev.akuniutka.bank.api.entity.Operation;
 import dev.akuniutka.bank.api.entity.OperationType;
 import dev.akuniutka.bank.api.service.AccountService;
+import dev.akuniutka.bank.api.service.IdempotencyService;
 import dev.akuniutka.bank.api.service.OperationService;
 import dev.akuniutka.bank.api.service.TransferService;
+import dev.akuniutka.bank.api.util.OperationCursor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -24,7 +28,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.time.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,7 +39,9 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
 import static dev.akuniutka.bank.api.util.Amount.*;
 
 @WebMvcTest(ApiController.class)
@@ -45,7 +54,11 @@ class ApiControllerTest {
     private static final String PUT_MONEY = "/putMoney";
     private static final String TAKE_MONEY = "/takeMoney";
     private static final String TRANSFER_MONEY = "/transferMoney";
+    private static final String TRANSFER_MONEY_BATCH = "/transferMoneyBatch";
     private static final String GET_OPERATION_LIST = "/getOperationList/{userId}?dateFrom={dateFrom}&dateTo={dateTo}";
+    private static final String GET_OPERATION_PAGE = "/getOperationPage/{userId}";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String KEY = "4f1c2a9e-6b1d-4e8a-9d0e-3b7f5c2a1e60";
 
     @Autowired
     private MockMvc mvc;
@@ -55,6 +68,8 @@ class ApiControllerTest {
     private OperationService operationService;
     @MockBean
     private TransferService transferService;
+    @MockBean
+    private IdempotencyService idempotencyService;
 
     @BeforeAll
     static void init() {
@@ -67,11 +82,13 @@ class ApiControllerTest {
         verifyNoMoreInteractions(ignoreStubs(accountService));
         verifyNoMoreInteractions(ignoreStubs(operationService));
         verifyNoMoreInteractions(ignoreStubs(transferService));
+        verifyNoMoreInteractions(ignoreStubs(idempotencyService));
     }
 
     @Test
     void testApiController() {
-        assertDoesNotThrow(() -> new ApiController(accountService, operationService, transferService));
+        assertDoesNotThrow(() -> new ApiController(accountService, operationService, transferService,
+                idempotencyService));
     }
 
     @Test
@@ -94,9 +111,9 @@ class ApiControllerTest {
         String expected = OBJECT_MAPPER.writeValueAsString(response);
         CashOrderDto order = new CashOrderDto();
         order.setUserId(USER_ID);
-        order.setAmount(TEN);
+        order.setAmount(MONEY_TEN);
         String jsonOrder = OBJECT_MAPPER.writeValueAsString(order);
-        doNothing().when(operationService).createDeposit(USER_ID, TEN);
+        doNothing().when(operationService).createDeposit(USER_ID, MONEY_TEN);
         mvc.perform(put(PUT_MONEY)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonOrder))
@@ -104,7 +121,7 @@ class ApiControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(expected, true));
-        verify(operationService).createDeposit(USER_ID, TEN);
+        verify(operationService).createDeposit(USER_ID, MONEY_TEN);
     }
 
     @Test
@@ -113,9 +130,9 @@ class ApiControllerTest {
         String expected = OBJECT_MAPPER.writeValueAsString(response);
         CashOrderDto order = new CashOrderDto();
         order.setUserId(USER_ID);
-        order.setAmount(ONE);
+        order.setAmount(MONEY_ONE);
         String jsonOrder = OBJECT_MAPPER.writeValueAsString(order);
-        doNothing().when(operationService).createWithdrawal(USER_ID, ONE);
+        doNothing().when(operationService).createWithdrawal(USER_ID, MONEY_ONE);
         mvc.perform(put(TAKE_MONEY)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonOrder))
@@ -123,7 +140,7 @@ class ApiControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(expected, true));
-        verify(operationService).createWithdrawal(USER_ID, ONE);
+        verify(operationService).createWithdrawal(USER_ID, MONEY_ONE);
     }
 
     @Test
@@ -133,17 +150,141 @@ class ApiControllerTest {
         PaymentOrderDto order = new PaymentOrderDto();
         order.setUserId(USER_ID);
         order.setReceiverId(RECEIVER_ID);
-        order.setAmount(TEN);
+        order.setAmount(MONEY_TEN);
+        String jsonOrder = OBJECT_MAPPER.writeValueAsString(order);
+        doNothing().when(transferService).createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN);
+        mvc.perform(put(TRANSFER_MONEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonOrder))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expected, true));
+        verify(transferService).createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPutMoneyWithIdempotencyKey() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ONE));
+        CashOrderDto order = new CashOrderDto();
+        order.setUserId(USER_ID);
+        order.setAmount(MONEY_TEN);
+        String jsonOrder = OBJECT_MAPPER.writeValueAsString(order);
+        when(idempotencyService.execute(eq(KEY), eq("putMoney:1:10.00"), any())).thenAnswer(invocation ->
+                ((Supplier<ResponseDto>) invocation.getArgument(2)).get()
+        );
+        mvc.perform(put(PUT_MONEY)
+                        .header(IDEMPOTENCY_KEY, KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonOrder))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expected, true));
+        verify(idempotencyService).execute(eq(KEY), eq("putMoney:1:10.00"), any());
+        verify(operationService).createDeposit(USER_ID, MONEY_TEN);
+    }
+
+    @Test
+    void testTakeMoneyWhenRequestIsRepeated() throws Exception {
+        ResponseDto response = new ResponseDto(ONE);
+        String expected = OBJECT_MAPPER.writeValueAsString(response);
+        CashOrderDto order = new CashOrderDto();
+        order.setUserId(USER_ID);
+        order.setAmount(MONEY_TEN);
+        String jsonOrder = OBJECT_MAPPER.writeValueAsString(order);
+        when(idempotencyService.execute(eq(KEY), eq("takeMoney:1:10.00"), any())).thenReturn(response);
+        mvc.perform(put(TAKE_MONEY)
+                        .header(IDEMPOTENCY_KEY, KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonOrder))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expected, true));
+        verify(idempotencyService).execute(eq(KEY), eq("takeMoney:1:10.00"), any());
+        verify(operationService, never()).createWithdrawal(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTransferMoneyWithIdempotencyKey() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ONE));
+        PaymentOrderDto order = new PaymentOrderDto();
+        order.setUserId(USER_ID);
+        order.setReceiverId(RECEIVER_ID);
+        order.setAmount(MONEY_TEN);
         String jsonOrder = OBJECT_MAPPER.writeValueAsString(order);
-        doNothing().when(transferService).createTransfer(USER_ID, RECEIVER_ID, TEN);
+        when(idempotencyService.execute(eq(KEY), eq("transferMoney:1:2:10.00"), any())).thenAnswer(invocation ->
+                ((Supplier<ResponseDto>) invocation.getArgument(2)).get()
+        );
         mvc.perform(put(TRANSFER_MONEY)
+                        .header(IDEMPOTENCY_KEY, KEY)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonOrder))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(expected, true));
-        verify(transferService).createTransfer(USER_ID, RECEIVER_ID, TEN);
+        verify(idempotencyService).execute(eq(KEY), eq("transferMoney:1:2:10.00"), any());
+        verify(transferService).createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTransferMoneyBatch() throws Exception {
+        List<ResponseDto> response = Arrays.asList(new ResponseDto(ONE), new ResponseDto(ZERO, RECEIVER_NOT_FOUND));
+        String expected = OBJECT_MAPPER.writeValueAsString(response);
+        List<PaymentOrderDto> orders = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            PaymentOrderDto order = new PaymentOrderDto();
+            order.setUserId(USER_ID);
+            order.setReceiverId(RECEIVER_ID + i);
+            order.setAmount(MONEY_TEN);
+            orders.add(order);
+        }
+        String jsonOrders = OBJECT_MAPPER.writeValueAsString(orders);
+        ArgumentCaptor<List<PaymentOrderDto>> captor = ArgumentCaptor.forClass(List.class);
+        when(transferService.createTransfers(anyList())).thenReturn(Arrays.asList(null, RECEIVER_NOT_FOUND));
+        mvc.perform(put(TRANSFER_MONEY_BATCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonOrders))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expected, true));
+        verify(transferService).createTransfers(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(RECEIVER_ID + 1L, captor.getValue().get(1).getReceiverId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTransferMoneyBatchWhenBatchIsSplitIntoChunks() throws Exception {
+        List<PaymentOrderDto> orders = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            PaymentOrderDto order = new PaymentOrderDto();
+            order.setUserId(USER_ID);
+            order.setReceiverId(RECEIVER_ID);
+            order.setAmount(MONEY_ONE);
+            orders.add(order);
+        }
+        String jsonOrders = OBJECT_MAPPER.writeValueAsString(orders);
+        ArgumentCaptor<List<PaymentOrderDto>> captor = ArgumentCaptor.forClass(List.class);
+        when(transferService.createTransfers(anyList()))
+                .thenAnswer(a -> Collections.nCopies(((List<?>) a.getArguments()[0]).size(), null));
+        mvc.perform(put(TRANSFER_MONEY_BATCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonOrders))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1200))
+                .andExpect(jsonPath("$[1199].result").value(1));
+        verify(transferService, times(3)).createTransfers(captor.capture());
+        assertEquals(500, captor.getAllValues().get(0).size());
+        assertEquals(500, captor.getAllValues().get(1).size());
+        assertEquals(200, captor.getAllValues().get(2).size());
     }
 
     @Test
@@ -206,6 +347,66 @@ class ApiControllerTest {
         verify(operationService).getUserOperations(USER_ID, dateFrom, dateTo);
     }
 
+    @Test
+    void testGetOperationPageWhenLastPage() throws Exception {
+        OffsetDateTime dateFrom = OffsetDateTime.of(LocalDate.parse("2022-01-01"), LocalTime.MIDNIGHT, OFFSET);
+        List<Operation> operations = generateTestOperationList();
+        OperationPageDto page = new OperationPageDto(generateDtoListFromOperationList(operations), null);
+        String expected = OBJECT_MAPPER.writeValueAsString(page);
+        when(operationService.getUserOperations(USER_ID, dateFrom, null, null, 3)).thenReturn(operations);
+        mvc.perform(get(GET_OPERATION_PAGE, USER_ID)
+                        .param("dateFrom", dateFrom.toLocalDate().toString())
+                        .param("limit", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expected, true));
+        verify(operationService).getUserOperations(USER_ID, dateFrom, null, null, 3);
+    }
+
+    @Test
+    void testGetOperationPageWhenNextPageExists() throws Exception {
+        List<Operation> operations = new ArrayList<>();
+        for (long id = 1L; id <= 3L; id++) {
+            Operation operation = mock(Operation.class);
+            when(operation.getId()).thenReturn(id);
+            when(operation.getType()).thenReturn(OperationType.DEPOSIT);
+            when(operation.getAmount()).thenReturn(MONEY_TEN);
+            when(operation.getDate()).thenReturn(OffsetDateTime.now().plusMonths(id));
+            operations.add(operation);
+        }
+        OperationCursor cursor = new OperationCursor(OffsetDateTime.now().minusMonths(1L), 1L);
+        String nextCursor = OperationCursor.of(operations.get(1)).encode();
+        when(operationService.getUserOperations(eq(USER_ID), isNull(), isNull(), any(OperationCursor.class), eq(3)))
+                .thenReturn(operations);
+        mvc.perform(get(GET_OPERATION_PAGE, USER_ID)
+                        .param("cursor", cursor.encode())
+                        .param("limit", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.operations.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(nextCursor));
+        ArgumentCaptor<OperationCursor> captor = ArgumentCaptor.forClass(OperationCursor.class);
+        verify(operationService).getUserOperations(eq(USER_ID), isNull(), isNull(), captor.capture(), eq(3));
+        assertTrue(cursor.getDate().isEqual(captor.getValue().getDate()));
+        assertEquals(cursor.getId(), captor.getValue().getId());
+    }
+
+    @Test
+    void testGetOperationPageWhenLimitIsOmitted() throws Exception {
+        List<Operation> operations = generateTestOperationList();
+        OperationPageDto page = new OperationPageDto(generateDtoListFromOperationList(operations), null);
+        String expected = OBJECT_MAPPER.writeValueAsString(page);
+        when(operationService.getUserOperations(USER_ID, null, null, null, 101)).thenReturn(operations);
+        mvc.perform(get(GET_OPERATION_PAGE, USER_ID))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expected, true));
+        verify(operationService).getUserOperations(USER_ID, null, null, null, 101);
+    }
+
     private List<Operation> generateTestOperationList() {
         Account account = new Account();
         List<Operation> operations = new ArrayList<>();
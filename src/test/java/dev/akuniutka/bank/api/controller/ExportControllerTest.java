@@ -0,0 +1,101 @@
+package dev.akuniutka.bank.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.akuniutka.bank.api.dto.OperationDto;
+import dev.akuniutka.bank.api.dto.ResponseDto;
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.service.OperationExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+@WebMvcTest(ExportController.class)
+class ExportControllerTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Long USER_ID = 1L;
+    private static final String EXPORT_OPERATIONS = "/exportOperationList/{userId}";
+    @Autowired
+    private MockMvc mvc;
+    @MockBean
+    private OperationExportService exportService;
+
+    @BeforeAll
+    static void init() {
+        OBJECT_MAPPER.findAndRegisterModules();
+        OBJECT_MAPPER.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(exportService));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportOperationList() throws Exception {
+        Account account = new Account();
+        List<Operation> operations = new ArrayList<>();
+        operations.add(new Operation(account, OperationType.DEPOSIT, TEN, OffsetDateTime.now()));
+        operations.add(new Operation(account, OperationType.WITHDRAWAL, ONE, OffsetDateTime.now().plusMonths(1L)));
+        StringBuilder expected = new StringBuilder();
+        for (Operation operation : operations) {
+            expected.append(OBJECT_MAPPER.writeValueAsString(new OperationDto(operation))).append('\n');
+        }
+        doAnswer(a -> {
+            operations.forEach(((Consumer<Operation>) a.getArguments()[1]));
+            return null;
+        }).when(exportService).exportUserOperations(eq(USER_ID), any());
+        mvc.perform(get(EXPORT_OPERATIONS, USER_ID))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExportController.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(expected.toString()));
+        verify(exportService).exportUserOperations(eq(USER_ID), any());
+    }
+
+    @Test
+    void testExportOperationListWhenNoOperations() throws Exception {
+        doNothing().when(exportService).exportUserOperations(eq(USER_ID), any());
+        mvc.perform(get(EXPORT_OPERATIONS, USER_ID))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExportController.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(""));
+        verify(exportService).exportUserOperations(eq(USER_ID), any());
+    }
+
+    @Test
+    void testExportOperationListWhenUserDoesNotExist() throws Exception {
+        ResponseDto response = new ResponseDto(ZERO, USER_NOT_FOUND);
+        String expected = OBJECT_MAPPER.writeValueAsString(response);
+        doThrow(new UserNotFoundException(USER_NOT_FOUND)).when(exportService).exportUserOperations(eq(USER_ID), any());
+        mvc.perform(get(EXPORT_OPERATIONS, USER_ID))
+                .andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expected, true));
+        verify(exportService).exportUserOperations(eq(USER_ID), any());
+    }
+}
@@ -6,6 +6,7 @@ import dev.akuniutka.bank.api.dto.PaymentOrderDto;
 import dev.akuniutka.bank.api.dto.ResponseDto;
 import dev.akuniutka.bank.api.exception.*;
 import dev.akuniutka.bank.api.service.AccountService;
+import dev.akuniutka.bank.api.service.IdempotencyService;
 import dev.akuniutka.bank.api.service.OperationService;
 import dev.akuniutka.bank.api.service.TransferService;
 import org.junit.jupiter.api.AfterEach;
@@ -16,6 +17,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
+
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -35,7 +38,9 @@ class GeneralApiExceptionHandlerTest {
     private static final String PUT_MONEY = "/putMoney";
     private static final String TAKE_MONEY = "/takeMoney";
     private static final String TRANSFER_MONEY = "/transferMoney";
+    private static final String TRANSFER_MONEY_BATCH = "/transferMoneyBatch";
     private static final String GET_OPERATIONS = "/getOperationList/{userId}";
+    private static final String GET_OPERATION_PAGE = "/getOperationPage/{userId}";
     @Autowired
     private MockMvc mvc;
     @MockBean
@@ -44,12 +49,15 @@ class GeneralApiExceptionHandlerTest {
     private OperationService operationService;
     @MockBean
     private TransferService transferService;
+    @MockBean
+    private IdempotencyService idempotencyService;
 
     @AfterEach
     public void tearDown() {
         verifyNoMoreInteractions(ignoreStubs(accountService));
         verifyNoMoreInteractions(ignoreStubs(operationService));
         verifyNoMoreInteractions(ignoreStubs(transferService));
+        verifyNoMoreInteractions(ignoreStubs(idempotencyService));
     }
 
     @Test
@@ -69,11 +77,11 @@ class GeneralApiExceptionHandlerTest {
     void catchUserNotFoundExceptionWhenPutMoney() throws Exception {
         CashOrderDto order = new CashOrderDto();
         order.setUserId(USER_ID);
-        order.setAmount(TEN);
+        order.setAmount(MONEY_TEN);
         String jsonOrder = OBJECT_MAPPER.writeValueAsString(order);
         ResponseDto response = new ResponseDto(ZERO, USER_NOT_FOUND);
         String expected = OBJECT_MAPPER.writeValueAsString(response);
-        doThrow(new UserNotFoundException(USER_NOT_FOUND)).when(operationService).createDeposit(USER_ID, TEN);
+        doThrow(new UserNotFoundException(USER_NOT_FOUND)).when(operationService).createDeposit(USER_ID, MONEY_TEN);
         mvc.perform(put(PUT_MONEY)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonOrder))
@@ -81,18 +89,18 @@ class GeneralApiExceptionHandlerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(expected, true));
-        verify(operationService).createDeposit(USER_ID, TEN);
+        verify(operationService).createDeposit(USER_ID, MONEY_TEN);
     }
 
     @Test
     void catchUserNotFoundExceptionWhenTakeMoney() throws Exception {
         CashOrderDto order = new CashOrderDto();
         order.setUserId(USER_ID);
-        order.setAmount(ONE);
+        order.setAmount(MONEY_ONE);
         String jsonOrder = OBJECT_MAPPER.writeValueAsString(order);
         ResponseDto response = new ResponseDto(ZERO, USER_NOT_FOUND);
         String expected = OBJECT_MAPPER.writeValueAsString(response);
-        doThrow(new UserNotFoundException(USER_NOT_FOUND)).when(operationService).createWithdrawal(USER_ID, ONE);
+        doThrow(new UserNotFoundException(USER_NOT_FOUND)).when(operationService).createWithdrawal(USER_ID, MONEY_ONE);
         mvc.perform(put(TAKE_MONEY)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonOrder))
@@ -100,7 +108,7 @@ class GeneralApiExceptionHandlerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(expected, true));
-        verify(operationService).createWithdrawal(USER_ID, ONE);
+        verify(operationService).createWithdrawal(USER_ID, MONEY_ONE);
     }
 
     @Test
@@ -108,12 +116,12 @@ class GeneralApiExceptionHandlerTest {
         PaymentOrderDto order = new PaymentOrderDto();
         order.setUserId(USER_ID);
         order.setReceiverId(RECEIVER_ID);
-        order.setAmount(TEN);
+        order.setAmount(MONEY_TEN);
         String jsonOrder = OBJECT_MAPPER.writeValueAsString(order);
         ResponseDto response = new ResponseDto(ZERO, USER_NOT_FOUND);
         String expected = OBJECT_MAPPER.writeValueAsString(response);
         doThrow(new UserNotFoundException(USER_NOT_FOUND))
-                .when(transferService).createTransfer(USER_ID, RECEIVER_ID, TEN);
+                .when(transferService).createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN);
         mvc.perform(put(TRANSFER_MONEY)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonOrder))
@@ -121,7 +129,7 @@ class GeneralApiExceptionHandlerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(expected, true));
-        verify(transferService).createTransfer(USER_ID, RECEIVER_ID, TEN);
+        verify(transferService).createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN);
     }
 
     @Test
@@ -138,6 +146,74 @@ class GeneralApiExceptionHandlerTest {
         verify(operationService).getUserOperations(USER_ID, null, null);
     }
 
+    @Test
+    void catchOperationsNotFoundExceptionWhenGetOperationPage() throws Exception {
+        ResponseDto response = new ResponseDto(ZERO, OPERATIONS_NOT_FOUND);
+        String expected = OBJECT_MAPPER.writeValueAsString(response);
+        when(operationService.getUserOperations(USER_ID, null, null, null, 101)).thenReturn(new ArrayList<>());
+        mvc.perform(get(GET_OPERATION_PAGE, USER_ID))
+                .andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expected, true));
+        verify(operationService).getUserOperations(USER_ID, null, null, null, 101);
+    }
+
+    @Test
+    void catchBadRequestExceptionWhenPageSizeIsWrong() throws Exception {
+        ResponseDto response = new ResponseDto(ZERO, WRONG_PAGE_SIZE);
+        String expected = OBJECT_MAPPER.writeValueAsString(response);
+        mvc.perform(get(GET_OPERATION_PAGE, USER_ID).param("limit", "0"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expected, true));
+    }
+
+    @Test
+    void catchBadRequestExceptionWhenBatchIsEmpty() throws Exception {
+        ResponseDto response = new ResponseDto(ZERO, WRONG_BATCH_SIZE);
+        String expected = OBJECT_MAPPER.writeValueAsString(response);
+        mvc.perform(put(TRANSFER_MONEY_BATCH).contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expected, true));
+    }
+
+    @Test
+    void catchBadRequestExceptionWhenCursorIsWrong() throws Exception {
+        ResponseDto response = new ResponseDto(ZERO, WRONG_CURSOR);
+        String expected = OBJECT_MAPPER.writeValueAsString(response);
+        mvc.perform(get(GET_OPERATION_PAGE, USER_ID).param("cursor", "not a cursor"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expected, true));
+    }
+
+    @Test
+    void catchWrongAmountExceptionWhenAmountIsReadFromBody() throws Exception {
+        ResponseDto response = new ResponseDto(ZERO, WRONG_MINOR_UNITS);
+        String expected = OBJECT_MAPPER.writeValueAsString(response);
+        mvc.perform(put(PUT_MONEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":1,\"amount\":0.001}"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expected, true));
+    }
+
+    @Test
+    void catchHttpMessageNotReadableExceptionWhenBodyIsWrong() throws Exception {
+        mvc.perform(put(PUT_MONEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void catchWrongAmountExceptionWhenPutMoney() throws Exception {
         CashOrderDto order = new CashOrderDto();
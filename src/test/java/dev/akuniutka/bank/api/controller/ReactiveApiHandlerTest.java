@@ -0,0 +1,263 @@
+package dev.akuniutka.bank.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.akuniutka.bank.api.dto.CashOrderDto;
+import dev.akuniutka.bank.api.dto.OperationDto;
+import dev.akuniutka.bank.api.dto.PaymentOrderDto;
+import dev.akuniutka.bank.api.dto.ResponseDto;
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.exception.NullUserIdException;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.service.ReactiveAccountService;
+import dev.akuniutka.bank.api.service.ReactiveOperationService;
+import dev.akuniutka.bank.api.service.ReactiveTransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class ReactiveApiHandlerTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ZoneOffset OFFSET = ZoneId.systemDefault().getRules().getOffset(LocalDateTime.now());
+    private static final Long USER_ID = 1L;
+    private static final Long RECEIVER_ID = 2L;
+    private static final String GET_BALANCE = "/getBalance/{userId}";
+    private static final String PUT_MONEY = "/putMoney";
+    private static final String TAKE_MONEY = "/takeMoney";
+    private static final String TRANSFER_MONEY = "/transferMoney";
+    private static final String GET_OPERATIONS = "/getOperationList/{userId}?dateFrom={dateFrom}&dateTo={dateTo}";
+    private ReactiveAccountService accountService;
+    private ReactiveOperationService operationService;
+    private ReactiveTransferService transferService;
+    private WebTestClient webTestClient;
+
+    @BeforeAll
+    static void init() {
+        OBJECT_MAPPER.findAndRegisterModules();
+        OBJECT_MAPPER.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        accountService = mock(ReactiveAccountService.class);
+        operationService = mock(ReactiveOperationService.class);
+        transferService = mock(ReactiveTransferService.class);
+        ReactiveApiHandler handler = new ReactiveApiHandler(accountService, operationService, transferService);
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(c -> {
+                    c.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(OBJECT_MAPPER));
+                    c.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(OBJECT_MAPPER));
+                })
+                .build();
+        webTestClient = WebTestClient.bindToRouterFunction(new ReactiveApiRoutes().apiRoutes(handler))
+                .handlerStrategies(strategies)
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(accountService));
+        verifyNoMoreInteractions(ignoreStubs(operationService));
+        verifyNoMoreInteractions(ignoreStubs(transferService));
+    }
+
+    @Test
+    void testGetBalanceWhenUserExists() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(FORMATTED_TEN));
+        when(accountService.getUserBalance(USER_ID)).thenReturn(Mono.just(FORMATTED_TEN));
+        webTestClient.get().uri(GET_BALANCE, USER_ID).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+        verify(accountService).getUserBalance(USER_ID);
+    }
+
+    @Test
+    void testGetBalanceWhenUserDoesNotExist() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(MINUS_ONE, USER_NOT_FOUND));
+        when(accountService.getUserBalance(USER_ID)).thenReturn(Mono.error(new UserNotFoundException(USER_NOT_FOUND)));
+        webTestClient.get().uri(GET_BALANCE, USER_ID).exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+        verify(accountService).getUserBalance(USER_ID);
+    }
+
+    @Test
+    void testGetBalanceWhenUserIdIsWrong() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ZERO, WRONG_USER_ID));
+        webTestClient.get().uri(GET_BALANCE, "abc").exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+    }
+
+    @Test
+    void testPutMoney() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ONE));
+        when(operationService.createDeposit(USER_ID, MONEY_TEN)).thenReturn(Mono.empty());
+        put(PUT_MONEY, cashOrderFrom(USER_ID))
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+        verify(operationService).createDeposit(USER_ID, MONEY_TEN);
+    }
+
+    @Test
+    void testPutMoneyWhenUserIdIsNull() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ZERO, USER_ID_IS_NULL));
+        when(operationService.createDeposit(null, MONEY_TEN))
+                .thenReturn(Mono.error(new NullUserIdException(USER_ID_IS_NULL)));
+        put(PUT_MONEY, cashOrderFrom(null))
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+        verify(operationService).createDeposit(null, MONEY_TEN);
+    }
+
+    @Test
+    void testPutMoneyWhenBodyIsWrong() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ZERO, WRONG_REQUEST_BODY));
+        webTestClient.put().uri(PUT_MONEY).contentType(MediaType.APPLICATION_JSON).bodyValue("{").exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+    }
+
+    @Test
+    void testPutMoneyWhenAmountHasWrongMinorUnits() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ZERO, WRONG_MINOR_UNITS));
+        webTestClient.put().uri(PUT_MONEY).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"userId\":1,\"amount\":0.001}").exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+    }
+
+    @Test
+    void testTakeMoney() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ONE));
+        when(operationService.createWithdrawal(USER_ID, MONEY_TEN)).thenReturn(Mono.empty());
+        put(TAKE_MONEY, cashOrderFrom(USER_ID))
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+        verify(operationService).createWithdrawal(USER_ID, MONEY_TEN);
+    }
+
+    @Test
+    void testTakeMoneyWhenBalanceIsInsufficient() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ZERO, INSUFFICIENT_BALANCE));
+        when(operationService.createWithdrawal(USER_ID, MONEY_TEN))
+                .thenReturn(Mono.error(new WrongAmountException(INSUFFICIENT_BALANCE)));
+        put(TAKE_MONEY, cashOrderFrom(USER_ID))
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+        verify(operationService).createWithdrawal(USER_ID, MONEY_TEN);
+    }
+
+    @Test
+    void testTransferMoney() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ONE));
+        when(transferService.createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN)).thenReturn(Mono.empty());
+        put(TRANSFER_MONEY, paymentOrderFrom(RECEIVER_ID))
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+        verify(transferService).createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN);
+    }
+
+    @Test
+    void testTransferMoneyWhenReceiverDoesNotExist() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ZERO, RECEIVER_NOT_FOUND));
+        when(transferService.createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN))
+                .thenReturn(Mono.error(new UserNotFoundException(RECEIVER_NOT_FOUND)));
+        put(TRANSFER_MONEY, paymentOrderFrom(RECEIVER_ID))
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+        verify(transferService).createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN);
+    }
+
+    @Test
+    void testGetOperationList() throws Exception {
+        LocalDate dateFrom = LocalDate.parse("2023-01-01");
+        LocalDate dateTo = LocalDate.parse("2023-02-01");
+        OffsetDateTime start = OffsetDateTime.of(dateFrom, LocalTime.MIDNIGHT, OFFSET);
+        OffsetDateTime finish = OffsetDateTime.of(dateTo, LocalTime.MIDNIGHT, OFFSET);
+        Account account = new Account(USER_ID, TEN);
+        List<OperationDto> dtoList = new ArrayList<>();
+        List<Operation> operations = new ArrayList<>();
+        operations.add(new Operation(account, OperationType.DEPOSIT, TEN, start));
+        operations.add(new Operation(account, OperationType.WITHDRAWAL, ONE, start.plusDays(1L)));
+        for (Operation operation : operations) {
+            dtoList.add(new OperationDto(operation));
+        }
+        String expected = OBJECT_MAPPER.writeValueAsString(dtoList);
+        when(operationService.getUserOperations(USER_ID, start, finish)).thenReturn(Flux.fromIterable(operations));
+        webTestClient.get().uri(GET_OPERATIONS, USER_ID, dateFrom, dateTo).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+        verify(operationService).getUserOperations(USER_ID, start, finish);
+    }
+
+    @Test
+    void testGetOperationListWhenOperationsNotFound() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ZERO, OPERATIONS_NOT_FOUND));
+        when(operationService.getUserOperations(USER_ID, null, null)).thenReturn(Flux.empty());
+        webTestClient.get().uri(GET_OPERATIONS, USER_ID, "", "").exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+        verify(operationService).getUserOperations(USER_ID, null, null);
+    }
+
+    @Test
+    void testGetOperationListWhenDateIsWrong() throws Exception {
+        String expected = OBJECT_MAPPER.writeValueAsString(new ResponseDto(ZERO, WRONG_DATE));
+        webTestClient.get().uri(GET_OPERATIONS, USER_ID, "2023-13-01", "").exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, true);
+    }
+
+    private WebTestClient.ResponseSpec put(String uri, Object body) {
+        return webTestClient.put().uri(uri).contentType(MediaType.APPLICATION_JSON).bodyValue(body).exchange();
+    }
+
+    private CashOrderDto cashOrderFrom(Long userId) {
+        CashOrderDto order = new CashOrderDto();
+        order.setUserId(userId);
+        order.setAmount(MONEY_TEN);
+        return order;
+    }
+
+    private PaymentOrderDto paymentOrderFrom(Long receiverId) {
+        PaymentOrderDto order = new PaymentOrderDto();
+        order.setUserId(USER_ID);
+        order.setReceiverId(receiverId);
+        order.setAmount(MONEY_TEN);
+        return order;
+    }
+}
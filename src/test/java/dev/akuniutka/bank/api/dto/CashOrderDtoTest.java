@@ -2,7 +2,6 @@ package dev.akuniutka.bank.api.dto;
 
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static dev.akuniutka.bank.api.util.Amount.*;
@@ -30,9 +29,8 @@ class CashOrderDtoTest {
 
     @Test
     void setAmount() {
-        BigDecimal amount = TEN;
         CashOrderDto order = new CashOrderDto();
-        order.setAmount(amount);
-        assertEquals(0, amount.compareTo(order.getAmount()));
+        order.setAmount(MONEY_TEN);
+        assertEquals(MONEY_TEN, order.getAmount());
     }
 }
\ No newline at end of file
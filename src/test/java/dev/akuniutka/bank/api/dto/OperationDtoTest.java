@@ -36,12 +36,12 @@ class OperationDtoTest {
     void testOperationDtoWhenOperationIsNotNull() {
         OffsetDateTime date = OffsetDateTime.now();
         when(operation.getType()).thenReturn(OperationType.DEPOSIT);
-        when(operation.getAmount()).thenReturn(FORMATTED_TEN);
+        when(operation.getAmount()).thenReturn(MONEY_TEN);
         when(operation.getDate()).thenReturn(date);
         OperationDto dto = new OperationDto(operation);
         assertNotNull(dto);
         assertEquals(OperationType.DEPOSIT.getDescription(), dto.getType());
-        assertEquals(FORMATTED_TEN, dto.getAmount());
+        assertEquals(FORMATTED_TEN, dto.getAmount().toBigDecimal());
         assertTrue(date.isEqual(dto.getDate()));
         verify(operation).getType();
         verify(operation).getAmount();
@@ -52,7 +52,7 @@ class OperationDtoTest {
     void testGetDate() {
         OffsetDateTime date = OffsetDateTime.now();
         when(operation.getType()).thenReturn(OperationType.DEPOSIT);
-        when(operation.getAmount()).thenReturn(FORMATTED_TEN);
+        when(operation.getAmount()).thenReturn(MONEY_TEN);
         when(operation.getDate()).thenReturn(date);
         OperationDto dto = new OperationDto(operation);
         assertTrue(date.isEqual(dto.getDate()));
@@ -65,7 +65,7 @@ class OperationDtoTest {
     void testGetType() {
         OffsetDateTime date = OffsetDateTime.now();
         when(operation.getType()).thenReturn(OperationType.DEPOSIT);
-        when(operation.getAmount()).thenReturn(FORMATTED_TEN);
+        when(operation.getAmount()).thenReturn(MONEY_TEN);
         when(operation.getDate()).thenReturn(date);
         OperationDto dto = new OperationDto(operation);
         assertEquals(OperationType.DEPOSIT.getDescription(), dto.getType());
@@ -78,10 +78,10 @@ class OperationDtoTest {
     void testGetAmount() {
         OffsetDateTime date = OffsetDateTime.now();
         when(operation.getType()).thenReturn(OperationType.DEPOSIT);
-        when(operation.getAmount()).thenReturn(FORMATTED_TEN);
+        when(operation.getAmount()).thenReturn(MONEY_TEN);
         when(operation.getDate()).thenReturn(date);
         OperationDto dto = new OperationDto(operation);
-        assertEquals(FORMATTED_TEN, dto.getAmount());
+        assertEquals(FORMATTED_TEN, dto.getAmount().toBigDecimal());
         verify(operation).getType();
         verify(operation).getAmount();
         verify(operation).getDate();
@@ -0,0 +1,37 @@
+package dev.akuniutka.bank.api.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+
+class OperationPageDtoTest {
+    private static final String CURSOR = "cursor";
+
+    @Test
+    void testOperationPageDtoWhenOperationsIsNull() {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> new OperationPageDto(null, CURSOR));
+        assertEquals(OPERATION_LIST_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testOperationPageDtoWhenNextCursorIsNull() {
+        assertDoesNotThrow(() -> new OperationPageDto(new ArrayList<>(), null));
+    }
+
+    @Test
+    void testGetOperations() {
+        List<OperationDto> operations = new ArrayList<>();
+        OperationPageDto page = new OperationPageDto(operations, CURSOR);
+        assertSame(operations, page.getOperations());
+    }
+
+    @Test
+    void testGetNextCursor() {
+        OperationPageDto page = new OperationPageDto(new ArrayList<>(), CURSOR);
+        assertEquals(CURSOR, page.getNextCursor());
+    }
+}
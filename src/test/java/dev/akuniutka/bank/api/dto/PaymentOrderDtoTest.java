@@ -1,9 +1,8 @@
 package dev.akuniutka.bank.api.dto;
 
+import dev.akuniutka.bank.api.util.Money;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
-
 import static org.junit.jupiter.api.Assertions.*;
 import static dev.akuniutka.bank.api.util.Amount.*;
 
@@ -44,7 +43,7 @@ class PaymentOrderDtoTest {
 
     @Test
     void setAmount() {
-        BigDecimal expected = TEN;
+        Money expected = MONEY_TEN;
         PaymentOrderDto order = new PaymentOrderDto();
         order.setAmount(expected);
         assertEquals(expected, order.getAmount());
@@ -1,6 +1,7 @@
 package dev.akuniutka.bank.api.entity;
 
 import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.util.Money;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
@@ -12,7 +13,35 @@ import static dev.akuniutka.bank.api.util.ErrorMessage.*;
 class AccountTest {
     @Test
     void testAccount() {
-        assertDoesNotThrow(Account::new);
+        assertDoesNotThrow(() -> {
+            new Account();
+        });
+    }
+
+    @Test
+    void testAccountWhenIdAndBalanceAreSet() {
+        Account account = new Account(1L, TEN);
+        assertEquals(1L, account.getId());
+        assertEquals(MONEY_TEN, account.getBalance());
+    }
+
+    @Test
+    void testAccountWhenBalanceIsNegative() {
+        Exception e = assertThrows(WrongAmountException.class, () -> new Account(1L, MINUS_TEN));
+        assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
+    }
+
+    @Test
+    void testAccountWhenIdAndMoneyBalanceAreSet() {
+        Account account = new Account(1L, MONEY_TEN);
+        assertEquals(1L, account.getId());
+        assertSame(MONEY_TEN, account.getBalance());
+    }
+
+    @Test
+    void testAccountWhenMoneyBalanceIsNegative() {
+        Exception e = assertThrows(WrongAmountException.class, () -> new Account(1L, MONEY_MINUS_TEN));
+        assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
     }
 
     @Test
@@ -25,7 +54,7 @@ class AccountTest {
     void testSetBalanceWhenAmountIsPositive() {
         Account account = new Account();
         account.setBalance(TEN);
-        assertEquals(FORMATTED_TEN, account.getBalance());
+        assertEquals(MONEY_TEN, account.getBalance());
     }
 
     @Test
@@ -33,14 +62,28 @@ class AccountTest {
         Account account = new Account();
         account.setBalance(TEN);
         account.setBalance(ZERO);
-        assertEquals(FORMATTED_ZERO, account.getBalance());
+        assertEquals(MONEY_ZERO, account.getBalance());
+    }
+
+    @Test
+    void testGetBalanceInCents() {
+        Account account = new Account(null, FORMATTED_TEN);
+        assertEquals(1000L, account.getBalanceInCents());
+    }
+
+    @Test
+    void testIncreaseBalanceWhenBalanceBecomesTooLarge() {
+        Account account = new Account(null, new BigDecimal("9999999999999.99"));
+        Exception e = assertThrows(WrongAmountException.class, () -> account.increaseBalance(MONEY_TEN_HUNDREDTHS));
+        assertEquals(AMOUNT_IS_TOO_LARGE, e.getMessage());
+        assertEquals(Money.of(new BigDecimal("9999999999999.99")), account.getBalance());
     }
 
     @Test
     void testSetBalanceWhenScaleIsGreaterThanTwoButWithZeros() {
         Account account = new Account();
         account.setBalance(TEN_THOUSANDTHS);
-        assertEquals(FORMATTED_TEN_THOUSANDTHS, account.getBalance());
+        assertEquals(MONEY_TEN_HUNDREDTHS, account.getBalance());
     }
 
     @Test
@@ -67,41 +110,29 @@ class AccountTest {
     @Test
     void testGetBalance() {
         Account account = new Account();
-        assertEquals(FORMATTED_ZERO, account.getBalance());
+        assertEquals(MONEY_ZERO, account.getBalance());
     }
 
     @Test
     void testIncreaseBalanceWhenAmountIsPositive() {
         Account account = new Account();
-        account.increaseBalance(TEN);
-        assertEquals(FORMATTED_TEN, account.getBalance());
+        account.increaseBalance(MONEY_TEN);
+        assertEquals(MONEY_TEN, account.getBalance());
     }
 
-    @Test
-    void testIncreaseBalanceWhenScaleIsGreaterThanTwoButWithZeros() {
-        Account account = new Account();
-        account.increaseBalance(TEN_THOUSANDTHS);
-        assertEquals(FORMATTED_TEN_THOUSANDTHS, account.getBalance());
-    }
 
-    @Test
-    void testIncreaseBalanceWhenScaleIsGreaterThanTwoAndWithNonZeros() {
-        Account account = new Account();
-        Exception e = assertThrows(WrongAmountException.class, () -> account.increaseBalance(ONE_THOUSANDTH));
-        assertEquals(WRONG_MINOR_UNITS, e.getMessage());
-    }
 
     @Test
     void testIncreaseBalanceWhenAmountIsZero() {
         Account account = new Account();
-        Exception e = assertThrows(WrongAmountException.class, () -> account.increaseBalance(ZERO));
+        Exception e = assertThrows(WrongAmountException.class, () -> account.increaseBalance(MONEY_ZERO));
         assertEquals(AMOUNT_IS_ZERO, e.getMessage());
     }
 
     @Test
     void testIncreaseBalanceWhenAmountIsNegative() {
         Account account = new Account();
-        Exception e = assertThrows(WrongAmountException.class, () -> account.increaseBalance(MINUS_TEN));
+        Exception e = assertThrows(WrongAmountException.class, () -> account.increaseBalance(MONEY_MINUS_TEN));
         assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
     }
 
@@ -115,55 +146,40 @@ class AccountTest {
     @Test
     void testDecreaseBalanceWhenAmountIsLessThanBalance() {
         Account account = new Account();
-        account.increaseBalance(TEN);
-        account.decreaseBalance(ONE);
-        assertEquals(FORMATTED_NINE, account.getBalance());
+        account.increaseBalance(MONEY_TEN);
+        account.decreaseBalance(MONEY_ONE);
+        assertEquals(MONEY_NINE, account.getBalance());
     }
 
     @Test
     void testDecreaseBalanceWhenAmountIsEqualToBalance() {
         Account account = new Account();
-        account.increaseBalance(TEN);
-        account.decreaseBalance(TEN);
-        assertEquals(FORMATTED_ZERO, account.getBalance());
+        account.increaseBalance(MONEY_TEN);
+        account.decreaseBalance(MONEY_TEN);
+        assertEquals(MONEY_ZERO, account.getBalance());
     }
 
-    @Test
-    void testDecreaseBalanceWhenScaleIsGreaterThanTwoButWithZeros() {
-        BigDecimal expected = FORMATTED_TEN.subtract(FORMATTED_TEN_THOUSANDTHS);
-        Account account = new Account();
-        account.increaseBalance(TEN);
-        account.decreaseBalance(TEN_THOUSANDTHS);
-        assertEquals(expected, account.getBalance());
-    }
 
-    @Test
-    void testDecreaseBalanceWhenScaleIsGreaterThanTwoAndWithNonZeros() {
-        Account account = new Account();
-        account.increaseBalance(TEN);
-        Exception e = assertThrows(WrongAmountException.class, () -> account.decreaseBalance(ONE_THOUSANDTH));
-        assertEquals(WRONG_MINOR_UNITS, e.getMessage());
-    }
 
     @Test
     void testDecreaseBalanceWhenAmountIsGreaterThanBalance() {
         Account account = new Account();
-        Exception e = assertThrows(WrongAmountException.class, () -> account.decreaseBalance(ONE));
+        Exception e = assertThrows(WrongAmountException.class, () -> account.decreaseBalance(MONEY_ONE));
         assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
     }
 
     @Test
     void testDecreaseBalanceWhenAmountIsZero() {
         Account account = new Account();
-        Exception e = assertThrows(WrongAmountException.class, () -> account.decreaseBalance(ZERO));
+        Exception e = assertThrows(WrongAmountException.class, () -> account.decreaseBalance(MONEY_ZERO));
         assertEquals(AMOUNT_IS_ZERO, e.getMessage());
     }
 
     @Test
     void testDecreaseBalanceWhenAmountIsNegative() {
         Account account = new Account();
-        account.increaseBalance(TEN);
-        Exception e = assertThrows(WrongAmountException.class, () -> account.decreaseBalance(MINUS_ONE));
+        account.increaseBalance(MONEY_TEN);
+        Exception e = assertThrows(WrongAmountException.class, () -> account.decreaseBalance(MONEY_MINUS_ONE));
         assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
     }
 
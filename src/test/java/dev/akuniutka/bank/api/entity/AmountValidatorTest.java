@@ -2,6 +2,7 @@ package dev.akuniutka.bank.api.entity;
 
 import dev.akuniutka.bank.api.exception.WrongAmountException;
 import dev.akuniutka.bank.api.util.AmountValidator;
+import dev.akuniutka.bank.api.util.Money;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
@@ -40,7 +41,7 @@ class AmountValidatorTest {
 
     @Test
     void testAssertBalanceWhenAmountIsNull() {
-        Exception e = assertThrows(WrongAmountException.class, () -> AmountValidator.assertBalance(null));
+        Exception e = assertThrows(WrongAmountException.class, () -> AmountValidator.assertBalance((BigDecimal) null));
         assertEquals(AMOUNT_IS_NULL, e.getMessage());
     }
 
@@ -74,7 +75,41 @@ class AmountValidatorTest {
 
     @Test
     void testAssertAmountWhenAmountIsNull() {
-        Exception e = assertThrows(WrongAmountException.class, () -> AmountValidator.assertAmount(null));
+        Exception e = assertThrows(WrongAmountException.class, () -> AmountValidator.assertAmount((BigDecimal) null));
         assertEquals(AMOUNT_IS_NULL, e.getMessage());
     }
+
+    @Test
+    void testAssertAmountWhenMoneyIsPositive() {
+        assertDoesNotThrow(() -> AmountValidator.assertAmount(MONEY_TEN));
+    }
+
+    @Test
+    void testAssertAmountWhenMoneyIsZero() {
+        Exception e = assertThrows(WrongAmountException.class, () -> AmountValidator.assertAmount(MONEY_ZERO));
+        assertEquals(AMOUNT_IS_ZERO, e.getMessage());
+    }
+
+    @Test
+    void testAssertAmountWhenMoneyIsNegative() {
+        Exception e = assertThrows(WrongAmountException.class, () -> AmountValidator.assertAmount(MONEY_MINUS_ONE));
+        assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
+    }
+
+    @Test
+    void testAssertAmountWhenMoneyIsNull() {
+        Exception e = assertThrows(WrongAmountException.class, () -> AmountValidator.assertAmount((Money) null));
+        assertEquals(AMOUNT_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testAssertBalanceWhenMoneyIsZero() {
+        assertDoesNotThrow(() -> AmountValidator.assertBalance(MONEY_ZERO));
+    }
+
+    @Test
+    void testAssertBalanceWhenMoneyIsNegative() {
+        Exception e = assertThrows(WrongAmountException.class, () -> AmountValidator.assertBalance(MONEY_MINUS_ONE));
+        assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package dev.akuniutka.bank.api.entity;
 import dev.akuniutka.bank.api.exception.WrongAmountException;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,7 +39,7 @@ class OperationTest {
     void testOperationWhenAmountIsNull() {
         Account account = mock(Account.class);
         Exception e = assertThrows(WrongAmountException.class,
-                () -> new Operation(account, OperationType.DEPOSIT, null, OffsetDateTime.now())
+                () -> new Operation(account, OperationType.DEPOSIT, (BigDecimal) null, OffsetDateTime.now())
         );
         assertEquals(AMOUNT_IS_NULL, e.getMessage());
         verifyNoMoreInteractions(ignoreStubs(account));
@@ -92,7 +93,7 @@ class OperationTest {
         assertNotNull(operation);
         assertEquals(account, operation.getAccount());
         assertEquals(OperationType.DEPOSIT, operation.getType());
-        assertEquals(FORMATTED_TEN, operation.getAmount());
+        assertEquals(MONEY_TEN, operation.getAmount());
         assertTrue(date.isEqual(operation.getDate()));
         verifyNoMoreInteractions(ignoreStubs(account));
     }
@@ -105,7 +106,7 @@ class OperationTest {
         assertNotNull(operation);
         assertEquals(account, operation.getAccount());
         assertEquals(OperationType.DEPOSIT, operation.getType());
-        assertEquals(FORMATTED_TEN_THOUSANDTHS, operation.getAmount());
+        assertEquals(MONEY_TEN_HUNDREDTHS, operation.getAmount());
         assertTrue(date.isEqual(operation.getDate()));
         verifyNoMoreInteractions(ignoreStubs(account));
     }
@@ -163,18 +164,25 @@ class OperationTest {
         assertNull(operation.getAmount());
     }
 
+    @Test
+    void testGetAmountInCents() {
+        Operation operation = new Operation();
+        operation.setAmount(TEN_THOUSANDTHS);
+        assertEquals(1L, operation.getAmountInCents());
+    }
+
     @Test
     void testSetAmountWhenAmountIsPositive() {
         Operation operation = new Operation();
         operation.setAmount(TEN);
-        assertEquals(FORMATTED_TEN, operation.getAmount());
+        assertEquals(MONEY_TEN, operation.getAmount());
     }
 
     @Test
     void testSetAmountWhenScaleIsGreaterThanTwoButWithZeros() {
         Operation operation = new Operation();
         operation.setAmount(TEN_THOUSANDTHS);
-        assertEquals(FORMATTED_TEN_THOUSANDTHS, operation.getAmount());
+        assertEquals(MONEY_TEN_HUNDREDTHS, operation.getAmount());
     }
 
     @Test
@@ -225,4 +233,17 @@ class OperationTest {
         Exception e = assertThrows(IllegalArgumentException.class, () -> operation.setDate(null));
         assertEquals(DATE_IS_NULL, e.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testOperationWhenIdIsSet() {
+        Account account = mock(Account.class);
+        OffsetDateTime date = OffsetDateTime.now();
+        Operation operation = new Operation(1L, account, OperationType.DEPOSIT, TEN, date);
+        assertEquals(1L, operation.getId());
+        assertEquals(account, operation.getAccount());
+        assertEquals(OperationType.DEPOSIT, operation.getType());
+        assertEquals(MONEY_TEN, operation.getAmount());
+        assertEquals(date, operation.getDate());
+        verifyNoMoreInteractions(ignoreStubs(account));
+    }
+}
@@ -3,6 +3,7 @@ package dev.akuniutka.bank.api.entity;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
 
 class OperationTypeTest {
     @Test
@@ -29,4 +30,25 @@ class OperationTypeTest {
         assertEquals("outgoing transfer", OperationType.valueOf("OUTGOING_TRANSFER").getDescription());
         assertEquals("incoming transfer", OperationType.valueOf("INCOMING_TRANSFER").getDescription());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFromCode() {
+        assertSame(OperationType.DEPOSIT, OperationType.fromCode("D"));
+        assertSame(OperationType.WITHDRAWAL, OperationType.fromCode("W"));
+        assertSame(OperationType.OUTGOING_TRANSFER, OperationType.fromCode("P"));
+        assertSame(OperationType.INCOMING_TRANSFER, OperationType.fromCode("R"));
+    }
+
+    @Test
+    void testFromCodeWhenCodeIsNull() {
+        assertNull(OperationType.fromCode(null));
+    }
+
+    @Test
+    void testFromCodeWhenCodeIsUnknown() {
+        for (String code : new String[]{"", "d", "X", "DW", "\u0416"}) {
+            Exception e = assertThrows(IllegalArgumentException.class, () -> OperationType.fromCode(code));
+            assertEquals(UNKNOWN_OPERATION_TYPE_CODE, e.getMessage());
+        }
+    }
+}
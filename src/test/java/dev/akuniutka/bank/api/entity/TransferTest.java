@@ -105,10 +105,10 @@ class TransferTest {
         when(payee.getId()).thenReturn(null);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_ONE);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_ONE);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         Exception e = assertThrows(IllegalArgumentException.class,
                 () -> new Transfer(outgoingTransfer, incomingTransfer)
         );
@@ -130,11 +130,11 @@ class TransferTest {
         when(payee.getId()).thenReturn(null);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date.plusMinutes(1L));
         Exception e = assertThrows(IllegalArgumentException.class,
                 () -> new Transfer(outgoingTransfer, incomingTransfer)
@@ -159,16 +159,17 @@ class TransferTest {
         when(payee.getId()).thenReturn(null);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         Transfer transfer = new Transfer(outgoingTransfer, incomingTransfer);
         assertNotNull(transfer);
         assertEquals(outgoingTransfer, transfer.getOutgoingTransfer());
         assertEquals(incomingTransfer, transfer.getIncomingTransfer());
+        assertEquals(date, transfer.getDate());
         verify(outgoingTransfer).getType();
         verify(incomingTransfer).getType();
         verify(outgoingTransfer).getAccount();
@@ -177,7 +178,7 @@ class TransferTest {
         verify(payee).getId();
         verify(outgoingTransfer).getAmount();
         verify(incomingTransfer).getAmount();
-        verify(outgoingTransfer).getDate();
+        verify(outgoingTransfer, times(2)).getDate();
         verify(incomingTransfer).getDate();
     }
 
@@ -188,16 +189,17 @@ class TransferTest {
         when(payee.getId()).thenReturn(2L);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         Transfer transfer = new Transfer(outgoingTransfer, incomingTransfer);
         assertNotNull(transfer);
         assertEquals(outgoingTransfer, transfer.getOutgoingTransfer());
         assertEquals(incomingTransfer, transfer.getIncomingTransfer());
+        assertEquals(date, transfer.getDate());
         verify(outgoingTransfer).getType();
         verify(incomingTransfer).getType();
         verify(outgoingTransfer).getAccount();
@@ -206,7 +208,7 @@ class TransferTest {
         verify(payee).getId();
         verify(outgoingTransfer).getAmount();
         verify(incomingTransfer).getAmount();
-        verify(outgoingTransfer).getDate();
+        verify(outgoingTransfer, times(2)).getDate();
         verify(incomingTransfer).getDate();
     }
 
@@ -217,16 +219,17 @@ class TransferTest {
         when(payee.getId()).thenReturn(null);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         Transfer transfer = new Transfer(outgoingTransfer, incomingTransfer);
         assertNotNull(transfer);
         assertEquals(outgoingTransfer, transfer.getOutgoingTransfer());
         assertEquals(incomingTransfer, transfer.getIncomingTransfer());
+        assertEquals(date, transfer.getDate());
         verify(outgoingTransfer).getType();
         verify(incomingTransfer).getType();
         verify(outgoingTransfer).getAccount();
@@ -235,7 +238,7 @@ class TransferTest {
         verify(payee).getId();
         verify(outgoingTransfer).getAmount();
         verify(incomingTransfer).getAmount();
-        verify(outgoingTransfer).getDate();
+        verify(outgoingTransfer, times(2)).getDate();
         verify(incomingTransfer).getDate();
     }
 
@@ -246,16 +249,17 @@ class TransferTest {
         when(payee.getId()).thenReturn(2L);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         Transfer transfer = new Transfer(outgoingTransfer, incomingTransfer);
         assertNotNull(transfer);
         assertEquals(outgoingTransfer, transfer.getOutgoingTransfer());
         assertEquals(incomingTransfer, transfer.getIncomingTransfer());
+        assertEquals(date, transfer.getDate());
         verify(outgoingTransfer).getType();
         verify(incomingTransfer).getType();
         verify(outgoingTransfer).getAccount();
@@ -264,7 +268,7 @@ class TransferTest {
         verify(payee).getId();
         verify(outgoingTransfer).getAmount();
         verify(incomingTransfer).getAmount();
-        verify(outgoingTransfer).getDate();
+        verify(outgoingTransfer, times(2)).getDate();
         verify(incomingTransfer).getDate();
     }
 
@@ -326,10 +330,10 @@ class TransferTest {
         when(payer.getId()).thenReturn(null);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_ONE);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_ONE);
         Transfer transfer = new Transfer();
         transfer.setIncomingTransfer(incomingTransfer);
         Exception e = assertThrows(IllegalArgumentException.class,
@@ -353,11 +357,11 @@ class TransferTest {
         when(payer.getId()).thenReturn(null);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date.plusMinutes(1L));
         Transfer transfer = new Transfer();
         transfer.setIncomingTransfer(incomingTransfer);
@@ -384,11 +388,11 @@ class TransferTest {
         when(payer.getId()).thenReturn(null);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         Transfer transfer = new Transfer();
         transfer.setIncomingTransfer(incomingTransfer);
@@ -413,11 +417,11 @@ class TransferTest {
         when(payer.getId()).thenReturn(null);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         Transfer transfer = new Transfer();
         transfer.setIncomingTransfer(incomingTransfer);
@@ -442,11 +446,11 @@ class TransferTest {
         when(payer.getId()).thenReturn(2L);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         Transfer transfer = new Transfer();
         transfer.setIncomingTransfer(incomingTransfer);
@@ -471,11 +475,11 @@ class TransferTest {
         when(payer.getId()).thenReturn(2L);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         Transfer transfer = new Transfer();
         transfer.setIncomingTransfer(incomingTransfer);
@@ -545,10 +549,10 @@ class TransferTest {
         when(payer.getId()).thenReturn(null);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_ONE);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_ONE);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         Transfer transfer = new Transfer();
         transfer.setOutgoingTransfer(outgoingTransfer);
         Exception e = assertThrows(IllegalArgumentException.class,
@@ -572,11 +576,11 @@ class TransferTest {
         when(payer.getId()).thenReturn(null);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date.plusMinutes(1L));
         Transfer transfer = new Transfer();
         transfer.setOutgoingTransfer(outgoingTransfer);
@@ -603,11 +607,11 @@ class TransferTest {
         when(payer.getId()).thenReturn(null);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         Transfer transfer = new Transfer();
         transfer.setOutgoingTransfer(outgoingTransfer);
@@ -632,11 +636,11 @@ class TransferTest {
         when(payer.getId()).thenReturn(null);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         Transfer transfer = new Transfer();
         transfer.setOutgoingTransfer(outgoingTransfer);
@@ -661,11 +665,11 @@ class TransferTest {
         when(payer.getId()).thenReturn(2L);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         Transfer transfer = new Transfer();
         transfer.setOutgoingTransfer(outgoingTransfer);
@@ -690,11 +694,11 @@ class TransferTest {
         when(payer.getId()).thenReturn(2L);
         when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
         when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(outgoingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(outgoingTransfer.getDate()).thenReturn(date);
         when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
         when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(FORMATTED_TEN);
+        when(incomingTransfer.getAmount()).thenReturn(MONEY_TEN);
         when(incomingTransfer.getDate()).thenReturn(date);
         Transfer transfer = new Transfer();
         transfer.setOutgoingTransfer(outgoingTransfer);
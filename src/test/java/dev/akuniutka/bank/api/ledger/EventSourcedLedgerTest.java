@@ -0,0 +1,195 @@
+package dev.akuniutka.bank.api.ledger;
+
+import dev.akuniutka.bank.api.repository.BalanceSnapshotRepository;
+import dev.akuniutka.bank.api.util.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class EventSourcedLedgerTest {
+    private static final Long USER_ID = 1L;
+    private static final Long RECEIVER_ID = 2L;
+    private static final int SNAPSHOT_EVERY = 3;
+    private BalanceSnapshotRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private EventSourcedLedger ledger;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(BalanceSnapshotRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        ledger = ledger(true, Duration.ofSeconds(60L));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(repository));
+    }
+
+    @Test
+    void testStartWhenModeIsNotChanged() {
+        when(repository.isEventSourced()).thenReturn(true);
+        ledger.start();
+        verify(repository).isEventSourced();
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testStartWhenModeIsSwitchedOn() {
+        when(repository.isEventSourced()).thenReturn(false);
+        ledger.start();
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).isEventSourced();
+        inOrder.verify(repository).saveAllSnapshots();
+        inOrder.verify(repository).setEventSourced(true);
+    }
+
+    @Test
+    void testStartWhenModeIsSwitchedOff() {
+        ledger = ledger(false, Duration.ofSeconds(60L));
+        when(repository.isEventSourced()).thenReturn(true);
+        ledger.start();
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).isEventSourced();
+        inOrder.verify(repository).restoreAccountBalances();
+        inOrder.verify(repository).setEventSourced(false);
+    }
+
+    @Test
+    void testGetBalance() {
+        when(repository.findBalances(Collections.singleton(USER_ID)))
+                .thenReturn(Collections.singletonList(balance(USER_ID, 0L)));
+        assertEquals(Optional.of(Money.of(TEN)), ledger.getBalance(USER_ID));
+        verify(repository).findBalances(Collections.singleton(USER_ID));
+    }
+
+    @Test
+    void testGetBalanceWhenUserDoesNotExist() {
+        when(repository.findBalances(Collections.singleton(USER_ID))).thenReturn(Collections.emptyList());
+        assertFalse(ledger.getBalance(USER_ID).isPresent());
+        verify(repository).findBalances(Collections.singleton(USER_ID));
+    }
+
+    @Test
+    void testLockShared() {
+        ledger.lockShared(USER_ID);
+        verify(repository).lockShared(USER_ID);
+    }
+
+    @Test
+    void testLock() {
+        LedgerBalance payer = balance(USER_ID, SNAPSHOT_EVERY);
+        LedgerBalance payee = balance(RECEIVER_ID, SNAPSHOT_EVERY - 1L);
+        Set<Long> ids = new TreeSet<>(Arrays.asList(USER_ID, RECEIVER_ID));
+        when(repository.findBalances(ids)).thenReturn(Arrays.asList(payer, payee));
+        assertEquals(Arrays.asList(payer, payee), ledger.lock(Arrays.asList(RECEIVER_ID, USER_ID)));
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).lock(USER_ID);
+        inOrder.verify(repository).lock(RECEIVER_ID);
+        inOrder.verify(repository).findBalances(ids);
+        inOrder.verify(repository).saveSnapshot(payer);
+    }
+
+    @Test
+    void testSnapshot() {
+        LedgerBalance balance = balance(USER_ID, 1L);
+        when(repository.findBalances(Collections.singleton(USER_ID))).thenReturn(Collections.singletonList(balance));
+        ledger.snapshot(USER_ID);
+        verify(repository).lock(USER_ID);
+        verify(repository).findBalances(Collections.singleton(USER_ID));
+        verify(repository).saveSnapshot(balance);
+    }
+
+    @Test
+    void testSnapshotWhenNoOperationsAreAfterSnapshot() {
+        when(repository.findBalances(Collections.singleton(USER_ID)))
+                .thenReturn(Collections.singletonList(balance(USER_ID, 0L)));
+        ledger.snapshot(USER_ID);
+        verify(repository).lock(USER_ID);
+        verify(repository).findBalances(Collections.singleton(USER_ID));
+    }
+
+    @Test
+    void testSnapshotWhenDisabled() {
+        ledger = ledger(false, Duration.ofSeconds(60L));
+        ledger.snapshot(USER_ID);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testRecordAppendedWhenDisabled() {
+        ledger = ledger(false, Duration.ofSeconds(60L));
+        ledger.recordAppended(USER_ID);
+        assertEquals(0, ledger.getAppendedCount(USER_ID));
+        ledger.takeDueSnapshots();
+        verifyNoInteractions(repository, transactionManager);
+    }
+
+    @Test
+    void testTakeDueSnapshotsWhenNothingIsDue() {
+        ledger.recordAppended(USER_ID);
+        ledger.recordAppended(USER_ID);
+        ledger.takeDueSnapshots();
+        assertEquals(2, ledger.getAppendedCount(USER_ID));
+        verifyNoInteractions(repository, transactionManager);
+    }
+
+    @Test
+    void testTakeDueSnapshotsWhenEnoughOperationsAreAppended() {
+        LedgerBalance balance = balance(USER_ID, SNAPSHOT_EVERY);
+        when(repository.findBalances(Collections.singleton(USER_ID))).thenReturn(Collections.singletonList(balance));
+        for (int i = 0; i < SNAPSHOT_EVERY; i++) {
+            ledger.recordAppended(USER_ID);
+        }
+        ledger.recordAppended(RECEIVER_ID);
+        ledger.takeDueSnapshots();
+        assertEquals(0, ledger.getAppendedCount(USER_ID));
+        assertEquals(1, ledger.getAppendedCount(RECEIVER_ID));
+        verify(repository).lock(USER_ID);
+        verify(repository).findBalances(Collections.singleton(USER_ID));
+        verify(repository).saveSnapshot(balance);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testTakeDueSnapshotsWhenIntervalHasPassed() {
+        ledger = ledger(true, Duration.ZERO);
+        LedgerBalance balance = balance(USER_ID, 1L);
+        when(repository.findBalances(Collections.singleton(USER_ID))).thenReturn(Collections.singletonList(balance));
+        ledger.recordAppended(USER_ID);
+        ledger.takeDueSnapshots();
+        assertEquals(0, ledger.getAppendedCount(USER_ID));
+        verify(repository).lock(USER_ID);
+        verify(repository).findBalances(Collections.singleton(USER_ID));
+        verify(repository).saveSnapshot(balance);
+    }
+
+    @Test
+    void testTakeDueSnapshotsWhenSnapshotFails() {
+        ledger = ledger(true, Duration.ZERO);
+        when(repository.findBalances(Collections.singleton(USER_ID))).thenThrow(new IllegalStateException());
+        ledger.recordAppended(USER_ID);
+        assertDoesNotThrow(() -> ledger.takeDueSnapshots());
+        assertEquals(1, ledger.getAppendedCount(USER_ID));
+        verify(repository).lock(USER_ID);
+        verify(repository).findBalances(Collections.singleton(USER_ID));
+        verify(transactionManager).rollback(any());
+    }
+
+    private EventSourcedLedger ledger(boolean enabled, Duration snapshotInterval) {
+        return new EventSourcedLedger(repository, transactionManager, enabled, SNAPSHOT_EVERY, snapshotInterval);
+    }
+
+    private static LedgerBalance balance(Long userId, long pendingOperations) {
+        return new LedgerBalance(userId, Money.of(TEN), 10L, pendingOperations);
+    }
+}
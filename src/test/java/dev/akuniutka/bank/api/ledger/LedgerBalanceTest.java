@@ -0,0 +1,18 @@
+package dev.akuniutka.bank.api.ledger;
+
+import dev.akuniutka.bank.api.util.Money;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class LedgerBalanceTest {
+    @Test
+    void testLedgerBalance() {
+        LedgerBalance balance = new LedgerBalance(1L, Money.of(TEN), 7L, 3L);
+        assertEquals(1L, balance.getUserId());
+        assertEquals(Money.of(TEN), balance.getBalance());
+        assertEquals(7L, balance.getPosition());
+        assertEquals(3L, balance.getPendingOperations());
+    }
+}
@@ -0,0 +1,35 @@
+package dev.akuniutka.bank.api.ledger;
+
+import dev.akuniutka.bank.api.entity.OperationType;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class LedgerEntryTest {
+    private static final Long USER_ID = 1L;
+    private static final OffsetDateTime DATE = OffsetDateTime.now();
+
+    @Test
+    void testLedgerEntry() {
+        LedgerEntry entry = new LedgerEntry(7L, USER_ID, OperationType.DEPOSIT, 1000L, DATE);
+        assertEquals(7L, entry.getSequence());
+        assertEquals(USER_ID, entry.getUserId());
+        assertEquals(OperationType.DEPOSIT, entry.getType());
+        assertEquals(1000L, entry.getCents());
+        assertEquals(FORMATTED_TEN, entry.getAmount());
+        assertEquals(DATE, entry.getDate());
+    }
+
+    @Test
+    void testGetDeltaWhenDeposit() {
+        assertEquals(1000L, new LedgerEntry(1L, USER_ID, OperationType.DEPOSIT, 1000L, DATE).getDelta());
+    }
+
+    @Test
+    void testGetDeltaWhenWithdrawal() {
+        assertEquals(-1000L, new LedgerEntry(1L, USER_ID, OperationType.WITHDRAWAL, 1000L, DATE).getDelta());
+    }
+}
@@ -0,0 +1,183 @@
+package dev.akuniutka.bank.api.ledger;
+
+import dev.akuniutka.bank.api.entity.OperationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerJournalTest {
+    private static final Long USER_ID = 1L;
+    private static final OffsetDateTime DATE = OffsetDateTime.now();
+    @TempDir
+    Path directory;
+    private Path path;
+    private LedgerJournal journal;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        path = directory.resolve("ledger.journal");
+        journal = new LedgerJournal(path);
+        assertTrue(journal.recover(0L).isEmpty());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void testAppend() throws IOException {
+        LedgerEntry entry = journal.append(USER_ID, OperationType.DEPOSIT, 1000L, DATE);
+        assertEquals(1L, entry.getSequence());
+        assertEquals(2L, journal.append(USER_ID, OperationType.WITHDRAWAL, 100L, DATE).getSequence());
+        journal.sync();
+        assertEquals(2L, journal.getLastSequence());
+        assertEquals(2L * LedgerJournal.RECORD_SIZE, journal.size());
+        assertEquals(2L * LedgerJournal.RECORD_SIZE, Files.size(path));
+    }
+
+    @Test
+    void testRecover() throws IOException {
+        journal.append(USER_ID, OperationType.DEPOSIT, 1000L, DATE);
+        journal.append(USER_ID + 1L, OperationType.WITHDRAWAL, 100L, DATE);
+        journal.sync();
+        List<LedgerEntry> entries = reopen().recover(0L);
+        assertEquals(2, entries.size());
+        assertEntry(entries.get(0), 1L, USER_ID, OperationType.DEPOSIT, 1000L);
+        assertEntry(entries.get(1), 2L, USER_ID + 1L, OperationType.WITHDRAWAL, 100L);
+        assertEquals(2L, journal.getLastSequence());
+        assertEquals(3L, journal.append(USER_ID, OperationType.DEPOSIT, 1L, DATE).getSequence());
+    }
+
+    @Test
+    void testRecoverWhenSomeEntriesAreApplied() throws IOException {
+        journal.append(USER_ID, OperationType.DEPOSIT, 1000L, DATE);
+        journal.append(USER_ID, OperationType.WITHDRAWAL, 100L, DATE);
+        journal.sync();
+        List<LedgerEntry> entries = reopen().recover(1L);
+        assertEquals(1, entries.size());
+        assertEntry(entries.get(0), 2L, USER_ID, OperationType.WITHDRAWAL, 100L);
+    }
+
+    @Test
+    void testRecoverWhenCheckpointIsAfterJournal() throws IOException {
+        assertTrue(reopen().recover(5L).isEmpty());
+        assertEquals(5L, journal.getLastSequence());
+        assertEquals(6L, journal.append(USER_ID, OperationType.DEPOSIT, 1L, DATE).getSequence());
+    }
+
+    @Test
+    void testRecoverWhenLastRecordIsTorn() throws IOException {
+        journal.append(USER_ID, OperationType.DEPOSIT, 1000L, DATE);
+        journal.sync();
+        journal.close();
+        ByteBuffer record = LedgerJournal.encode(new LedgerEntry(2L, USER_ID, OperationType.DEPOSIT, 1L, DATE));
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(file.length());
+            file.write(record.array(), 0, LedgerJournal.RECORD_SIZE - 1);
+        }
+        List<LedgerEntry> entries = reopen().recover(0L);
+        assertEquals(1, entries.size());
+        assertEquals(LedgerJournal.RECORD_SIZE, Files.size(path));
+        assertEquals(2L, journal.append(USER_ID, OperationType.DEPOSIT, 1L, DATE).getSequence());
+    }
+
+    @Test
+    void testRecoverWhenChecksumDoesNotMatch() throws IOException {
+        journal.append(USER_ID, OperationType.DEPOSIT, 1000L, DATE);
+        journal.append(USER_ID, OperationType.DEPOSIT, 1000L, DATE);
+        journal.sync();
+        journal.close();
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(LedgerJournal.RECORD_SIZE + 20L);
+            file.write(0xFF);
+        }
+        List<LedgerEntry> entries = reopen().recover(0L);
+        assertEquals(1, entries.size());
+        assertEquals(LedgerJournal.RECORD_SIZE, Files.size(path));
+    }
+
+    @Test
+    void testDiscardAfter() throws IOException {
+        journal.append(USER_ID, OperationType.DEPOSIT, 1000L, DATE);
+        journal.append(USER_ID, OperationType.DEPOSIT, 2000L, DATE);
+        journal.append(USER_ID, OperationType.WITHDRAWAL, 100L, DATE);
+        journal.discardAfter(1L);
+        assertEquals(1L, journal.getLastSequence());
+        assertEquals(LedgerJournal.RECORD_SIZE, journal.size());
+        assertEquals(LedgerJournal.RECORD_SIZE, Files.size(path));
+        journal.discardAfter(5L);
+        assertEquals(1L, journal.getLastSequence());
+        assertEquals(2L, journal.append(USER_ID, OperationType.DEPOSIT, 1L, DATE).getSequence());
+        journal.sync();
+        List<LedgerEntry> entries = reopen().recover(0L);
+        assertEquals(2, entries.size());
+        assertEntry(entries.get(0), 1L, USER_ID, OperationType.DEPOSIT, 1000L);
+        assertEntry(entries.get(1), 2L, USER_ID, OperationType.DEPOSIT, 1L);
+    }
+
+    @Test
+    void testCompactWhenEntriesAreAppendedAfterAppliedOne() throws IOException {
+        journal.append(USER_ID, OperationType.DEPOSIT, 1000L, DATE);
+        journal.append(USER_ID, OperationType.DEPOSIT, 2000L, DATE);
+        journal.append(USER_ID, OperationType.WITHDRAWAL, 100L, DATE);
+        journal.compact(1L);
+        assertEquals(2L * LedgerJournal.RECORD_SIZE, journal.size());
+        assertEquals(2L * LedgerJournal.RECORD_SIZE, Files.size(path));
+        assertFalse(Files.exists(directory.resolve("ledger.journal.compacted")));
+        assertEquals(4L, journal.append(USER_ID, OperationType.DEPOSIT, 1L, DATE).getSequence());
+        journal.sync();
+        List<LedgerEntry> entries = reopen().recover(1L);
+        assertEquals(3, entries.size());
+        assertEntry(entries.get(0), 2L, USER_ID, OperationType.DEPOSIT, 2000L);
+        assertEntry(entries.get(1), 3L, USER_ID, OperationType.WITHDRAWAL, 100L);
+        assertEntry(entries.get(2), 4L, USER_ID, OperationType.DEPOSIT, 1L);
+    }
+
+    @Test
+    void testCompact() throws IOException {
+        journal.append(USER_ID, OperationType.DEPOSIT, 1000L, DATE);
+        journal.append(USER_ID, OperationType.DEPOSIT, 1000L, DATE);
+        journal.compact(2L);
+        assertEquals(0L, journal.size());
+        assertEquals(0L, Files.size(path));
+        assertEquals(3L, journal.append(USER_ID, OperationType.WITHDRAWAL, 100L, DATE).getSequence());
+        journal.sync();
+        assertEquals(LedgerJournal.RECORD_SIZE, Files.size(path));
+        List<LedgerEntry> entries = reopen().recover(2L);
+        assertEquals(1, entries.size());
+        assertEntry(entries.get(0), 3L, USER_ID, OperationType.WITHDRAWAL, 100L);
+    }
+
+    @Test
+    void testEncodeAndDecode() {
+        LedgerEntry entry = new LedgerEntry(7L, USER_ID, OperationType.WITHDRAWAL, 12345L, DATE);
+        assertEntry(LedgerJournal.decode(LedgerJournal.encode(entry)), 7L, USER_ID, OperationType.WITHDRAWAL, 12345L);
+    }
+
+    private LedgerJournal reopen() throws IOException {
+        journal.close();
+        journal = new LedgerJournal(path);
+        return journal;
+    }
+
+    private static void assertEntry(LedgerEntry entry, long sequence, Long userId, OperationType type, long cents) {
+        assertNotNull(entry);
+        assertEquals(sequence, entry.getSequence());
+        assertEquals(userId, entry.getUserId());
+        assertEquals(type, entry.getType());
+        assertEquals(cents, entry.getCents());
+        assertEquals(DATE.toInstant(), entry.getDate().toInstant());
+    }
+}
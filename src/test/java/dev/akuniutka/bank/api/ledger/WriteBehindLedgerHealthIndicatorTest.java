@@ -0,0 +1,43 @@
+package dev.akuniutka.bank.api.ledger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WriteBehindLedgerHealthIndicatorTest {
+    private WriteBehindLedger ledger;
+    private WriteBehindLedgerHealthIndicator indicator;
+
+    @BeforeEach
+    public void setUp() {
+        ledger = mock(WriteBehindLedger.class);
+        indicator = new WriteBehindLedgerHealthIndicator(ledger);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(ledger));
+    }
+
+    @Test
+    void testHealthWhenLedgerIsNotFailed() {
+        when(ledger.isFailed()).thenReturn(false);
+        when(ledger.isEnabled()).thenReturn(true);
+        Health health = indicator.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(true, health.getDetails().get("enabled"));
+    }
+
+    @Test
+    void testHealthWhenLedgerIsFailed() {
+        when(ledger.isFailed()).thenReturn(true);
+        Health health = indicator.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals("failed", health.getDetails().get("journal"));
+    }
+}
@@ -0,0 +1,423 @@
+package dev.akuniutka.bank.api.ledger;
+
+import dev.akuniutka.bank.api.cache.OperationHistoryCache;
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.exception.NullUserIdException;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.repository.AccountRepository;
+import dev.akuniutka.bank.api.repository.LedgerCheckpointRepository;
+import dev.akuniutka.bank.api.repository.OperationRepository;
+import dev.akuniutka.bank.api.util.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class WriteBehindLedgerTest {
+    private static final Long USER_ID = 1L;
+    private static final Long RECEIVER_ID = 2L;
+    @TempDir
+    Path directory;
+    private Path journalPath;
+    private AccountRepository accountRepository;
+    private OperationRepository operationRepository;
+    private LedgerCheckpointRepository checkpointRepository;
+    private OperationHistoryCache historyCache;
+    private EntityManager entityManager;
+    private MeterRegistry registry;
+    private WriteBehindLedger ledger;
+
+    @BeforeEach
+    public void setUp() {
+        journalPath = directory.resolve("ledger.journal");
+        accountRepository = mock(AccountRepository.class);
+        operationRepository = mock(OperationRepository.class);
+        checkpointRepository = mock(LedgerCheckpointRepository.class);
+        historyCache = mock(OperationHistoryCache.class);
+        entityManager = mock(EntityManager.class);
+        when(entityManager.getReference(eq(Account.class), any())).thenAnswer(invocation ->
+                new Account(invocation.getArgument(1), BigDecimal.ZERO)
+        );
+        registry = new SimpleMeterRegistry();
+        when(checkpointRepository.getSequence()).thenReturn(0L);
+        when(accountRepository.findBalanceById(USER_ID)).thenReturn(Optional.of(Money.of(TEN)));
+        when(accountRepository.findBalanceById(RECEIVER_ID)).thenReturn(Optional.of(Money.ZERO));
+        when(accountRepository.addToBalance(any(), any())).thenReturn(Optional.of(BigDecimal.ZERO));
+        ledger = ledger(true);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException, InterruptedException {
+        ledger.stop();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verifyNoMoreInteractions(ignoreStubs(accountRepository));
+        verifyNoMoreInteractions(ignoreStubs(operationRepository));
+        verifyNoMoreInteractions(ignoreStubs(checkpointRepository));
+        verifyNoMoreInteractions(ignoreStubs(historyCache));
+    }
+
+    @Test
+    void testWhenDisabled() throws IOException {
+        registry = new SimpleMeterRegistry();
+        ledger = ledger(false);
+        ledger.start();
+        assertFalse(ledger.isEnabled());
+        ledger.track(USER_ID);
+        ledger.flush(USER_ID);
+        ledger.debit(USER_ID, MONEY_ONE);
+        ledger.creditAfterCommit(USER_ID, MONEY_ONE);
+        assertNull(ledger.getBalance(USER_ID));
+        assertNull(registry.find("bank.ledger.pending").gauge());
+        assertFalse(Files.exists(journalPath));
+    }
+
+    @Test
+    void testDeposit() throws IOException {
+        ledger.start();
+        // The balance is kept in memory while a transaction uses it
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.track(USER_ID);
+        ledger.deposit(USER_ID, MONEY_ONE);
+        assertEquals(new BigDecimal("11.00"), ledger.getBalance(USER_ID));
+        ledger.flush(USER_ID);
+        verify(accountRepository).addToBalance(USER_ID, FORMATTED_ONE);
+        verify(checkpointRepository).updateSequence(1L);
+        Operation operation = assertSavedOperation();
+        assertEquals(USER_ID, operation.getAccount().getId());
+        assertEquals(OperationType.DEPOSIT, operation.getType());
+        assertEquals(MONEY_ONE, operation.getAmount());
+        verify(historyCache).appendAfterCommit(operation);
+        assertEquals(0.0, registry.get("bank.ledger.pending").gauge().value());
+    }
+
+    @Test
+    void testWithdraw() throws IOException {
+        ledger.start();
+        // The balance is kept in memory while a transaction uses it
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.track(USER_ID);
+        ledger.withdraw(USER_ID, MONEY_ONE);
+        assertEquals(FORMATTED_NINE, ledger.getBalance(USER_ID));
+        ledger.flush(USER_ID);
+        verify(accountRepository).addToBalance(USER_ID, FORMATTED_ONE.negate());
+        verify(checkpointRepository).updateSequence(1L);
+        Operation operation = assertSavedOperation();
+        assertEquals(OperationType.WITHDRAWAL, operation.getType());
+        verify(historyCache).appendAfterCommit(operation);
+    }
+
+    @Test
+    void testConcurrentDeposits() throws Exception {
+        ledger.start();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        ledger.deposit(USER_ID, MONEY_ONE);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1L, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        ledger.flush(USER_ID);
+        ArgumentCaptor<BigDecimal> deltas = ArgumentCaptor.forClass(BigDecimal.class);
+        verify(accountRepository, atLeastOnce()).addToBalance(eq(USER_ID), deltas.capture());
+        assertEquals(new BigDecimal("400.00"), deltas.getAllValues().stream().reduce(BigDecimal.ZERO,
+                BigDecimal::add));
+        verify(checkpointRepository, atLeastOnce()).updateSequence(anyLong());
+        verify(checkpointRepository).updateSequence(400L);
+        ArgumentCaptor<List<Operation>> captor = operationsCaptor();
+        verify(operationRepository, atLeastOnce()).saveAll(captor.capture());
+        assertEquals(400, captor.getAllValues().stream().mapToInt(List::size).sum());
+        verify(historyCache, times(400)).appendAfterCommit(any());
+    }
+
+    @Test
+    void testWithdrawWhenBalanceIsInsufficient() throws IOException {
+        ledger.start();
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> ledger.withdraw(USER_ID, Money.of(new BigDecimal("10.01")))
+        );
+        assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
+        assertEquals(FORMATTED_TEN, ledger.getBalance(USER_ID));
+        assertEquals(0L, Files.size(journalPath));
+    }
+
+    @Test
+    void testDepositWhenUserIdIsNull() throws IOException {
+        ledger.start();
+        Exception e = assertThrows(NullUserIdException.class, () -> ledger.deposit(null, MONEY_ONE));
+        assertEquals(USER_ID_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testDepositWhenUserDoesNotExist() throws IOException {
+        ledger.start();
+        Long userId = USER_ID + 100L;
+        Exception e = assertThrows(UserNotFoundException.class, () -> ledger.deposit(userId, MONEY_ONE));
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(accountRepository).findBalanceById(userId);
+    }
+
+    @Test
+    void testDepositWhenAmountIsNegative() throws IOException {
+        ledger.start();
+        Exception e = assertThrows(WrongAmountException.class, () -> ledger.deposit(USER_ID, MONEY_MINUS_ONE));
+        assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
+        assertEquals(0L, Files.size(journalPath));
+    }
+
+    @Test
+    void testDepositWhenJournalCannotBeSynced() throws IOException {
+        ledger = new WriteBehindLedger(accountRepository, operationRepository, checkpointRepository, historyCache,
+                mock(PlatformTransactionManager.class), entityManager, registry, true, journalPath.toString(),
+                1000, Duration.ofSeconds(5L), DataSize.ofMegabytes(64L)
+        ) {
+            @Override
+            LedgerJournal openJournal() throws IOException {
+                LedgerJournal journal = spy(super.openJournal());
+                doThrow(new IOException()).when(journal).sync();
+                return journal;
+            }
+        };
+        ledger.start();
+        assertFalse(ledger.isFailed());
+        Exception e = assertThrows(IllegalStateException.class, () -> ledger.deposit(USER_ID, MONEY_ONE));
+        assertEquals(LEDGER_FAILED, e.getMessage());
+        assertTrue(ledger.isFailed());
+        assertEquals(FORMATTED_TEN, ledger.getBalance(USER_ID));
+        assertEquals(0L, Files.size(journalPath));
+        e = assertThrows(IllegalStateException.class, () -> ledger.withdraw(USER_ID, MONEY_ONE));
+        assertEquals(LEDGER_FAILED, e.getMessage());
+        ledger.flush(USER_ID);
+        assertEquals(0.0, registry.get("bank.ledger.pending").gauge().value());
+    }
+
+    @Test
+    void testStartReplaysEntriesAfterCheckpoint() throws IOException {
+        try (LedgerJournal journal = new LedgerJournal(journalPath)) {
+            journal.recover(0L);
+            journal.append(USER_ID, OperationType.DEPOSIT, 100L, OffsetDateTime.now());
+            journal.append(RECEIVER_ID, OperationType.DEPOSIT, 200L, OffsetDateTime.now());
+            journal.append(USER_ID, OperationType.WITHDRAWAL, 50L, OffsetDateTime.now());
+            journal.sync();
+        }
+        when(checkpointRepository.getSequence()).thenReturn(1L);
+        ledger.start();
+        verify(accountRepository).addToBalance(USER_ID, new BigDecimal("-0.50"));
+        verify(accountRepository).addToBalance(RECEIVER_ID, new BigDecimal("2.00"));
+        verify(checkpointRepository).updateSequence(3L);
+        ArgumentCaptor<List<Operation>> captor = operationsCaptor();
+        verify(operationRepository).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        verify(historyCache, times(2)).appendAfterCommit(any());
+        assertEquals(0L, Files.size(journalPath));
+        ledger.deposit(USER_ID, MONEY_ONE);
+        ledger.flush(USER_ID);
+        verify(checkpointRepository).updateSequence(4L);
+        verify(accountRepository).addToBalance(USER_ID, FORMATTED_ONE);
+        verify(operationRepository, times(2)).saveAll(any());
+        verify(historyCache, times(3)).appendAfterCommit(any());
+    }
+
+    @Test
+    void testStartWhenEntriesCannotBeApplied() throws IOException {
+        try (LedgerJournal journal = new LedgerJournal(journalPath)) {
+            journal.recover(0L);
+            journal.append(USER_ID, OperationType.WITHDRAWAL, 100000L, OffsetDateTime.now());
+            journal.sync();
+        }
+        when(accountRepository.addToBalance(USER_ID, new BigDecimal("-1000.00"))).thenReturn(Optional.empty());
+        ledger = ledger(true);
+        Exception e = assertThrows(IllegalStateException.class, ledger::start);
+        assertEquals(NEGATIVE_LEDGER_BALANCE, e.getMessage());
+        assertEquals(LedgerJournal.RECORD_SIZE, Files.size(journalPath));
+        ledger = ledger(false);
+    }
+
+    @Test
+    void testJournalIsCompactedWhenItIsOverMaxSize() throws IOException {
+        ledger = new WriteBehindLedger(accountRepository, operationRepository, checkpointRepository, historyCache,
+                mock(PlatformTransactionManager.class), entityManager, registry, true, journalPath.toString(), 1,
+                Duration.ofSeconds(5L), DataSize.ofBytes(LedgerJournal.RECORD_SIZE)
+        );
+        ledger.start();
+        ledger.deposit(USER_ID, MONEY_ONE);
+        ledger.deposit(USER_ID, MONEY_ONE);
+        ledger.deposit(USER_ID, MONEY_ONE);
+        ledger.flush(USER_ID);
+        assertTrue(Files.size(journalPath) <= LedgerJournal.RECORD_SIZE);
+        verify(accountRepository, times(3)).addToBalance(USER_ID, FORMATTED_ONE);
+        for (long sequence = 1L; sequence <= 3L; sequence++) {
+            verify(checkpointRepository).updateSequence(sequence);
+        }
+        verify(operationRepository, times(3)).saveAll(any());
+        verify(historyCache, times(3)).appendAfterCommit(any());
+    }
+
+    @Test
+    void testBalanceIsEvictedWhenItsEntriesAreApplied() throws Exception {
+        ledger.start();
+        ledger.deposit(USER_ID, MONEY_ONE);
+        awaitApplied();
+        assertNull(ledger.getBalance(USER_ID));
+        ledger.deposit(USER_ID, MONEY_ONE);
+        awaitApplied();
+        verify(accountRepository, times(2)).findBalanceById(USER_ID);
+        verify(accountRepository, times(2)).addToBalance(USER_ID, FORMATTED_ONE);
+        verify(checkpointRepository).updateSequence(1L);
+        verify(checkpointRepository).updateSequence(2L);
+        verify(operationRepository, times(2)).saveAll(any());
+        verify(historyCache, times(2)).appendAfterCommit(any());
+    }
+
+    @Test
+    void testBalanceIsNotEvictedWhileTransactionUsesIt() throws IOException {
+        ledger.start();
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.track(USER_ID);
+        ledger.deposit(USER_ID, MONEY_ONE);
+        ledger.flush(USER_ID);
+        assertEquals(new BigDecimal("11.00"), ledger.getBalance(USER_ID));
+        verify(accountRepository).addToBalance(USER_ID, FORMATTED_ONE);
+        verify(checkpointRepository).updateSequence(1L);
+        assertSavedOperation();
+        verify(historyCache).appendAfterCommit(any());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertNull(ledger.getBalance(USER_ID));
+    }
+
+    @Test
+    void testFlushWhenAccountsHaveNoEntries() throws IOException {
+        ledger.start();
+        ledger.flush(Arrays.asList(USER_ID, null, RECEIVER_ID));
+        verify(accountRepository).findBalanceById(USER_ID);
+        verify(accountRepository).findBalanceById(RECEIVER_ID);
+    }
+
+    @Test
+    void testDebitAndCreditAfterCommit() throws IOException {
+        ledger.start();
+        ledger.track(USER_ID);
+        ledger.track(RECEIVER_ID);
+        ledger.debit(USER_ID, MONEY_ONE);
+        ledger.creditAfterCommit(RECEIVER_ID, MONEY_ONE);
+        assertEquals(FORMATTED_NINE, ledger.getBalance(USER_ID));
+        assertEquals(FORMATTED_ONE, ledger.getBalance(RECEIVER_ID));
+    }
+
+    @Test
+    void testDebitWhenBalanceIsInsufficient() throws IOException {
+        ledger.start();
+        ledger.track(RECEIVER_ID);
+        Exception e = assertThrows(WrongAmountException.class, () -> ledger.debit(RECEIVER_ID, MONEY_ONE));
+        assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
+        assertEquals(FORMATTED_ZERO, ledger.getBalance(RECEIVER_ID));
+    }
+
+    @Test
+    void testDebitAndCreditWhenTransactionIsRolledBack() throws IOException {
+        ledger.start();
+        ledger.track(USER_ID);
+        ledger.track(RECEIVER_ID);
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.debit(USER_ID, MONEY_ONE);
+        ledger.creditAfterCommit(RECEIVER_ID, MONEY_ONE);
+        assertEquals(FORMATTED_NINE, ledger.getBalance(USER_ID));
+        assertEquals(FORMATTED_ZERO, ledger.getBalance(RECEIVER_ID));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertEquals(FORMATTED_TEN, ledger.getBalance(USER_ID));
+        assertEquals(FORMATTED_ZERO, ledger.getBalance(RECEIVER_ID));
+    }
+
+    @Test
+    void testCreditWhenTransactionIsCommitted() throws IOException {
+        ledger.start();
+        ledger.track(RECEIVER_ID);
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.creditAfterCommit(RECEIVER_ID, MONEY_ONE);
+        assertEquals(FORMATTED_ZERO, ledger.getBalance(RECEIVER_ID));
+        TransactionSynchronizationManager.getSynchronizations().get(0).afterCommit();
+        assertEquals(FORMATTED_ONE, ledger.getBalance(RECEIVER_ID));
+    }
+
+    @Test
+    void testDebitAndCreditWhenAccountsAreNotTracked() throws IOException {
+        ledger.start();
+        ledger.debit(USER_ID, MONEY_ONE);
+        ledger.creditAfterCommit(RECEIVER_ID, MONEY_ONE);
+        assertNull(ledger.getBalance(USER_ID));
+        assertNull(ledger.getBalance(RECEIVER_ID));
+    }
+
+    private WriteBehindLedger ledger(boolean enabled) {
+        return new WriteBehindLedger(accountRepository, operationRepository, checkpointRepository, historyCache,
+                mock(PlatformTransactionManager.class), entityManager, registry, enabled, journalPath.toString(),
+                1000, Duration.ofSeconds(5L), DataSize.ofMegabytes(64L)
+        );
+    }
+
+    // Balances are evicted before the applied entries leave the pending ones
+    private void awaitApplied() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (ledger.getPendingCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(0, ledger.getPendingCount());
+    }
+
+    private Operation assertSavedOperation() {
+        ArgumentCaptor<List<Operation>> captor = operationsCaptor();
+        verify(operationRepository).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        return captor.getValue().get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Operation>> operationsCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
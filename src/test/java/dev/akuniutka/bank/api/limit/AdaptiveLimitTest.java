@@ -0,0 +1,122 @@
+package dev.akuniutka.bank.api.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+
+class AdaptiveLimitTest {
+    private static final Duration THRESHOLD = Duration.ofMillis(100L);
+    private static final long FAST = Duration.ofMillis(10L).toNanos();
+    private static final long SLOW = Duration.ofMillis(200L).toNanos();
+    private AdaptiveLimit limit;
+
+    @BeforeEach
+    public void setUp() {
+        limit = new AdaptiveLimit(4, 2, 5, THRESHOLD, 0.5);
+    }
+
+    @Test
+    void testAdaptiveLimitWhenSettingsAreWrong() {
+        for (double ratio : new double[]{0.0, 1.0}) {
+            Exception e = assertThrows(IllegalArgumentException.class,
+                    () -> new AdaptiveLimit(4, 2, 5, THRESHOLD, ratio)
+            );
+            assertEquals(WRONG_CONCURRENCY_LIMIT, e.getMessage());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimit(4, 0, 5, THRESHOLD, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimit(1, 2, 5, THRESHOLD, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimit(6, 2, 5, THRESHOLD, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimit(4, 2, 5, THRESHOLD.negated(), 0.5));
+    }
+
+    @Test
+    void testTryAcquire() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertFalse(limit.tryAcquire());
+        assertEquals(4, limit.getInFlight());
+    }
+
+    @Test
+    void testReleaseWhenRequestIsFastAndLimitIsUsed() {
+        long start = System.nanoTime();
+        limit.tryAcquire();
+        limit.tryAcquire();
+        limit.release(start, start + FAST, false);
+        assertEquals(5, limit.getLimit());
+        assertEquals(1, limit.getInFlight());
+        limit.tryAcquire();
+        limit.tryAcquire();
+        limit.tryAcquire();
+        limit.release(start, start + FAST, false);
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    void testReleaseWhenRequestIsFastAndLimitIsNotUsed() {
+        long start = System.nanoTime();
+        limit.tryAcquire();
+        limit.release(start, start + FAST, false);
+        assertEquals(4, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void testReleaseWhenRequestIsSlow() {
+        long start = System.nanoTime();
+        limit.tryAcquire();
+        limit.release(start, start + SLOW, false);
+        assertEquals(2, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void testReleaseWhenRequestIsSlowAndThresholdIsZero() {
+        AdaptiveLimit sizeBound = new AdaptiveLimit(4, 2, 5, Duration.ZERO, 0.5);
+        long start = System.nanoTime();
+        sizeBound.tryAcquire();
+        sizeBound.tryAcquire();
+        sizeBound.release(start, start + SLOW, false);
+        assertEquals(5, sizeBound.getLimit());
+        sizeBound.release(start, start + SLOW, true);
+        assertEquals(2, sizeBound.getLimit());
+    }
+
+    @Test
+    void testReleaseWhenRequestFails() {
+        long start = System.nanoTime();
+        limit.tryAcquire();
+        limit.release(start, start + FAST, true);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void testReleaseWhenRequestStartedBeforeLastDecrease() {
+        limit = new AdaptiveLimit(5, 1, 5, THRESHOLD, 0.5);
+        long start = System.nanoTime();
+        limit.tryAcquire();
+        limit.tryAcquire();
+        limit.release(start + 1L, start + SLOW, false);
+        assertEquals(2, limit.getLimit());
+        limit.release(start + 2L, start + SLOW + 1L, false);
+        assertEquals(2, limit.getLimit());
+        limit.tryAcquire();
+        limit.release(start + SLOW, start + 2L * SLOW, false);
+        assertEquals(1, limit.getLimit());
+    }
+
+    @Test
+    void testLimitIsNotLowerThanMinLimit() {
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            limit.tryAcquire();
+            limit.release(start + i * SLOW, start + (i + 1) * SLOW, true);
+        }
+        assertEquals(2, limit.getLimit());
+    }
+}
@@ -0,0 +1,163 @@
+package dev.akuniutka.bank.api.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.limit.ConcurrencyLimitFilter.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+
+class ConcurrencyLimitFilterTest {
+    private MeterRegistry registry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        registry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(registry, new ObjectMapper(), 1, 0.5, 2, 10,
+                Duration.ofSeconds(10L), 1, 10, Duration.ofSeconds(10L), 1, 4, Duration.ZERO);
+    }
+
+    @Test
+    void testEndpointOf() {
+        assertEquals("getBalance", endpointOf(new MockHttpServletRequest("GET", "/getBalance/1")));
+        assertEquals("putMoney", endpointOf(new MockHttpServletRequest("PUT", "/putMoney")));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bank/getOperationList/1");
+        request.setContextPath("/bank");
+        assertEquals("getOperationList", endpointOf(request));
+        assertEquals("", endpointOf(new MockHttpServletRequest("GET", "/")));
+    }
+
+    @Test
+    void testMetricsAreRegistered() {
+        assertEquals(2.0, registry.get(LIMIT).tag("group", READ).gauge().value());
+        assertEquals(1.0, registry.get(LIMIT).tag("group", WRITE).gauge().value());
+        assertEquals(0.0, registry.get(IN_FLIGHT).tag("group", READ).gauge().value());
+        assertEquals(0.0, registry.get(REJECTIONS).tag("group", WRITE).counter().count());
+        assertEquals(1.0, registry.get(LIMIT).tag("group", BATCH).gauge().value());
+    }
+
+    @Test
+    void testDoFilterWhenUnderLimit() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/putMoney"), response, chain);
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+        assertEquals(0.0, registry.get(IN_FLIGHT).tag("group", WRITE).gauge().value());
+    }
+
+    @Test
+    void testDoFilterWhenOverLimit() throws Exception {
+        List<MockHttpServletResponse> rejected = new ArrayList<>();
+        FilterChain chain = (request, response) -> {
+            MockHttpServletResponse nested = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("PUT", "/takeMoney"), nested, new MockFilterChain());
+            rejected.add(nested);
+        };
+        filter.doFilter(new MockHttpServletRequest("PUT", "/transferMoney"), new MockHttpServletResponse(), chain);
+        MockHttpServletResponse response = rejected.get(0);
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals("{\"result\":0,\"message\":\"" + SERVICE_OVERLOADED + "\"}", response.getContentAsString());
+        assertEquals(1.0, registry.get(REJECTIONS).tag("group", WRITE).counter().count());
+        assertEquals(0.0, registry.get(REJECTIONS).tag("group", READ).counter().count());
+    }
+
+    @Test
+    void testDoFilterWhenReadsAndWritesAreLimitedSeparately() throws Exception {
+        List<Integer> statuses = new ArrayList<>();
+        FilterChain chain = (request, response) -> {
+            MockHttpServletResponse nested = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/getBalance/1"), nested, new MockFilterChain());
+            statuses.add(nested.getStatus());
+        };
+        filter.doFilter(new MockHttpServletRequest("PUT", "/putMoney"), new MockHttpServletResponse(), chain);
+        assertEquals(200, statuses.get(0));
+    }
+
+    @Test
+    void testDoFilterWhenBatchesAndWritesAreLimitedSeparately() throws Exception {
+        List<Integer> statuses = new ArrayList<>();
+        FilterChain chain = (request, response) -> {
+            MockHttpServletResponse nested = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("PUT", "/putMoney"), nested, new MockFilterChain());
+            statuses.add(nested.getStatus());
+        };
+        filter.doFilter(new MockHttpServletRequest("PUT", "/transferMoneyBatch"), new MockHttpServletResponse(), chain);
+        assertEquals(200, statuses.get(0));
+        assertEquals(0.0, registry.get(REJECTIONS).tag("group", WRITE).counter().count());
+    }
+
+    @Test
+    void testDoFilterWhenBatchIsSlow() throws Exception {
+        FilterChain chain = (request, response) -> {
+            try {
+                Thread.sleep(5L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        MeterRegistry strictRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter strict = new ConcurrencyLimitFilter(strictRegistry, new ObjectMapper(), 1, 0.5, 2, 10,
+                Duration.ofNanos(1L), 2, 10, Duration.ofNanos(1L), 2, 4, Duration.ZERO);
+        strict.doFilter(new MockHttpServletRequest("PUT", "/transferMoneyBatch"), new MockHttpServletResponse(), chain);
+        strict.doFilter(new MockHttpServletRequest("PUT", "/putMoney"), new MockHttpServletResponse(), chain);
+        assertEquals(3.0, strictRegistry.get(LIMIT).tag("group", BATCH).gauge().value());
+        assertEquals(1.0, strictRegistry.get(LIMIT).tag("group", WRITE).gauge().value());
+    }
+
+    @Test
+    void testDoFilterWhenEndpointIsNotLimited() throws Exception {
+        List<Integer> statuses = new ArrayList<>();
+        FilterChain chain = (request, response) -> {
+            MockHttpServletResponse nested = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), nested, new MockFilterChain());
+            statuses.add(nested.getStatus());
+        };
+        filter.doFilter(new MockHttpServletRequest("PUT", "/putMoney"), new MockHttpServletResponse(), chain);
+        assertEquals(200, statuses.get(0));
+    }
+
+    @Test
+    void testDoFilterWhenRequestFails() throws Exception {
+        FilterChain chain = (request, response) -> ((MockHttpServletResponse) response).setStatus(500);
+        filter.doFilter(new MockHttpServletRequest("GET", "/getBalance/1"), new MockHttpServletResponse(), chain);
+        assertEquals(1.0, registry.get(LIMIT).tag("group", READ).gauge().value());
+    }
+
+    @Test
+    void testDoFilterWhenChainThrows() {
+        FilterChain chain = (request, response) -> {
+            throw new ServletException();
+        };
+        assertThrows(ServletException.class, () -> filter.doFilter(new MockHttpServletRequest("GET", "/getBalance/1"),
+                new MockHttpServletResponse(), chain));
+        assertEquals(1.0, registry.get(LIMIT).tag("group", READ).gauge().value());
+        assertEquals(0.0, registry.get(IN_FLIGHT).tag("group", READ).gauge().value());
+    }
+
+    @Test
+    void testDoFilterWhenRequestIsFast() throws IOException, ServletException {
+        FilterChain chain = (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/getBalance/2"),
+                new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/getBalance/1"), new MockHttpServletResponse(), chain);
+        assertEquals(3.0, registry.get(LIMIT).tag("group", READ).gauge().value());
+    }
+}
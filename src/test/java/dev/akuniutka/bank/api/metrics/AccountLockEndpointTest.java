@@ -0,0 +1,54 @@
+package dev.akuniutka.bank.api.metrics;
+
+import dev.akuniutka.bank.api.dto.AccountLockStatsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.metrics.AccountLockEndpoint.DEFAULT_LIMIT;
+
+class AccountLockEndpointTest {
+    private AccountLockMetrics metrics;
+    private AccountLockEndpoint endpoint;
+
+    @BeforeEach
+    public void setUp() {
+        metrics = mock(AccountLockMetrics.class);
+        endpoint = new AccountLockEndpoint(metrics);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(metrics));
+    }
+
+    @Test
+    void testMostContendedWhenLimitIsNull() {
+        List<AccountLockStatsDto> expected = Collections.singletonList(new AccountLockStatsDto(1L, 1L, 10L, 10L));
+        when(metrics.getMostContended(DEFAULT_LIMIT)).thenReturn(expected);
+        assertEquals(expected, endpoint.mostContended(null));
+    }
+
+    @Test
+    void testMostContendedWhenLimitIsNotPositive() {
+        when(metrics.getMostContended(DEFAULT_LIMIT)).thenReturn(Collections.emptyList());
+        assertTrue(endpoint.mostContended(0).isEmpty());
+    }
+
+    @Test
+    void testMostContendedWhenLimitIsPositive() {
+        when(metrics.getMostContended(5)).thenReturn(Collections.emptyList());
+        assertTrue(endpoint.mostContended(5).isEmpty());
+    }
+
+    @Test
+    void testReset() {
+        endpoint.reset();
+        verify(metrics).reset();
+    }
+}
@@ -0,0 +1,82 @@
+package dev.akuniutka.bank.api.metrics;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class AccountLockMetricsAspectTest {
+    private static final Long USER_ID = 1L;
+    private AccountRepository target;
+    private AccountLockMetrics metrics;
+    private AccountRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        target = mock(AccountRepository.class);
+        metrics = mock(AccountLockMetrics.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(AccountRepository.class);
+        factory.addAspect(new AccountLockMetricsAspect(metrics));
+        repository = factory.getProxy();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(target));
+        verifyNoMoreInteractions(ignoreStubs(metrics));
+    }
+
+    @Test
+    void testTimeLockAcquisitionWhenFindById() {
+        Account account = new Account(USER_ID, FORMATTED_TEN);
+        when(target.findById(USER_ID)).thenReturn(Optional.of(account));
+        assertEquals(Optional.of(account), repository.findById(USER_ID));
+        verify(metrics).recordLockWait(eq(Collections.singletonList(USER_ID)), anyLong());
+    }
+
+    @Test
+    void testTimeLockAcquisitionWhenFindAllByIdForUpdate() {
+        List<Long> userIds = Arrays.asList(USER_ID, USER_ID + 1L);
+        when(target.findAllByIdForUpdate(userIds)).thenReturn(Collections.emptyList());
+        assertTrue(repository.findAllByIdForUpdate(userIds).isEmpty());
+        verify(metrics).recordLockWait(eq(userIds), anyLong());
+    }
+
+    @Test
+    void testTimeLockAcquisitionWhenLockFails() {
+        when(target.findById(USER_ID)).thenThrow(new IllegalStateException());
+        assertThrows(IllegalStateException.class, () -> repository.findById(USER_ID));
+        verify(metrics).recordLockWait(eq(Collections.singletonList(USER_ID)), anyLong());
+    }
+
+    @Test
+    void testTimeLockAcquisitionWhenReadById() {
+        when(target.readById(USER_ID)).thenReturn(Optional.empty());
+        assertFalse(repository.readById(USER_ID).isPresent());
+        verifyNoInteractions(metrics);
+    }
+
+    @Test
+    void testUserIdsOf() {
+        assertEquals(Collections.emptyList(), AccountLockMetricsAspect.userIdsOf(new Object[0]));
+        assertEquals(Collections.singletonList(USER_ID), AccountLockMetricsAspect.userIdsOf(new Object[]{USER_ID}));
+        assertEquals(Collections.singletonList(USER_ID),
+                AccountLockMetricsAspect.userIdsOf(new Object[]{Arrays.asList(USER_ID, null)})
+        );
+        assertEquals(Collections.emptyList(), AccountLockMetricsAspect.userIdsOf(new Object[]{null}));
+    }
+}
@@ -0,0 +1,88 @@
+package dev.akuniutka.bank.api.metrics;
+
+import dev.akuniutka.bank.api.dto.AccountLockStatsDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.metrics.AccountLockMetrics.*;
+
+class AccountLockMetricsTest {
+    private static final Long USER_ID = 1L;
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+    private MeterRegistry registry;
+    private AccountLockMetrics metrics;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new AccountLockMetrics(registry);
+    }
+
+    @Test
+    void testRecordLockWaitWhenNotContended() {
+        metrics.recordLockWait(Collections.singletonList(USER_ID), FAST);
+        assertEquals(1L, registry.get(LOCK_WAIT).timer().count());
+        assertEquals(0.0, registry.get(LOCK_CONTENDED).counter().count());
+        assertEquals(0.0, registry.get(LOCK_TRACKED).gauge().value());
+        assertTrue(metrics.getMostContended(10).isEmpty());
+    }
+
+    @Test
+    void testRecordLockWaitWhenContended() {
+        metrics.recordLockWait(Arrays.asList(USER_ID, USER_ID + 1L), SLOW);
+        metrics.recordLockWait(Arrays.asList(USER_ID, null), 2 * SLOW);
+        assertEquals(2L, registry.get(LOCK_WAIT).timer().count());
+        assertEquals(2.0, registry.get(LOCK_CONTENDED).counter().count());
+        assertEquals(2.0, registry.get(LOCK_TRACKED).gauge().value());
+        List<AccountLockStatsDto> stats = metrics.getMostContended(10);
+        assertEquals(2, stats.size());
+        assertEquals(USER_ID, stats.get(0).getUserId());
+        assertEquals(2L, stats.get(0).getContentions());
+        assertEquals(300L, stats.get(0).getTotalWaitMillis());
+        assertEquals(200L, stats.get(0).getMaxWaitMillis());
+        assertEquals(USER_ID + 1L, stats.get(1).getUserId());
+        assertEquals(1L, stats.get(1).getContentions());
+        assertEquals(100L, stats.get(1).getTotalWaitMillis());
+        assertEquals(100L, stats.get(1).getMaxWaitMillis());
+    }
+
+    @Test
+    void testGetMostContendedWhenLimitIsLessThanTracked() {
+        metrics.recordLockWait(Collections.singletonList(USER_ID), SLOW);
+        metrics.recordLockWait(Collections.singletonList(USER_ID + 1L), 2 * SLOW);
+        List<AccountLockStatsDto> stats = metrics.getMostContended(1);
+        assertEquals(1, stats.size());
+        assertEquals(USER_ID + 1L, stats.get(0).getUserId());
+    }
+
+    @Test
+    void testRecordLockWaitWhenTrackedAccountsLimitIsReached() {
+        for (long i = 1; i <= MAX_TRACKED_ACCOUNTS; i++) {
+            metrics.recordLockWait(Collections.singletonList(i), SLOW + i);
+        }
+        metrics.recordLockWait(Collections.singletonList(0L), 2 * SLOW);
+        assertEquals(MAX_TRACKED_ACCOUNTS, metrics.getMostContended(Integer.MAX_VALUE).size());
+        List<AccountLockStatsDto> stats = metrics.getMostContended(1);
+        assertEquals(0L, stats.get(0).getUserId());
+        for (AccountLockStatsDto stat : metrics.getMostContended(Integer.MAX_VALUE)) {
+            assertNotEquals(1L, stat.getUserId());
+        }
+    }
+
+    @Test
+    void testReset() {
+        metrics.recordLockWait(Collections.singletonList(USER_ID), SLOW);
+        metrics.reset();
+        assertTrue(metrics.getMostContended(10).isEmpty());
+        assertEquals(1L, registry.get(LOCK_WAIT).timer().count());
+    }
+}
@@ -0,0 +1,63 @@
+package dev.akuniutka.bank.api.metrics;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class OperationMetricsListenerTest {
+    private Operation operation;
+    private OperationMetrics metrics;
+    private OperationMetricsListener listener;
+
+    @BeforeEach
+    public void setUp() {
+        operation = new Operation(new Account(), OperationType.WITHDRAWAL, TEN, OffsetDateTime.now());
+        metrics = mock(OperationMetrics.class);
+        listener = new OperationMetricsListener(metrics);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verifyNoMoreInteractions(ignoreStubs(metrics));
+    }
+
+    @Test
+    void testAfterPersistWhenNoTransaction() {
+        listener.afterPersist(operation);
+        verify(metrics).recordOperation(OperationType.WITHDRAWAL, MONEY_TEN);
+    }
+
+    @Test
+    void testAfterPersistWhenTransactionIsCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        listener.afterPersist(operation);
+        verifyNoInteractions(metrics);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        verify(metrics).recordOperation(OperationType.WITHDRAWAL, MONEY_TEN);
+    }
+
+    @Test
+    void testAfterPersistWhenTransactionIsRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        listener.afterPersist(operation);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        verifyNoInteractions(metrics);
+    }
+}
@@ -0,0 +1,41 @@
+package dev.akuniutka.bank.api.metrics;
+
+import dev.akuniutka.bank.api.entity.OperationType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.metrics.OperationMetrics.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class OperationMetricsTest {
+    private MeterRegistry registry;
+    private OperationMetrics metrics;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new OperationMetrics(registry);
+    }
+
+    @Test
+    void testOperationMetrics() {
+        for (OperationType type : OperationType.values()) {
+            assertEquals(0.0, registry.get(OPERATIONS).tag(TYPE, type.getDescription()).counter().count());
+            assertEquals(0.0, registry.get(OPERATIONS_AMOUNT).tag(TYPE, type.getDescription()).counter().count());
+        }
+    }
+
+    @Test
+    void testRecordOperation() {
+        String type = OperationType.DEPOSIT.getDescription();
+        metrics.recordOperation(OperationType.DEPOSIT, MONEY_TEN);
+        metrics.recordOperation(OperationType.DEPOSIT, MONEY_TEN_HUNDREDTHS);
+        assertEquals(2.0, registry.get(OPERATIONS).tag(TYPE, type).counter().count());
+        assertEquals(10.01, registry.get(OPERATIONS_AMOUNT).tag(TYPE, type).counter().count(), 1e-9);
+        type = OperationType.WITHDRAWAL.getDescription();
+        assertEquals(0.0, registry.get(OPERATIONS).tag(TYPE, type).counter().count());
+    }
+}
@@ -0,0 +1,126 @@
+package dev.akuniutka.bank.api.metrics;
+
+import dev.akuniutka.bank.api.cache.BalanceCache;
+import dev.akuniutka.bank.api.exception.BadRequestException;
+import dev.akuniutka.bank.api.exception.OperationsNotFoundException;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.ledger.EventSourcedLedger;
+import dev.akuniutka.bank.api.ledger.WriteBehindLedger;
+import dev.akuniutka.bank.api.repository.AccountRepository;
+import dev.akuniutka.bank.api.repository.ReactiveAccountRepository;
+import dev.akuniutka.bank.api.service.AccountService;
+import dev.akuniutka.bank.api.service.AccountSlotService;
+import dev.akuniutka.bank.api.service.ReactiveAccountService;
+import dev.akuniutka.bank.api.util.ErrorMessage;
+import dev.akuniutka.bank.api.util.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.MeterNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.metrics.ServiceMetricsAspect.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class ServiceMetricsAspectTest {
+    private static final Long USER_ID = 1L;
+    private MeterRegistry registry;
+    private ServiceMetricsAspect aspect;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        aspect = new ServiceMetricsAspect(registry);
+    }
+
+    @Test
+    void testOutcomeOf() {
+        assertEquals(SUCCESS, outcomeOf(null));
+        assertEquals(NOT_FOUND, outcomeOf(new UserNotFoundException(ErrorMessage.USER_NOT_FOUND)));
+        assertEquals(NOT_FOUND, outcomeOf(new OperationsNotFoundException(ErrorMessage.OPERATIONS_NOT_FOUND)));
+        assertEquals(ServiceMetricsAspect.INSUFFICIENT_BALANCE,
+                outcomeOf(new WrongAmountException(ErrorMessage.INSUFFICIENT_BALANCE))
+        );
+        assertEquals(BAD_REQUEST, outcomeOf(new WrongAmountException(ErrorMessage.AMOUNT_IS_NEGATIVE)));
+        assertEquals(BAD_REQUEST, outcomeOf(new BadRequestException(ErrorMessage.WRONG_OPERATION_ACCOUNT)));
+        assertEquals(ERROR, outcomeOf(new IllegalStateException()));
+    }
+
+    @Test
+    void testTimeServiceCallWhenCallSucceeds() {
+        AccountRepository repository = mock(AccountRepository.class);
+        when(repository.findBalanceById(USER_ID)).thenReturn(Optional.of(Money.of(FORMATTED_TEN)));
+        AccountService service = proxy(new AccountService(repository, balanceCache(), disabledLedger(),
+                disabledEventLedger(), noStriping(), false));
+        assertEquals(FORMATTED_TEN, service.getUserBalance(USER_ID));
+        assertEquals(1L, timerCount("AccountService", "getUserBalance", SUCCESS));
+    }
+
+    @Test
+    void testTimeServiceCallWhenCallFails() {
+        AccountRepository repository = mock(AccountRepository.class);
+        when(repository.findBalanceById(USER_ID)).thenReturn(Optional.empty());
+        AccountService service = proxy(new AccountService(repository, balanceCache(), disabledLedger(),
+                disabledEventLedger(), noStriping(), false));
+        assertThrows(UserNotFoundException.class, () -> service.getUserBalance(USER_ID));
+        assertEquals(1L, timerCount("AccountService", "getUserBalance", NOT_FOUND));
+    }
+
+    @Test
+    void testTimeServiceCallWhenResultIsMono() {
+        ReactiveAccountRepository repository = mock(ReactiveAccountRepository.class);
+        when(repository.findBalanceById(USER_ID)).thenReturn(Mono.just(FORMATTED_TEN));
+        when(repository.findBalanceById(USER_ID + 1L)).thenReturn(Mono.empty());
+        ReactiveAccountService service = proxy(new ReactiveAccountService(repository));
+        Mono<?> balance = service.getUserBalance(USER_ID);
+        assertThrows(MeterNotFoundException.class,
+                () -> timerCount("ReactiveAccountService", "getUserBalance", SUCCESS)
+        );
+        assertEquals(FORMATTED_TEN, balance.block());
+        assertEquals(1L, timerCount("ReactiveAccountService", "getUserBalance", SUCCESS));
+        assertThrows(UserNotFoundException.class, () -> service.getUserBalance(USER_ID + 1L).block());
+        assertEquals(1L, timerCount("ReactiveAccountService", "getUserBalance", NOT_FOUND));
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    private long timerCount(String className, String method, String outcome) {
+        return registry.get(SERVICE_CALLS)
+                .tag("class", className)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+
+    private BalanceCache balanceCache() {
+        return new BalanceCache(new SimpleMeterRegistry(), true, 100L, Duration.ofSeconds(10L));
+    }
+
+    private WriteBehindLedger disabledLedger() {
+        return new WriteBehindLedger(null, null, null, null, null, null, null, false, "ledger.journal", 1000,
+                Duration.ofSeconds(5L), DataSize.ofMegabytes(64L));
+    }
+
+    private EventSourcedLedger disabledEventLedger() {
+        return new EventSourcedLedger(null, null, false, 100, Duration.ofSeconds(60L));
+    }
+
+    private AccountSlotService noStriping() {
+        return new AccountSlotService(null, null, null, "");
+    }
+}
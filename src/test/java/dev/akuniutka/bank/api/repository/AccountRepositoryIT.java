@@ -1,6 +1,7 @@
 package dev.akuniutka.bank.api.repository;
 
 import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.util.Money;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -8,6 +9,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import javax.transaction.Transactional;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,13 +28,45 @@ class AccountRepositoryIT {
         Account account = repository.findById(id).orElseThrow(() -> new RuntimeException(USER_NOT_FOUND));
         assertNotNull(account);
         assertEquals(id, account.getId());
-        assertEquals(FORMATTED_TEN, account.getBalance());
+        assertEquals(MONEY_TEN, account.getBalance());
+    }
+
+    @Test
+    void testFindBalanceById() {
+        assertEquals(Money.of(FORMATTED_TEN), repository.findBalanceById(1068L).orElse(null));
+        assertFalse(repository.findBalanceById(-1L).isPresent());
+    }
+
+    @Test
+    void testAddToBalance() {
+        Long id = 1068L;
+        assertEquals(FORMATTED_TEN.add(FORMATTED_ONE), repository.addToBalance(id, FORMATTED_ONE).orElse(null));
+        assertEquals(FORMATTED_TEN, repository.addToBalance(id, FORMATTED_ONE.negate()).orElse(null));
+        assertFalse(repository.addToBalance(id, FORMATTED_TEN.add(FORMATTED_ONE).negate()).isPresent());
+        assertFalse(repository.addToBalance(-1L, FORMATTED_ONE).isPresent());
+        assertEquals(Money.of(FORMATTED_TEN), repository.findBalanceById(id).orElse(null));
+    }
+
+    @Test
+    void testReadById() {
+        Long id = 1068L;
+        Account account = repository.readById(id).orElseThrow(() -> new RuntimeException(USER_NOT_FOUND));
+        assertEquals(id, account.getId());
+        assertEquals(MONEY_TEN, account.getBalance());
+    }
+
+    @Test
+    void testFindAllByIdForUpdate() {
+        List<Account> accounts = repository.findAllByIdForUpdate(Arrays.asList(1068L, 1053L, 0L));
+        assertEquals(2, accounts.size());
+        assertEquals(1053L, accounts.get(0).getId());
+        assertEquals(1068L, accounts.get(1).getId());
     }
 
     @Test
     void testSave() {
         Account account = new Account();
-        account.increaseBalance(TEN);
+        account.increaseBalance(MONEY_TEN);
         account = repository.save(account);
         Long id = account.getId();
         assertNotNull(id);
@@ -41,7 +75,7 @@ class AccountRepositoryIT {
         for (Account a : repository.findAllById(ids)) {
             assertNotNull(a);
             assertEquals(id, a.getId());
-            assertEquals(FORMATTED_TEN, a.getBalance());
+            assertEquals(MONEY_TEN, a.getBalance());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package dev.akuniutka.bank.api.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.transaction.Transactional;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Transactional
+class AccountSlotRepositoryIT {
+    @Autowired
+    private AccountSlotRepository repository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testCreditAndFindTotalBalance() {
+        jdbcTemplate.update("INSERT INTO ACCOUNT (ID, BALANCE) VALUES (-1, 10)");
+        repository.createSlots(-1L, 4);
+        assertTrue(repository.credit(-1L, 0, new BigDecimal("2.50")));
+        assertTrue(repository.credit(-1L, 3, new BigDecimal("1.25")));
+        assertFalse(repository.credit(-1L, 4, BigDecimal.ONE));
+        assertEquals(Optional.of(new BigDecimal("13.75")), repository.findTotalBalance(-1L));
+        assertFalse(repository.findTotalBalance(-2L).isPresent());
+        assertEquals(Collections.singletonList(-1L), repository.findStripedAccounts());
+    }
+
+    @Test
+    void testDrain() {
+        jdbcTemplate.update("INSERT INTO ACCOUNT (ID, BALANCE) VALUES (-1, 10)");
+        repository.createSlots(-1L, 2);
+        repository.credit(-1L, 0, new BigDecimal("2.50"));
+        repository.credit(-1L, 1, new BigDecimal("1.25"));
+        assertEquals(0, new BigDecimal("3.75").compareTo(repository.drain(-1L)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(repository.drain(-1L)));
+        assertEquals(Optional.of(new BigDecimal("10.00")), repository.findTotalBalance(-1L));
+    }
+
+    @Test
+    void testCreateSlotsWhenAccountDoesNotExist() {
+        repository.createSlots(-1L, 4);
+        assertTrue(repository.findStripedAccounts().isEmpty());
+    }
+
+    @Test
+    void testRemoveSlots() {
+        jdbcTemplate.update("INSERT INTO ACCOUNT (ID, BALANCE) VALUES (-1, 10)");
+        repository.createSlots(-1L, 4);
+        repository.credit(-1L, 1, new BigDecimal("2.50"));
+        repository.credit(-1L, 3, new BigDecimal("1.25"));
+        assertEquals(0, new BigDecimal("1.25").compareTo(repository.removeSlots(-1L, 2)));
+        repository.createSlots(-1L, 2);
+        assertEquals(Optional.of(new BigDecimal("12.50")), repository.findTotalBalance(-1L));
+        assertEquals(0, new BigDecimal("2.50").compareTo(repository.removeSlots(-1L, 0)));
+        assertTrue(repository.findStripedAccounts().isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.ledger.LedgerBalance;
+import dev.akuniutka.bank.api.util.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.transaction.Transactional;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Transactional
+class BalanceSnapshotRepositoryIT {
+    private static final Long USER_ID = 1069L;
+    @Autowired
+    private BalanceSnapshotRepository repository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testFindBalancesWhenAccountHasNoSnapshot() {
+        jdbcTemplate.update("INSERT INTO ACCOUNT (ID, BALANCE) VALUES (-1, 10), (-2, 5)");
+        insertOperation(-1L, -1L, "D", "2.50");
+        insertOperation(-2L, -1L, "W", "1.25");
+        insertOperation(-3L, -1L, "R", "1");
+        insertOperation(-4L, -1L, "P", "0.25");
+        List<LedgerBalance> balances = repository.findBalances(Arrays.asList(-1L, -2L, -3L));
+        assertEquals(2, balances.size());
+        assertEquals(-2L, balances.get(0).getUserId());
+        assertEquals(Money.of(new BigDecimal("5")), balances.get(0).getBalance());
+        assertEquals(0L, balances.get(0).getPosition());
+        assertEquals(0L, balances.get(0).getPendingOperations());
+        assertEquals(-1L, balances.get(1).getUserId());
+        assertEquals(Money.of(new BigDecimal("12")), balances.get(1).getBalance());
+        assertEquals(maxPosition(-1L), balances.get(1).getPosition());
+        assertEquals(4L, balances.get(1).getPendingOperations());
+    }
+
+    @Test
+    void testSaveSnapshot() {
+        jdbcTemplate.update("INSERT INTO ACCOUNT (ID, BALANCE) VALUES (-1, 10)");
+        insertOperation(-1L, -1L, "D", "2");
+        LedgerBalance balance = repository.findBalances(Collections.singleton(-1L)).get(0);
+        repository.saveSnapshot(balance);
+        insertOperation(-2L, -1L, "W", "1");
+        balance = repository.findBalances(Collections.singleton(-1L)).get(0);
+        assertEquals(Money.of(new BigDecimal("11")), balance.getBalance());
+        assertEquals(1L, balance.getPendingOperations());
+        repository.saveSnapshot(balance);
+        balance = repository.findBalances(Collections.singleton(-1L)).get(0);
+        assertEquals(Money.of(new BigDecimal("11")), balance.getBalance());
+        assertEquals(0L, balance.getPendingOperations());
+    }
+
+    @Test
+    void testSwitchMode() {
+        assertFalse(repository.isEventSourced());
+        repository.saveAllSnapshots();
+        repository.setEventSourced(true);
+        assertTrue(repository.isEventSourced());
+        insertOperation(-1L, USER_ID, "D", "5");
+        BigDecimal balance = jdbcTemplate.queryForObject("SELECT BALANCE FROM ACCOUNT WHERE ID = ?", BigDecimal.class,
+                USER_ID);
+        assertEquals(Money.of(balance.add(BigDecimal.valueOf(5L))),
+                repository.findBalances(Collections.singleton(USER_ID)).get(0).getBalance());
+        repository.restoreAccountBalances();
+        repository.setEventSourced(false);
+        assertFalse(repository.isEventSourced());
+        assertEquals(0, balance.add(BigDecimal.valueOf(5L)).compareTo(jdbcTemplate.queryForObject(
+                "SELECT BALANCE FROM ACCOUNT WHERE ID = ?", BigDecimal.class, USER_ID
+        )));
+    }
+
+    @Test
+    void testLock() {
+        assertDoesNotThrow(() -> repository.lock(USER_ID));
+        assertDoesNotThrow(() -> repository.lockShared(USER_ID));
+    }
+
+    private void insertOperation(Long id, Long userId, String type, String amount) {
+        jdbcTemplate.update("INSERT INTO OPERATION (ID, ACCOUNT_ID, TYPE, AMOUNT, DATE)"
+                + " VALUES (?, ?, ?, ?, LOCALTIMESTAMP)", id, userId, type, new BigDecimal(amount));
+    }
+
+    private long maxPosition(Long userId) {
+        Long position = jdbcTemplate.queryForObject("SELECT MAX(POSITION) FROM OPERATION WHERE ACCOUNT_ID = ?",
+                Long.class, userId);
+        return position == null ? 0L : position;
+    }
+}
@@ -0,0 +1,48 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.cache.StoredResponse;
+import dev.akuniutka.bank.api.dto.ResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.transaction.Transactional;
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Transactional
+class IdempotencyKeyRepositoryIT {
+    private static final String KEY = "idempotency-key-it";
+    private static final String REQUEST = "putMoney:1:10";
+    @Autowired
+    private IdempotencyKeyRepository repository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testInsertAndFind() {
+        assertTrue(repository.insert(KEY, REQUEST));
+        assertFalse(repository.find(KEY).isPresent());
+        repository.saveResponse(KEY, new ResponseDto(BigDecimal.ONE));
+        assertFalse(repository.insert(KEY, REQUEST));
+        StoredResponse stored = repository.find(KEY).orElseThrow(AssertionError::new);
+        assertEquals(REQUEST, stored.getRequest());
+        assertEquals(BigDecimal.ONE, stored.getResponse().getResult());
+        assertEquals("", stored.getResponse().getMessage());
+    }
+
+    @Test
+    void testDeleteOlderThan() {
+        repository.insert(KEY, REQUEST);
+        repository.insert(KEY + "-old", REQUEST);
+        jdbcTemplate.update("UPDATE IDEMPOTENCY_KEY SET DATE = LOCALTIMESTAMP - INTERVAL '2 days' WHERE ID = ?",
+                KEY + "-old");
+        assertEquals(1, repository.deleteOlderThan(Duration.ofHours(24L)));
+        assertFalse(repository.insert(KEY, REQUEST));
+        assertTrue(repository.insert(KEY + "-old", REQUEST));
+    }
+}
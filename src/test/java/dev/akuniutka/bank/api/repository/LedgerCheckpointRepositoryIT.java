@@ -0,0 +1,27 @@
+package dev.akuniutka.bank.api.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.transaction.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Transactional
+class LedgerCheckpointRepositoryIT {
+    @Autowired
+    private LedgerCheckpointRepository repository;
+
+    @Test
+    void testGetSequenceWhenNothingIsApplied() {
+        assertEquals(0L, repository.getSequence());
+    }
+
+    @Test
+    void testUpdateSequence() {
+        repository.updateSequence(42L);
+        assertEquals(42L, repository.getSequence());
+    }
+}
@@ -0,0 +1,40 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.util.Money;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class MoneyConverterTest {
+    @Test
+    void testConvertToDatabaseColumnWhenExistingValue() {
+        MoneyConverter converter = new MoneyConverter();
+        assertEquals(FORMATTED_TEN, converter.convertToDatabaseColumn(Money.of(TEN)));
+    }
+
+    @Test
+    void testConvertToDatabaseColumnWhenNull() {
+        MoneyConverter converter = new MoneyConverter();
+        assertNull(converter.convertToDatabaseColumn(null));
+    }
+
+    @Test
+    void testConvertToEntityAttributeWhenExistingValue() {
+        MoneyConverter converter = new MoneyConverter();
+        assertEquals(Money.of(TEN), converter.convertToEntityAttribute(FORMATTED_TEN));
+    }
+
+    @Test
+    void testConvertToEntityAttributeWhenNull() {
+        MoneyConverter converter = new MoneyConverter();
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void testConvertToEntityAttributeWhenWrongValue() {
+        MoneyConverter converter = new MoneyConverter();
+        assertThrows(WrongAmountException.class, () -> converter.convertToEntityAttribute(ONE_THOUSANDTH));
+    }
+}
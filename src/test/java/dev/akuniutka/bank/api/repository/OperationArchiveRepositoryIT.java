@@ -0,0 +1,92 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.transaction.Transactional;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Transactional
+class OperationArchiveRepositoryIT {
+    private static final ZoneOffset OFFSET = ZoneId.systemDefault().getRules().getOffset(LocalDateTime.now());
+    @Autowired
+    private OperationArchiveRepository repository;
+    @Autowired
+    private AccountRepository accounts;
+    @Autowired
+    private OperationRepository operations;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testArchiveOperations() {
+        Account account = accounts.findById(1070L).orElseThrow(() -> new RuntimeException(USER_NOT_FOUND));
+        OffsetDateTime finish = OffsetDateTime.of(LocalDate.parse("2023-07-01"), LocalTime.MIDNIGHT, OFFSET);
+        assertTrue(repository.findAccountsWithOperationsBefore(finish).contains(1070L));
+        List<Operation> live = operations.findByAccountAndDateBefore(account, finish);
+        assertEquals(6, live.size());
+        assertFalse(repository.hasSegments());
+        repository.saveSegment(account, live);
+        assertTrue(repository.hasSegments());
+        assertEquals(6, repository.deleteOperations(live));
+        assertEquals(0, operations.findByAccountAndDateBefore(account, finish).size());
+
+        List<Operation> archived = repository.findByAccount(account, null, null);
+        assertEquals(6, archived.size());
+        for (int i = 0; i < 6; i++) {
+            assertEquals(live.get(i).getId(), archived.get(i).getId());
+            assertEquals(live.get(i).getType(), archived.get(i).getType());
+            assertEquals(live.get(i).getAmount(), archived.get(i).getAmount());
+            assertTrue(live.get(i).getDate().isEqual(archived.get(i).getDate()));
+        }
+        OffsetDateTime start = OffsetDateTime.of(LocalDate.parse("2023-02-01"), LocalTime.MIDNIGHT, OFFSET);
+        OffsetDateTime end = OffsetDateTime.of(LocalDate.parse("2023-04-01"), LocalTime.MIDNIGHT, OFFSET);
+        assertEquals(2, repository.findByAccount(account, start, end).size());
+        assertTrue(repository.findByAccount(account, finish, null).isEmpty());
+
+        assertEquals(ids(archived.subList(0, 2)), ids(repository.findPageByAccount(account, null, null, null, 2)));
+        assertEquals(ids(archived.subList(2, 4)), ids(repository.findPageByAccount(account,
+                archived.get(1).getDate(), archived.get(1).getId(), null, 2
+        )));
+        List<Operation> exported = new ArrayList<>();
+        repository.forEachByAccount(account, exported::add);
+        assertEquals(ids(archived), ids(exported));
+    }
+
+    @Test
+    void testArchiveTransfersBefore() {
+        OffsetDateTime finish = OffsetDateTime.of(LocalDate.parse("2022-03-01"), LocalTime.MIDNIGHT, OFFSET);
+        assertEquals(1, repository.archiveTransfersBefore(finish));
+        assertEquals(Integer.valueOf(1), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM TRANSFER_ARCHIVE WHERE ID = 501", Integer.class
+        ));
+        assertEquals(Integer.valueOf(0), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM TRANSFER WHERE ID = 501", Integer.class
+        ));
+    }
+
+    @Test
+    void testArchiveIsAppendOnly() {
+        Account account = accounts.findById(1069L).orElseThrow(() -> new RuntimeException(USER_NOT_FOUND));
+        repository.saveSegment(account, operations.findByAccount(account));
+        assertThrows(RuntimeException.class, () -> jdbcTemplate.update("DELETE FROM OPERATION_ARCHIVE"));
+    }
+
+    private List<Long> ids(List<Operation> operations) {
+        List<Long> ids = new ArrayList<>(operations.size());
+        for (Operation operation : operations) {
+            ids.add(operation.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,64 @@
+package dev.akuniutka.bank.api.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.transaction.Transactional;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Transactional
+class OperationPartitionRepositoryIT {
+    @Autowired
+    private OperationPartitionRepository repository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testCreatePartition() {
+        assertEquals("operation_2090_05", repository.createPartition(LocalDate.parse("2090-05-17")));
+        assertEquals("operation_2090_05", repository.createPartition(LocalDate.parse("2090-05-01")));
+        jdbcTemplate.update("INSERT INTO OPERATION (ID, ACCOUNT_ID, TYPE, AMOUNT, DATE)"
+                + " VALUES (-1, 1069, 'D', 1, TIMESTAMP '2090-05-31 23:59:59')"
+        );
+        assertEquals("operation_2090_05", jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM OPERATION WHERE ID = -1", String.class
+        ));
+    }
+
+    @Test
+    void testCreatePartitionWhenDefaultPartitionHasOperationsOfMonth() {
+        jdbcTemplate.update("INSERT INTO OPERATION (ID, ACCOUNT_ID, TYPE, AMOUNT, DATE) VALUES"
+                + " (-2, 1069, 'O', 1, TIMESTAMP '2091-07-10 10:00:00'),"
+                + " (-3, 1070, 'I', 1, TIMESTAMP '2091-07-10 10:00:00'),"
+                + " (-4, 1069, 'D', 1, TIMESTAMP '2091-08-01 00:00:00')"
+        );
+        jdbcTemplate.update("INSERT INTO TRANSFER (ID, OUTGOING_TRANSFER_ID, INCOMING_TRANSFER_ID, DATE)"
+                + " VALUES (-1, -2, -3, TIMESTAMP '2091-07-10 10:00:00')"
+        );
+        assertEquals("operation_2091_07", repository.createPartition(LocalDate.parse("2091-07-01")));
+        assertEquals(Arrays.asList("operation_2091_07", "operation_2091_07", "operation_default"),
+                jdbcTemplate.queryForList("SELECT tableoid::regclass::text FROM OPERATION WHERE ID IN (-2, -3, -4)"
+                        + " ORDER BY ID DESC", String.class)
+        );
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM TRANSFER JOIN OPERATION ON OPERATION.ID = TRANSFER.OUTGOING_TRANSFER_ID"
+                        + " AND OPERATION.DATE = TRANSFER.DATE WHERE TRANSFER.ID = -1", Integer.class
+        ));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "DELETE FROM OPERATION WHERE ID = -2"
+        ));
+    }
+
+    @Test
+    void testCreatePartitionForCurrentMonthWhenApplicationIsStarted() {
+        String partition = String.format("operation_%1$tY_%1$tm", LocalDate.now().plusMonths(3L));
+        assertEquals(partition, jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class, partition));
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.transaction.Transactional;
 import java.time.*;
@@ -25,6 +27,8 @@ class OperationRepositoryIT {
     private AccountRepository accounts;
     @Autowired
     private OperationRepository repository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @BeforeEach
     public void setUp() {
@@ -37,7 +41,6 @@ class OperationRepositoryIT {
         List<Operation> operations = repository.findByAccount(account);
         assertNotNull(operations);
         assertEquals(12, operations.size());
-        operations.sort(Comparator.comparing(Operation::getId));
         for (int i = 0; i < 12; i++) {
             Operation operation = operations.get(i);
             assertNotNull(operation);
@@ -45,10 +48,10 @@ class OperationRepositoryIT {
             assertEquals(account.getId(), operation.getAccount().getId());
             if (i < 2) {
                 assertEquals(OperationType.DEPOSIT, operation.getType());
-                assertEquals(FORMATTED_TEN, operation.getAmount());
+                assertEquals(MONEY_TEN, operation.getAmount());
             } else {
                 assertEquals(OperationType.WITHDRAWAL, operation.getType());
-                assertEquals(FORMATTED_ONE, operation.getAmount());
+                assertEquals(MONEY_ONE, operation.getAmount());
             }
             assertTrue(date.isEqual(operation.getDate()));
             date = date.plusMonths(1L);
@@ -62,7 +65,6 @@ class OperationRepositoryIT {
         date = date.withMonth(1);
         assertNotNull(operations);
         assertEquals(6, operations.size());
-        operations.sort(Comparator.comparing(Operation::getId));
         for (int i = 0; i < 6; i++) {
             Operation operation = operations.get(i);
             assertNotNull(operation);
@@ -70,10 +72,10 @@ class OperationRepositoryIT {
             assertEquals(account.getId(), operation.getAccount().getId());
             if (i < 2) {
                 assertEquals(OperationType.DEPOSIT, operation.getType());
-                assertEquals(FORMATTED_TEN, operation.getAmount());
+                assertEquals(MONEY_TEN, operation.getAmount());
             } else {
                 assertEquals(OperationType.WITHDRAWAL, operation.getType());
-                assertEquals(FORMATTED_ONE, operation.getAmount());
+                assertEquals(MONEY_ONE, operation.getAmount());
             }
             assertTrue(date.isEqual(operation.getDate()));
             date = date.plusMonths(1L);
@@ -86,7 +88,6 @@ class OperationRepositoryIT {
         List<Operation> operations = repository.findByAccountAndDateAfter(account, date);
         assertNotNull(operations);
         assertEquals(11, operations.size());
-        operations.sort(Comparator.comparing(Operation::getId));
         for (int i = 0; i < 11; i++) {
             Operation operation = operations.get(i);
             assertNotNull(operation);
@@ -94,10 +95,10 @@ class OperationRepositoryIT {
             assertEquals(account.getId(), operation.getAccount().getId());
             if (i < 1) {
                 assertEquals(OperationType.DEPOSIT, operation.getType());
-                assertEquals(FORMATTED_TEN, operation.getAmount());
+                assertEquals(MONEY_TEN, operation.getAmount());
             } else {
                 assertEquals(OperationType.WITHDRAWAL, operation.getType());
-                assertEquals(FORMATTED_ONE, operation.getAmount());
+                assertEquals(MONEY_ONE, operation.getAmount());
             }
             assertTrue(date.isEqual(operation.getDate()));
             date = date.plusMonths(1L);
@@ -112,7 +113,6 @@ class OperationRepositoryIT {
         List<Operation> operations = repository.findByAccountAndDateBetween(account, start, finish);
         assertNotNull(operations);
         assertEquals(2, operations.size());
-        operations.sort(Comparator.comparing(Operation::getId));
         for (int i = 0; i < 2; i++) {
             Operation operation = operations.get(i);
             assertNotNull(operation);
@@ -120,16 +120,86 @@ class OperationRepositoryIT {
             assertEquals(account.getId(), operation.getAccount().getId());
             if (i < 1) {
                 assertEquals(OperationType.DEPOSIT, operation.getType());
-                assertEquals(FORMATTED_TEN, operation.getAmount());
+                assertEquals(MONEY_TEN, operation.getAmount());
             } else {
                 assertEquals(OperationType.WITHDRAWAL, operation.getType());
-                assertEquals(FORMATTED_ONE, operation.getAmount());
+                assertEquals(MONEY_ONE, operation.getAmount());
             }
             assertTrue(date.isEqual(operation.getDate()));
             date = date.plusMonths(1L);
         }
     }
 
+    @Test
+    void testFindByAccountAndDateBetweenUsesPartitionPruningAndIndexRangeScan() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN SELECT * FROM OPERATION WHERE ACCOUNT_ID = 1069"
+                + " AND DATE >= TIMESTAMP '2023-02-01' AND DATE < TIMESTAMP '2023-04-01' ORDER BY DATE, ID",
+                String.class
+        );
+        String text = String.join("\n", plan);
+        assertTrue(text.contains("Index Scan using operation_2023_02_account_id_date_id_idx"), text);
+        assertTrue(text.contains("Index Scan using operation_2023_03_account_id_date_id_idx"), text);
+        assertTrue(text.contains("Index Cond: ((account_id = 1069) AND (date >= "), text);
+        assertFalse(text.contains("operation_2023_01"), text);
+        assertFalse(text.contains("operation_2023_04"), text);
+        assertFalse(text.contains("operation_default"), text);
+        assertFalse(text.contains("Sort  ("), text);
+    }
+
+    @Test
+    void testFindPageByAccount() {
+        List<Operation> operations = repository.findPageByAccount(account, PageRequest.of(0, 5));
+        assertEquals(5, operations.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i + 1, operations.get(i).getId());
+        }
+    }
+
+    @Test
+    void testFindPageByAccountAndDateBefore() {
+        OffsetDateTime finish = OffsetDateTime.of(LocalDate.parse("2023-03-01"), LocalTime.MIDNIGHT, OFFSET);
+        List<Operation> operations = repository.findPageByAccountAndDateBefore(account, finish, PageRequest.of(0, 5));
+        assertEquals(2, operations.size());
+        assertEquals(1L, operations.get(0).getId());
+        assertEquals(2L, operations.get(1).getId());
+    }
+
+    @Test
+    void testFindPageByAccountAfter() {
+        List<Operation> operations = repository.findPageByAccount(account, PageRequest.of(0, 3));
+        Operation last = operations.get(2);
+        operations = repository.findPageByAccountAfter(account, last.getDate(), last.getId(), PageRequest.of(0, 3));
+        assertEquals(3, operations.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 4, operations.get(i).getId());
+        }
+    }
+
+    @Test
+    void testFindPageByAccountAfterWhenDateIsStartOfPeriod() {
+        OffsetDateTime start = OffsetDateTime.of(LocalDate.parse("2023-11-01"), LocalTime.MIDNIGHT, OFFSET);
+        List<Operation> operations = repository.findPageByAccountAfter(account, start, Long.MIN_VALUE,
+                PageRequest.of(0, 5)
+        );
+        assertEquals(2, operations.size());
+        assertEquals(11L, operations.get(0).getId());
+        assertEquals(12L, operations.get(1).getId());
+    }
+
+    @Test
+    void testFindPageByAccountAfterAndDateBefore() {
+        OffsetDateTime start = OffsetDateTime.of(LocalDate.parse("2023-02-01"), LocalTime.MIDNIGHT, OFFSET);
+        OffsetDateTime finish = OffsetDateTime.of(LocalDate.parse("2023-06-01"), LocalTime.MIDNIGHT, OFFSET);
+        List<Operation> operations = repository.findPageByAccountAfterAndDateBefore(account, start, 2L, finish,
+                PageRequest.of(0, 5)
+        );
+        assertEquals(3, operations.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 3, operations.get(i).getId());
+        }
+    }
+
     @Test
     void testSave() {
         Account testAccount = accounts.findById(1093L).orElseThrow(() -> new RuntimeException(USER_NOT_FOUND));
@@ -143,7 +213,7 @@ class OperationRepositoryIT {
         assertEquals(id, actual.getId());
         assertEquals(testAccount.getId(), actual.getAccount().getId());
         assertEquals(OperationType.DEPOSIT, actual.getType());
-        assertEquals(FORMATTED_TEN, actual.getAmount());
+        assertEquals(MONEY_TEN, actual.getAmount());
         assertTrue(date.isEqual(actual.getDate()));
     }
 }
\ No newline at end of file
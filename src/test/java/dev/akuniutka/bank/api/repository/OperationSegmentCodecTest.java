@@ -0,0 +1,76 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.UNSUPPORTED_SEGMENT_VERSION;
+
+class OperationSegmentCodecTest {
+    private static final Account ACCOUNT = new Account(1L, FORMATTED_TEN);
+
+    @Test
+    void testEncodeAndDecode() {
+        OffsetDateTime date = OffsetDateTime.now().minusYears(1L);
+        List<Operation> operations = new ArrayList<>();
+        operations.add(new Operation(10L, ACCOUNT, OperationType.DEPOSIT, TEN, date));
+        operations.add(new Operation(11L, ACCOUNT, OperationType.OUTGOING_TRANSFER, FORMATTED_TEN_THOUSANDTHS,
+                date.plusDays(1L)
+        ));
+        List<Operation> actual = OperationSegmentCodec.decode(OperationSegmentCodec.encode(operations), ACCOUNT);
+        assertEquals(2, actual.size());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(operations.get(i).getId(), actual.get(i).getId());
+            assertSame(ACCOUNT, actual.get(i).getAccount());
+            assertEquals(operations.get(i).getType(), actual.get(i).getType());
+            assertEquals(operations.get(i).getAmount(), actual.get(i).getAmount());
+            assertTrue(operations.get(i).getDate().isEqual(actual.get(i).getDate()));
+        }
+    }
+
+    @Test
+    void testEncodeWhenManyOperationsAreSimilar() {
+        OffsetDateTime date = OffsetDateTime.now();
+        List<Operation> operations = new ArrayList<>();
+        for (long i = 0; i < 1000; i++) {
+            operations.add(new Operation(i, ACCOUNT, OperationType.WITHDRAWAL, ONE, date.plusSeconds(i)));
+        }
+        assertTrue(OperationSegmentCodec.encode(operations).length < 1000 * 30);
+    }
+
+    @Test
+    void testDecodeWhenEmpty() {
+        byte[] data = OperationSegmentCodec.encode(Collections.emptyList());
+        assertTrue(OperationSegmentCodec.decode(data, ACCOUNT).isEmpty());
+    }
+
+    @Test
+    void testDecodeWhenDataIsCorrupted() {
+        assertThrows(UncheckedIOException.class, () -> OperationSegmentCodec.decode(new byte[]{1, 2, 3}, ACCOUNT));
+    }
+
+    @Test
+    void testDecodeWhenVersionIsNotSupported() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(2);
+            out.writeInt(0);
+        }
+        byte[] data = bytes.toByteArray();
+        Exception e = assertThrows(IllegalStateException.class, () -> OperationSegmentCodec.decode(data, ACCOUNT));
+        assertEquals(UNSUPPORTED_SEGMENT_VERSION, e.getMessage());
+    }
+}
@@ -22,6 +22,9 @@ class OperationTypeConverterTest {
     void testConvertToEntityAttributeWhenExistingValue() {
         OperationTypeConverter converter = new OperationTypeConverter();
         assertSame(OperationType.valueOf("DEPOSIT"), converter.convertToEntityAttribute("D"));
+        assertSame(OperationType.valueOf("WITHDRAWAL"), converter.convertToEntityAttribute("W"));
+        assertSame(OperationType.valueOf("OUTGOING_TRANSFER"), converter.convertToEntityAttribute("P"));
+        assertSame(OperationType.valueOf("INCOMING_TRANSFER"), converter.convertToEntityAttribute("R"));
     }
 
     @Test
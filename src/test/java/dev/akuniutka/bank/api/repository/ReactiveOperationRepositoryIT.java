@@ -0,0 +1,93 @@
+package dev.akuniutka.bank.api.repository;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+// The reactive profile is not active in tests, so the repository gets a client for the database of the JPA stack
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveOperationRepositoryIT {
+    private static final ZoneOffset OFFSET = ZoneId.systemDefault().getRules().getOffset(LocalDateTime.now());
+    private static final Account ACCOUNT = new Account(1069L, FORMATTED_TEN);
+    @Autowired
+    private DataSource dataSource;
+    private ReactiveOperationRepository repository;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            URI uri = URI.create(metaData.getURL().substring("jdbc:".length()));
+            PostgresqlConnectionConfiguration configuration = PostgresqlConnectionConfiguration.builder()
+                    .host(uri.getHost())
+                    .port(uri.getPort())
+                    .database(uri.getPath().substring(1))
+                    .username(metaData.getUserName())
+                    .password("test")
+                    .build();
+            repository = new ReactiveOperationRepository(
+                    DatabaseClient.create(new PostgresqlConnectionFactory(configuration))
+            );
+        }
+    }
+
+    @Test
+    void testFindByAccountIncludesStartAndExcludesFinish() {
+        List<Operation> operations = repository.findByAccount(ACCOUNT, date("2023-02-01"), date("2023-04-01"))
+                .collectList()
+                .block();
+        assertNotNull(operations);
+        assertEquals(2, operations.size());
+        assertTrue(date("2023-02-01").isEqual(operations.get(0).getDate()));
+        assertTrue(date("2023-03-01").isEqual(operations.get(1).getDate()));
+    }
+
+    @Test
+    void testFindByAccountWhenOnlyStartIsSet() {
+        List<Operation> operations = repository.findByAccount(ACCOUNT, date("2023-12-01"), null)
+                .collectList()
+                .block();
+        assertNotNull(operations);
+        assertEquals(1, operations.size());
+        assertTrue(date("2023-12-01").isEqual(operations.get(0).getDate()));
+    }
+
+    @Test
+    void testFindByAccountWhenOnlyFinishIsSet() {
+        List<Operation> operations = repository.findByAccount(ACCOUNT, null, date("2023-02-01"))
+                .collectList()
+                .block();
+        assertNotNull(operations);
+        assertEquals(1, operations.size());
+        assertTrue(date("2023-01-01").isEqual(operations.get(0).getDate()));
+    }
+
+    @Test
+    void testFindByAccountWhenStartEqualsFinish() {
+        assertEquals(Long.valueOf(0L), repository.findByAccount(ACCOUNT, date("2023-02-01"), date("2023-02-01"))
+                .count()
+                .block()
+        );
+    }
+
+    private OffsetDateTime date(String date) {
+        return OffsetDateTime.of(LocalDate.parse(date), LocalTime.MIDNIGHT, OFFSET);
+    }
+}
@@ -60,5 +60,6 @@ class TransferRepositoryIT {
         assertEquals(id, actual.getId());
         assertEquals(outgoingTransfer.getId(), actual.getOutgoingTransfer().getId());
         assertEquals(incomingTransfer.getId(), actual.getIncomingTransfer().getId());
+        assertTrue(outgoingTransfer.getDate().isEqual(actual.getDate()));
     }
 }
\ No newline at end of file
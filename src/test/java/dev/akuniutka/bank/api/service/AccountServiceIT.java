@@ -0,0 +1,57 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AccountServiceIT {
+    @Autowired
+    private AccountService service;
+    @Autowired
+    private AccountRepository repository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testGetUserBalanceWhenAccountIsLocked() throws Exception {
+        Long userId = 1068L;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> writer = executor.submit(() -> transaction.executeWithoutResult(status -> {
+                repository.findById(userId);
+                locked.countDown();
+                try {
+                    released.await(1L, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(locked.await(1L, TimeUnit.MINUTES));
+            Future<BigDecimal> reader = executor.submit(() -> service.getUserBalance(userId));
+            assertEquals(FORMATTED_TEN, reader.get(5L, TimeUnit.SECONDS));
+            released.countDown();
+            writer.get(1L, TimeUnit.MINUTES);
+        } finally {
+            released.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+        }
+    }
+}
@@ -1,16 +1,29 @@
 package dev.akuniutka.bank.api.service;
 
+import dev.akuniutka.bank.api.cache.BalanceCache;
 import dev.akuniutka.bank.api.entity.Account;
 import dev.akuniutka.bank.api.exception.WrongAmountException;
 import dev.akuniutka.bank.api.exception.NullUserIdException;
 import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.ledger.EventSourcedLedger;
+import dev.akuniutka.bank.api.ledger.LedgerBalance;
+import dev.akuniutka.bank.api.ledger.WriteBehindLedger;
 import dev.akuniutka.bank.api.repository.AccountRepository;
+import dev.akuniutka.bank.api.util.Money;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
+import org.springframework.util.unit.DataSize;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,19 +34,73 @@ class AccountServiceTest {
     private static final Long USER_ID = 1L;
     private Account account;
     private AccountRepository repository;
+    private BalanceCache balanceCache;
+    private WriteBehindLedger ledger;
+    private EventSourcedLedger eventLedger;
+    private AccountSlotService slotService;
     private AccountService service;
+    private AccountService atomicService;
+    private AccountService writeBehindService;
+    private AccountService eventSourcedService;
+    private AccountService stripedService;
 
     @BeforeEach
     public void setUp() {
         account = mock(Account.class);
         repository = mock(AccountRepository.class);
-        service = new AccountService(repository);
+        balanceCache = mock(BalanceCache.class);
+        ledger = mock(WriteBehindLedger.class);
+        when(ledger.isEnabled()).thenReturn(false);
+        WriteBehindLedger disabledLedger = new WriteBehindLedger(null, null, null, null, null, null, null, false,
+                "ledger.journal", 1000, Duration.ofSeconds(5L), DataSize.ofMegabytes(64L));
+        EventSourcedLedger disabledEventLedger = new EventSourcedLedger(null, null, false, 100,
+                Duration.ofSeconds(60L));
+        eventLedger = mock(EventSourcedLedger.class);
+        when(eventLedger.isEnabled()).thenReturn(true);
+        AccountSlotService noStriping = new AccountSlotService(null, null, null, "");
+        slotService = mock(AccountSlotService.class);
+        when(slotService.isEnabled()).thenReturn(true);
+        when(slotService.isStriped(USER_ID)).thenReturn(true);
+        service = new AccountService(repository, balanceCache, disabledLedger, disabledEventLedger, noStriping,
+                false);
+        atomicService = new AccountService(repository, balanceCache, disabledLedger, disabledEventLedger,
+                noStriping, true);
+        writeBehindService = new AccountService(repository, balanceCache, ledger, disabledEventLedger, noStriping,
+                false);
+        eventSourcedService = new AccountService(repository, balanceCache, disabledLedger, eventLedger, noStriping,
+                false);
+        stripedService = new AccountService(repository, balanceCache, disabledLedger, disabledEventLedger,
+                slotService, false);
     }
 
     @AfterEach
     public void tearDown() {
         verifyNoMoreInteractions(ignoreStubs(account));
         verifyNoMoreInteractions(ignoreStubs(repository));
+        verifyNoMoreInteractions(ignoreStubs(balanceCache));
+        verifyNoMoreInteractions(ignoreStubs(ledger));
+        verifyNoMoreInteractions(ignoreStubs(eventLedger));
+        verifyNoMoreInteractions(ignoreStubs(slotService));
+    }
+
+    @Test
+    void testAccountServiceWhenBothLedgersAreEnabled() {
+        when(ledger.isEnabled()).thenReturn(true);
+        Exception e = assertThrows(IllegalStateException.class,
+                () -> new AccountService(repository, balanceCache, ledger, eventLedger, slotService, false)
+        );
+        assertEquals(LEDGER_MODES_CONFLICT, e.getMessage());
+    }
+
+    @Test
+    void testAccountServiceWhenStripingIsUsedWithLedger() {
+        when(ledger.isEnabled()).thenReturn(true);
+        EventSourcedLedger disabledEventLedger = new EventSourcedLedger(null, null, false, 100,
+                Duration.ofSeconds(60L));
+        Exception e = assertThrows(IllegalStateException.class,
+                () -> new AccountService(repository, balanceCache, ledger, disabledEventLedger, slotService, false)
+        );
+        assertEquals(STRIPING_WITH_LEDGER, e.getMessage());
     }
 
     @Test
@@ -57,6 +124,70 @@ class AccountServiceTest {
         verify(repository).findById(USER_ID);
     }
 
+    @Test
+    void testReadAccountWhenUserIdIsNull() {
+        Exception e = assertThrows(NullUserIdException.class, () -> service.readAccount(null));
+        assertEquals(USER_ID_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testReadAccountWhenUserDoesNotExist() {
+        when(repository.readById(USER_ID)).thenReturn(Optional.empty());
+        Exception e = assertThrows(UserNotFoundException.class, () -> service.readAccount(USER_ID));
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(repository).readById(USER_ID);
+    }
+
+    @Test
+    void testReadAccountWhenUserExists() {
+        when(repository.readById(USER_ID)).thenReturn(Optional.of(account));
+        assertEquals(account, service.readAccount(USER_ID));
+        verify(repository).readById(USER_ID);
+    }
+
+    @Test
+    void testLockAccountsWhenUserIdsAreNull() {
+        service.lockAccounts(null, null);
+    }
+
+    @Test
+    void testLockAccountsLocksInAscendingOrder() {
+        Long receiverId = USER_ID + 1L;
+        when(repository.findAllByIdForUpdate(any())).thenAnswer(a -> {
+            assertIterableEquals(Arrays.asList(USER_ID, receiverId), (Iterable<?>) a.getArguments()[0]);
+            return Arrays.asList(account, account);
+        });
+        service.lockAccounts(receiverId, USER_ID);
+        verify(repository).findAllByIdForUpdate(new TreeSet<>(Arrays.asList(USER_ID, receiverId)));
+    }
+
+    @Test
+    void testLockAccountsWhenUserIdsAreTheSame() {
+        when(repository.findAllByIdForUpdate(any())).thenReturn(Arrays.asList(account));
+        service.lockAccounts(USER_ID, USER_ID);
+        verify(repository).findAllByIdForUpdate(new TreeSet<>(Arrays.asList(USER_ID)));
+    }
+
+    @Test
+    void testLockAccountsWhenOneUserIdIsNull() {
+        when(repository.findAllByIdForUpdate(any())).thenReturn(Arrays.asList(account));
+        service.lockAccounts(USER_ID, null);
+        verify(repository).findAllByIdForUpdate(new TreeSet<>(Arrays.asList(USER_ID)));
+    }
+
+    @Test
+    void testLockAccountsWhenCollectionIsEmpty() {
+        assertTrue(service.lockAccounts(new TreeSet<>()).isEmpty());
+    }
+
+    @Test
+    void testLockAccountsWhenCollectionIsNotEmpty() {
+        List<Account> accounts = Arrays.asList(account, account);
+        when(repository.findAllByIdForUpdate(any())).thenReturn(accounts);
+        assertEquals(accounts, service.lockAccounts(Arrays.asList(USER_ID + 1L, null, USER_ID)));
+        verify(repository).findAllByIdForUpdate(new TreeSet<>(Arrays.asList(USER_ID, USER_ID + 1L)));
+    }
+
     @Test
     void testGetUserBalanceWhenUserIdIsNull() {
         Exception e = assertThrows(NullUserIdException.class, () -> service.getUserBalance(null));
@@ -65,31 +196,54 @@ class AccountServiceTest {
 
     @Test
     void testGetUserBalanceWhenUserDoesNotExist() {
-        when(repository.findById(USER_ID)).thenReturn(Optional.empty());
+        whenBalanceCacheMisses();
+        when(repository.findBalanceById(USER_ID)).thenReturn(Optional.empty());
         Exception e = assertThrows(UserNotFoundException.class, () -> service.getUserBalance(USER_ID));
         assertEquals(USER_NOT_FOUND, e.getMessage());
-        verify(repository).findById(USER_ID);
+        verify(repository).findBalanceById(USER_ID);
+        verify(balanceCache).get(eq(USER_ID), any());
     }
 
     @Test
     void testGetUserBalanceWhenUserExists() {
-        when(account.getBalance()).thenReturn(FORMATTED_TEN);
-        when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
+        whenBalanceCacheMisses();
+        when(repository.findBalanceById(USER_ID)).thenReturn(Optional.of(Money.of(FORMATTED_TEN)));
         assertEquals(FORMATTED_TEN, service.getUserBalance(USER_ID));
-        verify(repository).findById(USER_ID);
-        verify(account).getBalance();
+        verify(repository).findBalanceById(USER_ID);
+        verify(repository, never()).findById(any());
+        verify(balanceCache).get(eq(USER_ID), any());
+    }
+
+    @Test
+    void testGetUserBalanceWhenBalanceIsCached() {
+        when(balanceCache.get(eq(USER_ID), any())).thenReturn(FORMATTED_TEN);
+        assertEquals(FORMATTED_TEN, service.getUserBalance(USER_ID));
+        verify(balanceCache).get(eq(USER_ID), any());
+        verify(repository, never()).findBalanceById(any());
+    }
+
+    @Test
+    void testCacheBalances() {
+        Account another = mock(Account.class);
+        when(account.getId()).thenReturn(USER_ID);
+        when(account.getBalance()).thenReturn(MONEY_TEN);
+        when(another.getId()).thenReturn(USER_ID + 1L);
+        when(another.getBalance()).thenReturn(MONEY_ONE);
+        service.cacheBalances(Arrays.asList(account, another));
+        verify(balanceCache).putAfterCommit(USER_ID, FORMATTED_TEN);
+        verify(balanceCache).putAfterCommit(USER_ID + 1L, FORMATTED_ONE);
     }
 
     @Test
     void testIncreaseUserBalanceWhenUserIdIsNull() {
-        Exception e = assertThrows(NullUserIdException.class, () -> service.increaseUserBalance(null, TEN));
+        Exception e = assertThrows(NullUserIdException.class, () -> service.increaseUserBalance(null, MONEY_TEN));
         assertEquals(USER_ID_IS_NULL, e.getMessage());
     }
 
     @Test
     void testIncreaseUserBalanceWhenUserDoesNotExist() {
         when(repository.findById(USER_ID)).thenReturn(Optional.empty());
-        Exception e = assertThrows(UserNotFoundException.class, () -> service.increaseUserBalance(USER_ID, TEN));
+        Exception e = assertThrows(UserNotFoundException.class, () -> service.increaseUserBalance(USER_ID, MONEY_TEN));
         assertEquals(USER_NOT_FOUND, e.getMessage());
         verify(repository).findById(USER_ID);
     }
@@ -108,70 +262,53 @@ class AccountServiceTest {
 
     @Test
     void testIncreaseUserBalanceWhenAmountIsNegative() {
-        doThrow(new WrongAmountException(AMOUNT_IS_NEGATIVE)).when(account).increaseBalance(MINUS_TEN);
+        doThrow(new WrongAmountException(AMOUNT_IS_NEGATIVE)).when(account).increaseBalance(MONEY_MINUS_TEN);
         when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
-        Exception e = assertThrows(WrongAmountException.class, () -> service.increaseUserBalance(USER_ID, MINUS_TEN));
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> service.increaseUserBalance(USER_ID, MONEY_MINUS_TEN)
+        );
         assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
         verify(repository).findById(USER_ID);
-        verify(account).increaseBalance(MINUS_TEN);
+        verify(account).increaseBalance(MONEY_MINUS_TEN);
     }
 
     @Test
     void testIncreaseUserBalanceWhenAmountIsZero() {
-        doThrow(new WrongAmountException(AMOUNT_IS_ZERO)).when(account).increaseBalance(ZERO);
+        doThrow(new WrongAmountException(AMOUNT_IS_ZERO)).when(account).increaseBalance(MONEY_ZERO);
         when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
-        Exception e = assertThrows(WrongAmountException.class, () -> service.increaseUserBalance(USER_ID, ZERO));
+        Exception e = assertThrows(WrongAmountException.class, () -> service.increaseUserBalance(USER_ID, MONEY_ZERO));
         assertEquals(AMOUNT_IS_ZERO, e.getMessage());
         verify(repository).findById(USER_ID);
-        verify(account).increaseBalance(ZERO);
+        verify(account).increaseBalance(MONEY_ZERO);
     }
 
-    @Test
-    void testIncreaseUserBalanceWhenScaleIsGreaterThanTwoAndWithNonZeros() {
-        doThrow(new WrongAmountException(WRONG_MINOR_UNITS)).when(account).increaseBalance(ONE_THOUSANDTH);
-        when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
-        Exception e = assertThrows(WrongAmountException.class,
-                () -> service.increaseUserBalance(USER_ID, ONE_THOUSANDTH)
-        );
-        assertEquals(WRONG_MINOR_UNITS, e.getMessage());
-        verify(repository).findById(USER_ID);
-        verify(account).increaseBalance(ONE_THOUSANDTH);
-    }
 
     @Test
     void testIncreaseUserBalanceWhenAmountIsPositive() {
-        doNothing().when(account).increaseBalance(TEN);
+        doNothing().when(account).increaseBalance(MONEY_TEN);
         when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
         when(repository.save(account)).thenReturn(account);
-        assertEquals(account, service.increaseUserBalance(USER_ID, TEN));
-        InOrder inOrder = inOrder(account, repository);
+        when(account.getId()).thenReturn(USER_ID);
+        when(account.getBalance()).thenReturn(MONEY_TEN);
+        assertEquals(account, service.increaseUserBalance(USER_ID, MONEY_TEN));
+        InOrder inOrder = inOrder(account, repository, balanceCache);
         inOrder.verify(repository).findById(USER_ID);
-        inOrder.verify(account).increaseBalance(TEN);
+        inOrder.verify(account).increaseBalance(MONEY_TEN);
         inOrder.verify(repository).save(account);
+        inOrder.verify(balanceCache).putAfterCommit(USER_ID, FORMATTED_TEN);
     }
 
-    @Test
-    void testIncreaseUserBalanceWhenScaleIsGreaterThanTwoButWithZeros() {
-        doNothing().when(account).increaseBalance(TEN_THOUSANDTHS);
-        when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
-        when(repository.save(account)).thenReturn(account);
-        assertEquals(account, service.increaseUserBalance(USER_ID, TEN_THOUSANDTHS));
-        InOrder inOrder = inOrder(account, repository);
-        inOrder.verify(repository).findById(USER_ID);
-        inOrder.verify(account).increaseBalance(TEN_THOUSANDTHS);
-        inOrder.verify(repository).save(account);
-    }
 
     @Test
     void testDecreaseUserBalanceWhenUserIdIsNull() {
-        Exception e = assertThrows(NullUserIdException.class, () -> service.decreaseUserBalance(null, ONE));
+        Exception e = assertThrows(NullUserIdException.class, () -> service.decreaseUserBalance(null, MONEY_ONE));
         assertEquals(USER_ID_IS_NULL, e.getMessage());
     }
 
     @Test
     void testDecreaseUserBalanceWhenUserDoesNotExist() {
         when(repository.findById(USER_ID)).thenReturn(Optional.empty());
-        Exception e = assertThrows(UserNotFoundException.class, () -> service.decreaseUserBalance(USER_ID, ONE));
+        Exception e = assertThrows(UserNotFoundException.class, () -> service.decreaseUserBalance(USER_ID, MONEY_ONE));
         assertEquals(USER_NOT_FOUND, e.getMessage());
         verify(repository).findById(USER_ID);
     }
@@ -190,67 +327,526 @@ class AccountServiceTest {
 
     @Test
     void testDecreaseUserBalanceWhenAmountIsNegative() {
-        doThrow(new WrongAmountException(AMOUNT_IS_NEGATIVE)).when(account).decreaseBalance(MINUS_ONE);
+        doThrow(new WrongAmountException(AMOUNT_IS_NEGATIVE)).when(account).decreaseBalance(MONEY_MINUS_ONE);
         when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
-        Exception e = assertThrows(WrongAmountException.class, () -> service.decreaseUserBalance(USER_ID, MINUS_ONE));
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> service.decreaseUserBalance(USER_ID, MONEY_MINUS_ONE)
+        );
         assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
         verify(repository).findById(USER_ID);
-        verify(account).decreaseBalance(MINUS_ONE);
+        verify(account).decreaseBalance(MONEY_MINUS_ONE);
     }
 
     @Test
     void testDecreaseUserBalanceWhenAmountIsZero() {
-        doThrow(new WrongAmountException(AMOUNT_IS_ZERO)).when(account).decreaseBalance(ZERO);
+        doThrow(new WrongAmountException(AMOUNT_IS_ZERO)).when(account).decreaseBalance(MONEY_ZERO);
         when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
-        Exception e = assertThrows(WrongAmountException.class, () -> service.decreaseUserBalance(USER_ID, ZERO));
+        Exception e = assertThrows(WrongAmountException.class, () -> service.decreaseUserBalance(USER_ID, MONEY_ZERO));
         assertEquals(AMOUNT_IS_ZERO, e.getMessage());
         verify(repository).findById(USER_ID);
-        verify(account).decreaseBalance(ZERO);
+        verify(account).decreaseBalance(MONEY_ZERO);
     }
 
+
     @Test
-    void testDecreaseUserBalanceWhenScaleIsGreaterThanTwoAndWithNonZeros() {
-        doThrow(new WrongAmountException(WRONG_MINOR_UNITS)).when(account).decreaseBalance(ONE_THOUSANDTH);
+    void testDecreaseUserBalanceWhenBalanceIsInsufficient() {
+        doThrow(new WrongAmountException(INSUFFICIENT_BALANCE)).when(account).decreaseBalance(MONEY_ONE);
         when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
-        Exception e = assertThrows(WrongAmountException.class,
-                () -> service.decreaseUserBalance(USER_ID, ONE_THOUSANDTH)
-        );
-        assertEquals(WRONG_MINOR_UNITS, e.getMessage());
+        Exception e = assertThrows(WrongAmountException.class, () -> service.decreaseUserBalance(USER_ID, MONEY_ONE));
+        assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
         verify(repository).findById(USER_ID);
-        verify(account).decreaseBalance(ONE_THOUSANDTH);
+        verify(account).decreaseBalance(MONEY_ONE);
     }
 
     @Test
-    void testDecreaseUserBalanceWhenBalanceIsInsufficient() {
-        doThrow(new WrongAmountException(INSUFFICIENT_BALANCE)).when(account).decreaseBalance(ONE);
+    void testDecreaseUserBalanceWhenBalanceIsSufficient() {
+        doNothing().when(account).decreaseBalance(MONEY_ONE);
         when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
-        Exception e = assertThrows(WrongAmountException.class, () -> service.decreaseUserBalance(USER_ID, ONE));
+        when(repository.save(account)).thenReturn(account);
+        when(account.getId()).thenReturn(USER_ID);
+        when(account.getBalance()).thenReturn(MONEY_TEN);
+        assertEquals(account, service.decreaseUserBalance(USER_ID, MONEY_ONE));
+        InOrder inOrder = inOrder(account, repository, balanceCache);
+        inOrder.verify(repository).findById(USER_ID);
+        inOrder.verify(account).decreaseBalance(MONEY_ONE);
+        inOrder.verify(repository).save(account);
+        inOrder.verify(balanceCache).putAfterCommit(USER_ID, FORMATTED_TEN);
+    }
+
+
+    @Test
+    void testIncreaseUserBalanceAtomicallyWhenUserIdIsNull() {
+        Exception e = assertThrows(NullUserIdException.class, () -> atomicService.increaseUserBalance(null, MONEY_TEN));
+        assertEquals(USER_ID_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testIncreaseUserBalanceAtomicallyWhenUserDoesNotExist() {
+        when(repository.addToBalance(USER_ID, FORMATTED_TEN)).thenReturn(Optional.empty());
+        when(repository.existsById(USER_ID)).thenReturn(false);
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> atomicService.increaseUserBalance(USER_ID, MONEY_TEN)
+        );
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(repository).addToBalance(USER_ID, FORMATTED_TEN);
+        verify(repository).existsById(USER_ID);
+    }
+
+    @Test
+    void testIncreaseUserBalanceAtomicallyWhenAmountIsNegativeAndUserDoesNotExist() {
+        when(repository.existsById(USER_ID)).thenReturn(false);
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> atomicService.increaseUserBalance(USER_ID, MONEY_MINUS_TEN)
+        );
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(repository).existsById(USER_ID);
+    }
+
+    @Test
+    void testIncreaseUserBalanceAtomicallyWhenAmountIsNegative() {
+        when(repository.existsById(USER_ID)).thenReturn(true);
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> atomicService.increaseUserBalance(USER_ID, MONEY_MINUS_TEN)
+        );
+        assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
+        verify(repository).existsById(USER_ID);
+    }
+
+
+    @Test
+    void testIncreaseUserBalanceAtomicallyWhenAmountIsPositive() {
+        when(repository.addToBalance(USER_ID, FORMATTED_TEN)).thenReturn(Optional.of(FORMATTED_TEN));
+        Account storedAccount = atomicService.increaseUserBalance(USER_ID, MONEY_TEN);
+        assertEquals(USER_ID, storedAccount.getId());
+        assertEquals(MONEY_TEN, storedAccount.getBalance());
+        verify(balanceCache).putAfterCommit(USER_ID, FORMATTED_TEN);
+        verify(repository).addToBalance(USER_ID, FORMATTED_TEN);
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testDecreaseUserBalanceAtomicallyWhenUserIdIsNull() {
+        Exception e = assertThrows(NullUserIdException.class, () -> atomicService.decreaseUserBalance(null, MONEY_ONE));
+        assertEquals(USER_ID_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testDecreaseUserBalanceAtomicallyWhenUserDoesNotExist() {
+        when(repository.addToBalance(USER_ID, FORMATTED_ONE.negate())).thenReturn(Optional.empty());
+        when(repository.existsById(USER_ID)).thenReturn(false);
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> atomicService.decreaseUserBalance(USER_ID, MONEY_ONE)
+        );
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(repository).addToBalance(USER_ID, FORMATTED_ONE.negate());
+        verify(repository).existsById(USER_ID);
+    }
+
+    @Test
+    void testDecreaseUserBalanceAtomicallyWhenAmountIsNull() {
+        when(repository.existsById(USER_ID)).thenReturn(true);
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> atomicService.decreaseUserBalance(USER_ID, null)
+        );
+        assertEquals(AMOUNT_IS_NULL, e.getMessage());
+        verify(repository).existsById(USER_ID);
+    }
+
+    @Test
+    void testDecreaseUserBalanceAtomicallyWhenAmountIsZero() {
+        when(repository.existsById(USER_ID)).thenReturn(true);
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> atomicService.decreaseUserBalance(USER_ID, MONEY_ZERO)
+        );
+        assertEquals(AMOUNT_IS_ZERO, e.getMessage());
+        verify(repository).existsById(USER_ID);
+    }
+
+    @Test
+    void testDecreaseUserBalanceAtomicallyWhenBalanceIsInsufficient() {
+        when(repository.addToBalance(USER_ID, FORMATTED_TEN.negate())).thenReturn(Optional.empty());
+        when(repository.existsById(USER_ID)).thenReturn(true);
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> atomicService.decreaseUserBalance(USER_ID, MONEY_TEN)
+        );
         assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
-        verify(repository).findById(USER_ID);
-        verify(account).decreaseBalance(ONE);
+        verify(repository).addToBalance(USER_ID, FORMATTED_TEN.negate());
+        verify(repository).existsById(USER_ID);
     }
 
     @Test
-    void testDecreaseUserBalanceWhenBalanceIsSufficient() {
-        doNothing().when(account).decreaseBalance(ONE);
+    void testDecreaseUserBalanceAtomicallyWhenBalanceIsSufficient() {
+        when(repository.addToBalance(USER_ID, FORMATTED_ONE.negate())).thenReturn(Optional.of(FORMATTED_NINE));
+        Account storedAccount = atomicService.decreaseUserBalance(USER_ID, MONEY_ONE);
+        assertEquals(USER_ID, storedAccount.getId());
+        assertEquals(MONEY_NINE, storedAccount.getBalance());
+        verify(balanceCache).putAfterCommit(USER_ID, FORMATTED_NINE);
+        verify(repository).addToBalance(USER_ID, FORMATTED_ONE.negate());
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testLockAccountsInWriteBehindMode() {
+        List<Account> accounts = Arrays.asList(account, account);
+        when(repository.findAllByIdForUpdate(any())).thenReturn(accounts);
+        assertEquals(accounts, writeBehindService.lockAccounts(Arrays.asList(USER_ID + 1L, USER_ID)));
+        InOrder inOrder = inOrder(ledger, repository);
+        inOrder.verify(ledger).flush(new TreeSet<>(Arrays.asList(USER_ID, USER_ID + 1L)));
+        inOrder.verify(repository).findAllByIdForUpdate(new TreeSet<>(Arrays.asList(USER_ID, USER_ID + 1L)));
+    }
+
+    @Test
+    void testGetUserBalanceInWriteBehindModeWhenBalanceIsInLedger() {
+        when(ledger.getBalance(USER_ID)).thenReturn(FORMATTED_TEN);
+        assertEquals(FORMATTED_TEN, writeBehindService.getUserBalance(USER_ID));
+        verify(ledger).getBalance(USER_ID);
+        verify(balanceCache, never()).get(any(), any());
+    }
+
+    @Test
+    void testGetUserBalanceInWriteBehindModeWhenBalanceIsNotInLedger() {
+        when(ledger.isEnabled()).thenReturn(true);
+        when(repository.findBalanceById(USER_ID)).thenReturn(Optional.of(MONEY_TEN));
+        assertEquals(FORMATTED_TEN, writeBehindService.getUserBalance(USER_ID));
+        verify(ledger).getBalance(USER_ID);
+        verify(repository).findBalanceById(USER_ID);
+        verify(balanceCache, never()).get(any(), any());
+    }
+
+    @Test
+    void testIncreaseUserBalanceInWriteBehindMode() {
         when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
         when(repository.save(account)).thenReturn(account);
-        assertEquals(account, service.decreaseUserBalance(USER_ID, ONE));
-        InOrder inOrder = inOrder(account, repository);
+        when(account.getId()).thenReturn(USER_ID);
+        when(account.getBalance()).thenReturn(MONEY_TEN);
+        assertEquals(account, writeBehindService.increaseUserBalance(USER_ID, MONEY_TEN));
+        InOrder inOrder = inOrder(account, repository, ledger, balanceCache);
+        inOrder.verify(ledger).track(USER_ID);
         inOrder.verify(repository).findById(USER_ID);
-        inOrder.verify(account).decreaseBalance(ONE);
+        inOrder.verify(account).increaseBalance(MONEY_TEN);
         inOrder.verify(repository).save(account);
+        inOrder.verify(ledger).creditAfterCommit(USER_ID, MONEY_TEN);
+        inOrder.verify(balanceCache).putAfterCommit(USER_ID, FORMATTED_TEN);
     }
 
     @Test
-    void testDecreaseUserBalanceWhenScaleIsGreaterThanTwoButWithZeros() {
-        doNothing().when(account).decreaseBalance(TEN_THOUSANDTHS);
+    void testDecreaseUserBalanceInWriteBehindMode() {
         when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
         when(repository.save(account)).thenReturn(account);
-        assertEquals(account, service.decreaseUserBalance(USER_ID, TEN_THOUSANDTHS));
-        InOrder inOrder = inOrder(account, repository);
+        when(account.getId()).thenReturn(USER_ID);
+        when(account.getBalance()).thenReturn(MONEY_NINE);
+        assertEquals(account, writeBehindService.decreaseUserBalance(USER_ID, MONEY_ONE));
+        InOrder inOrder = inOrder(account, repository, ledger, balanceCache);
+        inOrder.verify(ledger).track(USER_ID);
         inOrder.verify(repository).findById(USER_ID);
-        inOrder.verify(account).decreaseBalance(TEN_THOUSANDTHS);
+        inOrder.verify(account).decreaseBalance(MONEY_ONE);
         inOrder.verify(repository).save(account);
+        inOrder.verify(ledger).debit(USER_ID, MONEY_ONE);
+        inOrder.verify(balanceCache).putAfterCommit(USER_ID, FORMATTED_NINE);
+    }
+
+    @Test
+    void testDecreaseUserBalanceInWriteBehindModeWhenLedgerBalanceIsInsufficient() {
+        when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
+        when(repository.save(account)).thenReturn(account);
+        when(account.getId()).thenReturn(USER_ID);
+        doThrow(new WrongAmountException(INSUFFICIENT_BALANCE)).when(ledger).debit(USER_ID, MONEY_ONE);
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> writeBehindService.decreaseUserBalance(USER_ID, MONEY_ONE)
+        );
+        assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
+        verify(ledger).track(USER_ID);
+        verify(repository).findById(USER_ID);
+        verify(account).decreaseBalance(MONEY_ONE);
+        verify(repository).save(account);
+        verify(ledger).debit(USER_ID, MONEY_ONE);
+        verify(balanceCache, never()).putAfterCommit(any(), any());
+    }
+
+    @Test
+    void testRecordTransfer() {
+        writeBehindService.recordTransfer(USER_ID, USER_ID + 1L, MONEY_TEN);
+        verify(ledger).debit(USER_ID, MONEY_TEN);
+        verify(ledger).creditAfterCommit(USER_ID + 1L, MONEY_TEN);
+    }
+
+    @Test
+    void testRecordTransferInEventSourcedMode() {
+        eventSourcedService.recordTransfer(USER_ID, USER_ID + 1L, MONEY_TEN);
+        verify(eventLedger).recordAppended(USER_ID);
+        verify(eventLedger).recordAppended(USER_ID + 1L);
+    }
+
+    @Test
+    void testLockAccountsInEventSourcedMode() {
+        when(eventLedger.lock(any())).thenReturn(Arrays.asList(
+                new LedgerBalance(USER_ID, Money.of(TEN), 5L, 0L),
+                new LedgerBalance(USER_ID + 1L, Money.of(ONE), 7L, 0L)
+        ));
+        List<Account> accounts = eventSourcedService.lockAccounts(Arrays.asList(USER_ID + 1L, null, USER_ID));
+        assertEquals(2, accounts.size());
+        assertEquals(USER_ID, accounts.get(0).getId());
+        assertEquals(MONEY_TEN, accounts.get(0).getBalance());
+        assertEquals(USER_ID + 1L, accounts.get(1).getId());
+        assertEquals(MONEY_ONE, accounts.get(1).getBalance());
+        verify(eventLedger).lock(new TreeSet<>(Arrays.asList(USER_ID, USER_ID + 1L)));
+    }
+
+    @Test
+    void testGetUserBalanceInEventSourcedMode() {
+        when(eventLedger.getBalance(USER_ID)).thenReturn(Optional.of(Money.of(TEN)));
+        assertEquals(FORMATTED_TEN, eventSourcedService.getUserBalance(USER_ID));
+        verify(eventLedger).getBalance(USER_ID);
+    }
+
+    @Test
+    void testGetUserBalanceInEventSourcedModeWhenUserDoesNotExist() {
+        when(eventLedger.getBalance(USER_ID)).thenReturn(Optional.empty());
+        Exception e = assertThrows(UserNotFoundException.class, () -> eventSourcedService.getUserBalance(USER_ID));
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(eventLedger).getBalance(USER_ID);
+    }
+
+    @Test
+    void testIncreaseUserBalanceInEventSourcedMode() {
+        when(repository.readById(USER_ID)).thenReturn(Optional.of(account));
+        assertSame(account, eventSourcedService.increaseUserBalance(USER_ID, MONEY_TEN));
+        InOrder inOrder = inOrder(repository, eventLedger);
+        inOrder.verify(repository).readById(USER_ID);
+        inOrder.verify(eventLedger).lockShared(USER_ID);
+        inOrder.verify(eventLedger).recordAppended(USER_ID);
+    }
+
+    @Test
+    void testIncreaseUserBalanceInEventSourcedModeWhenUserDoesNotExist() {
+        when(repository.readById(USER_ID)).thenReturn(Optional.empty());
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> eventSourcedService.increaseUserBalance(USER_ID, MONEY_TEN)
+        );
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(repository).readById(USER_ID);
+    }
+
+    @Test
+    void testIncreaseUserBalanceInEventSourcedModeWhenAmountIsNegative() {
+        when(repository.readById(USER_ID)).thenReturn(Optional.of(account));
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> eventSourcedService.increaseUserBalance(USER_ID, MONEY_MINUS_TEN)
+        );
+        assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
+        verify(repository).readById(USER_ID);
+    }
+
+    @Test
+    void testDecreaseUserBalanceInEventSourcedMode() {
+        when(eventLedger.lock(Collections.singleton(USER_ID)))
+                .thenReturn(Collections.singletonList(new LedgerBalance(USER_ID, Money.of(TEN), 5L, 0L)));
+        Account result = eventSourcedService.decreaseUserBalance(USER_ID, MONEY_ONE);
+        assertEquals(USER_ID, result.getId());
+        assertEquals(MONEY_NINE, result.getBalance());
+        InOrder inOrder = inOrder(eventLedger);
+        inOrder.verify(eventLedger).lock(Collections.singleton(USER_ID));
+        inOrder.verify(eventLedger).recordAppended(USER_ID);
+    }
+
+    @Test
+    void testDecreaseUserBalanceInEventSourcedModeWhenUserIdIsNull() {
+        Exception e = assertThrows(NullUserIdException.class,
+                () -> eventSourcedService.decreaseUserBalance(null, MONEY_ONE)
+        );
+        assertEquals(USER_ID_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testDecreaseUserBalanceInEventSourcedModeWhenUserDoesNotExist() {
+        when(eventLedger.lock(Collections.singleton(USER_ID))).thenReturn(Collections.emptyList());
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> eventSourcedService.decreaseUserBalance(USER_ID, MONEY_ONE)
+        );
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(eventLedger).lock(Collections.singleton(USER_ID));
+    }
+
+    @Test
+    void testDecreaseUserBalanceInEventSourcedModeWhenBalanceIsInsufficient() {
+        when(eventLedger.lock(Collections.singleton(USER_ID)))
+                .thenReturn(Collections.singletonList(new LedgerBalance(USER_ID, Money.of(ONE), 5L, 0L)));
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> eventSourcedService.decreaseUserBalance(USER_ID, MONEY_TEN)
+        );
+        assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
+        verify(eventLedger).lock(Collections.singleton(USER_ID));
+    }
+
+    @Test
+    void testLockAccountsWhenPayeeIsStriped() {
+        Long payerId = USER_ID + 1L;
+        stripedService.lockAccounts(payerId, USER_ID);
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).findByIdForShare(USER_ID);
+        inOrder.verify(repository).findAllByIdForUpdate(new TreeSet<>(Collections.singleton(payerId)));
+    }
+
+    @Test
+    void testLockAccountsWhenPayeeIsStripedAndHasGreaterId() {
+        Long payeeId = USER_ID + 1L;
+        when(slotService.isStriped(payeeId)).thenReturn(true);
+        stripedService.lockAccounts(USER_ID, payeeId);
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).findAllByIdForUpdate(new TreeSet<>(Collections.singleton(USER_ID)));
+        inOrder.verify(repository).findByIdForShare(payeeId);
+    }
+
+    @Test
+    void testLockAccountsWhenPayerIsStriped() {
+        Long payeeId = USER_ID + 1L;
+        Account payer = new Account(USER_ID, ONE);
+        Account payee = new Account(payeeId, ONE);
+        when(repository.findAllByIdForUpdate(any())).thenReturn(Arrays.asList(payer, payee));
+        when(slotService.isStriped(payeeId)).thenReturn(false);
+        assertEquals(Arrays.asList(payer, payee), stripedService.lockAccounts(Arrays.asList(USER_ID, payeeId)));
+        assertEquals(MONEY_ONE, payer.getBalance());
+        verify(repository).findAllByIdForUpdate(new TreeSet<>(Arrays.asList(USER_ID, payeeId)));
+        verify(slotService, never()).drain(any());
+    }
+
+    @Test
+    void testDecreaseLockedBalanceWhenAccountIsStriped() {
+        Account striped = new Account(USER_ID, TEN);
+        stripedService.decreaseLockedBalance(striped, MONEY_ONE);
+        assertEquals(MONEY_NINE, striped.getBalance());
+        verify(slotService, never()).drain(any());
+    }
+
+    @Test
+    void testDecreaseLockedBalanceWhenAccountIsStripedAndSlotsAreNeeded() {
+        Account striped = new Account(USER_ID, ONE);
+        when(slotService.drain(USER_ID)).thenReturn(FORMATTED_TEN);
+        stripedService.decreaseLockedBalance(striped, MONEY_TEN);
+        assertEquals(MONEY_ONE, striped.getBalance());
+        verify(slotService).drain(USER_ID);
+    }
+
+    @Test
+    void testDecreaseLockedBalanceWhenAccountIsStripedAndBalanceIsInsufficient() {
+        Account striped = new Account(USER_ID, ONE);
+        when(slotService.drain(USER_ID)).thenReturn(FORMATTED_ZERO);
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> stripedService.decreaseLockedBalance(striped, MONEY_TEN)
+        );
+        assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
+        assertEquals(MONEY_ONE, striped.getBalance());
+        verify(slotService).drain(USER_ID);
+    }
+
+    @Test
+    void testDecreaseLockedBalanceWhenAccountIsNotStriped() {
+        Account notStriped = new Account(USER_ID + 1L, ONE);
+        when(slotService.isStriped(USER_ID + 1L)).thenReturn(false);
+        assertThrows(WrongAmountException.class, () -> stripedService.decreaseLockedBalance(notStriped, MONEY_TEN));
+        assertEquals(MONEY_ONE, notStriped.getBalance());
+        verify(slotService, never()).drain(any());
+    }
+
+    @Test
+    void testGetUserBalanceWhenAccountIsStriped() {
+        when(slotService.getTotalBalance(USER_ID)).thenReturn(Optional.of(FORMATTED_TEN));
+        assertEquals(FORMATTED_TEN, stripedService.getUserBalance(USER_ID));
+        verify(slotService).getTotalBalance(USER_ID);
+    }
+
+    @Test
+    void testGetUserBalanceWhenAccountIsStripedAndUserDoesNotExist() {
+        when(slotService.getTotalBalance(USER_ID)).thenReturn(Optional.empty());
+        Exception e = assertThrows(UserNotFoundException.class, () -> stripedService.getUserBalance(USER_ID));
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(slotService).getTotalBalance(USER_ID);
+    }
+
+    @Test
+    void testIncreaseUserBalanceWhenAccountIsStriped() {
+        when(repository.findByIdForShare(USER_ID)).thenReturn(Optional.of(account));
+        assertSame(account, stripedService.increaseUserBalance(USER_ID, MONEY_TEN));
+        InOrder inOrder = inOrder(repository, slotService);
+        inOrder.verify(repository).findByIdForShare(USER_ID);
+        inOrder.verify(slotService).credit(USER_ID, FORMATTED_TEN);
+    }
+
+    @Test
+    void testIncreaseUserBalanceWhenAccountIsStripedAndUserDoesNotExist() {
+        when(repository.findByIdForShare(USER_ID)).thenReturn(Optional.empty());
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> stripedService.increaseUserBalance(USER_ID, MONEY_TEN)
+        );
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(repository).findByIdForShare(USER_ID);
+    }
+
+    @Test
+    void testIncreaseUserBalanceWhenAccountIsStripedAndAmountIsNegative() {
+        when(repository.findByIdForShare(USER_ID)).thenReturn(Optional.of(account));
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> stripedService.increaseUserBalance(USER_ID, MONEY_MINUS_TEN)
+        );
+        assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
+        verify(repository).findByIdForShare(USER_ID);
+    }
+
+    @Test
+    void testDecreaseUserBalanceWhenAccountIsStriped() {
+        Account striped = new Account(USER_ID, TEN);
+        when(repository.findById(USER_ID)).thenReturn(Optional.of(striped));
+        when(repository.save(striped)).thenReturn(striped);
+        assertSame(striped, stripedService.decreaseUserBalance(USER_ID, MONEY_ONE));
+        assertEquals(MONEY_NINE, striped.getBalance());
+        verify(repository).findById(USER_ID);
+        verify(repository).save(striped);
+        verify(slotService, never()).drain(any());
+    }
+
+    @Test
+    void testDecreaseUserBalanceWhenAccountIsStripedAndSlotsAreNeeded() {
+        Account striped = new Account(USER_ID, ONE);
+        when(repository.findById(USER_ID)).thenReturn(Optional.of(striped));
+        when(repository.save(striped)).thenReturn(striped);
+        when(slotService.drain(USER_ID)).thenReturn(FORMATTED_TEN);
+        assertSame(striped, stripedService.decreaseUserBalance(USER_ID, MONEY_TEN));
+        assertEquals(MONEY_ONE, striped.getBalance());
+        InOrder inOrder = inOrder(repository, slotService);
+        inOrder.verify(repository).findById(USER_ID);
+        inOrder.verify(slotService).drain(USER_ID);
+        inOrder.verify(repository).save(striped);
+    }
+
+    @Test
+    void testDecreaseUserBalanceWhenAccountIsStripedAndBalanceIsInsufficient() {
+        Account striped = new Account(USER_ID, ONE);
+        when(repository.findById(USER_ID)).thenReturn(Optional.of(striped));
+        when(slotService.drain(USER_ID)).thenReturn(FORMATTED_ZERO);
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> stripedService.decreaseUserBalance(USER_ID, MONEY_TEN)
+        );
+        assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
+        verify(repository).findById(USER_ID);
+        verify(slotService).drain(USER_ID);
+    }
+
+    @Test
+    void testDecreaseUserBalanceWhenAccountIsStripedAndAmountIsNull() {
+        when(repository.findById(USER_ID)).thenReturn(Optional.of(account));
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> stripedService.decreaseUserBalance(USER_ID, null)
+        );
+        assertEquals(AMOUNT_IS_NULL, e.getMessage());
+        verify(repository).findById(USER_ID);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void whenBalanceCacheMisses() {
+        when(balanceCache.get(eq(USER_ID), any())).thenAnswer(invocation ->
+                ((Function<Long, BigDecimal>) invocation.getArgument(1)).apply(invocation.getArgument(0))
+        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.repository.AccountRepository;
+import dev.akuniutka.bank.api.repository.AccountSlotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class AccountSlotServiceTest {
+    private static final Long USER_ID = 1L;
+    private static final Long RECEIVER_ID = 2L;
+    private AccountRepository accountRepository;
+    private AccountSlotRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private AccountSlotService service;
+
+    @BeforeEach
+    public void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        repository = mock(AccountSlotRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        service = new AccountSlotService(accountRepository, repository, transactionManager, USER_ID + ":4");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(accountRepository));
+        verifyNoMoreInteractions(ignoreStubs(repository));
+    }
+
+    @Test
+    void testParseSlots() {
+        Map<Long, Integer> expected = new HashMap<>();
+        expected.put(1001L, 16);
+        expected.put(1002L, 4);
+        assertEquals(expected, AccountSlotService.parseSlots(" 1001 : 16, 1002:4 "));
+    }
+
+    @Test
+    void testParseSlotsWhenValueIsEmpty() {
+        assertTrue(AccountSlotService.parseSlots(null).isEmpty());
+        assertTrue(AccountSlotService.parseSlots(" ").isEmpty());
+    }
+
+    @Test
+    void testParseSlotsWhenValueIsWrong() {
+        for (String value : Arrays.asList("1001", "1001:", "1001:16:2", "a:16", "1001:b", "1001:0", "1001:-1")) {
+            Exception e = assertThrows(IllegalArgumentException.class, () -> AccountSlotService.parseSlots(value));
+            assertEquals(WRONG_ACCOUNT_SLOTS, e.getMessage());
+        }
+    }
+
+    @Test
+    void testIsEnabled() {
+        assertTrue(service.isEnabled());
+        assertFalse(new AccountSlotService(accountRepository, repository, transactionManager, "").isEnabled());
+    }
+
+    @Test
+    void testIsStriped() {
+        assertTrue(service.isStriped(USER_ID));
+        assertFalse(service.isStriped(RECEIVER_ID));
+        assertFalse(service.isStriped(null));
+    }
+
+    @Test
+    void testStart() {
+        when(repository.findStripedAccounts()).thenReturn(Arrays.asList(USER_ID, RECEIVER_ID));
+        when(repository.removeSlots(USER_ID, 4)).thenReturn(FORMATTED_ZERO);
+        when(repository.removeSlots(RECEIVER_ID, 0)).thenReturn(FORMATTED_TEN);
+        service.start();
+        InOrder inOrder = inOrder(accountRepository, repository, transactionManager);
+        inOrder.verify(repository).createSlots(USER_ID, 4);
+        inOrder.verify(repository).findStripedAccounts();
+        inOrder.verify(accountRepository).findById(USER_ID);
+        inOrder.verify(repository).removeSlots(USER_ID, 4);
+        inOrder.verify(accountRepository).findById(RECEIVER_ID);
+        inOrder.verify(repository).removeSlots(RECEIVER_ID, 0);
+        inOrder.verify(accountRepository).addToBalance(RECEIVER_ID, FORMATTED_TEN);
+        inOrder.verify(transactionManager).commit(any());
+        verify(accountRepository, never()).addToBalance(eq(USER_ID), any());
+    }
+
+    @Test
+    void testCredit() {
+        Set<Integer> slots = new HashSet<>();
+        when(repository.credit(eq(USER_ID), anyInt(), eq(FORMATTED_ONE))).thenAnswer(a -> {
+            slots.add(a.getArgument(1));
+            return true;
+        });
+        for (int i = 0; i < 100; i++) {
+            service.credit(USER_ID, FORMATTED_ONE);
+        }
+        assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3)), slots);
+        verify(repository, times(100)).credit(eq(USER_ID), anyInt(), eq(FORMATTED_ONE));
+    }
+
+    @Test
+    void testCreditWhenSlotDoesNotExist() {
+        when(repository.credit(eq(USER_ID), anyInt(), eq(FORMATTED_ONE))).thenReturn(false);
+        Exception e = assertThrows(IllegalStateException.class, () -> service.credit(USER_ID, FORMATTED_ONE));
+        assertEquals(ACCOUNT_SLOT_NOT_FOUND, e.getMessage());
+        verify(repository).credit(eq(USER_ID), anyInt(), eq(FORMATTED_ONE));
+    }
+
+    @Test
+    void testDrain() {
+        when(repository.drain(USER_ID)).thenReturn(FORMATTED_TEN);
+        assertEquals(FORMATTED_TEN, service.drain(USER_ID));
+        verify(repository).drain(USER_ID);
+    }
+
+    @Test
+    void testGetTotalBalance() {
+        when(repository.findTotalBalance(USER_ID)).thenReturn(Optional.of(FORMATTED_TEN));
+        assertEquals(Optional.of(FORMATTED_TEN), service.getTotalBalance(USER_ID));
+        verify(repository).findTotalBalance(USER_ID);
+    }
+}
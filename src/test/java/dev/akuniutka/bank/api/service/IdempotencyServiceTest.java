@@ -0,0 +1,199 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.cache.IdempotencyCache;
+import dev.akuniutka.bank.api.cache.StoredResponse;
+import dev.akuniutka.bank.api.dto.ResponseDto;
+import dev.akuniutka.bank.api.exception.BadRequestException;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.ledger.WriteBehindLedger;
+import dev.akuniutka.bank.api.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class IdempotencyServiceTest {
+    private static final String KEY = "key";
+    private static final String REQUEST = "putMoney:1:10";
+    private static final Duration TTL = Duration.ofHours(24L);
+    private IdempotencyKeyRepository repository;
+    private IdempotencyCache cache;
+    private PlatformTransactionManager transactionManager;
+    private WriteBehindLedger ledger;
+    private IdempotencyService service;
+    private ResponseDto response;
+    private AtomicInteger calls;
+    private Supplier<ResponseDto> action;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(IdempotencyKeyRepository.class);
+        cache = mock(IdempotencyCache.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        ledger = mock(WriteBehindLedger.class);
+        service = new IdempotencyService(repository, cache, transactionManager, ledger, true, TTL);
+        response = new ResponseDto(ONE);
+        calls = new AtomicInteger();
+        action = () -> {
+            calls.incrementAndGet();
+            return response;
+        };
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(repository));
+        verifyNoMoreInteractions(ignoreStubs(cache));
+    }
+
+    @Test
+    void testExecuteWhenWriteBehindLedgerIsEnabled() {
+        when(ledger.isEnabled()).thenReturn(true);
+        IdempotencyService writeBehind = new IdempotencyService(repository, cache, transactionManager, ledger, true,
+                TTL
+        );
+        Exception e = assertThrows(BadRequestException.class, () -> writeBehind.execute(KEY, REQUEST, action));
+        assertEquals(IDEMPOTENCY_WITH_WRITE_BEHIND, e.getMessage());
+        assertEquals(0, calls.get());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void testIdempotencyServiceWhenDisabledAndWriteBehindLedgerIsEnabled() {
+        when(ledger.isEnabled()).thenReturn(true);
+        IdempotencyService disabled = new IdempotencyService(repository, cache, transactionManager, ledger, false,
+                TTL
+        );
+        Exception e = assertThrows(BadRequestException.class, () -> disabled.execute(KEY, REQUEST, action));
+        assertEquals(IDEMPOTENCY_KEYS_NOT_SUPPORTED, e.getMessage());
+        disabled.purgeExpiredKeys();
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void testExecuteWhenKeyIsWrong() {
+        String longKey = String.join("", Collections.nCopies(IdempotencyService.MAX_KEY_LENGTH + 1, "k"));
+        for (String key : new String[]{null, "", longKey}) {
+            Exception e = assertThrows(BadRequestException.class, () -> service.execute(key, REQUEST, action));
+            assertEquals(WRONG_IDEMPOTENCY_KEY, e.getMessage());
+        }
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void testExecuteWhenKeyIsNew() {
+        when(repository.insert(KEY, REQUEST)).thenReturn(true);
+        assertSame(response, service.execute(KEY, REQUEST, action));
+        assertEquals(1, calls.get());
+        ArgumentCaptor<StoredResponse> captor = ArgumentCaptor.forClass(StoredResponse.class);
+        InOrder inOrder = inOrder(cache, repository, transactionManager);
+        inOrder.verify(cache).get(KEY);
+        inOrder.verify(repository).insert(KEY, REQUEST);
+        inOrder.verify(repository).saveResponse(KEY, response);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(cache).put(eq(KEY), captor.capture());
+        assertEquals(REQUEST, captor.getValue().getRequest());
+        assertSame(response, captor.getValue().getResponse());
+    }
+
+    @Test
+    void testExecuteWhenKeyIsCached() {
+        when(cache.get(KEY)).thenReturn(new StoredResponse(REQUEST, response));
+        assertSame(response, service.execute(KEY, REQUEST, action));
+        assertEquals(0, calls.get());
+        verify(cache).get(KEY);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void testExecuteWhenKeyIsCachedForAnotherRequest() {
+        when(cache.get(KEY)).thenReturn(new StoredResponse("takeMoney:1:10", response));
+        Exception e = assertThrows(BadRequestException.class, () -> service.execute(KEY, REQUEST, action));
+        assertEquals(IDEMPOTENCY_KEY_REUSED, e.getMessage());
+        assertEquals(0, calls.get());
+        verify(cache).get(KEY);
+    }
+
+    @Test
+    void testExecuteWhenKeyIsStored() {
+        StoredResponse stored = new StoredResponse(REQUEST, response);
+        when(repository.insert(KEY, REQUEST)).thenReturn(false);
+        when(repository.find(KEY)).thenReturn(Optional.of(stored));
+        assertSame(response, service.execute(KEY, REQUEST, action));
+        assertEquals(0, calls.get());
+        InOrder inOrder = inOrder(cache, repository);
+        inOrder.verify(cache).get(KEY);
+        inOrder.verify(repository).insert(KEY, REQUEST);
+        inOrder.verify(repository).find(KEY);
+        inOrder.verify(cache).put(KEY, stored);
+    }
+
+    @Test
+    void testExecuteWhenKeyIsStoredForAnotherRequest() {
+        StoredResponse stored = new StoredResponse("takeMoney:1:10", response);
+        when(repository.insert(KEY, REQUEST)).thenReturn(false);
+        when(repository.find(KEY)).thenReturn(Optional.of(stored));
+        Exception e = assertThrows(BadRequestException.class, () -> service.execute(KEY, REQUEST, action));
+        assertEquals(IDEMPOTENCY_KEY_REUSED, e.getMessage());
+        assertEquals(0, calls.get());
+        verify(cache).get(KEY);
+        verify(repository).insert(KEY, REQUEST);
+        verify(repository).find(KEY);
+        verify(cache).put(KEY, stored);
+    }
+
+    @Test
+    void testExecuteWhenKeyIsPurgedAfterInsert() {
+        when(repository.insert(KEY, REQUEST)).thenReturn(false, true);
+        when(repository.find(KEY)).thenReturn(Optional.empty());
+        assertSame(response, service.execute(KEY, REQUEST, action));
+        assertEquals(1, calls.get());
+        verify(cache, times(2)).get(KEY);
+        verify(repository, times(2)).insert(KEY, REQUEST);
+        verify(repository).find(KEY);
+        verify(repository).saveResponse(KEY, response);
+        verify(cache).put(eq(KEY), any());
+    }
+
+    @Test
+    void testExecuteWhenActionFails() {
+        WrongAmountException exception = new WrongAmountException(INSUFFICIENT_BALANCE);
+        when(repository.insert(KEY, REQUEST)).thenReturn(true);
+        Exception e = assertThrows(WrongAmountException.class, () -> service.execute(KEY, REQUEST, () -> {
+            throw exception;
+        }));
+        assertSame(exception, e);
+        verify(cache).get(KEY);
+        verify(repository).insert(KEY, REQUEST);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void testPurgeExpiredKeys() {
+        when(repository.deleteOlderThan(TTL)).thenReturn(3);
+        service.purgeExpiredKeys();
+        verify(repository).deleteOlderThan(TTL);
+    }
+
+    @Test
+    void testFingerprint() {
+        assertEquals("putMoney:1:10.00", IdempotencyService.fingerprint("putMoney", 1L, MONEY_TEN));
+        assertEquals("transferMoney:1:2:0.01", IdempotencyService.fingerprint("transferMoney", 1L, 2L,
+                MONEY_TEN_HUNDREDTHS));
+        assertEquals("takeMoney:null:null", IdempotencyService.fingerprint("takeMoney", null, null));
+    }
+}
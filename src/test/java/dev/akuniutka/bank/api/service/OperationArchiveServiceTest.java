@@ -0,0 +1,222 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.cache.OperationHistoryCache;
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.ledger.EventSourcedLedger;
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.repository.OperationArchiveRepository;
+import dev.akuniutka.bank.api.repository.OperationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class OperationArchiveServiceTest {
+    private static final Long USER_ID = 1L;
+    private static final OffsetDateTime FINISH = OffsetDateTime.now().minusDays(90L);
+    private static final Pageable PAGE = PageRequest.of(0, OperationArchiveService.SEGMENT_SIZE);
+    private Account account;
+    private OperationArchiveRepository repository;
+    private OperationRepository operationRepository;
+    private AccountService accountService;
+    private OperationHistoryCache historyCache;
+    private EventSourcedLedger eventLedger;
+    private PlatformTransactionManager transactionManager;
+    private EntityManager entityManager;
+    private OperationArchiveService service;
+
+    @BeforeEach
+    public void setUp() {
+        account = new Account(USER_ID, FORMATTED_TEN);
+        repository = mock(OperationArchiveRepository.class);
+        operationRepository = mock(OperationRepository.class);
+        accountService = mock(AccountService.class);
+        historyCache = mock(OperationHistoryCache.class);
+        eventLedger = mock(EventSourcedLedger.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        entityManager = mock(EntityManager.class);
+        service = new OperationArchiveService(repository, operationRepository, accountService, historyCache,
+                eventLedger, transactionManager, entityManager,
+                true, 90
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(repository));
+        verifyNoMoreInteractions(ignoreStubs(operationRepository));
+        verifyNoMoreInteractions(ignoreStubs(accountService));
+        verifyNoMoreInteractions(historyCache);
+        verifyNoMoreInteractions(eventLedger);
+        verifyNoMoreInteractions(entityManager);
+    }
+
+    @Test
+    void testArchiveOldOperationsWhenDisabled() {
+        service = new OperationArchiveService(repository, operationRepository, accountService, historyCache,
+                eventLedger, transactionManager, entityManager,
+                false, 90
+        );
+        service.archiveOldOperations();
+        verifyNoInteractions(repository, operationRepository, accountService, historyCache, eventLedger,
+                transactionManager, entityManager
+        );
+    }
+
+    @Test
+    void testArchiveOldOperationsWhenEnabled() {
+        when(repository.findAccountsWithOperationsBefore(any(OffsetDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        service.archiveOldOperations();
+        verify(repository).archiveTransfersBefore(any(OffsetDateTime.class));
+        verify(repository).findAccountsWithOperationsBefore(any(OffsetDateTime.class));
+    }
+
+    @Test
+    void testArchiveOperationsBefore() {
+        List<Operation> operations = operations(OperationArchiveService.SEGMENT_SIZE + 1);
+        List<Operation> firstPage = operations.subList(0, OperationArchiveService.SEGMENT_SIZE);
+        List<Operation> lastPage = operations.subList(OperationArchiveService.SEGMENT_SIZE, operations.size());
+        Operation last = firstPage.get(firstPage.size() - 1);
+        when(repository.findAccountsWithOperationsBefore(FINISH)).thenReturn(Arrays.asList(USER_ID, USER_ID + 1L));
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        Account emptyAccount = new Account(USER_ID + 1L, FORMATTED_ZERO);
+        when(accountService.readAccount(USER_ID + 1L)).thenReturn(emptyAccount);
+        when(operationRepository.findPageByAccountAndDateBefore(account, FINISH, PAGE)).thenReturn(firstPage);
+        when(operationRepository.findPageByAccountAfterAndDateBefore(account, last.getDate(), last.getId(), FINISH,
+                PAGE
+        )).thenReturn(lastPage);
+        when(operationRepository.findPageByAccountAndDateBefore(emptyAccount, FINISH, PAGE))
+                .thenReturn(Collections.emptyList());
+        assertEquals(operations.size(), service.archiveOperationsBefore(FINISH));
+        verify(repository).archiveTransfersBefore(FINISH);
+        verify(repository).findAccountsWithOperationsBefore(FINISH);
+        verify(accountService).readAccount(USER_ID);
+        verify(accountService).readAccount(USER_ID + 1L);
+        verify(eventLedger).snapshot(USER_ID);
+        verify(eventLedger).snapshot(USER_ID + 1L);
+        InOrder inOrder = inOrder(operationRepository, repository);
+        inOrder.verify(operationRepository).findPageByAccountAndDateBefore(account, FINISH, PAGE);
+        inOrder.verify(repository).saveSegment(account, firstPage);
+        inOrder.verify(repository).deleteOperations(firstPage);
+        inOrder.verify(operationRepository).findPageByAccountAfterAndDateBefore(account, last.getDate(),
+                last.getId(), FINISH, PAGE
+        );
+        inOrder.verify(repository).saveSegment(account, lastPage);
+        inOrder.verify(repository).deleteOperations(lastPage);
+        verify(operationRepository).findPageByAccountAndDateBefore(emptyAccount, FINISH, PAGE);
+        for (Operation operation : operations) {
+            verify(entityManager).detach(operation);
+        }
+        verify(historyCache).invalidateAfterCommit(USER_ID);
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void testGetArchivedOperationsWhenDateFromIsAfterHorizon() {
+        assertTrue(service.getArchivedOperations(account, OffsetDateTime.now(), null).isEmpty());
+    }
+
+    @Test
+    void testGetArchivedOperationsWhenDateFromIsNull() {
+        List<Operation> operations = operations(1);
+        when(repository.findByAccount(account, null, null)).thenReturn(operations);
+        assertSame(operations, service.getArchivedOperations(account, null, null));
+        verify(repository).findByAccount(account, null, null);
+    }
+
+    @Test
+    void testGetArchivedOperationsWhenDateFromIsBeforeHorizon() {
+        OffsetDateTime dateFrom = OffsetDateTime.now().minusYears(1L);
+        OffsetDateTime dateTo = OffsetDateTime.now();
+        List<Operation> operations = operations(1);
+        when(repository.findByAccount(account, dateFrom, dateTo)).thenReturn(operations);
+        assertSame(operations, service.getArchivedOperations(account, dateFrom, dateTo));
+        verify(repository).findByAccount(account, dateFrom, dateTo);
+    }
+
+    @Test
+    void testGetArchivedOperationsWhenDisabledAndArchiveIsEmpty() {
+        service = new OperationArchiveService(repository, operationRepository, accountService, historyCache,
+                eventLedger, transactionManager, entityManager,
+                false, 90
+        );
+        assertTrue(service.getArchivedOperations(account, null, null).isEmpty());
+        assertTrue(service.getArchivedOperations(account, null, null).isEmpty());
+        verify(repository).hasSegments();
+    }
+
+    @Test
+    void testGetArchivedOperationsWhenDisabledAndArchiveIsWritten() {
+        service = new OperationArchiveService(repository, operationRepository, accountService, historyCache,
+                eventLedger, transactionManager, entityManager,
+                false, 90
+        );
+        List<Operation> operations = operations(1);
+        when(repository.hasSegments()).thenReturn(true);
+        when(repository.findByAccount(account, null, null)).thenReturn(operations);
+        assertSame(operations, service.getArchivedOperations(account, null, null));
+        assertSame(operations, service.getArchivedOperations(account, null, null));
+        verify(repository).hasSegments();
+        verify(repository, times(2)).findByAccount(account, null, null);
+    }
+
+    @Test
+    void testGetArchivedOperationPageWhenDateFromIsAfterHorizon() {
+        assertTrue(service.getArchivedOperationPage(account, OffsetDateTime.now(), 1L, null, 10).isEmpty());
+    }
+
+    @Test
+    void testGetArchivedOperationPageWhenDateFromIsBeforeHorizon() {
+        OffsetDateTime dateFrom = OffsetDateTime.now().minusYears(1L);
+        List<Operation> operations = operations(1);
+        when(repository.findPageByAccount(account, dateFrom, 1L, null, 10)).thenReturn(operations);
+        assertSame(operations, service.getArchivedOperationPage(account, dateFrom, 1L, null, 10));
+        verify(repository).findPageByAccount(account, dateFrom, 1L, null, 10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportArchivedOperations() {
+        Consumer<Operation> consumer = mock(Consumer.class);
+        service.exportArchivedOperations(account, consumer);
+        verify(repository).forEachByAccount(account, consumer);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportArchivedOperationsWhenDisabledAndArchiveIsEmpty() {
+        service = new OperationArchiveService(repository, operationRepository, accountService, historyCache,
+                eventLedger, transactionManager, entityManager,
+                false, 90
+        );
+        service.exportArchivedOperations(account, mock(Consumer.class));
+        verify(repository).hasSegments();
+    }
+
+    private List<Operation> operations(int count) {
+        List<Operation> operations = new ArrayList<>(count);
+        OffsetDateTime date = FINISH.minusYears(1L);
+        for (long i = 0; i < count; i++) {
+            operations.add(new Operation(i, account, OperationType.DEPOSIT, TEN, date.plusSeconds(i)));
+        }
+        return operations;
+    }
+}
@@ -0,0 +1,185 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.exception.NullUserIdException;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.ledger.WriteBehindLedger;
+import dev.akuniutka.bank.api.repository.OperationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import javax.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class OperationExportServiceTest {
+    private static final Long USER_ID = 1L;
+    private static final Pageable PAGE = PageRequest.of(0, OperationExportService.PAGE_SIZE);
+    private Account account;
+    private AccountService accountService;
+    private OperationRepository repository;
+    private OperationArchiveService archiveService;
+    private WriteBehindLedger ledger;
+    private EntityManager entityManager;
+    private Consumer<Operation> consumer;
+    private OperationExportService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        account = mock(Account.class);
+        accountService = mock(AccountService.class);
+        repository = mock(OperationRepository.class);
+        archiveService = mock(OperationArchiveService.class);
+        ledger = mock(WriteBehindLedger.class);
+        entityManager = mock(EntityManager.class);
+        consumer = mock(Consumer.class);
+        service = new OperationExportService(repository, accountService, archiveService, ledger, entityManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(account));
+        verifyNoMoreInteractions(ignoreStubs(accountService));
+        verifyNoMoreInteractions(ignoreStubs(repository));
+        verifyNoMoreInteractions(ignoreStubs(archiveService));
+        verifyNoMoreInteractions(ignoreStubs(ledger));
+        verifyNoMoreInteractions(ignoreStubs(entityManager));
+        verifyNoMoreInteractions(ignoreStubs(consumer));
+    }
+
+    @Test
+    void testExportUserOperationsWhenUserIdIsNull() {
+        when(accountService.readAccount(null)).thenThrow(new NullUserIdException(USER_ID_IS_NULL));
+        Exception e = assertThrows(NullUserIdException.class, () -> service.exportUserOperations(null, consumer));
+        assertEquals(USER_ID_IS_NULL, e.getMessage());
+        verify(ledger).flush((Long) null);
+        verify(accountService).readAccount(null);
+    }
+
+    @Test
+    void testExportUserOperationsWhenUserDoesNotExist() {
+        when(accountService.readAccount(USER_ID)).thenThrow(new UserNotFoundException(USER_NOT_FOUND));
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> service.exportUserOperations(USER_ID, consumer)
+        );
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(ledger).flush(USER_ID);
+        verify(accountService).readAccount(USER_ID);
+    }
+
+    @Test
+    void testExportUserOperationsWhenUserExists() {
+        List<Operation> operations = new ArrayList<>();
+        operations.add(new Operation(account, OperationType.DEPOSIT, TEN, OffsetDateTime.now()));
+        operations.add(new Operation(account, OperationType.WITHDRAWAL, ONE, OffsetDateTime.now()));
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(repository.findPageByAccount(account, PAGE)).thenReturn(operations);
+        service.exportUserOperations(USER_ID, consumer);
+        InOrder inOrder = inOrder(ledger, accountService);
+        inOrder.verify(ledger).flush(USER_ID);
+        inOrder.verify(accountService).readAccount(USER_ID);
+        verify(archiveService).exportArchivedOperations(account, consumer);
+        verify(repository).findPageByAccount(account, PAGE);
+        for (Operation operation : operations) {
+            verify(consumer).accept(operation);
+            verify(entityManager).detach(operation);
+        }
+    }
+
+    @Test
+    void testExportUserOperationsWhenThereAreSeveralPages() {
+        OffsetDateTime date = OffsetDateTime.now();
+        List<Operation> firstPage = new ArrayList<>(OperationExportService.PAGE_SIZE);
+        for (long id = 1L; id <= OperationExportService.PAGE_SIZE; id++) {
+            firstPage.add(new Operation(id, account, OperationType.DEPOSIT, TEN, date));
+        }
+        Operation last = firstPage.get(firstPage.size() - 1);
+        Operation operation = new Operation(account, OperationType.WITHDRAWAL, ONE, date);
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(repository.findPageByAccount(account, PAGE)).thenReturn(firstPage);
+        when(repository.findPageByAccountAfter(account, date, last.getId(), PAGE))
+                .thenReturn(Collections.singletonList(operation));
+        service.exportUserOperations(USER_ID, consumer);
+        InOrder inOrder = inOrder(consumer, repository);
+        inOrder.verify(repository).findPageByAccount(account, PAGE);
+        inOrder.verify(consumer).accept(firstPage.get(0));
+        inOrder.verify(consumer).accept(last);
+        inOrder.verify(repository).findPageByAccountAfter(account, date, last.getId(), PAGE);
+        inOrder.verify(consumer).accept(operation);
+        verify(consumer, times(firstPage.size() + 1)).accept(any());
+        verify(entityManager, times(firstPage.size() + 1)).detach(any());
+        verify(ledger).flush(USER_ID);
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).exportArchivedOperations(account, consumer);
+    }
+
+    @Test
+    void testExportUserOperationsWhenLastPageIsFull() {
+        OffsetDateTime date = OffsetDateTime.now();
+        List<Operation> firstPage = new ArrayList<>(OperationExportService.PAGE_SIZE);
+        for (long id = 1L; id <= OperationExportService.PAGE_SIZE; id++) {
+            firstPage.add(new Operation(id, account, OperationType.DEPOSIT, TEN, date));
+        }
+        Long lastId = (long) OperationExportService.PAGE_SIZE;
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(repository.findPageByAccount(account, PAGE)).thenReturn(firstPage);
+        when(repository.findPageByAccountAfter(account, date, lastId, PAGE)).thenReturn(Collections.emptyList());
+        service.exportUserOperations(USER_ID, consumer);
+        verify(repository).findPageByAccount(account, PAGE);
+        verify(repository).findPageByAccountAfter(account, date, lastId, PAGE);
+        verify(consumer, times(firstPage.size())).accept(any());
+        verify(entityManager, times(firstPage.size())).detach(any());
+        verify(ledger).flush(USER_ID);
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).exportArchivedOperations(account, consumer);
+    }
+
+    @Test
+    void testExportUserOperationsWhenSomeOperationsAreArchived() {
+        Operation archivedOperation = new Operation(account, OperationType.DEPOSIT, TEN,
+                OffsetDateTime.now().minusYears(1L)
+        );
+        Operation operation = new Operation(account, OperationType.WITHDRAWAL, ONE, OffsetDateTime.now());
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Operation>>getArgument(1).accept(archivedOperation);
+            return null;
+        }).when(archiveService).exportArchivedOperations(account, consumer);
+        when(repository.findPageByAccount(account, PAGE)).thenReturn(Collections.singletonList(operation));
+        service.exportUserOperations(USER_ID, consumer);
+        InOrder inOrder = inOrder(consumer);
+        inOrder.verify(consumer).accept(archivedOperation);
+        inOrder.verify(consumer).accept(operation);
+        verify(ledger).flush(USER_ID);
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).exportArchivedOperations(account, consumer);
+        verify(repository).findPageByAccount(account, PAGE);
+        verify(entityManager).detach(operation);
+    }
+
+    @Test
+    void testExportUserOperationsWhenNoOperations() {
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(repository.findPageByAccount(account, PAGE)).thenReturn(Collections.emptyList());
+        service.exportUserOperations(USER_ID, consumer);
+        verify(ledger).flush(USER_ID);
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).exportArchivedOperations(account, consumer);
+        verify(repository).findPageByAccount(account, PAGE);
+    }
+}
@@ -0,0 +1,65 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.repository.OperationPartitionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OperationPartitionServiceTest {
+    private OperationPartitionRepository repository;
+    private OperationPartitionService service;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(OperationPartitionRepository.class);
+        service = new OperationPartitionService(repository, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(repository));
+    }
+
+    @Test
+    void testCreatePartitions() {
+        when(repository.createPartition(LocalDate.parse("2023-11-01"))).thenReturn("operation_2023_11");
+        when(repository.createPartition(LocalDate.parse("2023-12-01"))).thenReturn("operation_2023_12");
+        when(repository.createPartition(LocalDate.parse("2024-01-01"))).thenReturn("operation_2024_01");
+        assertEquals(Arrays.asList("operation_2023_11", "operation_2023_12", "operation_2024_01"),
+                service.createPartitions(LocalDate.parse("2023-11-30"))
+        );
+        verify(repository).createPartition(LocalDate.parse("2023-11-01"));
+        verify(repository).createPartition(LocalDate.parse("2023-12-01"));
+        verify(repository).createPartition(LocalDate.parse("2024-01-01"));
+    }
+
+    @Test
+    void testCreatePartitionsWhenMonthFails() {
+        when(repository.createPartition(LocalDate.parse("2023-11-01")))
+                .thenThrow(new DataIntegrityViolationException("check_violation"));
+        when(repository.createPartition(LocalDate.parse("2023-12-01"))).thenReturn("operation_2023_12");
+        when(repository.createPartition(LocalDate.parse("2024-01-01"))).thenReturn("operation_2024_01");
+        assertEquals(Arrays.asList("operation_2023_12", "operation_2024_01"),
+                service.createPartitions(LocalDate.parse("2023-11-30"))
+        );
+        verify(repository).createPartition(LocalDate.parse("2023-11-01"));
+        verify(repository).createPartition(LocalDate.parse("2023-12-01"));
+        verify(repository).createPartition(LocalDate.parse("2024-01-01"));
+    }
+
+    @Test
+    void testCreateFuturePartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        service.createFuturePartitions();
+        verify(repository).createPartition(month);
+        verify(repository).createPartition(month.plusMonths(1L));
+        verify(repository).createPartition(month.plusMonths(2L));
+    }
+}
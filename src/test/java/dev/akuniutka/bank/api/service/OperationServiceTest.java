@@ -1,21 +1,29 @@
 package dev.akuniutka.bank.api.service;
 
+import dev.akuniutka.bank.api.cache.OperationHistoryCache;
 import dev.akuniutka.bank.api.entity.Account;
 import dev.akuniutka.bank.api.entity.Operation;
 import dev.akuniutka.bank.api.entity.OperationType;
 import dev.akuniutka.bank.api.exception.WrongAmountException;
 import dev.akuniutka.bank.api.exception.NullUserIdException;
 import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.ledger.WriteBehindLedger;
 import dev.akuniutka.bank.api.repository.OperationRepository;
+import dev.akuniutka.bank.api.util.OperationCursor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentMatchers;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,14 +36,20 @@ class OperationServiceTest {
     private static final Long USER_ID = 1L;
     private static final OffsetDateTime DATE_FROM = OffsetDateTime.now();
     private static final OffsetDateTime DATE_TO = OffsetDateTime.now().plusDays(1L);
+    private static final Long CURSOR_ID = 10L;
+    private static final int LIMIT = 2;
+    private static final Pageable PAGE = PageRequest.of(0, LIMIT);
     private Account account;
     private Operation operation;
     private Operation storedOperation;
     private List<Operation> presetOperations;
-    private List<Operation> operations;
     private AccountService accountService;
+    private OperationArchiveService archiveService;
+    private OperationHistoryCache historyCache;
     private OperationRepository repository;
+    private WriteBehindLedger ledger;
     private OperationService service;
+    private OperationService writeBehindService;
 
     @BeforeEach
     public void setUp() {
@@ -45,35 +59,96 @@ class OperationServiceTest {
         presetOperations = new ArrayList<>();
         presetOperations.add(new Operation(account, OperationType.DEPOSIT, TEN, OffsetDateTime.now()));
         presetOperations.add(new Operation(account, OperationType.WITHDRAWAL, ONE, OffsetDateTime.now().minusDays(1L)));
-        operations = spy(new ArrayList<>(presetOperations));
         accountService = mock(AccountService.class);
+        archiveService = mock(OperationArchiveService.class);
+        historyCache = mock(OperationHistoryCache.class);
         repository = mock(OperationRepository.class);
-        service = new OperationService(repository, accountService);
+        ledger = mock(WriteBehindLedger.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        WriteBehindLedger disabledLedger = new WriteBehindLedger(null, null, null, null, null, null, null, false,
+                "ledger.journal", 1000, Duration.ofSeconds(5L), DataSize.ofMegabytes(64L)
+        );
+        service = new OperationService(repository, accountService, archiveService, historyCache, disabledLedger,
+                transactionManager
+        );
+        writeBehindService = new OperationService(repository, accountService, archiveService, historyCache, ledger,
+                transactionManager
+        );
     }
 
     @AfterEach
     public void tearDown() {
         verifyNoMoreInteractions(ignoreStubs(account));
         verifyNoMoreInteractions(ignoreStubs(operation));
-        verifyNoMoreInteractions(ignoreStubs(operations));
         verifyNoMoreInteractions(ignoreStubs(accountService));
+        verifyNoMoreInteractions(ignoreStubs(archiveService));
+        verifyNoMoreInteractions(ignoreStubs(historyCache));
         verifyNoMoreInteractions(ignoreStubs(repository));
+        verifyNoMoreInteractions(ignoreStubs(ledger));
+    }
+
+    @Test
+    void testCreateDepositInWriteBehindMode() {
+        when(ledger.isEnabled()).thenReturn(true);
+        assertDoesNotThrow(() -> writeBehindService.createDeposit(USER_ID, MONEY_TEN));
+        verify(ledger).deposit(USER_ID, MONEY_TEN);
+    }
+
+    @Test
+    void testCreateDepositInWriteBehindModeWhenUserDoesNotExist() {
+        when(ledger.isEnabled()).thenReturn(true);
+        doThrow(new UserNotFoundException(USER_NOT_FOUND)).when(ledger).deposit(USER_ID, MONEY_TEN);
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> writeBehindService.createDeposit(USER_ID, MONEY_TEN)
+        );
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+    }
+
+    @Test
+    void testCreateWithdrawalInWriteBehindMode() {
+        when(ledger.isEnabled()).thenReturn(true);
+        assertDoesNotThrow(() -> writeBehindService.createWithdrawal(USER_ID, MONEY_ONE));
+        verify(ledger).withdraw(USER_ID, MONEY_ONE);
+    }
+
+    @Test
+    void testGetUserOperationsInWriteBehindMode() {
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(account.getId()).thenReturn(USER_ID);
+        when(historyCache.get(eq(USER_ID), isNull(), isNull(), any())).thenReturn(presetOperations);
+        assertSame(presetOperations, writeBehindService.getUserOperations(USER_ID, null, null));
+        verify(ledger).flush(USER_ID);
+        verify(accountService).readAccount(USER_ID);
+        verify(historyCache).get(eq(USER_ID), isNull(), isNull(), any());
+        verify(archiveService).getArchivedOperations(account, null, null);
+    }
+
+    @Test
+    void testGetUserOperationsWithCursorInWriteBehindMode() {
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(repository.findPageByAccount(account, PAGE)).thenReturn(presetOperations);
+        assertSame(presetOperations, writeBehindService.getUserOperations(USER_ID, null, null, null, LIMIT));
+        verify(ledger).flush(USER_ID);
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).getArchivedOperationPage(account, null, Long.MIN_VALUE, null, LIMIT);
+        verify(repository).findPageByAccount(account, PAGE);
     }
 
     @Test
     void testCreateDepositWhenUserIdIsNull() {
-        when(accountService.increaseUserBalance(null, TEN)).thenThrow(new NullUserIdException(USER_ID_IS_NULL));
-        Exception e = assertThrows(NullUserIdException.class, () -> service.createDeposit(null, TEN));
+        when(accountService.increaseUserBalance(null, MONEY_TEN)).thenThrow(new NullUserIdException(USER_ID_IS_NULL));
+        Exception e = assertThrows(NullUserIdException.class, () -> service.createDeposit(null, MONEY_TEN));
         assertEquals(USER_ID_IS_NULL, e.getMessage());
-        verify(accountService).increaseUserBalance(null, TEN);
+        verify(accountService).increaseUserBalance(null, MONEY_TEN);
     }
 
     @Test
     void testCreateDepositWhenUserDoesNotExist() {
-        when(accountService.increaseUserBalance(USER_ID, TEN)).thenThrow(new UserNotFoundException(USER_NOT_FOUND));
-        Exception e = assertThrows(UserNotFoundException.class, () -> service.createDeposit(USER_ID, TEN));
+        when(accountService.increaseUserBalance(USER_ID, MONEY_TEN))
+                .thenThrow(new UserNotFoundException(USER_NOT_FOUND));
+        Exception e = assertThrows(UserNotFoundException.class, () -> service.createDeposit(USER_ID, MONEY_TEN));
         assertEquals(USER_NOT_FOUND, e.getMessage());
-        verify(accountService).increaseUserBalance(USER_ID, TEN);
+        verify(accountService).increaseUserBalance(USER_ID, MONEY_TEN);
     }
 
     @Test
@@ -87,78 +162,57 @@ class OperationServiceTest {
 
     @Test
     void testCreateDepositWhenAmountIsNegative() {
-        when(accountService.increaseUserBalance(USER_ID, MINUS_TEN))
+        when(accountService.increaseUserBalance(USER_ID, MONEY_MINUS_TEN))
                 .thenThrow(new WrongAmountException(AMOUNT_IS_NEGATIVE));
-        Exception e = assertThrows(WrongAmountException.class, () -> service.createDeposit(USER_ID, MINUS_TEN));
+        Exception e = assertThrows(WrongAmountException.class, () -> service.createDeposit(USER_ID, MONEY_MINUS_TEN));
         assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
-        verify(accountService).increaseUserBalance(USER_ID, MINUS_TEN);
+        verify(accountService).increaseUserBalance(USER_ID, MONEY_MINUS_TEN);
     }
 
     @Test
     void testCreateDepositWhenAmountIsZero() {
-        when(accountService.increaseUserBalance(USER_ID, ZERO)).thenThrow(new WrongAmountException(AMOUNT_IS_ZERO));
-        Exception e = assertThrows(WrongAmountException.class, () -> service.createDeposit(USER_ID, ZERO));
+        when(accountService.increaseUserBalance(USER_ID, MONEY_ZERO))
+                .thenThrow(new WrongAmountException(AMOUNT_IS_ZERO));
+        Exception e = assertThrows(WrongAmountException.class, () -> service.createDeposit(USER_ID, MONEY_ZERO));
         assertEquals(AMOUNT_IS_ZERO, e.getMessage());
-        verify(accountService).increaseUserBalance(USER_ID, ZERO);
+        verify(accountService).increaseUserBalance(USER_ID, MONEY_ZERO);
     }
 
-    @Test
-    void testCreateDepositWhenScaleIsGreaterThanTwoWithNonZeros() {
-        when(accountService.increaseUserBalance(USER_ID, ONE_THOUSANDTH))
-                .thenThrow(new WrongAmountException(WRONG_MINOR_UNITS));
-        Exception e = assertThrows(WrongAmountException.class, () -> service.createDeposit(USER_ID, ONE_THOUSANDTH));
-        assertEquals(WRONG_MINOR_UNITS, e.getMessage());
-        verify(accountService).increaseUserBalance(USER_ID, ONE_THOUSANDTH);
-    }
 
-    @Test
-    void testCreateDepositWhenScaleIsGreaterThanTwoButWithZeros() {
-        when(accountService.increaseUserBalance(USER_ID, TEN_THOUSANDTHS)).thenReturn(account);
-        when(repository.save(any(Operation.class))).thenAnswer(a -> storeOperation(a.getArguments()[0]));
-        OffsetDateTime start = OffsetDateTime.now();
-        assertDoesNotThrow(() -> service.createDeposit(USER_ID, TEN_THOUSANDTHS));
-        OffsetDateTime finish = OffsetDateTime.now();
-        assertNotNull(storedOperation);
-        assertNull(storedOperation.getId());
-        assertEquals(account, storedOperation.getAccount());
-        assertEquals(OperationType.DEPOSIT, storedOperation.getType());
-        assertEquals(FORMATTED_TEN_THOUSANDTHS, storedOperation.getAmount());
-        assertTrue(isDateBetween(storedOperation.getDate(), start, finish));
-        verify(accountService).increaseUserBalance(USER_ID, TEN_THOUSANDTHS);
-        verify(repository).save(any(Operation.class));
-    }
 
     @Test
     void testCreateDepositWhenAmountIsPositive() {
-        when(accountService.increaseUserBalance(USER_ID, TEN)).thenReturn(account);
+        when(accountService.increaseUserBalance(USER_ID, MONEY_TEN)).thenReturn(account);
         when(repository.save(any(Operation.class))).thenAnswer(a -> storeOperation(a.getArguments()[0]));
         OffsetDateTime start = OffsetDateTime.now();
-        assertDoesNotThrow(() -> service.createDeposit(USER_ID, TEN));
+        assertDoesNotThrow(() -> service.createDeposit(USER_ID, MONEY_TEN));
         OffsetDateTime finish = OffsetDateTime.now();
         assertNotNull(storedOperation);
         assertNull(storedOperation.getId());
         assertEquals(account, storedOperation.getAccount());
         assertEquals(OperationType.DEPOSIT, storedOperation.getType());
-        assertEquals(FORMATTED_TEN, storedOperation.getAmount());
+        assertEquals(MONEY_TEN, storedOperation.getAmount());
         assertTrue(isDateBetween(storedOperation.getDate(), start, finish));
-        verify(accountService).increaseUserBalance(USER_ID, TEN);
+        verify(accountService).increaseUserBalance(USER_ID, MONEY_TEN);
         verify(repository).save(any(Operation.class));
+        verify(historyCache).appendAfterCommit(operation);
     }
 
     @Test
     void testCreateWithdrawalWhenUserIdIsNull() {
-        when(accountService.decreaseUserBalance(null, ONE)).thenThrow(new NullUserIdException(USER_ID_IS_NULL));
-        Exception e = assertThrows(NullUserIdException.class, () -> service.createWithdrawal(null, ONE));
+        when(accountService.decreaseUserBalance(null, MONEY_ONE)).thenThrow(new NullUserIdException(USER_ID_IS_NULL));
+        Exception e = assertThrows(NullUserIdException.class, () -> service.createWithdrawal(null, MONEY_ONE));
         assertEquals(USER_ID_IS_NULL, e.getMessage());
-        verify(accountService).decreaseUserBalance(null, ONE);
+        verify(accountService).decreaseUserBalance(null, MONEY_ONE);
     }
 
     @Test
     void testCreateWithdrawalWhenUserDoesNotExist() {
-        when(accountService.decreaseUserBalance(USER_ID, ONE)).thenThrow(new UserNotFoundException(USER_NOT_FOUND));
-        Exception e = assertThrows(UserNotFoundException.class, () -> service.createWithdrawal(USER_ID, ONE));
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_ONE))
+                .thenThrow(new UserNotFoundException(USER_NOT_FOUND));
+        Exception e = assertThrows(UserNotFoundException.class, () -> service.createWithdrawal(USER_ID, MONEY_ONE));
         assertEquals(USER_NOT_FOUND, e.getMessage());
-        verify(accountService).decreaseUserBalance(USER_ID, ONE);
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_ONE);
     }
 
     @Test
@@ -172,95 +226,73 @@ class OperationServiceTest {
 
     @Test
     void testCreateWithdrawalWhenAmountIsNegative() {
-        when(accountService.decreaseUserBalance(USER_ID, MINUS_ONE))
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_MINUS_ONE))
                 .thenThrow(new WrongAmountException(AMOUNT_IS_NEGATIVE));
-        Exception e = assertThrows(WrongAmountException.class, () -> service.createWithdrawal(USER_ID, MINUS_ONE));
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> service.createWithdrawal(USER_ID, MONEY_MINUS_ONE)
+        );
         assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
-        verify(accountService).decreaseUserBalance(USER_ID, MINUS_ONE);
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_MINUS_ONE);
     }
 
     @Test
     void testCreateWithdrawalWhenAmountIsZero() {
-        when(accountService.decreaseUserBalance(USER_ID, ZERO))
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_ZERO))
                 .thenThrow(new WrongAmountException(AMOUNT_IS_ZERO));
-        Exception e = assertThrows(WrongAmountException.class, () -> service.createWithdrawal(USER_ID, ZERO));
+        Exception e = assertThrows(WrongAmountException.class, () -> service.createWithdrawal(USER_ID, MONEY_ZERO));
         assertEquals(AMOUNT_IS_ZERO, e.getMessage());
-        verify(accountService).decreaseUserBalance(USER_ID, ZERO);
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_ZERO);
     }
 
-    @Test
-    void testCreateWithdrawalWhenScaleIsGreaterThanTwoWithNonZeros() {
-        when(accountService.decreaseUserBalance(USER_ID, ONE_THOUSANDTH))
-                .thenThrow(new WrongAmountException(WRONG_MINOR_UNITS));
-        Exception e = assertThrows(WrongAmountException.class,
-                () -> service.createWithdrawal(USER_ID, ONE_THOUSANDTH)
-        );
-        assertEquals(WRONG_MINOR_UNITS, e.getMessage());
-        verify(accountService).decreaseUserBalance(USER_ID, ONE_THOUSANDTH);
-    }
 
     @Test
     void testCreateWithdrawalWhenBalanceIsInsufficient() {
-        when(accountService.decreaseUserBalance(USER_ID, ONE))
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_ONE))
                 .thenThrow(new WrongAmountException(INSUFFICIENT_BALANCE));
-        Exception e = assertThrows(WrongAmountException.class, () -> service.createWithdrawal(USER_ID, ONE));
+        Exception e = assertThrows(WrongAmountException.class, () -> service.createWithdrawal(USER_ID, MONEY_ONE));
         assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
-        verify(accountService).decreaseUserBalance(USER_ID, ONE);
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_ONE);
     }
 
-    @Test
-    void testCreateWithdrawalWhenScaleIsGreaterThanTwoButWithZeros() {
-        when(accountService.decreaseUserBalance(USER_ID, TEN_THOUSANDTHS)).thenReturn(account);
-        when(repository.save(any(Operation.class))).thenAnswer(a -> storeOperation(a.getArguments()[0]));
-        OffsetDateTime start = OffsetDateTime.now();
-        assertDoesNotThrow(() -> service.createWithdrawal(USER_ID, TEN_THOUSANDTHS));
-        OffsetDateTime finish = OffsetDateTime.now();
-        assertNotNull(storedOperation);
-        assertNull(storedOperation.getId());
-        assertEquals(account, storedOperation.getAccount());
-        assertEquals(OperationType.WITHDRAWAL, storedOperation.getType());
-        assertEquals(FORMATTED_TEN_THOUSANDTHS, storedOperation.getAmount());
-        assertTrue(isDateBetween(storedOperation.getDate(), start, finish));
-        verify(accountService).decreaseUserBalance(USER_ID, TEN_THOUSANDTHS);
-        verify(repository).save(any(Operation.class));
-    }
 
     @Test
     void testCreateWithdrawalWhenBalanceIsSufficient() {
-        when(accountService.decreaseUserBalance(USER_ID, ONE)).thenReturn(account);
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_ONE)).thenReturn(account);
         when(repository.save(any(Operation.class))).thenAnswer(a -> storeOperation(a.getArguments()[0]));
         OffsetDateTime start = OffsetDateTime.now();
-        assertDoesNotThrow(() -> service.createWithdrawal(USER_ID, ONE));
+        assertDoesNotThrow(() -> service.createWithdrawal(USER_ID, MONEY_ONE));
         OffsetDateTime finish = OffsetDateTime.now();
         assertNotNull(storedOperation);
         assertNull(storedOperation.getId());
         assertEquals(account, storedOperation.getAccount());
         assertEquals(OperationType.WITHDRAWAL, storedOperation.getType());
-        assertEquals(FORMATTED_ONE, storedOperation.getAmount());
+        assertEquals(MONEY_ONE, storedOperation.getAmount());
         assertTrue(isDateBetween(storedOperation.getDate(), start, finish));
-        verify(accountService).decreaseUserBalance(USER_ID, ONE);
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_ONE);
         verify(repository).save(any(Operation.class));
+        verify(historyCache).appendAfterCommit(operation);
     }
 
     @Test
     void testCreateIncomingTransferWhenUserIdIsNull() {
-        when(accountService.increaseUserBalance(null, TEN))
+        when(accountService.increaseUserBalance(null, MONEY_TEN))
                 .thenThrow(new NullUserIdException(RECEIVER_ID_IS_NULL));
         Exception e = assertThrows(NullUserIdException.class,
-                () -> service.createIncomingTransfer(null, TEN, DATE_TO)
+                () -> service.createIncomingTransfer(null, MONEY_TEN, DATE_TO)
         );
         assertEquals(RECEIVER_ID_IS_NULL, e.getMessage());
-        verify(accountService).increaseUserBalance(null, TEN);
+        verify(accountService).increaseUserBalance(null, MONEY_TEN);
     }
 
     @Test
     void testCreateIncomingTransferWhenUserDoesNotExist() {
-        when(accountService.increaseUserBalance(USER_ID, TEN)).thenThrow(new UserNotFoundException(RECEIVER_NOT_FOUND));
+        when(accountService.increaseUserBalance(USER_ID, MONEY_TEN))
+                .thenThrow(new UserNotFoundException(RECEIVER_NOT_FOUND));
         Exception e = assertThrows(UserNotFoundException.class,
-                () -> service.createIncomingTransfer(USER_ID, TEN, DATE_TO)
+                () -> service.createIncomingTransfer(USER_ID, MONEY_TEN, DATE_TO)
         );
         assertEquals(RECEIVER_NOT_FOUND, e.getMessage());
-        verify(accountService).increaseUserBalance(USER_ID, TEN);
+        verify(accountService).increaseUserBalance(USER_ID, MONEY_TEN);
     }
 
     @Test
@@ -275,95 +307,73 @@ class OperationServiceTest {
 
     @Test
     void testCreateIncomingTransferWhenAmountIsNegative() {
-        when(accountService.increaseUserBalance(USER_ID, MINUS_TEN))
+        when(accountService.increaseUserBalance(USER_ID, MONEY_MINUS_TEN))
                 .thenThrow(new WrongAmountException(AMOUNT_IS_NEGATIVE));
         Exception e = assertThrows(WrongAmountException.class,
-                () -> service.createIncomingTransfer(USER_ID, MINUS_TEN, DATE_TO)
+                () -> service.createIncomingTransfer(USER_ID, MONEY_MINUS_TEN, DATE_TO)
         );
         assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
-        verify(accountService).increaseUserBalance(USER_ID, MINUS_TEN);
+        verify(accountService).increaseUserBalance(USER_ID, MONEY_MINUS_TEN);
     }
 
     @Test
     void testCreateIncomingTransferWhenAmountIsZero() {
-        when(accountService.increaseUserBalance(USER_ID, ZERO)).thenThrow(new WrongAmountException(AMOUNT_IS_ZERO));
+        when(accountService.increaseUserBalance(USER_ID, MONEY_ZERO))
+                .thenThrow(new WrongAmountException(AMOUNT_IS_ZERO));
         Exception e = assertThrows(WrongAmountException.class,
-                () -> service.createIncomingTransfer(USER_ID, ZERO, DATE_TO));
+                () -> service.createIncomingTransfer(USER_ID, MONEY_ZERO, DATE_TO));
         assertEquals(AMOUNT_IS_ZERO, e.getMessage());
-        verify(accountService).increaseUserBalance(USER_ID, ZERO);
+        verify(accountService).increaseUserBalance(USER_ID, MONEY_ZERO);
     }
 
-    @Test
-    void testCreateIncomingTransferWhenScaleIsGreaterThanTwoWithNonZeros() {
-        when(accountService.increaseUserBalance(USER_ID, ONE_THOUSANDTH))
-                .thenThrow(new WrongAmountException(WRONG_MINOR_UNITS));
-        Exception e = assertThrows(WrongAmountException.class,
-                () -> service.createIncomingTransfer(USER_ID, ONE_THOUSANDTH, DATE_TO)
-        );
-        assertEquals(WRONG_MINOR_UNITS, e.getMessage());
-        verify(accountService).increaseUserBalance(USER_ID, ONE_THOUSANDTH);
-    }
 
     @Test
     void testCreateIncomingTransferWhenDateIsNull() {
-        when(accountService.increaseUserBalance(USER_ID, TEN)).thenReturn(account);
+        when(accountService.increaseUserBalance(USER_ID, MONEY_TEN)).thenReturn(account);
         Exception e = assertThrows(IllegalArgumentException.class,
-                () -> service.createIncomingTransfer(USER_ID, TEN, null)
+                () -> service.createIncomingTransfer(USER_ID, MONEY_TEN, null)
         );
         assertEquals(DATE_IS_NULL, e.getMessage());
-        verify(accountService).increaseUserBalance(USER_ID, TEN);
+        verify(accountService).increaseUserBalance(USER_ID, MONEY_TEN);
     }
 
-    @Test
-    void testCreateIncomingTransferWhenScaleIsGreaterThanTwoButWithZeros() {
-        when(accountService.increaseUserBalance(USER_ID, TEN_THOUSANDTHS)).thenReturn(account);
-        when(repository.save(any(Operation.class))).thenAnswer(a -> storeOperation(a.getArguments()[0]));
-        Operation actual = service.createIncomingTransfer(USER_ID, TEN_THOUSANDTHS, DATE_TO);
-        assertEquals(operation, actual);
-        assertNotNull(storedOperation);
-        assertNull(storedOperation.getId());
-        assertEquals(account, storedOperation.getAccount());
-        assertEquals(OperationType.INCOMING_TRANSFER, storedOperation.getType());
-        assertEquals(FORMATTED_TEN_THOUSANDTHS, storedOperation.getAmount());
-        assertEquals(DATE_TO, storedOperation.getDate());
-        verify(accountService).increaseUserBalance(USER_ID, TEN_THOUSANDTHS);
-        verify(repository).save(any(Operation.class));
-    }
 
     @Test
     void testCreateIncomingTransferWhenAmountIsPositive() {
-        when(accountService.increaseUserBalance(USER_ID, TEN)).thenReturn(account);
+        when(accountService.increaseUserBalance(USER_ID, MONEY_TEN)).thenReturn(account);
         when(repository.save(any(Operation.class))).thenAnswer(a -> storeOperation(a.getArguments()[0]));
-        Operation actual = service.createIncomingTransfer(USER_ID, TEN, DATE_TO);
+        Operation actual = service.createIncomingTransfer(USER_ID, MONEY_TEN, DATE_TO);
         assertEquals(operation, actual);
         assertNotNull(storedOperation);
         assertNull(storedOperation.getId());
         assertEquals(account, storedOperation.getAccount());
         assertEquals(OperationType.INCOMING_TRANSFER, storedOperation.getType());
-        assertEquals(FORMATTED_TEN, storedOperation.getAmount());
+        assertEquals(MONEY_TEN, storedOperation.getAmount());
         assertEquals(DATE_TO, storedOperation.getDate());
-        verify(accountService).increaseUserBalance(USER_ID, TEN);
+        verify(accountService).increaseUserBalance(USER_ID, MONEY_TEN);
         verify(repository).save(any(Operation.class));
+        verify(historyCache).appendAfterCommit(operation);
     }
 
     @Test
     void testCreateOutgoingTransferWhenUserIdIsNull() {
-        when(accountService.decreaseUserBalance(null, ONE)).thenThrow(new NullUserIdException(USER_ID_IS_NULL));
+        when(accountService.decreaseUserBalance(null, MONEY_ONE)).thenThrow(new NullUserIdException(USER_ID_IS_NULL));
         Exception e = assertThrows(NullUserIdException.class,
-                () -> service.createOutgoingTransfer(null, ONE, DATE_FROM)
+                () -> service.createOutgoingTransfer(null, MONEY_ONE, DATE_FROM)
         );
         assertEquals(USER_ID_IS_NULL, e.getMessage());
-        verify(accountService).decreaseUserBalance(null, ONE);
+        verify(accountService).decreaseUserBalance(null, MONEY_ONE);
     }
 
     @Test
     void testCreateOutgoingTransferWhenUserDoesNotExist() {
-        when(accountService.decreaseUserBalance(USER_ID, ONE)).thenThrow(new UserNotFoundException(USER_NOT_FOUND));
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_ONE))
+                .thenThrow(new UserNotFoundException(USER_NOT_FOUND));
         Exception e = assertThrows(UserNotFoundException.class,
-                () -> service.createOutgoingTransfer(USER_ID, ONE, DATE_FROM)
+                () -> service.createOutgoingTransfer(USER_ID, MONEY_ONE, DATE_FROM)
         );
         assertEquals(USER_NOT_FOUND, e.getMessage());
-        verify(accountService).decreaseUserBalance(USER_ID, ONE);
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_ONE);
     }
 
     @Test
@@ -378,163 +388,325 @@ class OperationServiceTest {
 
     @Test
     void testCreateOutgoingTransferWhenAmountIsNegative() {
-        when(accountService.decreaseUserBalance(USER_ID, MINUS_ONE))
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_MINUS_ONE))
                 .thenThrow(new WrongAmountException(AMOUNT_IS_NEGATIVE));
         Exception e = assertThrows(WrongAmountException.class,
-                () -> service.createOutgoingTransfer(USER_ID, MINUS_ONE, DATE_FROM)
+                () -> service.createOutgoingTransfer(USER_ID, MONEY_MINUS_ONE, DATE_FROM)
         );
         assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
-        verify(accountService).decreaseUserBalance(USER_ID, MINUS_ONE);
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_MINUS_ONE);
     }
 
     @Test
     void testCreateOutgoingTransferWhenAmountIsZero() {
-        when(accountService.decreaseUserBalance(USER_ID, ZERO))
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_ZERO))
                 .thenThrow(new WrongAmountException(AMOUNT_IS_ZERO));
         Exception e = assertThrows(WrongAmountException.class,
-                () -> service.createOutgoingTransfer(USER_ID, ZERO, DATE_FROM));
+                () -> service.createOutgoingTransfer(USER_ID, MONEY_ZERO, DATE_FROM));
         assertEquals(AMOUNT_IS_ZERO, e.getMessage());
-        verify(accountService).decreaseUserBalance(USER_ID, ZERO);
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_ZERO);
     }
 
-    @Test
-    void testCreateOutgoingTransferWhenScaleIsGreaterThanTwoWithNonZeros() {
-        when(accountService.decreaseUserBalance(USER_ID, ONE_THOUSANDTH))
-                .thenThrow(new WrongAmountException(WRONG_MINOR_UNITS));
-        Exception e = assertThrows(WrongAmountException.class,
-                () -> service.createOutgoingTransfer(USER_ID, ONE_THOUSANDTH, DATE_FROM)
-        );
-        assertEquals(WRONG_MINOR_UNITS, e.getMessage());
-        verify(accountService).decreaseUserBalance(USER_ID, ONE_THOUSANDTH);
-    }
 
     @Test
     void testCreateOutgoingTransferWhenBalanceIsInsufficient() {
-        when(accountService.decreaseUserBalance(USER_ID, ONE))
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_ONE))
                 .thenThrow(new WrongAmountException(INSUFFICIENT_BALANCE));
         Exception e = assertThrows(WrongAmountException.class,
-                () -> service.createOutgoingTransfer(USER_ID, ONE, DATE_FROM)
+                () -> service.createOutgoingTransfer(USER_ID, MONEY_ONE, DATE_FROM)
         );
         assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
-        verify(accountService).decreaseUserBalance(USER_ID, ONE);
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_ONE);
     }
 
     @Test
     void testCreateOutgoingTransferWhenDateIsNull() {
-        when(accountService.decreaseUserBalance(USER_ID, ONE)).thenReturn(account);
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_ONE)).thenReturn(account);
         Exception e = assertThrows(IllegalArgumentException.class,
-                () -> service.createOutgoingTransfer(USER_ID, ONE, null)
+                () -> service.createOutgoingTransfer(USER_ID, MONEY_ONE, null)
         );
         assertEquals(DATE_IS_NULL, e.getMessage());
-        verify(accountService).decreaseUserBalance(USER_ID, ONE);
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_ONE);
     }
 
-    @Test
-    void testCreateOutgoingTransferWhenScaleIsGreaterThanTwoButWithZeros() {
-        when(accountService.decreaseUserBalance(USER_ID, TEN_THOUSANDTHS)).thenReturn(account);
-        when(repository.save(any(Operation.class))).thenAnswer(a -> storeOperation(a.getArguments()[0]));
-        Operation actual = service.createOutgoingTransfer(USER_ID, TEN_THOUSANDTHS, DATE_FROM);
-        assertEquals(operation, actual);
-        assertNotNull(storedOperation);
-        assertNull(storedOperation.getId());
-        assertEquals(account, storedOperation.getAccount());
-        assertEquals(OperationType.OUTGOING_TRANSFER, storedOperation.getType());
-        assertEquals(FORMATTED_TEN_THOUSANDTHS, storedOperation.getAmount());
-        assertEquals(DATE_FROM, storedOperation.getDate());
-        verify(accountService).decreaseUserBalance(USER_ID, TEN_THOUSANDTHS);
-        verify(repository).save(any(Operation.class));
-    }
 
     @Test
     void testCreateOutgoingTransferWhenBalanceIsSufficient() {
-        when(accountService.decreaseUserBalance(USER_ID, ONE)).thenReturn(account);
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_ONE)).thenReturn(account);
         when(repository.save(any(Operation.class))).thenAnswer(a -> storeOperation(a.getArguments()[0]));
-        Operation actual = service.createOutgoingTransfer(USER_ID, ONE, DATE_FROM);
+        Operation actual = service.createOutgoingTransfer(USER_ID, MONEY_ONE, DATE_FROM);
         assertEquals(operation, actual);
         assertNotNull(storedOperation);
         assertNull(storedOperation.getId());
         assertEquals(account, storedOperation.getAccount());
         assertEquals(OperationType.OUTGOING_TRANSFER, storedOperation.getType());
-        assertEquals(FORMATTED_ONE, storedOperation.getAmount());
+        assertEquals(MONEY_ONE, storedOperation.getAmount());
         assertEquals(DATE_FROM, storedOperation.getDate());
-        verify(accountService).decreaseUserBalance(USER_ID, ONE);
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_ONE);
         verify(repository).save(any(Operation.class));
+        verify(historyCache).appendAfterCommit(operation);
     }
 
     @Test
     void testGetUserOperationsWhenUserIdIsNull() {
-        when(accountService.getAccount(null)).thenThrow(new NullUserIdException(USER_ID_IS_NULL));
+        when(accountService.readAccount(null)).thenThrow(new NullUserIdException(USER_ID_IS_NULL));
         Exception e = assertThrows(NullUserIdException.class,
                 () -> service.getUserOperations(null, DATE_FROM, DATE_TO)
         );
         assertEquals(USER_ID_IS_NULL, e.getMessage());
-        verify(accountService).getAccount(null);
+        verify(accountService).readAccount(null);
     }
 
     @Test
     void testGetUserOperationsWhenUserDoesNotExist() {
-        when(accountService.getAccount(USER_ID)).thenThrow(new UserNotFoundException(USER_NOT_FOUND));
+        when(accountService.readAccount(USER_ID)).thenThrow(new UserNotFoundException(USER_NOT_FOUND));
         Exception e = assertThrows(UserNotFoundException.class,
                 () -> service.getUserOperations(USER_ID, DATE_FROM, DATE_TO)
         );
         assertEquals(USER_NOT_FOUND, e.getMessage());
-        verify(accountService).getAccount(USER_ID);
+        verify(accountService).readAccount(USER_ID);
+    }
+
+    @Test
+    void testSaveOperations() {
+        service.saveOperations(presetOperations);
+        verify(repository).saveAll(presetOperations);
+        verify(historyCache).appendAfterCommit(presetOperations.get(0));
+        verify(historyCache).appendAfterCommit(presetOperations.get(1));
     }
 
     @Test
-    void testGetUserOperationsWhenDateFromIsNullAndDateToIsNull() {
-        when(accountService.getAccount(USER_ID)).thenReturn(account);
-        when(repository.findByAccount(account)).thenReturn(operations);
-        assertEquals(operations, service.getUserOperations(USER_ID, null, null));
-        assertSame(operations.get(0), presetOperations.get(1));
-        assertSame(operations.get(1), presetOperations.get(0));
-        verify(accountService).getAccount(USER_ID);
+    void testGetUserOperationsWhenHistoryIsNotCached() {
+        OffsetDateTime windowStart = DATE_FROM.minusDays(7L);
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(account.getId()).thenReturn(USER_ID);
+        whenHistoryCacheMisses(windowStart);
+        when(repository.findByAccountAndDateAfter(account, windowStart)).thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, DATE_FROM, null));
+        verify(accountService).readAccount(USER_ID);
+        verify(historyCache).get(eq(USER_ID), eq(DATE_FROM), isNull(), any());
+        verify(repository).findByAccountAndDateAfter(account, windowStart);
+        verify(archiveService).getArchivedOperations(account, DATE_FROM, null);
+    }
+
+    @Test
+    void testGetUserOperationsWhenRangeIsNotCached() {
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(account.getId()).thenReturn(USER_ID);
+        when(historyCache.get(eq(USER_ID), isNull(), isNull(), any())).thenReturn(null);
+        when(repository.findByAccount(account)).thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, null, null));
+        verify(accountService).readAccount(USER_ID);
+        verify(historyCache).get(eq(USER_ID), isNull(), isNull(), any());
         verify(repository).findByAccount(account);
-        verify(operations).sort(ArgumentMatchers.<Comparator<Operation>>any());
-        verify(operations).get(0);
-        verify(operations).get(1);
+        verify(archiveService).getArchivedOperations(account, null, null);
+    }
+
+    @Test
+    void testGetUserOperationsWhenSomeOperationsAreArchived() {
+        Operation archivedOperation = new Operation(account, OperationType.DEPOSIT, TEN,
+                OffsetDateTime.now().minusYears(1L)
+        );
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(account.getId()).thenReturn(USER_ID);
+        when(historyCache.get(eq(USER_ID), isNull(), isNull(), any())).thenReturn(presetOperations);
+        when(archiveService.getArchivedOperations(account, null, null))
+                .thenReturn(Collections.singletonList(archivedOperation));
+        List<Operation> expected = new ArrayList<>();
+        expected.add(archivedOperation);
+        expected.addAll(presetOperations);
+        assertEquals(expected, service.getUserOperations(USER_ID, null, null));
+        verify(accountService).readAccount(USER_ID);
+        verify(historyCache).get(eq(USER_ID), isNull(), isNull(), any());
+        verify(archiveService).getArchivedOperations(account, null, null);
     }
 
     @Test
     void testGetUserOperationsWhenDateFromIsNotNullAndDateToIsNull() {
-        when(accountService.getAccount(USER_ID)).thenReturn(account);
-        when(repository.findByAccountAndDateAfter(account, DATE_FROM)).thenReturn(operations);
-        assertEquals(operations, service.getUserOperations(USER_ID, DATE_FROM, null));
-        assertSame(operations.get(0), presetOperations.get(1));
-        assertSame(operations.get(1), presetOperations.get(0));
-        verify(accountService).getAccount(USER_ID);
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(account.getId()).thenReturn(USER_ID);
+        when(historyCache.get(eq(USER_ID), eq(DATE_FROM), isNull(), any())).thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, DATE_FROM, null));
+        verify(accountService).readAccount(USER_ID);
+        verify(historyCache).get(eq(USER_ID), eq(DATE_FROM), isNull(), any());
+        verify(archiveService).getArchivedOperations(account, DATE_FROM, null);
+    }
+
+    @Test
+    void testGetUserOperationsWhenDateFromIsNotNullAndDateToIsNullAndRangeIsNotCached() {
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(account.getId()).thenReturn(USER_ID);
+        when(historyCache.get(eq(USER_ID), eq(DATE_FROM), isNull(), any())).thenReturn(null);
+        when(repository.findByAccountAndDateAfter(account, DATE_FROM)).thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, DATE_FROM, null));
+        verify(accountService).readAccount(USER_ID);
+        verify(historyCache).get(eq(USER_ID), eq(DATE_FROM), isNull(), any());
         verify(repository).findByAccountAndDateAfter(account, DATE_FROM);
-        verify(operations).sort(ArgumentMatchers.<Comparator<Operation>>any());
-        verify(operations).get(0);
-        verify(operations).get(1);
+        verify(archiveService).getArchivedOperations(account, DATE_FROM, null);
     }
 
     @Test
     void testGetUserOperationsWhenDateFromIsNullAndDateToIsNotNull() {
-        when(accountService.getAccount(USER_ID)).thenReturn(account);
-        when(repository.findByAccountAndDateBefore(account, DATE_TO)).thenReturn(operations);
-        assertEquals(operations, service.getUserOperations(USER_ID, null, DATE_TO));
-        assertSame(operations.get(0), presetOperations.get(1));
-        assertSame(operations.get(1), presetOperations.get(0));
-        verify(accountService).getAccount(USER_ID);
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(account.getId()).thenReturn(USER_ID);
+        when(historyCache.get(eq(USER_ID), isNull(), eq(DATE_TO), any())).thenReturn(null);
+        when(repository.findByAccountAndDateBefore(account, DATE_TO)).thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, null, DATE_TO));
+        verify(accountService).readAccount(USER_ID);
+        verify(historyCache).get(eq(USER_ID), isNull(), eq(DATE_TO), any());
         verify(repository).findByAccountAndDateBefore(account, DATE_TO);
-        verify(operations).sort(ArgumentMatchers.<Comparator<Operation>>any());
-        verify(operations).get(0);
-        verify(operations).get(1);
+        verify(archiveService).getArchivedOperations(account, null, DATE_TO);
     }
 
     @Test
     void testGetUserOperationsWhenDateFromIsNotNullAndDateToIsNotNull() {
-        when(accountService.getAccount(USER_ID)).thenReturn(account);
-        when(repository.findByAccountAndDateBetween(account, DATE_FROM, DATE_TO)).thenReturn(operations);
-        assertEquals(operations, service.getUserOperations(USER_ID, DATE_FROM, DATE_TO));
-        assertSame(operations.get(0), presetOperations.get(1));
-        assertSame(operations.get(1), presetOperations.get(0));
-        verify(accountService).getAccount(USER_ID);
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(account.getId()).thenReturn(USER_ID);
+        when(historyCache.get(eq(USER_ID), eq(DATE_FROM), eq(DATE_TO), any())).thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, DATE_FROM, DATE_TO));
+        verify(accountService).readAccount(USER_ID);
+        verify(historyCache).get(eq(USER_ID), eq(DATE_FROM), eq(DATE_TO), any());
+        verify(archiveService).getArchivedOperations(account, DATE_FROM, DATE_TO);
+    }
+
+    @Test
+    void testGetUserOperationsWhenDateFromIsNotNullAndDateToIsNotNullAndRangeIsNotCached() {
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(account.getId()).thenReturn(USER_ID);
+        when(historyCache.get(eq(USER_ID), eq(DATE_FROM), eq(DATE_TO), any())).thenReturn(null);
+        when(repository.findByAccountAndDateBetween(account, DATE_FROM, DATE_TO)).thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, DATE_FROM, DATE_TO));
+        verify(accountService).readAccount(USER_ID);
+        verify(historyCache).get(eq(USER_ID), eq(DATE_FROM), eq(DATE_TO), any());
         verify(repository).findByAccountAndDateBetween(account, DATE_FROM, DATE_TO);
-        verify(operations).sort(ArgumentMatchers.<Comparator<Operation>>any());
-        verify(operations).get(0);
-        verify(operations).get(1);
+        verify(archiveService).getArchivedOperations(account, DATE_FROM, DATE_TO);
+    }
+
+    @Test
+    void testGetUserOperationsPageWhenUserIdIsNull() {
+        when(accountService.readAccount(null)).thenThrow(new NullUserIdException(USER_ID_IS_NULL));
+        Exception e = assertThrows(NullUserIdException.class,
+                () -> service.getUserOperations(null, DATE_FROM, DATE_TO, null, LIMIT)
+        );
+        assertEquals(USER_ID_IS_NULL, e.getMessage());
+        verify(accountService).readAccount(null);
+    }
+
+    @Test
+    void testGetUserOperationsPageWhenUserDoesNotExist() {
+        when(accountService.readAccount(USER_ID)).thenThrow(new UserNotFoundException(USER_NOT_FOUND));
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> service.getUserOperations(USER_ID, DATE_FROM, DATE_TO, null, LIMIT)
+        );
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(accountService).readAccount(USER_ID);
+    }
+
+    @Test
+    void testGetUserOperationsPageWhenNoCursorAndNoDates() {
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(repository.findPageByAccount(account, PAGE)).thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, null, null, null, LIMIT));
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).getArchivedOperationPage(account, null, Long.MIN_VALUE, null, LIMIT);
+        verify(repository).findPageByAccount(account, PAGE);
+    }
+
+    @Test
+    void testGetUserOperationsPageWhenNoCursorAndDateToIsNotNull() {
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(repository.findPageByAccountAndDateBefore(account, DATE_TO, PAGE)).thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, null, DATE_TO, null, LIMIT));
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).getArchivedOperationPage(account, null, Long.MIN_VALUE, DATE_TO, LIMIT);
+        verify(repository).findPageByAccountAndDateBefore(account, DATE_TO, PAGE);
+    }
+
+    @Test
+    void testGetUserOperationsPageWhenNoCursorAndDateFromIsNotNull() {
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(repository.findPageByAccountAfter(account, DATE_FROM, Long.MIN_VALUE, PAGE))
+                .thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, DATE_FROM, null, null, LIMIT));
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).getArchivedOperationPage(account, DATE_FROM, Long.MIN_VALUE, null, LIMIT);
+        verify(repository).findPageByAccountAfter(account, DATE_FROM, Long.MIN_VALUE, PAGE);
+    }
+
+    @Test
+    void testGetUserOperationsPageWhenNoCursorAndBothDatesAreNotNull() {
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(repository.findPageByAccountAfterAndDateBefore(account, DATE_FROM, Long.MIN_VALUE, DATE_TO, PAGE))
+                .thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, DATE_FROM, DATE_TO, null, LIMIT));
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).getArchivedOperationPage(account, DATE_FROM, Long.MIN_VALUE, DATE_TO, LIMIT);
+        verify(repository).findPageByAccountAfterAndDateBefore(account, DATE_FROM, Long.MIN_VALUE, DATE_TO, PAGE);
+    }
+
+    @Test
+    void testGetUserOperationsPageWhenCursorAndNoDates() {
+        OffsetDateTime date = DATE_FROM.plusHours(1L);
+        OperationCursor cursor = new OperationCursor(date, CURSOR_ID);
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(repository.findPageByAccountAfter(account, date, CURSOR_ID, PAGE)).thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, null, null, cursor, LIMIT));
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).getArchivedOperationPage(account, date, CURSOR_ID, null, LIMIT);
+        verify(repository).findPageByAccountAfter(account, date, CURSOR_ID, PAGE);
+    }
+
+    @Test
+    void testGetUserOperationsPageWhenCursorIsAfterDateFrom() {
+        OffsetDateTime date = DATE_FROM.plusHours(1L);
+        OperationCursor cursor = new OperationCursor(date, CURSOR_ID);
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(repository.findPageByAccountAfterAndDateBefore(account, date, CURSOR_ID, DATE_TO, PAGE))
+                .thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, DATE_FROM, DATE_TO, cursor, LIMIT));
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).getArchivedOperationPage(account, date, CURSOR_ID, DATE_TO, LIMIT);
+        verify(repository).findPageByAccountAfterAndDateBefore(account, date, CURSOR_ID, DATE_TO, PAGE);
+    }
+
+    @Test
+    void testGetUserOperationsPageWhenCursorIsBeforeDateFrom() {
+        OperationCursor cursor = new OperationCursor(DATE_FROM.minusHours(1L), CURSOR_ID);
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(repository.findPageByAccountAfter(account, DATE_FROM, Long.MIN_VALUE, PAGE))
+                .thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, DATE_FROM, null, cursor, LIMIT));
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).getArchivedOperationPage(account, DATE_FROM, Long.MIN_VALUE, null, LIMIT);
+        verify(repository).findPageByAccountAfter(account, DATE_FROM, Long.MIN_VALUE, PAGE);
+    }
+
+    @Test
+    void testGetUserOperationsPageWhenPageIsArchived() {
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(archiveService.getArchivedOperationPage(account, null, Long.MIN_VALUE, DATE_TO, LIMIT))
+                .thenReturn(presetOperations);
+        assertSame(presetOperations, service.getUserOperations(USER_ID, null, DATE_TO, null, LIMIT));
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).getArchivedOperationPage(account, null, Long.MIN_VALUE, DATE_TO, LIMIT);
+    }
+
+    @Test
+    void testGetUserOperationsPageWhenPageStartsInArchive() {
+        OperationCursor cursor = new OperationCursor(DATE_FROM.minusYears(1L), CURSOR_ID);
+        Pageable page = PageRequest.of(0, LIMIT - 1);
+        List<Operation> archivedOperations = Collections.singletonList(presetOperations.get(1));
+        List<Operation> operations = Collections.singletonList(presetOperations.get(0));
+        when(accountService.readAccount(USER_ID)).thenReturn(account);
+        when(archiveService.getArchivedOperationPage(account, cursor.getDate(), CURSOR_ID, null, LIMIT))
+                .thenReturn(archivedOperations);
+        when(repository.findPageByAccountAfter(account, cursor.getDate(), CURSOR_ID, page)).thenReturn(operations);
+        List<Operation> expected = new ArrayList<>(archivedOperations);
+        expected.addAll(operations);
+        assertEquals(expected, service.getUserOperations(USER_ID, null, null, cursor, LIMIT));
+        verify(accountService).readAccount(USER_ID);
+        verify(archiveService).getArchivedOperationPage(account, cursor.getDate(), CURSOR_ID, null, LIMIT);
+        verify(repository).findPageByAccountAfter(account, cursor.getDate(), CURSOR_ID, page);
     }
 
     private Operation storeOperation(Object obj) {
@@ -549,4 +721,11 @@ class OperationServiceTest {
             throw new IllegalArgumentException("argument is not of Operation type");
         }
     }
+
+    @SuppressWarnings("unchecked")
+    private void whenHistoryCacheMisses(OffsetDateTime windowStart) {
+        when(historyCache.get(eq(USER_ID), eq(DATE_FROM), isNull(), any())).thenAnswer(invocation ->
+                ((Function<OffsetDateTime, List<Operation>>) invocation.getArgument(3)).apply(windowStart)
+        );
+    }
 }
\ No newline at end of file
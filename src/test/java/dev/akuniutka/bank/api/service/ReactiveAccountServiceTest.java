@@ -0,0 +1,164 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.exception.NullUserIdException;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.repository.ReactiveAccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class ReactiveAccountServiceTest {
+    private static final Long USER_ID = 1L;
+    private static final Long RECEIVER_ID = 2L;
+    private ReactiveAccountRepository repository;
+    private ReactiveAccountService service;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(ReactiveAccountRepository.class);
+        service = new ReactiveAccountService(repository);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(repository));
+    }
+
+    @Test
+    void testGetAccountWhenUserIdIsNull() {
+        Exception e = assertThrows(NullUserIdException.class, () -> service.getAccount(null).block());
+        assertEquals(USER_ID_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testGetAccountWhenUserDoesNotExist() {
+        when(repository.findAllByIdForUpdate(Collections.singleton(USER_ID))).thenReturn(Flux.empty());
+        Exception e = assertThrows(UserNotFoundException.class, () -> service.getAccount(USER_ID).block());
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(repository).findAllByIdForUpdate(Collections.singleton(USER_ID));
+    }
+
+    @Test
+    void testGetAccountWhenUserExists() {
+        Account account = new Account(USER_ID, TEN);
+        when(repository.findAllByIdForUpdate(Collections.singleton(USER_ID))).thenReturn(Flux.just(account));
+        assertEquals(account, service.getAccount(USER_ID).block());
+        verify(repository).findAllByIdForUpdate(Collections.singleton(USER_ID));
+    }
+
+    @Test
+    void testReadAccountWhenUserIdIsNull() {
+        Exception e = assertThrows(NullUserIdException.class, () -> service.readAccount(null).block());
+        assertEquals(USER_ID_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testReadAccountWhenUserDoesNotExist() {
+        when(repository.findById(USER_ID)).thenReturn(Mono.empty());
+        Exception e = assertThrows(UserNotFoundException.class, () -> service.readAccount(USER_ID).block());
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(repository).findById(USER_ID);
+    }
+
+    @Test
+    void testReadAccountWhenUserExists() {
+        Account account = new Account(USER_ID, TEN);
+        when(repository.findById(USER_ID)).thenReturn(Mono.just(account));
+        assertEquals(account, service.readAccount(USER_ID).block());
+        verify(repository).findById(USER_ID);
+    }
+
+    @Test
+    void testLockAccountsWhenUserIdsAreNull() {
+        assertEquals(Collections.emptyMap(), service.lockAccounts(null, null).block());
+    }
+
+    @Test
+    void testLockAccountsLocksInAscendingOrder() {
+        Account payer = new Account(USER_ID, TEN);
+        Account payee = new Account(RECEIVER_ID, ZERO);
+        when(repository.findAllByIdForUpdate(any())).thenAnswer(a -> {
+            assertIterableEquals(Arrays.asList(USER_ID, RECEIVER_ID), (Iterable<?>) a.getArguments()[0]);
+            return Flux.just(payer, payee);
+        });
+        Map<Long, Account> accounts = service.lockAccounts(RECEIVER_ID, USER_ID).block();
+        assertNotNull(accounts);
+        assertEquals(payer, accounts.get(USER_ID));
+        assertEquals(payee, accounts.get(RECEIVER_ID));
+        verify(repository).findAllByIdForUpdate(new TreeSet<>(Arrays.asList(USER_ID, RECEIVER_ID)));
+    }
+
+    @Test
+    void testGetUserBalanceWhenUserIdIsNull() {
+        Exception e = assertThrows(NullUserIdException.class, () -> service.getUserBalance(null).block());
+        assertEquals(USER_ID_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testGetUserBalanceWhenUserDoesNotExist() {
+        when(repository.findBalanceById(USER_ID)).thenReturn(Mono.empty());
+        Exception e = assertThrows(UserNotFoundException.class, () -> service.getUserBalance(USER_ID).block());
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(repository).findBalanceById(USER_ID);
+    }
+
+    @Test
+    void testGetUserBalanceWhenUserExists() {
+        when(repository.findBalanceById(USER_ID)).thenReturn(Mono.just(FORMATTED_TEN));
+        assertEquals(FORMATTED_TEN, service.getUserBalance(USER_ID).block());
+        verify(repository).findBalanceById(USER_ID);
+    }
+
+    @Test
+    void testIncreaseUserBalance() {
+        Account account = new Account(USER_ID, ONE);
+        when(repository.findAllByIdForUpdate(Collections.singleton(USER_ID))).thenReturn(Flux.just(account));
+        when(repository.updateBalance(account)).thenReturn(Mono.empty());
+        assertEquals(account, service.increaseUserBalance(USER_ID, MONEY_TEN).block());
+        assertEquals(MONEY_TEN.add(MONEY_ONE), account.getBalance());
+        verify(repository).findAllByIdForUpdate(Collections.singleton(USER_ID));
+        verify(repository).updateBalance(account);
+    }
+
+    @Test
+    void testDecreaseUserBalanceWhenBalanceIsSufficient() {
+        Account account = new Account(USER_ID, TEN);
+        when(repository.findAllByIdForUpdate(Collections.singleton(USER_ID))).thenReturn(Flux.just(account));
+        when(repository.updateBalance(account)).thenReturn(Mono.empty());
+        assertEquals(account, service.decreaseUserBalance(USER_ID, MONEY_ONE).block());
+        assertEquals(MONEY_NINE, account.getBalance());
+        verify(repository).findAllByIdForUpdate(Collections.singleton(USER_ID));
+        verify(repository).updateBalance(account);
+    }
+
+    @Test
+    void testDecreaseUserBalanceWhenBalanceIsInsufficient() {
+        Account account = new Account(USER_ID, ONE);
+        when(repository.findAllByIdForUpdate(Collections.singleton(USER_ID))).thenReturn(Flux.just(account));
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> service.decreaseUserBalance(USER_ID, MONEY_TEN).block()
+        );
+        assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
+        assertEquals(MONEY_ONE, account.getBalance());
+        verify(repository).findAllByIdForUpdate(Collections.singleton(USER_ID));
+    }
+
+    @Test
+    void testUpdateBalance() {
+        Account account = new Account(USER_ID, TEN);
+        when(repository.updateBalance(account)).thenReturn(Mono.empty());
+        assertNull(service.updateBalance(account).block());
+        verify(repository).updateBalance(account);
+    }
+}
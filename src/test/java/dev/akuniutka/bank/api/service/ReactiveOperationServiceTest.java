@@ -0,0 +1,142 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.metrics.OperationMetrics;
+import dev.akuniutka.bank.api.repository.ReactiveOperationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+import static dev.akuniutka.bank.api.util.DateChecker.isDateBetween;
+
+class ReactiveOperationServiceTest {
+    private static final Long USER_ID = 1L;
+    private static final OffsetDateTime DATE_FROM = OffsetDateTime.now();
+    private static final OffsetDateTime DATE_TO = OffsetDateTime.now().plusDays(1L);
+    private Account account;
+    private ReactiveOperationRepository repository;
+    private ReactiveAccountService accountService;
+    private TransactionalOperator transactionalOperator;
+    private OperationMetrics metrics;
+    private ReactiveOperationService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        account = new Account(USER_ID, TEN);
+        repository = mock(ReactiveOperationRepository.class);
+        accountService = mock(ReactiveAccountService.class);
+        transactionalOperator = mock(TransactionalOperator.class);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(a -> a.getArguments()[0]);
+        metrics = mock(OperationMetrics.class);
+        service = new ReactiveOperationService(repository, accountService, transactionalOperator, metrics);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(repository));
+        verifyNoMoreInteractions(ignoreStubs(accountService));
+        verifyNoMoreInteractions(ignoreStubs(transactionalOperator));
+        verifyNoMoreInteractions(ignoreStubs(metrics));
+    }
+
+    @Test
+    void testCreateDepositWhenUserDoesNotExist() {
+        when(accountService.increaseUserBalance(USER_ID, MONEY_TEN))
+                .thenReturn(Mono.error(new UserNotFoundException(USER_NOT_FOUND)));
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> service.createDeposit(USER_ID, MONEY_TEN).block()
+        );
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(accountService).increaseUserBalance(USER_ID, MONEY_TEN);
+    }
+
+    @Test
+    void testCreateDepositWhenUserExists() {
+        ArgumentCaptor<Operation> captor = ArgumentCaptor.forClass(Operation.class);
+        when(accountService.increaseUserBalance(USER_ID, MONEY_TEN)).thenReturn(Mono.just(account));
+        when(repository.save(any(Operation.class))).thenReturn(Mono.just(1L));
+        OffsetDateTime start = OffsetDateTime.now();
+        service.createDeposit(USER_ID, MONEY_TEN).block();
+        OffsetDateTime finish = OffsetDateTime.now();
+        verify(accountService).increaseUserBalance(USER_ID, MONEY_TEN);
+        verify(repository).save(captor.capture());
+        verify(metrics).recordOperation(OperationType.DEPOSIT, MONEY_TEN);
+        assertEquals(account, captor.getValue().getAccount());
+        assertEquals(OperationType.DEPOSIT, captor.getValue().getType());
+        assertEquals(MONEY_TEN, captor.getValue().getAmount());
+        assertTrue(isDateBetween(captor.getValue().getDate(), start, finish));
+    }
+
+    @Test
+    void testCreateWithdrawalWhenBalanceIsInsufficient() {
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_TEN))
+                .thenReturn(Mono.error(new WrongAmountException(INSUFFICIENT_BALANCE)));
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> service.createWithdrawal(USER_ID, MONEY_TEN).block()
+        );
+        assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_TEN);
+    }
+
+    @Test
+    void testCreateWithdrawalWhenBalanceIsSufficient() {
+        ArgumentCaptor<Operation> captor = ArgumentCaptor.forClass(Operation.class);
+        when(accountService.decreaseUserBalance(USER_ID, MONEY_ONE)).thenReturn(Mono.just(account));
+        when(repository.save(any(Operation.class))).thenReturn(Mono.just(1L));
+        service.createWithdrawal(USER_ID, MONEY_ONE).block();
+        verify(accountService).decreaseUserBalance(USER_ID, MONEY_ONE);
+        verify(repository).save(captor.capture());
+        verify(metrics).recordOperation(OperationType.WITHDRAWAL, MONEY_ONE);
+        assertEquals(account, captor.getValue().getAccount());
+        assertEquals(OperationType.WITHDRAWAL, captor.getValue().getType());
+        assertEquals(MONEY_ONE, captor.getValue().getAmount());
+    }
+
+    @Test
+    void testSaveOperation() {
+        Operation operation = new Operation(account, OperationType.DEPOSIT, TEN, OffsetDateTime.now());
+        when(repository.save(operation)).thenReturn(Mono.just(1L));
+        assertEquals(1L, service.saveOperation(operation).block());
+        verify(repository).save(operation);
+    }
+
+    @Test
+    void testGetUserOperationsWhenUserDoesNotExist() {
+        when(accountService.readAccount(USER_ID)).thenReturn(Mono.error(new UserNotFoundException(USER_NOT_FOUND)));
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> service.getUserOperations(USER_ID, DATE_FROM, DATE_TO).collectList().block()
+        );
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(accountService).readAccount(USER_ID);
+    }
+
+    @Test
+    void testGetUserOperationsWhenUserExists() {
+        List<Operation> operations = Arrays.asList(
+                new Operation(account, OperationType.DEPOSIT, TEN, DATE_FROM),
+                new Operation(account, OperationType.WITHDRAWAL, ONE, DATE_TO)
+        );
+        when(accountService.readAccount(USER_ID)).thenReturn(Mono.just(account));
+        when(repository.findByAccount(account, DATE_FROM, DATE_TO)).thenReturn(Flux.fromIterable(operations));
+        assertEquals(operations, service.getUserOperations(USER_ID, DATE_FROM, DATE_TO).collectList().block());
+        verify(accountService).readAccount(USER_ID);
+        verify(repository).findByAccount(account, DATE_FROM, DATE_TO);
+    }
+}
@@ -0,0 +1,155 @@
+package dev.akuniutka.bank.api.service;
+
+import dev.akuniutka.bank.api.entity.Account;
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.entity.OperationType;
+import dev.akuniutka.bank.api.exception.BadRequestException;
+import dev.akuniutka.bank.api.exception.NullUserIdException;
+import dev.akuniutka.bank.api.exception.UserNotFoundException;
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import dev.akuniutka.bank.api.metrics.OperationMetrics;
+import dev.akuniutka.bank.api.repository.ReactiveTransferRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class ReactiveTransferServiceTest {
+    private static final Long USER_ID = 1L;
+    private static final Long RECEIVER_ID = 2L;
+    private Account payer;
+    private Account payee;
+    private Map<Long, Account> accounts;
+    private ReactiveTransferRepository repository;
+    private ReactiveAccountService accountService;
+    private ReactiveOperationService operationService;
+    private TransactionalOperator transactionalOperator;
+    private OperationMetrics metrics;
+    private ReactiveTransferService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        payer = new Account(USER_ID, TEN);
+        payee = new Account(RECEIVER_ID, ZERO);
+        accounts = new HashMap<>();
+        accounts.put(USER_ID, payer);
+        accounts.put(RECEIVER_ID, payee);
+        repository = mock(ReactiveTransferRepository.class);
+        accountService = mock(ReactiveAccountService.class);
+        operationService = mock(ReactiveOperationService.class);
+        transactionalOperator = mock(TransactionalOperator.class);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(a -> a.getArguments()[0]);
+        metrics = mock(OperationMetrics.class);
+        service = new ReactiveTransferService(repository, accountService, operationService, transactionalOperator,
+                metrics);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(ignoreStubs(repository));
+        verifyNoMoreInteractions(ignoreStubs(accountService));
+        verifyNoMoreInteractions(ignoreStubs(operationService));
+        verifyNoMoreInteractions(ignoreStubs(transactionalOperator));
+        verifyNoMoreInteractions(ignoreStubs(metrics));
+    }
+
+    @Test
+    void testCreateTransferWhenUserIdIsNull() {
+        when(accountService.lockAccounts(null, RECEIVER_ID)).thenReturn(Mono.just(accounts));
+        Exception e = assertThrows(NullUserIdException.class,
+                () -> service.createTransfer(null, RECEIVER_ID, MONEY_TEN).block()
+        );
+        assertEquals(USER_ID_IS_NULL, e.getMessage());
+        verify(accountService).lockAccounts(null, RECEIVER_ID);
+    }
+
+    @Test
+    void testCreateTransferWhenUserDoesNotExist() {
+        when(accountService.lockAccounts(0L, RECEIVER_ID)).thenReturn(Mono.just(accounts));
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> service.createTransfer(0L, RECEIVER_ID, MONEY_TEN).block()
+        );
+        assertEquals(USER_NOT_FOUND, e.getMessage());
+        verify(accountService).lockAccounts(0L, RECEIVER_ID);
+    }
+
+    @Test
+    void testCreateTransferWhenBalanceIsInsufficient() {
+        when(accountService.lockAccounts(USER_ID, RECEIVER_ID)).thenReturn(Mono.just(accounts));
+        Exception e = assertThrows(WrongAmountException.class,
+                () -> service.createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN.add(MONEY_ONE)).block()
+        );
+        assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
+        verify(accountService).lockAccounts(USER_ID, RECEIVER_ID);
+    }
+
+    @Test
+    void testCreateTransferWhenReceiverIdIsNull() {
+        when(accountService.lockAccounts(USER_ID, null)).thenReturn(Mono.just(accounts));
+        Exception e = assertThrows(NullUserIdException.class,
+                () -> service.createTransfer(USER_ID, null, MONEY_TEN).block()
+        );
+        assertEquals(RECEIVER_ID_IS_NULL, e.getMessage());
+        verify(accountService).lockAccounts(USER_ID, null);
+    }
+
+    @Test
+    void testCreateTransferWhenReceiverDoesNotExist() {
+        when(accountService.lockAccounts(USER_ID, 0L)).thenReturn(Mono.just(accounts));
+        Exception e = assertThrows(UserNotFoundException.class,
+                () -> service.createTransfer(USER_ID, 0L, MONEY_TEN).block()
+        );
+        assertEquals(RECEIVER_NOT_FOUND, e.getMessage());
+        verify(accountService).lockAccounts(USER_ID, 0L);
+    }
+
+    @Test
+    void testCreateTransferWhenPayerAndPayeeAreTheSame() {
+        when(accountService.lockAccounts(USER_ID, USER_ID)).thenReturn(Mono.just(accounts));
+        Exception e = assertThrows(BadRequestException.class,
+                () -> service.createTransfer(USER_ID, USER_ID, MONEY_TEN).block()
+        );
+        assertEquals(WRONG_OPERATION_ACCOUNT, e.getMessage());
+        verify(accountService).lockAccounts(USER_ID, USER_ID);
+    }
+
+    @Test
+    void testCreateTransferWhenBalanceIsSufficient() {
+        ArgumentCaptor<Operation> captor = ArgumentCaptor.forClass(Operation.class);
+        when(accountService.lockAccounts(USER_ID, RECEIVER_ID)).thenReturn(Mono.just(accounts));
+        when(accountService.updateBalance(any(Account.class))).thenReturn(Mono.empty());
+        when(operationService.saveOperation(any(Operation.class))).thenAnswer(
+                a -> Mono.just(OperationType.OUTGOING_TRANSFER.equals(((Operation) a.getArguments()[0]).getType())
+                        ? 10L
+                        : 11L
+                )
+        );
+        when(repository.save(eq(10L), eq(11L), any(OffsetDateTime.class))).thenReturn(Mono.just(20L));
+        service.createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN).block();
+        assertEquals(MONEY_ZERO, payer.getBalance());
+        assertEquals(MONEY_TEN, payee.getBalance());
+        verify(accountService).lockAccounts(USER_ID, RECEIVER_ID);
+        verify(accountService).updateBalance(payer);
+        verify(accountService).updateBalance(payee);
+        verify(operationService, times(2)).saveOperation(captor.capture());
+        assertEquals(payer, captor.getAllValues().get(0).getAccount());
+        assertEquals(OperationType.OUTGOING_TRANSFER, captor.getAllValues().get(0).getType());
+        assertEquals(payee, captor.getAllValues().get(1).getAccount());
+        assertEquals(OperationType.INCOMING_TRANSFER, captor.getAllValues().get(1).getType());
+        verify(repository).save(eq(10L), eq(11L), any(OffsetDateTime.class));
+        verify(metrics).recordOperation(OperationType.OUTGOING_TRANSFER, MONEY_TEN);
+        verify(metrics).recordOperation(OperationType.INCOMING_TRANSFER, MONEY_TEN);
+    }
+}
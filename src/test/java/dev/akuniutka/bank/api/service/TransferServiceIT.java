@@ -0,0 +1,51 @@
+package dev.akuniutka.bank.api.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TransferServiceIT {
+    private static final int THREADS = 16;
+    private static final int TRANSFERS = 4000;
+    @Autowired
+    private TransferService service;
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void testCreateTransferWhenTransfersAreOpposite() throws Exception {
+        Long firstId = 1094L;
+        Long secondId = 1095L;
+        BigDecimal total = accountService.getUserBalance(firstId).add(accountService.getUserBalance(secondId));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>(TRANSFERS);
+        try {
+            for (int i = 0; i < TRANSFERS; i++) {
+                if (i % 2 == 0) {
+                    futures.add(executor.submit(() -> service.createTransfer(firstId, secondId, MONEY_ONE)));
+                } else {
+                    futures.add(executor.submit(() -> service.createTransfer(secondId, firstId, MONEY_ONE)));
+                }
+            }
+            for (Future<?> future : futures) {
+                assertDoesNotThrow(() -> future.get());
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+        }
+        assertEquals(total, accountService.getUserBalance(firstId).add(accountService.getUserBalance(secondId)));
+    }
+}
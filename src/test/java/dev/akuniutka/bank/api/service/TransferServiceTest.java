@@ -1,5 +1,6 @@
 package dev.akuniutka.bank.api.service;
 
+import dev.akuniutka.bank.api.dto.PaymentOrderDto;
 import dev.akuniutka.bank.api.entity.Account;
 import dev.akuniutka.bank.api.entity.Operation;
 import dev.akuniutka.bank.api.entity.OperationType;
@@ -9,12 +10,15 @@ import dev.akuniutka.bank.api.exception.WrongAmountException;
 import dev.akuniutka.bank.api.exception.NullUserIdException;
 import dev.akuniutka.bank.api.exception.UserNotFoundException;
 import dev.akuniutka.bank.api.repository.TransferRepository;
+import dev.akuniutka.bank.api.util.Money;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.*;
 
 import static dev.akuniutka.bank.api.util.Amount.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,6 +34,7 @@ class TransferServiceTest {
     private Transfer storedTransfer;
     private OffsetDateTime transferDate;
     private TransferRepository repository;
+    private AccountService accountService;
     private OperationService operationService;
     private TransferService service;
 
@@ -41,8 +46,9 @@ class TransferServiceTest {
         storedTransfer = null;
         transferDate = null;
         repository = mock(TransferRepository.class);
+        accountService = mock(AccountService.class);
         operationService = mock(OperationService.class);
-        service = new TransferService(repository, operationService);
+        service = new TransferService(repository, accountService, operationService);
     }
 
     @AfterEach
@@ -51,73 +57,79 @@ class TransferServiceTest {
         verifyNoMoreInteractions(ignoreStubs(incomingTransfer));
         verifyNoMoreInteractions(ignoreStubs(transfer));
         verifyNoMoreInteractions(ignoreStubs(repository));
+        verifyNoMoreInteractions(ignoreStubs(accountService));
         verifyNoMoreInteractions(ignoreStubs(operationService));
     }
 
     @Test
     void testCreateTransferWhenUserIdIsNull() {
-        when(operationService.createOutgoingTransfer(eq(null), eq(TEN), any(OffsetDateTime.class)))
+        when(operationService.createOutgoingTransfer(eq(null), eq(MONEY_TEN), any(OffsetDateTime.class)))
                 .thenThrow(new NullUserIdException(USER_ID_IS_NULL));
         Exception e = assertThrows(NullUserIdException.class,
-                () -> service.createTransfer(null, RECEIVER_ID, TEN)
+                () -> service.createTransfer(null, RECEIVER_ID, MONEY_TEN)
         );
         assertEquals(USER_ID_IS_NULL, e.getMessage());
-        verify(operationService).createOutgoingTransfer(eq(null), eq(TEN), any(OffsetDateTime.class));
+        verify(accountService).lockAccounts(null, RECEIVER_ID);
+        verify(operationService).createOutgoingTransfer(eq(null), eq(MONEY_TEN), any(OffsetDateTime.class));
     }
 
     @Test
     void testCreateTransferWhenReceiverIdIsNull() {
-        when(operationService.createOutgoingTransfer(eq(USER_ID), eq(TEN), any(OffsetDateTime.class))).thenAnswer(
+        when(operationService.createOutgoingTransfer(eq(USER_ID), eq(MONEY_TEN), any(OffsetDateTime.class))).thenAnswer(
                 a -> {
                     storeTransferDate(a.getArguments()[2]);
                     return outgoingTransfer;
                 }
         );
-        when(operationService.createIncomingTransfer(eq(null), eq(TEN), any(OffsetDateTime.class))).thenAnswer(
+        when(operationService.createIncomingTransfer(eq(null), eq(MONEY_TEN), any(OffsetDateTime.class))).thenAnswer(
                 a -> {
                     assertEquals(transferDate, a.getArguments()[2]);
                     throw new NullUserIdException(RECEIVER_ID_IS_NULL);
                 }
         );
         Exception e = assertThrows(NullUserIdException.class,
-                () -> service.createTransfer(USER_ID, null, TEN)
+                () -> service.createTransfer(USER_ID, null, MONEY_TEN)
         );
         assertEquals(RECEIVER_ID_IS_NULL, e.getMessage());
-        verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(TEN), any(OffsetDateTime.class));
-        verify(operationService).createIncomingTransfer(eq(null), eq(TEN), any(OffsetDateTime.class));
+        verify(accountService).lockAccounts(USER_ID, null);
+        verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(MONEY_TEN), any(OffsetDateTime.class));
+        verify(operationService).createIncomingTransfer(eq(null), eq(MONEY_TEN), any(OffsetDateTime.class));
     }
 
     @Test
     void testCreateTransferWhenUserDoesNotExist() {
-        when(operationService.createOutgoingTransfer(eq(USER_ID), eq(TEN), any(OffsetDateTime.class)))
+        when(operationService.createOutgoingTransfer(eq(USER_ID), eq(MONEY_TEN), any(OffsetDateTime.class)))
                 .thenThrow(new UserNotFoundException(USER_NOT_FOUND));
         Exception e = assertThrows(UserNotFoundException.class,
-                () -> service.createTransfer(USER_ID, RECEIVER_ID, TEN)
+                () -> service.createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN)
         );
         assertEquals(USER_NOT_FOUND, e.getMessage());
-        verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(TEN), any(OffsetDateTime.class));
+        verify(accountService).lockAccounts(USER_ID, RECEIVER_ID);
+        verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(MONEY_TEN), any(OffsetDateTime.class));
     }
 
     @Test
     void testCreateTransferWhenReceiverDoesNotExist() {
-        when(operationService.createOutgoingTransfer(eq(USER_ID), eq(TEN), any(OffsetDateTime.class))).thenAnswer(
+        when(operationService.createOutgoingTransfer(eq(USER_ID), eq(MONEY_TEN), any(OffsetDateTime.class))).thenAnswer(
                 a -> {
                     storeTransferDate(a.getArguments()[2]);
                     return outgoingTransfer;
                 }
         );
-        when(operationService.createIncomingTransfer(eq(RECEIVER_ID), eq(TEN), any(OffsetDateTime.class))).thenAnswer(
-                a -> {
-                    assertEquals(transferDate, a.getArguments()[2]);
-                    throw new UserNotFoundException(RECEIVER_NOT_FOUND);
-                }
-        );
+        when(operationService.createIncomingTransfer(eq(RECEIVER_ID), eq(MONEY_TEN), any(OffsetDateTime.class)))
+                .thenAnswer(
+                        a -> {
+                            assertEquals(transferDate, a.getArguments()[2]);
+                            throw new UserNotFoundException(RECEIVER_NOT_FOUND);
+                        }
+                );
         Exception e = assertThrows(UserNotFoundException.class,
-                () -> service.createTransfer(USER_ID, RECEIVER_ID, TEN)
+                () -> service.createTransfer(USER_ID, RECEIVER_ID, MONEY_TEN)
         );
         assertEquals(RECEIVER_NOT_FOUND, e.getMessage());
-        verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(TEN), any(OffsetDateTime.class));
-        verify(operationService).createIncomingTransfer(eq(RECEIVER_ID), eq(TEN), any(OffsetDateTime.class));
+        verify(accountService).lockAccounts(USER_ID, RECEIVER_ID);
+        verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(MONEY_TEN), any(OffsetDateTime.class));
+        verify(operationService).createIncomingTransfer(eq(RECEIVER_ID), eq(MONEY_TEN), any(OffsetDateTime.class));
     }
 
     @Test
@@ -128,60 +140,53 @@ class TransferServiceTest {
                 () -> service.createTransfer(USER_ID, RECEIVER_ID, null)
         );
         assertEquals(AMOUNT_IS_NULL, e.getMessage());
+        verify(accountService).lockAccounts(USER_ID, RECEIVER_ID);
         verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(null), any(OffsetDateTime.class));
     }
 
     @Test
     void testCreateTransferWhenAmountIsNegative() {
-        BigDecimal amount = MINUS_TEN;
+        Money amount = MONEY_MINUS_TEN;
         when(operationService.createOutgoingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class)))
                 .thenThrow(new WrongAmountException(AMOUNT_IS_NEGATIVE));
         Exception e = assertThrows(WrongAmountException.class,
                 () -> service.createTransfer(USER_ID, RECEIVER_ID, amount)
         );
         assertEquals(AMOUNT_IS_NEGATIVE, e.getMessage());
+        verify(accountService).lockAccounts(USER_ID, RECEIVER_ID);
         verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class));
     }
 
     @Test
     void testCreateTransferWhenAmountIsZero() {
-        BigDecimal amount = ZERO;
+        Money amount = MONEY_ZERO;
         when(operationService.createOutgoingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class)))
                 .thenThrow(new WrongAmountException(AMOUNT_IS_ZERO));
         Exception e = assertThrows(WrongAmountException.class,
                 () -> service.createTransfer(USER_ID, RECEIVER_ID, amount)
         );
         assertEquals(AMOUNT_IS_ZERO, e.getMessage());
+        verify(accountService).lockAccounts(USER_ID, RECEIVER_ID);
         verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class));
     }
 
-    @Test
-    void testCreateTransferWhenScaleIsGreaterThanTwoAndWithNonZeros() {
-        BigDecimal amount = ONE_THOUSANDTH;
-        when(operationService.createOutgoingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class)))
-                .thenThrow(new WrongAmountException(WRONG_MINOR_UNITS));
-        Exception e = assertThrows(WrongAmountException.class,
-                () -> service.createTransfer(USER_ID, RECEIVER_ID, amount)
-        );
-        assertEquals(WRONG_MINOR_UNITS, e.getMessage());
-        verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class));
-    }
 
     @Test
     void testCreateTransferWhenBalanceIsInsufficient() {
-        BigDecimal amount = TEN;
+        Money amount = MONEY_TEN;
         when(operationService.createOutgoingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class)))
                 .thenThrow(new WrongAmountException(INSUFFICIENT_BALANCE));
         Exception e = assertThrows(WrongAmountException.class,
                 () -> service.createTransfer(USER_ID, RECEIVER_ID, amount)
         );
         assertEquals(INSUFFICIENT_BALANCE, e.getMessage());
+        verify(accountService).lockAccounts(USER_ID, RECEIVER_ID);
         verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class));
     }
 
     @Test
     void testCreateTransferWhenPayerAndPayeeAreTheSame() {
-        BigDecimal amount = TEN;
+        Money amount = MONEY_TEN;
         Account payer = mock(Account.class);
         Account payee = mock(Account.class);
         when(payer.getId()).thenReturn(USER_ID);
@@ -206,6 +211,7 @@ class TransferServiceTest {
                 );
         Exception e = assertThrows(BadRequestException.class, () -> service.createTransfer(USER_ID, USER_ID, amount));
         assertEquals(WRONG_OPERATION_ACCOUNT, e.getMessage());
+        verify(accountService).lockAccounts(USER_ID, USER_ID);
         verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class));
         verify(operationService).createIncomingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class));
         verify(outgoingTransfer).getType();
@@ -220,7 +226,7 @@ class TransferServiceTest {
 
     @Test
     void testCreateTransferWhenBalanceIsSufficient() {
-        BigDecimal amount = TEN;
+        Money amount = MONEY_TEN;
         Account payer = mock(Account.class);
         Account payee = mock(Account.class);
         when(payer.getId()).thenReturn(USER_ID);
@@ -252,6 +258,8 @@ class TransferServiceTest {
         assertNotNull(storedTransfer);
         assertEquals(outgoingTransfer, storedTransfer.getOutgoingTransfer());
         assertEquals(incomingTransfer, storedTransfer.getIncomingTransfer());
+        assertEquals(transferDate, storedTransfer.getDate());
+        verify(accountService).lockAccounts(USER_ID, RECEIVER_ID);
         verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class));
         verify(operationService).createIncomingTransfer(eq(RECEIVER_ID), eq(amount), any(OffsetDateTime.class));
         verify(outgoingTransfer).getType();
@@ -262,62 +270,149 @@ class TransferServiceTest {
         verify(payee).getId();
         verify(outgoingTransfer).getAmount();
         verify(incomingTransfer).getAmount();
-        verify(outgoingTransfer).getDate();
+        verify(outgoingTransfer, times(2)).getDate();
         verify(incomingTransfer).getDate();
         verify(repository).save(any(Transfer.class));
         verifyNoMoreInteractions(ignoreStubs(payer));
         verifyNoMoreInteractions(ignoreStubs(payee));
     }
 
+
     @Test
-    void testCreateTransferWhenScaleIsGreaterThatTwoButWithZeros() {
-        BigDecimal amount = TEN_THOUSANDTHS;
+    @SuppressWarnings("unchecked")
+    void testCreateTransfersWhenOrdersAreValid() {
         Account payer = mock(Account.class);
         Account payee = mock(Account.class);
         when(payer.getId()).thenReturn(USER_ID);
         when(payee.getId()).thenReturn(RECEIVER_ID);
-        when(outgoingTransfer.getType()).thenReturn(OperationType.OUTGOING_TRANSFER);
-        when(outgoingTransfer.getAccount()).thenReturn(payer);
-        when(outgoingTransfer.getAmount()).thenReturn(amount);
-        when(incomingTransfer.getType()).thenReturn(OperationType.INCOMING_TRANSFER);
-        when(incomingTransfer.getAccount()).thenReturn(payee);
-        when(incomingTransfer.getAmount()).thenReturn(amount);
-        when(operationService.createOutgoingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class)))
-                .thenAnswer(a -> {
-                            storeTransferDate(a.getArguments()[2]);
-                            when(outgoingTransfer.getDate()).thenReturn(transferDate);
-                            return outgoingTransfer;
-                        }
-                );
-        when(operationService.createIncomingTransfer(eq(RECEIVER_ID), eq(amount), any(OffsetDateTime.class)))
-                .thenAnswer(a -> {
-                            assertEquals(transferDate, a.getArguments()[2]);
-                            when(incomingTransfer.getDate()).thenReturn(transferDate);
-                            return incomingTransfer;
-                        }
-                );
-        when(repository.save(any(Transfer.class))).thenAnswer(a -> storeTransfer(a.getArguments()[0]));
-        assertDoesNotThrow(() -> service.createTransfer(USER_ID, RECEIVER_ID, amount));
-        assertNotNull(storedTransfer);
-        assertEquals(outgoingTransfer, storedTransfer.getOutgoingTransfer());
-        assertEquals(incomingTransfer, storedTransfer.getIncomingTransfer());
-        verify(operationService).createOutgoingTransfer(eq(USER_ID), eq(amount), any(OffsetDateTime.class));
-        verify(operationService).createIncomingTransfer(eq(RECEIVER_ID), eq(amount), any(OffsetDateTime.class));
-        verify(outgoingTransfer).getType();
-        verify(incomingTransfer).getType();
-        verify(outgoingTransfer).getAccount();
-        verify(incomingTransfer).getAccount();
-        verify(payer).getId();
-        verify(payee).getId();
-        verify(outgoingTransfer).getAmount();
-        verify(incomingTransfer).getAmount();
-        verify(outgoingTransfer).getDate();
-        verify(incomingTransfer).getDate();
-        verify(repository).save(any(Transfer.class));
+        List<PaymentOrderDto> orders = new ArrayList<>();
+        orders.add(newOrder(USER_ID, RECEIVER_ID, MONEY_TEN));
+        orders.add(newOrder(RECEIVER_ID, USER_ID, MONEY_ONE));
+        when(accountService.lockAccounts(anyCollection())).thenReturn(Arrays.asList(payer, payee));
+        ArgumentCaptor<List<Operation>> operations = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Transfer>> transfers = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Collection<Account>> cachedAccounts = ArgumentCaptor.forClass(Collection.class);
+        assertEquals(Arrays.asList(null, null), service.createTransfers(orders));
+        verify(accountService).lockAccounts(new HashSet<>(Arrays.asList(USER_ID, RECEIVER_ID)));
+        verify(accountService).decreaseLockedBalance(payer, MONEY_TEN);
+        verify(payee).increaseBalance(MONEY_TEN);
+        verify(accountService).recordTransfer(USER_ID, RECEIVER_ID, MONEY_TEN);
+        verify(accountService).decreaseLockedBalance(payee, MONEY_ONE);
+        verify(payer).increaseBalance(MONEY_ONE);
+        verify(accountService).recordTransfer(RECEIVER_ID, USER_ID, MONEY_ONE);
+        verify(operationService).saveOperations(operations.capture());
+        verify(repository).saveAll(transfers.capture());
+        verify(accountService).cacheBalances(cachedAccounts.capture());
+        assertEquals(new HashSet<>(Arrays.asList(payer, payee)), new HashSet<>(cachedAccounts.getValue()));
+        assertEquals(2, transfers.getValue().size());
+        assertEquals(4, operations.getValue().size());
+        Transfer first = transfers.getValue().get(0);
+        assertEquals(payer, first.getOutgoingTransfer().getAccount());
+        assertEquals(payee, first.getIncomingTransfer().getAccount());
+        assertEquals(MONEY_TEN, first.getOutgoingTransfer().getAmount());
+        assertEquals(first.getOutgoingTransfer(), operations.getValue().get(0));
+        assertEquals(first.getIncomingTransfer(), operations.getValue().get(1));
+        Transfer second = transfers.getValue().get(1);
+        assertEquals(payee, second.getOutgoingTransfer().getAccount());
+        assertEquals(payer, second.getIncomingTransfer().getAccount());
+        assertEquals(MONEY_ONE, second.getOutgoingTransfer().getAmount());
+        verifyNoMoreInteractions(ignoreStubs(payer));
+        verifyNoMoreInteractions(ignoreStubs(payee));
+    }
+
+    @Test
+    void testCreateTransfersWhenOrdersAreWrong() {
+        Long unknownId = 0L;
+        Account payer = mock(Account.class);
+        Account payee = mock(Account.class);
+        when(payer.getId()).thenReturn(USER_ID);
+        when(payee.getId()).thenReturn(RECEIVER_ID);
+        doThrow(new WrongAmountException(AMOUNT_IS_NEGATIVE)).when(accountService)
+                .decreaseLockedBalance(payer, MONEY_MINUS_TEN);
+        List<PaymentOrderDto> orders = new ArrayList<>();
+        orders.add(null);
+        orders.add(newOrder(null, RECEIVER_ID, MONEY_TEN));
+        orders.add(newOrder(unknownId, RECEIVER_ID, MONEY_TEN));
+        orders.add(newOrder(USER_ID, RECEIVER_ID, MONEY_MINUS_TEN));
+        orders.add(newOrder(USER_ID, null, MONEY_TEN));
+        orders.add(newOrder(USER_ID, unknownId, MONEY_TEN));
+        orders.add(newOrder(USER_ID, USER_ID, MONEY_TEN));
+        List<String> expected = Arrays.asList(
+                PAYMENT_ORDER_IS_NULL,
+                USER_ID_IS_NULL,
+                USER_NOT_FOUND,
+                AMOUNT_IS_NEGATIVE,
+                RECEIVER_ID_IS_NULL,
+                RECEIVER_NOT_FOUND,
+                WRONG_OPERATION_ACCOUNT
+        );
+        when(accountService.lockAccounts(anyCollection())).thenReturn(Arrays.asList(payer, payee));
+        assertEquals(expected, service.createTransfers(orders));
+        verify(accountService).lockAccounts(new HashSet<>(Arrays.asList(null, unknownId, USER_ID, RECEIVER_ID)));
+        verify(accountService).decreaseLockedBalance(payer, MONEY_MINUS_TEN);
+        verify(accountService, times(3)).decreaseLockedBalance(payer, MONEY_TEN);
+        verify(payer, times(3)).increaseBalance(MONEY_TEN);
+        verify(operationService).saveOperations(Collections.emptyList());
+        verify(repository).saveAll(Collections.emptyList());
+        verify(accountService).cacheBalances(anyCollection());
         verifyNoMoreInteractions(ignoreStubs(payer));
         verifyNoMoreInteractions(ignoreStubs(payee));
     }
 
+    @Test
+    void testCreateTransfersWhenLedgerBalanceIsInsufficient() {
+        Account payer = mock(Account.class);
+        Account payee = mock(Account.class);
+        when(payer.getId()).thenReturn(USER_ID);
+        when(payee.getId()).thenReturn(RECEIVER_ID);
+        doThrow(new WrongAmountException(INSUFFICIENT_BALANCE)).when(accountService)
+                .recordTransfer(USER_ID, RECEIVER_ID, MONEY_TEN);
+        List<PaymentOrderDto> orders = Collections.singletonList(newOrder(USER_ID, RECEIVER_ID, MONEY_TEN));
+        when(accountService.lockAccounts(anyCollection())).thenReturn(Arrays.asList(payer, payee));
+        assertEquals(Collections.singletonList(INSUFFICIENT_BALANCE), service.createTransfers(orders));
+        verify(accountService).lockAccounts(new HashSet<>(Arrays.asList(USER_ID, RECEIVER_ID)));
+        InOrder inOrder = inOrder(payer, payee, accountService);
+        inOrder.verify(accountService).decreaseLockedBalance(payer, MONEY_TEN);
+        inOrder.verify(payee).increaseBalance(MONEY_TEN);
+        inOrder.verify(accountService).recordTransfer(USER_ID, RECEIVER_ID, MONEY_TEN);
+        inOrder.verify(payer).increaseBalance(MONEY_TEN);
+        inOrder.verify(payee).decreaseBalance(MONEY_TEN);
+        verify(operationService).saveOperations(Collections.emptyList());
+        verify(repository).saveAll(Collections.emptyList());
+        verify(accountService).cacheBalances(anyCollection());
+        verifyNoMoreInteractions(ignoreStubs(payer));
+        verifyNoMoreInteractions(ignoreStubs(payee));
+    }
+
+    @Test
+    void testCreateTransfersWhenPayeeBalanceCannotBeIncreased() {
+        Account payer = mock(Account.class);
+        Account payee = mock(Account.class);
+        when(payer.getId()).thenReturn(USER_ID);
+        when(payee.getId()).thenReturn(RECEIVER_ID);
+        doThrow(new WrongAmountException(AMOUNT_IS_NEGATIVE)).when(payee).increaseBalance(MONEY_TEN);
+        List<PaymentOrderDto> orders = Collections.singletonList(newOrder(USER_ID, RECEIVER_ID, MONEY_TEN));
+        when(accountService.lockAccounts(anyCollection())).thenReturn(Arrays.asList(payer, payee));
+        assertEquals(Collections.singletonList(AMOUNT_IS_NEGATIVE), service.createTransfers(orders));
+        verify(accountService).lockAccounts(new HashSet<>(Arrays.asList(USER_ID, RECEIVER_ID)));
+        verify(accountService).decreaseLockedBalance(payer, MONEY_TEN);
+        verify(payee).increaseBalance(MONEY_TEN);
+        verify(payer).increaseBalance(MONEY_TEN);
+        verify(operationService).saveOperations(Collections.emptyList());
+        verify(repository).saveAll(Collections.emptyList());
+        verify(accountService).cacheBalances(anyCollection());
+        verifyNoMoreInteractions(ignoreStubs(payer));
+        verifyNoMoreInteractions(ignoreStubs(payee));
+    }
+
+    private PaymentOrderDto newOrder(Long payerId, Long payeeId, Money amount) {
+        PaymentOrderDto order = new PaymentOrderDto();
+        order.setUserId(payerId);
+        order.setReceiverId(payeeId);
+        order.setAmount(amount);
+        return order;
+    }
+
     private void storeTransferDate(Object o) {
         if (o instanceof OffsetDateTime) {
             if (transferDate == null) {
@@ -26,4 +26,11 @@ public class Amount {
             .divide(BigDecimal.TEN, RoundingMode.HALF_UP);
     public static final BigDecimal MINUS_ONE = BigDecimal.ONE.negate();
     public static final BigDecimal MINUS_TEN = BigDecimal.TEN.negate();
+    public static final Money MONEY_TEN = Money.of(TEN);
+    public static final Money MONEY_NINE = Money.of(FORMATTED_NINE);
+    public static final Money MONEY_ONE = Money.of(ONE);
+    public static final Money MONEY_TEN_HUNDREDTHS = Money.of(FORMATTED_TEN_THOUSANDTHS);
+    public static final Money MONEY_ZERO = Money.ZERO;
+    public static final Money MONEY_MINUS_ONE = Money.of(MINUS_ONE);
+    public static final Money MONEY_MINUS_TEN = Money.of(MINUS_TEN);
 }
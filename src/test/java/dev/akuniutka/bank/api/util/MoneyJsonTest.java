@@ -0,0 +1,37 @@
+package dev.akuniutka.bank.api.util;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class MoneyJsonTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void testSerialize() throws Exception {
+        assertEquals("10.00", OBJECT_MAPPER.writeValueAsString(Money.of(TEN)));
+        assertEquals(OBJECT_MAPPER.writeValueAsString(FORMATTED_TEN_THOUSANDTHS),
+                OBJECT_MAPPER.writeValueAsString(Money.of(TEN_THOUSANDTHS))
+        );
+    }
+
+    @Test
+    void testDeserialize() throws Exception {
+        assertEquals(Money.of(TEN), OBJECT_MAPPER.readValue("10", Money.class));
+        assertEquals(Money.of(TEN_THOUSANDTHS), OBJECT_MAPPER.readValue("0.010", Money.class));
+        assertEquals(Money.of(TEN), OBJECT_MAPPER.readValue("\"10.00\"", Money.class));
+    }
+
+    @Test
+    void testDeserializeWhenScaleIsGreaterThanTwoAndWithNonZeros() {
+        assertThrows(JsonMappingException.class, () -> OBJECT_MAPPER.readValue("0.001", Money.class));
+    }
+
+    @Test
+    void testDeserializeWhenValueIsNotNumber() {
+        assertThrows(JsonMappingException.class, () -> OBJECT_MAPPER.readValue("\"ten\"", Money.class));
+    }
+}
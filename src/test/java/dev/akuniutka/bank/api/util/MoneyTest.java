@@ -0,0 +1,125 @@
+package dev.akuniutka.bank.api.util;
+
+import dev.akuniutka.bank.api.exception.WrongAmountException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+import static dev.akuniutka.bank.api.util.Amount.*;
+
+class MoneyTest {
+    @Test
+    void testOfCents() {
+        assertEquals(1000L, Money.ofCents(1000L).getCents());
+        assertEquals(-1L, Money.ofCents(-1L).getCents());
+        assertSame(Money.ZERO, Money.ofCents(0L));
+    }
+
+    @Test
+    void testOfCentsWhenAmountIsTooLarge() {
+        assertEquals(Money.MAX_CENTS, Money.ofCents(Money.MAX_CENTS).getCents());
+        Exception e = assertThrows(WrongAmountException.class, () -> Money.ofCents(Money.MAX_CENTS + 1L));
+        assertEquals(AMOUNT_IS_TOO_LARGE, e.getMessage());
+        e = assertThrows(WrongAmountException.class, () -> Money.ofCents(-Money.MAX_CENTS - 1L));
+        assertEquals(AMOUNT_IS_TOO_LARGE, e.getMessage());
+    }
+
+    @Test
+    void testOf() {
+        assertEquals(1000L, Money.of(TEN).getCents());
+        assertEquals(1000L, Money.of(FORMATTED_TEN).getCents());
+        assertEquals(1L, Money.of(TEN_THOUSANDTHS).getCents());
+        assertEquals(-1000L, Money.of(MINUS_TEN).getCents());
+        assertEquals(1000L, Money.of(new BigDecimal("1E+1")).getCents());
+        assertSame(Money.ZERO, Money.of(FORMATTED_ZERO));
+    }
+
+    @Test
+    void testOfWhenAmountIsNull() {
+        Exception e = assertThrows(WrongAmountException.class, () -> Money.of(null));
+        assertEquals(AMOUNT_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testOfWhenScaleIsGreaterThanTwoAndWithNonZeros() {
+        Exception e = assertThrows(WrongAmountException.class, () -> Money.of(ONE_THOUSANDTH));
+        assertEquals(WRONG_MINOR_UNITS, e.getMessage());
+    }
+
+    @Test
+    void testOfWhenAmountIsTooLarge() {
+        assertEquals(Money.MAX_CENTS, Money.of(new BigDecimal("9999999999999.99")).getCents());
+        Exception e = assertThrows(WrongAmountException.class, () -> Money.of(new BigDecimal("10000000000000")));
+        assertEquals(AMOUNT_IS_TOO_LARGE, e.getMessage());
+        e = assertThrows(WrongAmountException.class, () -> Money.of(new BigDecimal("1E+30")));
+        assertEquals(AMOUNT_IS_TOO_LARGE, e.getMessage());
+    }
+
+    @Test
+    void testAdd() {
+        assertEquals(Money.of(FORMATTED_TEN), Money.of(FORMATTED_NINE).add(Money.of(ONE)));
+    }
+
+    @Test
+    void testAddWhenResultIsTooLarge() {
+        Money max = Money.ofCents(Money.MAX_CENTS);
+        Money one = Money.ofCents(1L);
+        Exception e = assertThrows(WrongAmountException.class, () -> max.add(one));
+        assertEquals(AMOUNT_IS_TOO_LARGE, e.getMessage());
+    }
+
+    @Test
+    void testSubtract() {
+        assertEquals(Money.of(FORMATTED_NINE), Money.of(TEN).subtract(Money.of(ONE)));
+        assertEquals(Money.of(MINUS_ONE), Money.of(FORMATTED_NINE).subtract(Money.of(TEN)));
+    }
+
+    @Test
+    void testSubtractWhenResultIsTooLarge() {
+        Money min = Money.ofCents(-Money.MAX_CENTS);
+        Money one = Money.ofCents(1L);
+        Exception e = assertThrows(WrongAmountException.class, () -> min.subtract(one));
+        assertEquals(AMOUNT_IS_TOO_LARGE, e.getMessage());
+    }
+
+    @Test
+    void testSignum() {
+        assertEquals(1, Money.of(TEN).signum());
+        assertEquals(0, Money.ZERO.signum());
+        assertEquals(-1, Money.of(MINUS_ONE).signum());
+    }
+
+    @Test
+    void testToBigDecimal() {
+        assertEquals(FORMATTED_TEN, Money.of(TEN).toBigDecimal());
+        assertEquals(FORMATTED_TEN_THOUSANDTHS, Money.of(TEN_THOUSANDTHS).toBigDecimal());
+        assertEquals(FORMATTED_ZERO, Money.ZERO.toBigDecimal());
+    }
+
+    @Test
+    void testCompareTo() {
+        assertTrue(Money.of(ONE).compareTo(Money.of(TEN)) < 0);
+        assertEquals(0, Money.of(TEN).compareTo(Money.of(FORMATTED_TEN)));
+        assertTrue(Money.of(TEN).compareTo(Money.of(ONE)) > 0);
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        assertEquals(Money.of(TEN), Money.of(FORMATTED_TEN));
+        assertEquals(Money.of(TEN).hashCode(), Money.of(FORMATTED_TEN).hashCode());
+        assertNotEquals(Money.of(TEN), Money.of(ONE));
+        assertNotEquals(Money.of(TEN), FORMATTED_TEN);
+    }
+
+    @Test
+    void testToString() {
+        assertEquals("10.00", Money.of(TEN).toString());
+        assertEquals("0.01", Money.of(TEN_THOUSANDTHS).toString());
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals("-1.00", Money.of(MINUS_ONE).toString());
+        assertEquals("-0.05", Money.ofCents(-5L).toString());
+        assertEquals("9999999999999.99", Money.ofCents(Money.MAX_CENTS).toString());
+    }
+}
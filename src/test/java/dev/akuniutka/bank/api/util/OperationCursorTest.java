@@ -0,0 +1,81 @@
+package dev.akuniutka.bank.api.util;
+
+import dev.akuniutka.bank.api.entity.Operation;
+import dev.akuniutka.bank.api.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static dev.akuniutka.bank.api.util.ErrorMessage.*;
+
+class OperationCursorTest {
+    private static final Long ID = 1L;
+
+    @Test
+    void testOperationCursorWhenDateIsNull() {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> new OperationCursor(null, ID));
+        assertEquals(CURSOR_DATE_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testOperationCursorWhenIdIsNull() {
+        OffsetDateTime date = OffsetDateTime.now();
+        Exception e = assertThrows(IllegalArgumentException.class, () -> new OperationCursor(date, null));
+        assertEquals(CURSOR_ID_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testOfWhenOperationIsNull() {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> OperationCursor.of(null));
+        assertEquals(OPERATION_IS_NULL, e.getMessage());
+    }
+
+    @Test
+    void testOfWhenOperationIsNotNull() {
+        OffsetDateTime date = OffsetDateTime.now();
+        Operation operation = mock(Operation.class);
+        when(operation.getDate()).thenReturn(date);
+        when(operation.getId()).thenReturn(ID);
+        OperationCursor cursor = OperationCursor.of(operation);
+        assertEquals(date, cursor.getDate());
+        assertEquals(ID, cursor.getId());
+    }
+
+    @Test
+    void testEncodeAndDecode() {
+        OffsetDateTime date = OffsetDateTime.now();
+        OperationCursor cursor = OperationCursor.decode(new OperationCursor(date, ID).encode());
+        assertTrue(date.isEqual(cursor.getDate()));
+        assertEquals(ID, cursor.getId());
+    }
+
+    @Test
+    void testDecodeWhenTokenIsNull() {
+        Exception e = assertThrows(BadRequestException.class, () -> OperationCursor.decode(null));
+        assertEquals(WRONG_CURSOR, e.getMessage());
+    }
+
+    @Test
+    void testDecodeWhenTokenIsNotBase64() {
+        Exception e = assertThrows(BadRequestException.class, () -> OperationCursor.decode("not a cursor"));
+        assertEquals(WRONG_CURSOR, e.getMessage());
+    }
+
+    @Test
+    void testDecodeWhenTokenHasWrongFormat() {
+        String token = Base64.getUrlEncoder().encodeToString("1:2".getBytes(StandardCharsets.UTF_8));
+        Exception e = assertThrows(BadRequestException.class, () -> OperationCursor.decode(token));
+        assertEquals(WRONG_CURSOR, e.getMessage());
+    }
+
+    @Test
+    void testDecodeWhenTokenHasNonNumericParts() {
+        String token = Base64.getUrlEncoder().encodeToString("a:b:c".getBytes(StandardCharsets.UTF_8));
+        Exception e = assertThrows(BadRequestException.class, () -> OperationCursor.decode(token));
+        assertEquals(WRONG_CURSOR, e.getMessage());
+    }
+}
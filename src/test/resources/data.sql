@@ -40,7 +40,11 @@ VALUES
     (1090, 0),
     (1091, 10.01),
     (1092, 0),
-    (1093, 0);
+    (1093, 0),
+    (1094, 1000),
+    (1095, 1000),
+    (1096, 10),
+    (1097, 0);
 
 INSERT INTO OPERATION (ID, ACCOUNT_ID, TYPE, AMOUNT, DATE)
 VALUES
@@ -76,7 +80,7 @@ VALUES
     (30, 1071, 'P', 1, '2022-04-01'),
     (31, 1072, 'R', 1, '2022-04-01');
 
-INSERT INTO TRANSFER (ID, OUTGOING_TRANSFER_ID, INCOMING_TRANSFER_ID)
+INSERT INTO TRANSFER (ID, OUTGOING_TRANSFER_ID, INCOMING_TRANSFER_ID, DATE)
 VALUES
-    (501, 26, 27),
-    (502, 28, 29);
\ No newline at end of file
+    (501, 26, 27, '2022-02-01'),
+    (502, 28, 29, '2022-03-01');
\ No newline at end of file